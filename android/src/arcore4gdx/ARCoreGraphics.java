@@ -45,11 +45,11 @@ import com.badlogic.gdx.backends.android.surfaceview.ResolutionStrategy;
 import com.google.ar.core.Frame;
 
 
-import java.util.concurrent.atomic.AtomicReference;
-
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
 
+import arcore4gdx.frame.FrameSource;
+import arcore4gdx.frame.LiveFrameSource;
 import arcore4gdx.helper.BackgroundRendererHelper;
 import arcore4gdx.util.ARSessionSupport.ARSessionInterface;
 
@@ -62,8 +62,11 @@ public class ARCoreGraphics extends AndroidGraphics
     // TODO: refactor session to this class
     private Context                     context;
     private BackgroundRendererHelper    mBackgroundRenderer;
-    private AtomicReference<Frame>      mCurrentFrame;
     private ARSessionInterface          m_arSessionInterface;
+    private FrameSource                 m_FrameSource;
+    private boolean                     m_bFrameAcquired;       // update() already called in this render loop
+    private boolean                     m_bFrameAvailable;
+    private int                         m_iDisplayRotation      = Surface.ROTATION_0;
 
     /*
      *
@@ -84,7 +87,7 @@ public class ARCoreGraphics extends AndroidGraphics
         }
 
         mBackgroundRenderer     = new BackgroundRendererHelper();
-        mCurrentFrame           = new AtomicReference<>(null);
+        m_FrameSource           = new LiveFrameSource(m_arSessionInterface);
     }
 
     /*
@@ -108,10 +111,8 @@ public class ARCoreGraphics extends AndroidGraphics
             rotation = mgr.getDefaultDisplay().getRotation();
         }
 
-        if(m_arSessionInterface != null)
-        {
-            m_arSessionInterface.getSessionSupport().setDisplayGeometry( rotation, width, height );
-        }
+        m_iDisplayRotation = rotation;
+        m_FrameSource.setDisplayGeometry( rotation, width, height );
     }
 
     /*
@@ -121,11 +122,8 @@ public class ARCoreGraphics extends AndroidGraphics
     public void onSurfaceCreated(GL10 gl, EGLConfig config)
     {
         super.onSurfaceCreated(gl, config);
-        mBackgroundRenderer.createOnGlThread(context);
-        if(m_arSessionInterface != null)
-        {
-            m_arSessionInterface.getSessionSupport().setCameraTextureName( mBackgroundRenderer.getTextureId() );
-        }
+        mBackgroundRenderer.createOnGlThread();
+        m_FrameSource.setCameraTextureName( mBackgroundRenderer.getTextureId() );
     }
 
     /*
@@ -135,7 +133,7 @@ public class ARCoreGraphics extends AndroidGraphics
     public void onDrawFrame(GL10 gl)
     {
         super.onDrawFrame(gl);
-        mCurrentFrame.set(null);
+        m_bFrameAcquired = false;
     }
 
     /*
@@ -149,21 +147,68 @@ public class ARCoreGraphics extends AndroidGraphics
     /*
      *
      */
-    public float[] getBackgroundVertices(Frame frame)
+    public BackgroundRendererHelper getBackgroundRendererHelper()
     {
-        return mBackgroundRenderer.getVertices(frame);
+        return mBackgroundRenderer;
     }
 
     /**
-     * Returns the current ARCore frame.  This is reset at the end of the render loop.
+     * Replaces the source of the frame data, i.e. with a RecordingFrameSource wrapping the
+     * current one. Must be called on the GL thread.
      */
-    public Frame getCurrentFrame()
+    public void setFrameSource(FrameSource frameSource)
+    {
+        m_FrameSource       = frameSource;
+        m_bFrameAcquired    = false;
+    }
+
+    /**
+     * Display rotation last passed to the frame source, i.e. for a RecordingFrameSource
+     * wrapping it.
+     */
+    public int getDisplayRotation()
+    {
+        return m_iDisplayRotation;
+    }
+
+    /*
+     *
+     */
+    public FrameSource getFrameSource()
     {
-        if((mCurrentFrame.get()) == null && (m_arSessionInterface != null))
+        return m_FrameSource;
+    }
+
+    /**
+     * Advances the frame source once per render loop and returns it, or null if it has no frame.
+     */
+    public FrameSource acquireFrame()
+    {
+        if(!m_bFrameAcquired)
         {
-            mCurrentFrame.compareAndSet(null, m_arSessionInterface.getSessionSupport().update());
+            m_bFrameAvailable   = m_FrameSource.update();
+            m_bFrameAcquired    = true;
         }
 
-        return mCurrentFrame.get();
+        return m_bFrameAvailable ? m_FrameSource : null;
+    }
+
+    /**
+     * Forgets the frame acquired in this render loop, the next acquireFrame() advances the
+     * frame source again. Used when a frame was polled outside of the render loop and not drawn.
+     */
+    public void releaseFrame()
+    {
+        m_bFrameAcquired = false;
+    }
+
+    /**
+     * Returns the current ARCore frame.  This is reset at the end of the render loop.
+     */
+    public Frame getCurrentFrame()
+    {
+        FrameSource frameSource = acquireFrame();
+
+        return (frameSource != null) ? frameSource.getFrame() : null;
     }
 }
\ No newline at end of file
@@ -38,60 +38,99 @@
 package arcore4gdx;
 
 
+import android.opengl.GLSurfaceView;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 
-import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.PerspectiveCamera;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
-import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.math.CameraMath;
+import com.funtech.gdxar.scene.CameraScene;
+import com.funtech.gdxar.scene.PlaneHit;
+import com.funtech.gdxar.scene.PoseTable;
+import com.google.ar.core.Config;
 import com.google.ar.core.Frame;
+import com.google.ar.core.Plane;
 import com.google.ar.core.Session;
+import com.google.ar.core.TrackingState;
+
+import java.nio.FloatBuffer;
+
+import arcore4gdx.frame.FrameSnapshot;
+import arcore4gdx.helper.BackgroundRendererHelper;
+import arcore4gdx.util.ARSessionSupport;
 
 /**
  * ARCoreScene is the base class for the scene to render. Application specific scenes extend this
  * class to handle input and create and manipulate models which are rendered in a batch at the end
  * of each frame.
  *
- * <p>This class handles the basic boilerplate of rendering the background image, moving the camera
- * based on the ARCore frame pose, and basic batch rendering.
+ * <p>This class handles the ARCore side of CameraScene: the camera image of the session, the
+ * detected planes and feature points, the anchors, and the frames of ARCoreGraphics. The frame
+ * update and the passes are those of CameraScene, which runs the same on a replayed session.
+ *
+ * <p>A frame is drawn by a graph of passes, and a pass whose output would not be visible is not
+ * run. render(Frame, ModelBatch) belongs to the opaque pass, so it is skipped for as long as
+ * the pass is culled, i.e. while the fade overlay is opaque. It should only draw: the logic
+ * which has to run every frame ( input, animation, the scene registry ) goes in update(),
+ * which is called for every camera frame whether it is drawn or not. What needs the ARCore
+ * frame, i.e. creating anchors from Frame.hitTest(), pauses with the pass, hitTest() without
+ * a frame tests the tracked planes from anywhere. renderHud() is always called.
  */
-public abstract class ARCoreScene extends ApplicationAdapter
+public abstract class ARCoreScene extends CameraScene
 {
-    private final float                 VALUE_TRANSPARENT       = 0.0f;
-    private final float                 VALUE_OPAQUE            = 1.0f;
-    private final float                 VALUE_FADE_IN           = -0.05f;
-    private final float                 VALUE_FADE_OUT          = 0.10f;
-
-    // The camera which is controlled by the ARCore pose.
-    private     PerspectiveCamera       camera;
     // Renderer for the camera image which is the background for the ARCore app.
     private     BackgroundRenderer      backgroundRenderer;
-    // Drawing batch.
-    private     ModelBatch              modelBatch;
-    private     boolean                 m_bRenderAR;
-    private     boolean                 m_bRenderTransition;
-    private     Color                   m_cOverlayColor         = new Color(0x000000FF);
-    private     float                   m_fOverlayAlpha         = VALUE_OPAQUE;
-    private     float                   m_fTransitionVal        = VALUE_FADE_IN;
+    // Feature points, drawn by the background renderer, null until enabled.
+    private     PointShader             m_PointShader;
+    private     PointCloudRenderer      m_PointCloudRenderer;
+    // Detected planes, updated from the frame and drawn after the models, null until enabled.
+    private     PlaneRenderer           m_PlaneRenderer;
+    // Tracked planes for the hit tests, updated with the plane renderer.
+    private final PlaneHitTester        m_PlaneHitTester        = new PlaneHitTester();
+    private final float                 m_fPlaneModel[]         = new float[CameraMath.MATRIX_SIZE];
+    // Camera data of the current frame with its ARCore frame, the snapshot of CameraScene.
+    private final FrameSnapshot         m_FrameSnapshot;
+    // Anchors of the scene, their poses refreshed once per frame for the scene registry.
+    private final AnchorRegistry        m_AnchorRegistry        = new AnchorRegistry();
+    // Draws only when the camera image or the scene changed, null when rendering continuously.
+    private     FramePacer              m_FramePacer;
+    private     boolean                 m_bRenderPlanes;
+    private     boolean                 m_bRenderPointCloud;
 
-    protected   int                     m_iScreenWidth;
-    protected   int                     m_iScreenHeight;
+    /*
+     *
+     */
+    protected ARCoreScene()
+    {
+        this(new FrameSnapshot());
+    }
+
+    /*
+     *
+     */
+    private ARCoreScene(FrameSnapshot frameSnapshot)
+    {
+        super(frameSnapshot);
 
-    protected   OrthographicCamera      m_OrthoCamera;
-    protected   ShapeRenderer           m_ShapeRenderer;
-    protected   SpriteBatch             m_SpriteBatch;
+        m_FrameSnapshot = frameSnapshot;
+    }
 
     /**
      * Called to render the scene and provide the current ARCore frame.
      *
-     * @param frame - The ARCore frame.
+     * @param frame - The ARCore frame. This is null when the frame data is replayed. The camera
+     *                data of the frame should be read from getFrameSnapshot() rather than
+     *                from the frame.
+     *
+     * <p>It is part of the opaque pass, which is not run while nothing of it would be visible,
+     * i.e. under the fade overlay at full opacity. It is then not called at all, so it should
+     * only draw and leave the state of the scene to update().
      */
     protected abstract void render(Frame frame, ModelBatch modelBatch);
 
@@ -101,56 +140,40 @@ public abstract class ARCoreScene extends ApplicationAdapter
     @Override
     public void create()
     {
-        m_iScreenWidth      = Gdx.graphics.getWidth();
-        m_iScreenHeight     = Gdx.graphics.getHeight();
-
-        camera              = new PerspectiveCamera(67, m_iScreenWidth, m_iScreenHeight);
-        camera.position.set(0, 1.6f, 0f);
-        camera.lookAt(0, 0, 1f);
-        camera.near         = .01f;
-        camera.far          = 30f;
-        camera.update();
+        super.create();
 
-        m_bRenderAR         = false;
-        m_ShapeRenderer     = new ShapeRenderer();
-        m_SpriteBatch       = new SpriteBatch();
-
-        backgroundRenderer  = new BackgroundRenderer();
+        BackgroundRendererHelper backgroundHelper;
+        if(Gdx.graphics instanceof ARCoreGraphics)
+        {
+            backgroundHelper = ((ARCoreGraphics) Gdx.graphics).getBackgroundRendererHelper();
+        }
+        else
+        {
+            // running without ARCoreGraphics, own the background texture
+            backgroundHelper = new BackgroundRendererHelper();
+            backgroundHelper.createOnGlThread();
+        }
 
-        // TODO(wilkinsonclay): make a better shader provider.
-        modelBatch          = new ModelBatch(createShaderProvider());
+        backgroundRenderer = new BackgroundRenderer(backgroundHelper, getStateTracker());
     }
 
     /*
      *
      */
     @Override
-    public void resize(int width, int height)
+    public void resume()
     {
-        m_iScreenWidth      = width;
-        m_iScreenHeight     = height;
-
-        camera              = null;
-        camera              = new PerspectiveCamera(67, m_iScreenWidth, m_iScreenHeight);
-        camera.position.set(0, 1.6f, 0f);
-        camera.lookAt(0, 0, 1f);
-        camera.near         = .01f;
-        camera.far          = 30f;
-        camera.update();
-
-        m_OrthoCamera       = null;
-        m_OrthoCamera       = new OrthographicCamera(m_iScreenWidth, m_iScreenHeight);
-        m_OrthoCamera.translate(m_iScreenWidth / 2, m_iScreenHeight / 2);
-        m_OrthoCamera.update();
-
-        if(m_SpriteBatch != null)
+        super.resume();
+
+        // the context may have been recreated while paused
+        if(m_PointCloudRenderer != null)
         {
-            m_SpriteBatch.setProjectionMatrix( m_OrthoCamera.combined );
+            m_PointCloudRenderer.invalidate();
         }
 
-        if(m_ShapeRenderer != null)
+        if(m_PlaneRenderer != null)
         {
-            m_ShapeRenderer.setProjectionMatrix( m_OrthoCamera.combined );
+            m_PlaneRenderer.invalidate();
         }
     }
 
@@ -158,146 +181,285 @@ public abstract class ARCoreScene extends ApplicationAdapter
      *
      */
     @Override
-    public void render()
+    public void dispose()
     {
-        // Boiler plater rendering code goes here, the intent is that this sets up the scene object,
-        // Application specific rendering should be done from render(Frame).
+        setRenderOnDemand(false);
 
-        ARCoreGraphics arCoreGraphics   = ( ARCoreGraphics ) Gdx.graphics;
-        Frame frame                     = (m_bRenderAR || m_bRenderTransition) ? arCoreGraphics.getCurrentFrame() : null;
+        if(m_PointCloudRenderer != null)
+        {
+            m_PointCloudRenderer.dispose();
+            m_PointShader.dispose();
+            m_PointCloudRenderer    = null;
+            m_PointShader           = null;
+        }
 
-        //Gdx.gl.glClearColor(Color.BLACK.r, Color.BLACK.g, Color.BLACK.b, Color.BLACK.a);
-        //Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        if(m_PlaneRenderer != null)
+        {
+            m_PlaneRenderer.dispose();
+            m_PlaneRenderer = null;
+        }
 
-        // Frame can be null when initializing or if ARCore is not supported on this device.
-        if(frame != null)
+        super.dispose();
+    }
+
+
+
+    /********************************************************************************
+     *                            PROTECTED                                         *
+     ********************************************************************************/
+
+    /**
+     * Camera data of the current frame. Valid only during render().
+     */
+    protected FrameSnapshot getFrameSnapshot()
+    {
+        return m_FrameSnapshot;
+    }
+
+    /**
+     * Source of the camera data for the current frame, the one of ARCoreGraphics unless
+     * another one was set. Valid only during render().
+     */
+    @Override
+    protected CameraFrameSource getFrameSource()
+    {
+        CameraFrameSource frameSource = super.getFrameSource();
+
+        if((frameSource == null) && (Gdx.graphics instanceof ARCoreGraphics))
         {
-            backgroundRenderer.render(frame);
-
-            Gdx.gl.glDepthMask(true);
-            Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
-            Gdx.gl.glEnable(GL20.GL_CULL_FACE);
-
-            // Move the camera, and then render.
-            float vm[] = new float[16];
-
-            frame.getCamera().getProjectionMatrix(vm, 0, camera.near, camera.far);
-            camera.projection.set(vm);
-            frame.getCamera().getViewMatrix(vm, 0);
-            camera.view.set(vm);
-            camera.combined.set(camera.projection);
-            Matrix4.mul(camera.combined.val, camera.view.val);
-
-            // Here is the rendering batch.
-            modelBatch.begin(camera);
-            render(frame, modelBatch);
-            modelBatch.end();
+            frameSource = ((ARCoreGraphics) Gdx.graphics).getFrameSource();
         }
 
-        if(m_bRenderTransition)
+        return frameSource;
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected CameraFrameSource acquireDeviceFrame()
+    {
+        return (Gdx.graphics instanceof ARCoreGraphics) ? ((ARCoreGraphics) Gdx.graphics).acquireFrame() : null;
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected void releaseDeviceFrame()
+    {
+        if(Gdx.graphics instanceof ARCoreGraphics)
         {
-            m_fOverlayAlpha += m_fTransitionVal;
+            ((ARCoreGraphics) Gdx.graphics).releaseFrame();
+        }
+    }
 
-            if(m_fOverlayAlpha > VALUE_OPAQUE)
-            {
-                m_fOverlayAlpha     = VALUE_OPAQUE;
-                m_bRenderTransition = false;
-            }
-            else
-            if(m_fOverlayAlpha < VALUE_TRANSPARENT)
+    /**
+     * Point cloud, planes and anchors of the ARCore frame. When replaying there is no frame,
+     * they stay as they were.
+     */
+    @Override
+    protected void updateTracking(CameraFrameSource frameSource)
+    {
+        Frame frame = m_FrameSnapshot.getFrame();
+
+        if(frame != null)
+        {
+            if(m_bRenderPointCloud)
             {
-                m_fOverlayAlpha     = VALUE_TRANSPARENT;
-                m_bRenderTransition = false;
+                m_PointCloudRenderer.update(frame);
             }
+
+            updatePlanes(frame);
+            m_AnchorRegistry.refresh(frame);
         }
+    }
 
-        Gdx.graphics.getGL20().glEnable( GL20.GL_BLEND );
-        Gdx.gl.glBlendFunc( GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA );
-        m_ShapeRenderer.begin( ShapeRenderer.ShapeType.Filled );
-        m_ShapeRenderer.setColor( m_cOverlayColor.r, m_cOverlayColor.g, m_cOverlayColor.b, m_fOverlayAlpha );
-        m_ShapeRenderer.rect( 0, 0, m_iScreenWidth, m_iScreenHeight );
-        m_ShapeRenderer.end();
+    /*
+     *
+     */
+    @Override
+    protected PoseTable getTrackedPoses()
+    {
+        return m_AnchorRegistry.getPoses();
     }
 
     /*
      *
      */
     @Override
-    public void pause()
+    protected void registerResources(GpuResourceRegistry registry)
     {
-        super.pause();
+        super.registerResources(registry);
+
+        backgroundRenderer.registerResources(registry);
     }
 
     /*
      *
      */
     @Override
-    public void resume()
+    protected void renderBackground(CameraFrameSource frameSource, Camera camera)
     {
-        super.resume();
+        backgroundRenderer.render(frameSource, m_FrameSnapshot, camera);
     }
 
     /*
      *
      */
     @Override
-    public void dispose()
+    protected void renderModels(ModelBatch modelBatch)
     {
-        super.dispose();
+        render(m_FrameSnapshot.getFrame(), modelBatch);
     }
 
     /*
      *
      */
-    public void enableAR(boolean isEnable)
+    @Override
+    protected boolean hasTransparentContent()
+    {
+        return m_bRenderPlanes;
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected void renderTransparent(Camera camera)
+    {
+        m_PlaneRenderer.render(camera);
+    }
+
+    /**
+     * Draws a frame only when ARCore has a camera image newer than the one presented, the scene
+     * asked for it ( requestRedraw(), input, Gdx.app.postRunnable() ), a fade is running or
+     * assets are loading. Otherwise nothing is drawn, the last frame stays on the screen. The
+     * session is switched to the LATEST_CAMERA_IMAGE update mode meanwhile.
+     */
+    protected void setRenderOnDemand(boolean isEnable)
     {
-        if(m_bRenderAR != isEnable) // if current AR state not same, do the fade transition
+        if(isEnable && (m_FramePacer == null))
         {
-            if(m_bRenderAR)
-            {
-                m_fTransitionVal    = VALUE_FADE_OUT;
-            }
-            else
+            View view = getView();
+
+            if(!(view instanceof GLSurfaceView))
             {
-                m_fTransitionVal    = VALUE_FADE_IN;
+                throw new GdxRuntimeException("Rendering on demand needs a GLSurfaceView");
             }
 
-            m_bRenderTransition     = true;
+            m_FramePacer = new FramePacer((GLSurfaceView)view, new FramePacer.Listener()
+            {
+                /*
+                 *
+                 */
+                @Override
+                public boolean pollRedraw()
+                {
+                    return ARCoreScene.this.pollRedraw();
+                }
+            });
+
+            setUpdateMode(Config.UpdateMode.LATEST_CAMERA_IMAGE);
+            m_FramePacer.start();
         }
+        else
+        if(!isEnable && (m_FramePacer != null))
+        {
+            m_FramePacer.stop();
+            m_FramePacer = null;
+            setUpdateMode(Config.UpdateMode.BLOCKING);
+        }
+    }
 
-        m_bRenderAR = isEnable;
+    /**
+     * The frame pacer while rendering on demand, null otherwise.
+     */
+    protected FramePacer getFramePacer()
+    {
+        return m_FramePacer;
     }
 
-    /*
-     *
+    /**
+     * Anchors created by the scene should be added here, an object of the scene registry
+     * attached to the handle of an anchor then follows it.
      */
-    public boolean isAREnabled()
+    protected AnchorRegistry getAnchorRegistry()
     {
-        return m_bRenderAR;
+        return m_AnchorRegistry;
     }
 
+    /**
+     * Draws the detected planes after the models, they are not drawn by default. The plane
+     * renderer is created when first enabled, on the GL thread.
+     */
+    protected void setPlaneRenderingEnabled(boolean isEnable)
+    {
+        m_bRenderPlanes = isEnable;
 
+        if(isEnable)
+        {
+            getPlaneRenderer();
+        }
+        else
+        if(m_PlaneRenderer != null)
+        {
+            m_PlaneRenderer.clear();
+        }
+    }
 
-    /********************************************************************************
-     *                            PROTECTED                                         *
-     ********************************************************************************/
+    /**
+     * Draws the ARCore feature points over the camera image, they are not drawn by default.
+     * The point cloud renderer is created when first enabled, on the GL thread.
+     */
+    protected void setPointCloudRenderingEnabled(boolean isEnable)
+    {
+        m_bRenderPointCloud = isEnable;
+        backgroundRenderer.setPointCloud(isEnable ? getPointCloudRenderer() : null);
+    }
 
     /**
-     * Camera controlled by ARCore. This is used to determine where the user is looking.
+     * Created on the first call, which must be on the GL thread.
      */
-    protected PerspectiveCamera getCamera()
+    protected PointCloudRenderer getPointCloudRenderer()
     {
-        return camera;
+        if(m_PointCloudRenderer == null)
+        {
+            m_PointShader           = new PointShader();
+            m_PointCloudRenderer    = new PointCloudRenderer(m_PointShader);
+
+            m_PointCloudRenderer.setResourceRegistry(getGpuResources());
+            getGpuResources().registerShader("PointShader", m_PointShader.getProgram());
+        }
+
+        return m_PointCloudRenderer;
     }
 
     /**
-     * Shader provider for creating shaders that are used by custom materials. It is protected access
-     * to allow overriding to inject other shaders.
+     * Hit test of a screen point against the tracked planes, without the JNI call of
+     * Frame.hitTest() unless no plane is hit and a feature point is looked for.
+     *
+     * @param frame - frame of render(Frame, ModelBatch) to fall back on the feature points,
+     *                null to test the planes only
+     * @param hit   - reused by the caller, key is the Plane or the Point hit
      */
-    protected ShaderProvider createShaderProvider()
+    protected boolean hitTest(Frame frame, float screenX, float screenY, PlaneHit hit)
     {
-        return new SimpleShaderProvider();
+        return m_PlaneHitTester.hitTest(frame, getCamera(), screenX, screenY, hit);
+    }
+
+    /**
+     * Created on the first call, which must be on the GL thread.
+     */
+    protected PlaneRenderer getPlaneRenderer()
+    {
+        if(m_PlaneRenderer == null)
+        {
+            m_PlaneRenderer = new PlaneRenderer(getStateTracker());
+            m_PlaneRenderer.setResourceRegistry(getGpuResources());
+        }
+
+        return m_PlaneRenderer;
     }
 
     /**
@@ -320,4 +482,70 @@ public abstract class ARCoreScene extends ApplicationAdapter
     /********************************************************************************
      *                              PRIVATE                                         *
      ********************************************************************************/
-}
\ No newline at end of file
+
+    /**
+     * Passes the planes ARCore updated in the frame to the plane renderer and the hit tester,
+     * the polygon and the pose are fetched once for both.
+     */
+    private void updatePlanes(Frame frame)
+    {
+        for(Plane plane : frame.getUpdatedTrackables(Plane.class))
+        {
+            TrackingState state = plane.getTrackingState();
+
+            if((state == TrackingState.STOPPED) || (plane.getSubsumedBy() != null))
+            {
+                if(m_PlaneRenderer != null)
+                {
+                    m_PlaneRenderer.remove(plane);
+                }
+
+                m_PlaneHitTester.remove(plane);
+            }
+            else
+            if(state == TrackingState.TRACKING)
+            {
+                FloatBuffer polygon = plane.getPolygon();
+
+                plane.getCenterPose().toMatrix(m_fPlaneModel, 0);
+
+                if(m_bRenderPlanes)
+                {
+                    m_PlaneRenderer.update(plane, polygon, m_fPlaneModel);
+                }
+
+                m_PlaneHitTester.update(plane, polygon, m_fPlaneModel);
+            }
+        }
+    }
+
+    /**
+     * The session is configured on the UI thread, where it is created.
+     */
+    private void setUpdateMode(final Config.UpdateMode updateMode)
+    {
+        if(!(Gdx.app instanceof ARSessionSupport.ARSessionInterface))
+        {
+            return;
+        }
+
+        final ARSessionSupport.ARSessionInterface sessionInterface = (ARSessionSupport.ARSessionInterface) Gdx.app;
+
+        new Handler(Looper.getMainLooper()).post(new Runnable()
+        {
+            /*
+             *
+             */
+            @Override
+            public void run()
+            {
+                ARSessionSupport sessionSupport = sessionInterface.getSessionSupport();
+
+                if(sessionSupport != null)
+                {
+                    sessionSupport.setUpdateMode(updateMode);
+                }
+            }
+        });
+    }
+}
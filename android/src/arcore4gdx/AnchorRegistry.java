@@ -0,0 +1,194 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         AnchorRegistry.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Anchors of the scene with their poses kept in a PoseTable
+ ** PREMISES:       GL thread only, refresh() is called by ARCoreScene once per frame
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.funtech.gdxar.scene.PoseTable;
+import com.google.ar.core.Anchor;
+import com.google.ar.core.Frame;
+import com.google.ar.core.Pose;
+import com.google.ar.core.TrackingState;
+
+/**
+ * The scene refers to its anchors by the handles of this registry. Their translations,
+ * rotations and model matrices are in the flat arrays of a PoseTable, so a consumer reads
+ * floats instead of calling anchor.getPose() and pose.toMatrix() for each anchor every frame.
+ *
+ * <p>refresh() only goes through the anchors ARCore updated in the frame. The pose of an
+ * anchor is read when it is tracking, and its matrix is computed only if the pose moved.
+ * SceneRegistry.syncPoses() then updates the objects attached to the moved anchors.
+ */
+public class AnchorRegistry
+{
+    private final PoseTable             m_Poses                 = new PoseTable();
+    private final ObjectIntMap<Anchor>  m_Handles               = new ObjectIntMap<Anchor>();
+    private Anchor                      m_Anchors[]             = new Anchor[64];
+    private int                         m_iChanged;
+
+    /**
+     * Registers an anchor, its current pose is read.
+     *
+     * @return handle of the anchor, the same one if it was already registered
+     */
+    public int add(Anchor anchor)
+    {
+        int handle = m_Handles.get(anchor, PoseTable.INVALID_HANDLE);
+
+        if(handle != PoseTable.INVALID_HANDLE)
+        {
+            return handle;
+        }
+
+        handle = m_Poses.allocate();
+
+        int index = PoseTable.indexOf(handle);
+
+        if(index >= m_Anchors.length)
+        {
+            Anchor anchors[] = new Anchor[Math.max(index + 1, m_Anchors.length * 2)];
+            System.arraycopy(m_Anchors, 0, anchors, 0, m_Anchors.length);
+            m_Anchors = anchors;
+        }
+
+        m_Anchors[index] = anchor;
+        m_Handles.put(anchor, handle);
+
+        refresh(handle, anchor);
+
+        return handle;
+    }
+
+    /**
+     * Unregisters the anchor of the handle, the handle is no longer valid.
+     *
+     * @param isDetach - also detach the anchor from the session
+     */
+    public void remove(int handle, boolean isDetach)
+    {
+        if(!m_Poses.isValid(handle))
+        {
+            return;
+        }
+
+        int     index   = PoseTable.indexOf(handle);
+        Anchor  anchor  = m_Anchors[index];
+
+        m_Anchors[index] = null;
+        m_Handles.remove(anchor, PoseTable.INVALID_HANDLE);
+        m_Poses.free(handle);
+
+        if(isDetach)
+        {
+            anchor.detach();
+        }
+    }
+
+    /**
+     * Reads the poses of the registered anchors ARCore updated in the frame.
+     *
+     * @return anchors whose pose changed
+     */
+    public int refresh(Frame frame)
+    {
+        m_iChanged = 0;
+
+        if(m_Handles.size == 0)
+        {
+            return 0;
+        }
+
+        for(Anchor anchor : frame.getUpdatedAnchors())
+        {
+            int handle = m_Handles.get(anchor, PoseTable.INVALID_HANDLE);
+
+            if((handle != PoseTable.INVALID_HANDLE) && refresh(handle, anchor))
+            {
+                m_iChanged++;
+            }
+        }
+
+        return m_iChanged;
+    }
+
+    /*
+     *
+     */
+    public Anchor getAnchor(int handle)
+    {
+        return m_Poses.isValid(handle) ? m_Anchors[PoseTable.indexOf(handle)] : null;
+    }
+
+    /**
+     * Poses and matrices of the anchors, indexed by PoseTable.indexOf(handle).
+     */
+    public PoseTable getPoses()
+    {
+        return m_Poses;
+    }
+
+    /*
+     *
+     */
+    public int getCount()
+    {
+        return m_Poses.getCount();
+    }
+
+    /**
+     * Anchors whose pose changed during the last refresh().
+     */
+    public int getChangedCount()
+    {
+        return m_iChanged;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * The pose keeps its last value while the anchor is not tracking.
+     */
+    private boolean refresh(int handle, Anchor anchor)
+    {
+        boolean isTracking = (anchor.getTrackingState() == TrackingState.TRACKING);
+
+        m_Poses.setTracking(handle, isTracking);
+
+        if(!isTracking)
+        {
+            return false;
+        }
+
+        Pose pose = anchor.getPose();
+
+        return m_Poses.setPose(handle, pose.tx(), pose.ty(), pose.tz(), pose.qx(), pose.qy(), pose.qz(), pose.qw());
+    }
+}
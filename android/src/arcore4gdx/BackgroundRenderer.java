@@ -31,16 +31,18 @@
 package arcore4gdx;
 
 import android.opengl.GLES11Ext;
-import android.opengl.GLES20;
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
-import com.google.ar.core.Frame;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.IntBuffer;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.graphics.GLStateTracker;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import java.nio.FloatBuffer;
+
+import arcore4gdx.helper.BackgroundRendererHelper;
 
 /**
  * Background rendering for an ARCore activing. This renders the camera texture in the backrgound of
@@ -48,8 +50,11 @@ import java.nio.IntBuffer;
  */
 class BackgroundRenderer
 {
-    private ShaderProgram       shader;
-    private Mesh                mesh;
+    private ShaderProgram               shader;
+    private Mesh                        mesh;
+    private BackgroundRendererHelper    helper;
+    private GLStateTracker              stateTracker;
+    private PointCloudRenderer          pointCloud;
 
     // The Shader class in GDX is aware of some common uniform and attribute names.
     // These are used to make setting the values when drawing "automatic".
@@ -81,52 +86,76 @@ class BackgroundRenderer
     /*
      *
      */
-    public BackgroundRenderer()
+    public BackgroundRenderer(BackgroundRendererHelper backgroundHelper, GLStateTracker glStateTracker)
     {
-        shader  = new ShaderProgram(vertexShaderCode, fragmentShaderCode);
-        mesh    = new Mesh(true, 4, 0, VertexAttribute.Position(), VertexAttribute.TexCoords(0));
+        helper          = backgroundHelper;
+        stateTracker    = glStateTracker;
+        shader          = new ShaderProgram(vertexShaderCode, fragmentShaderCode);
+        mesh            = new Mesh(true, 4, 0, VertexAttribute.Position(), VertexAttribute.TexCoords(0));
+    }
+
+    /**
+     * Point cloud drawn over the camera image, before the models, null for none.
+     */
+    public void setPointCloud(PointCloudRenderer pointCloudRenderer)
+    {
+        pointCloud = pointCloudRenderer;
+    }
+
+    /**
+     * Counts the shader and the quad in the registry. The camera texture is owned by ARCore
+     * and not counted.
+     */
+    public void registerResources(GpuResourceRegistry registry)
+    {
+        registry.registerShader("BackgroundRenderer.shader", shader);
+        registry.registerMesh("BackgroundRenderer.quad", mesh);
     }
 
     /*
      *
      */
-    public void render(Frame frame)
+    public void render(CameraFrameSource frameSource, CameraSnapshot frameSnapshot, Camera camera)
     {
-        if (mesh.getNumVertices() == 0 || frame.hasDisplayGeometryChanged())
+        boolean isFirstWrite = (mesh.getNumVertices() == 0);
+
+        if(isFirstWrite || frameSnapshot.hasDisplayGeometryChanged())
         {
-            mesh.setVertices(((ARCoreGraphics) Gdx.graphics).getBackgroundVertices(frame));
-        }
+            // getVerticesBuffer() flags the buffer for upload, so only ask for it when writing
+            FloatBuffer vertices = mesh.getVerticesBuffer();
+
+            if(isFirstWrite)
+            {
+                vertices.limit(BackgroundRendererHelper.NUMBER_OF_VERTICES * BackgroundRendererHelper.VERTEX_SIZE);
+            }
 
-        // Save the state of the glContext before drawing.
-        GL20 gl             = Gdx.gl;
-        int[] saveFlags     = new int[3];
-        IntBuffer intbuf    = ByteBuffer.allocateDirect(16 * Integer.SIZE / 8)
-                                        .order(ByteOrder.nativeOrder())
-                                        .asIntBuffer();
+            helper.writeVertices(frameSource, vertices, isFirstWrite);
+        }
 
-        gl.glGetIntegerv(GL20.GL_DEPTH_TEST, intbuf);
-        saveFlags[0]        = intbuf.get(0);
-        gl.glGetIntegerv(GL20.GL_DEPTH_WRITEMASK, intbuf);
-        saveFlags[1]        = intbuf.get(0);
-        gl.glGetIntegerv(GL20.GL_DEPTH_FUNC, intbuf);
-        saveFlags[2]        = intbuf.get(0);
+        // Save the state of the glContext before drawing. The saved values come from the
+        // shadow state, reading them back with glGet would stall the GL pipeline.
+        boolean isDepthTest = stateTracker.isDepthTestEnabled();
+        boolean isDepthMask = stateTracker.getDepthMask();
 
         // Disable depth, bind the texture and render it on the mesh.
-        gl.glDisable(GLES20.GL_DEPTH_TEST);
-        gl.glDepthMask(false);
+        stateTracker.setDepthTest(false);
+        stateTracker.setDepthMask(false);
 
-        GLES20.glBindTexture( GLES11Ext.GL_TEXTURE_EXTERNAL_OES, ((ARCoreGraphics) Gdx.graphics).getBackgroundTexture() );
+        stateTracker.setActiveTexture(0);
+        stateTracker.bindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, helper.getTextureId());
         shader.begin();
         mesh.render(shader, GL20.GL_TRIANGLE_STRIP);
         shader.end();
 
-        // Restore the state of the context.
-        if(saveFlags[0] == GL20.GL_TRUE)
+        // The points lie on the camera image, drawn while the depth is still off so the
+        // models drawn next cover them.
+        if(pointCloud != null)
         {
-            gl.glEnable(GL20.GL_DEPTH_TEST);
+            pointCloud.draw(stateTracker, camera.combined);
         }
 
-        gl.glDepthMask(saveFlags[1] == GL20.GL_TRUE);
-        gl.glDepthFunc(saveFlags[2]);
+        // Restore the state of the context. The depth func is not touched while drawing.
+        stateTracker.setDepthTest(isDepthTest);
+        stateTracker.setDepthMask(isDepthMask);
     }
 }
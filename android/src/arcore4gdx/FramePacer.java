@@ -0,0 +1,197 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FramePacer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Draws a frame only when the camera image or the scene changed, instead
+ **                 of at every vsync
+ ** PREMISES:       start() / stop() are called on the GL thread
+ ** REMARKS:        The polls run as GL thread events, which are not followed by a buffer
+ **                 swap, so a skipped frame leaves the last presented one on the screen
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import android.opengl.GLSurfaceView;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import com.badlogic.gdx.Gdx;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Switches the graphics to non continuous rendering and, at each vsync of the Choreographer,
+ * queues a poll on the GL thread. The listener then updates the ARCore session and tells
+ * whether there is something new to draw, in which case the rendering of one frame is
+ * requested. Input events and Gdx.app.postRunnable() request frames as well.
+ *
+ * <p>The session should run with the LATEST_CAMERA_IMAGE update mode so that a poll does
+ * not block the GL thread until the next camera image.
+ */
+public class FramePacer implements Choreographer.FrameCallback, Runnable
+{
+    /**
+     * Decides whether to draw, called on the GL thread.
+     */
+    public interface Listener
+    {
+        /**
+         * @return true to draw a frame now
+         */
+        boolean pollRedraw();
+    }
+
+    private final GLSurfaceView         m_View;
+    private final Listener              m_Listener;
+    private final Handler               m_MainHandler           = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean         m_bQueued               = new AtomicBoolean(false);
+    private final AtomicLong            m_lPollCount            = new AtomicLong();
+    private final AtomicLong            m_lDrawCount            = new AtomicLong();
+    private volatile boolean            m_bRunning;
+
+    // the Choreographer is the one of the thread, the callbacks are registered on the main one
+    private final Runnable              m_StartRunnable         = new Runnable()
+    {
+        /*
+         *
+         */
+        @Override
+        public void run()
+        {
+            Choreographer.getInstance().removeFrameCallback(FramePacer.this);
+            Choreographer.getInstance().postFrameCallback(FramePacer.this);
+        }
+    };
+
+    private final Runnable              m_StopRunnable          = new Runnable()
+    {
+        /*
+         *
+         */
+        @Override
+        public void run()
+        {
+            Choreographer.getInstance().removeFrameCallback(FramePacer.this);
+        }
+    };
+
+    /**
+     * @param view - the view of the graphics, i.e. ARCoreGraphics.getView()
+     */
+    public FramePacer(GLSurfaceView view, Listener listener)
+    {
+        m_View      = view;
+        m_Listener  = listener;
+    }
+
+    /*
+     *
+     */
+    public void start()
+    {
+        if(!m_bRunning)
+        {
+            m_bRunning = true;
+            Gdx.graphics.setContinuousRendering(false);
+            m_MainHandler.post(m_StartRunnable);
+        }
+    }
+
+    /**
+     * Back to continuous rendering.
+     */
+    public void stop()
+    {
+        if(m_bRunning)
+        {
+            m_bRunning = false;
+            m_MainHandler.post(m_StopRunnable);
+            Gdx.graphics.setContinuousRendering(true);
+        }
+    }
+
+    /*
+     *
+     */
+    public boolean isRunning()
+    {
+        return m_bRunning;
+    }
+
+    /**
+     * Polls since the start, one per vsync at most.
+     */
+    public long getPollCount()
+    {
+        return m_lPollCount.get();
+    }
+
+    /**
+     * Polls which requested a frame.
+     */
+    public long getDrawCount()
+    {
+        return m_lDrawCount.get();
+    }
+
+    /**
+     * Main thread, at each vsync. A poll is queued unless the previous one did not run yet.
+     */
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        if(!m_bRunning)
+        {
+            return;
+        }
+
+        if(m_bQueued.compareAndSet(false, true))
+        {
+            m_View.queueEvent(this);
+        }
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * GL thread, the poll.
+     */
+    @Override
+    public void run()
+    {
+        m_bQueued.set(false);
+
+        if(!m_bRunning)
+        {
+            return;
+        }
+
+        m_lPollCount.incrementAndGet();
+
+        if(m_Listener.pollRedraw())
+        {
+            m_lDrawCount.incrementAndGet();
+            Gdx.graphics.requestRendering();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneHitTester.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Hit tests against the tracked planes on the CPU
+ ** PREMISES:       GL thread only, the planes are given by ARCoreScene every frame
+ ** REMARKS:        Frame.hitTest() is only called when no plane is hit, for the feature
+ **                 points
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.collision.Ray;
+import com.funtech.gdxar.scene.PlaneBVH;
+import com.funtech.gdxar.scene.PlaneHit;
+import com.google.ar.core.Frame;
+import com.google.ar.core.HitResult;
+import com.google.ar.core.Plane;
+import com.google.ar.core.Point;
+import com.google.ar.core.Pose;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+/**
+ * Replaces Frame.hitTest() for planes, i.e. for a reticle following the screen center every
+ * frame. The planes and their poses are kept in a PlaneBVH, the ray of the screen point comes
+ * from the camera moved by ARCore. A plane hit is the same as the one of ARCore, the nearest
+ * point of a plane polygon on the ray, and costs no JNI call.
+ */
+public class PlaneHitTester
+{
+    private final PlaneBVH              m_Planes                = new PlaneBVH();
+    private final float                 m_fAxis[]               = new float[3];
+
+    /**
+     * Adds or updates a tracked plane.
+     */
+    public void update(Plane plane, FloatBuffer polygon, float model[])
+    {
+        m_Planes.update(plane, polygon, model);
+    }
+
+    /**
+     * Removes a plane subsumed or no longer tracked.
+     */
+    public void remove(Plane plane)
+    {
+        m_Planes.remove(plane);
+    }
+
+    /*
+     *
+     */
+    public void clear()
+    {
+        m_Planes.clear();
+    }
+
+    /**
+     * Nearest tracked plane under the screen point, a feature point if no plane is hit.
+     *
+     * @param frame     - used for the feature points, null to test the planes only
+     * @param camera    - camera moved to the frame pose
+     * @param screenX   - screen coordinates, origin at the top left
+     * @param hit       - filled when true is returned, key is the Plane or the Point
+     * @return true if something is hit
+     */
+    public boolean hitTest(Frame frame, Camera camera, float screenX, float screenY, PlaneHit hit)
+    {
+        Ray ray = camera.getPickRay(screenX, screenY);
+
+        if(m_Planes.raycast(ray, camera.far, hit))
+        {
+            return true;
+        }
+
+        return (frame != null) && hitTestPoints(frame, screenX, screenY, hit);
+    }
+
+    /**
+     * The planes, i.e. for the statistics of the last cast.
+     */
+    public PlaneBVH getPlanes()
+    {
+        return m_Planes;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * ARCore sorts the results by distance, the first feature point is kept.
+     */
+    private boolean hitTestPoints(Frame frame, float screenX, float screenY, PlaneHit hit)
+    {
+        List<HitResult> results = frame.hitTest(screenX, screenY);
+
+        for(int i = 0; i < results.size(); i++)
+        {
+            HitResult result = results.get(i);
+
+            if(result.getTrackable() instanceof Point)
+            {
+                Pose pose = result.getHitPose();
+
+                pose.getTransformedAxis(1, 1.0f, m_fAxis, 0);
+
+                hit.key         = result.getTrackable();
+                hit.distance    = result.getDistance();
+                hit.point.set(pose.tx(), pose.ty(), pose.tz());
+                hit.normal.set(m_fAxis[0], m_fAxis[1], m_fAxis[2]);
+                hit.localX      = 0;
+                hit.localZ      = 0;
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
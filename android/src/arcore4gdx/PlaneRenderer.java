@@ -0,0 +1,375 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneRenderer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Draws the detected planes in one draw call
+ ** PREMISES:       GL thread only
+ ** REMARKS:        The geometry is kept by a PlaneMeshBuilder, only the vertices written
+ **                 since the previous frame are uploaded
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ShortArray;
+import com.funtech.gdxar.graphics.GLStateTracker;
+import com.funtech.gdxar.graphics.GpuResource;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.graphics.PlaneMeshBuilder;
+import com.google.ar.core.Plane;
+
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Keeps the planes of the session as one world space mesh. ARCoreScene passes the planes
+ * ARCore updated this frame, the builder skips those whose polygon and pose did not change and
+ * triangulates again only those whose polygon did. The vertices of all planes are in one
+ * vertex buffer, drawn with a single glDrawElements.
+ */
+public class PlaneRenderer implements Disposable
+{
+    public static final int             DEFAULT_MAX_VERTICES        = 8192;
+
+    private static final int            VERTEX_SIZE                 = PlaneMeshBuilder.VERTEX_SIZE;
+    private static final int            VERTEX_BYTES                = VERTEX_SIZE * 4;
+
+    private static final String         VERTEX_SHADER               =
+                        "attribute vec3 a_position;\n"
+                    +   "attribute vec4 a_color;\n"
+                    +   "uniform mat4 u_projViewTrans;\n"
+                    +   "varying vec4 v_color;\n"
+                    +   "void main() {\n"
+                    +   "    v_color = a_color;\n"
+                    +   "    gl_Position = u_projViewTrans * vec4(a_position, 1.0);\n"
+                    +   "}";
+
+    private static final String         FRAGMENT_SHADER             =
+                        "#ifdef GL_ES\n"
+                    +   "precision mediump float;\n"
+                    +   "#endif\n"
+                    +   "varying vec4 v_color;\n"
+                    +   "void main() {\n"
+                    +   "    gl_FragColor = v_color;\n"
+                    +   "}";
+
+    private final GLStateTracker        m_StateTracker;
+    private final PlaneMeshBuilder      m_Builder;
+    private final ShaderProgram         m_Shader;
+    private final int                   m_iProjViewTrans;
+    private final int                   m_iPosition;
+    private final int                   m_iColor;
+    private final FloatBuffer           m_VertexData;
+    private final ShortBuffer           m_IndexData;
+
+    private float                       m_fHorizontalColor          = new Color(1.0f, 1.0f, 1.0f, 0.3f).toFloatBits();
+    private float                       m_fVerticalColor            = new Color(0.4f, 0.8f, 1.0f, 0.3f).toFloatBits();
+    private GpuResource                 m_Resources[];
+    private int                         m_iVertexBuffer;
+    private int                         m_iIndexBuffer;
+    private int                         m_iIndexCount;
+    private boolean                     m_bBuffersValid;
+    private int                         m_iUploadedVertices;
+
+    /*
+     *
+     */
+    public PlaneRenderer(GLStateTracker glStateTracker)
+    {
+        this(glStateTracker, DEFAULT_MAX_VERTICES);
+    }
+
+    /**
+     * @param maxVertices - vertices of all planes, at most 65536
+     */
+    public PlaneRenderer(GLStateTracker glStateTracker, int maxVertices)
+    {
+        m_StateTracker      = glStateTracker;
+        m_Builder           = new PlaneMeshBuilder(maxVertices);
+        m_VertexData        = BufferUtils.newFloatBuffer(maxVertices * VERTEX_SIZE);
+        m_IndexData         = BufferUtils.newShortBuffer(maxVertices * 3);
+        m_Shader            = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+
+        if(!m_Shader.isCompiled())
+        {
+            throw new GdxRuntimeException("PlaneRenderer shader: " + m_Shader.getLog());
+        }
+
+        m_iProjViewTrans    = m_Shader.fetchUniformLocation("u_projViewTrans", false);
+        m_iPosition         = m_Shader.getAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE);
+        m_iColor            = m_Shader.getAttributeLocation(ShaderProgram.COLOR_ATTRIBUTE);
+    }
+
+    /**
+     * Colors of the horizontal and vertical planes, applied to the planes written from now on.
+     */
+    public void setColors(Color horizontal, Color vertical)
+    {
+        m_fHorizontalColor  = horizontal.toFloatBits();
+        m_fVerticalColor    = vertical.toFloatBits();
+    }
+
+    /**
+     * Counts the shader and the buffers in the registry.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        unregisterResources();
+
+        if(registry != null)
+        {
+            long vertexBytes    = (long)m_Builder.getMaxVertices() * VERTEX_BYTES;
+            long indexBytes     = (long)m_Builder.getMaxVertices() * 3 * 2;
+
+            m_Resources = new GpuResource[]
+                            {
+                                registry.registerShader("PlaneRenderer.shader", m_Shader),
+                                registry.register("PlaneRenderer.vertices", GpuResource.KIND_BUFFER, vertexBytes, null),
+                                registry.register("PlaneRenderer.indices", GpuResource.KIND_BUFFER, indexBytes, null)
+                            };
+        }
+    }
+
+    /**
+     * Adds or updates a tracked plane, nothing is written if its polygon and pose did not
+     * change.
+     *
+     * @param polygon   - Plane.getPolygon()
+     * @param model     - matrix of Plane.getCenterPose()
+     */
+    public void update(Plane plane, FloatBuffer polygon, float model[])
+    {
+        m_Builder.update(plane, polygon, model, (plane.getType() == Plane.Type.VERTICAL) ? m_fVerticalColor : m_fHorizontalColor);
+    }
+
+    /**
+     * Removes a plane subsumed or no longer tracked.
+     */
+    public void remove(Plane plane)
+    {
+        m_Builder.remove(plane);
+    }
+
+    /**
+     * Forgets all planes, i.e. when the session is reset.
+     */
+    public void clear()
+    {
+        m_Builder.clear();
+    }
+
+    /**
+     * Draws all planes, transparent, after the opaque models.
+     */
+    public void render(Camera camera)
+    {
+        if(!m_bBuffersValid)
+        {
+            createBuffers();
+        }
+
+        upload();
+
+        if(m_iIndexCount == 0)
+        {
+            return;
+        }
+
+        GL20 gl = Gdx.gl;
+
+        m_StateTracker.setBlending(true);
+        m_StateTracker.setBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        m_StateTracker.setDepthTest(true);
+        m_StateTracker.setDepthFunc(GL20.GL_LEQUAL);
+        m_StateTracker.setDepthMask(false);
+        m_StateTracker.setCullFace(false);
+
+        m_Shader.begin();
+        m_Shader.setUniformMatrix(m_iProjViewTrans, camera.combined);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iVertexBuffer);
+        gl.glEnableVertexAttribArray(m_iPosition);
+        gl.glVertexAttribPointer(m_iPosition, 3, GL20.GL_FLOAT, false, VERTEX_BYTES, 0);
+        gl.glEnableVertexAttribArray(m_iColor);
+        gl.glVertexAttribPointer(m_iColor, 4, GL20.GL_UNSIGNED_BYTE, true, VERTEX_BYTES, 12);
+
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, m_iIndexBuffer);
+        gl.glDrawElements(GL20.GL_TRIANGLES, m_iIndexCount, GL20.GL_UNSIGNED_SHORT, 0);
+
+        gl.glDisableVertexAttribArray(m_iPosition);
+        gl.glDisableVertexAttribArray(m_iColor);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        m_Shader.end();
+
+        m_StateTracker.setDepthMask(true);
+    }
+
+    /**
+     * Must be called when the GL context may have been recreated, i.e. on resume. The buffers
+     * are created again and filled with all planes.
+     */
+    public void invalidate()
+    {
+        m_bBuffersValid = false;
+    }
+
+    /*
+     *
+     */
+    public int getPlaneCount()
+    {
+        return m_Builder.getPlaneCount();
+    }
+
+    /**
+     * Vertices uploaded by the last render().
+     */
+    public int getUploadedVertices()
+    {
+        return m_iUploadedVertices;
+    }
+
+    /**
+     * The geometry, i.e. for its statistics.
+     */
+    public PlaneMeshBuilder getMeshBuilder()
+    {
+        return m_Builder;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        unregisterResources();
+
+        if(m_bBuffersValid)
+        {
+            Gdx.gl.glDeleteBuffer(m_iVertexBuffer);
+            Gdx.gl.glDeleteBuffer(m_iIndexBuffer);
+            m_bBuffersValid = false;
+        }
+
+        m_Shader.dispose();
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Allocates both buffers at their full size, the uploads then only replace ranges.
+     */
+    private void createBuffers()
+    {
+        GL20 gl             = Gdx.gl;
+        int  maxVertices    = m_Builder.getMaxVertices();
+
+        m_iVertexBuffer     = gl.glGenBuffer();
+        m_iIndexBuffer      = gl.glGenBuffer();
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iVertexBuffer);
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, maxVertices * VERTEX_BYTES, null, GL20.GL_DYNAMIC_DRAW);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, m_iIndexBuffer);
+        gl.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, maxVertices * 3 * 2, null, GL20.GL_DYNAMIC_DRAW);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        m_bBuffersValid = true;
+        m_Builder.invalidate();
+    }
+
+    /**
+     * Uploads the vertex range written since the previous frame and the indices if they
+     * changed.
+     */
+    private void upload()
+    {
+        GL20 gl = Gdx.gl;
+
+        m_iUploadedVertices = 0;
+
+        if(m_Builder.isVerticesDirty())
+        {
+            int start = m_Builder.getDirtyStart();
+            int count = m_Builder.getDirtyEnd() - start;
+
+            m_VertexData.clear();
+            m_VertexData.put(m_Builder.getVertices(), start * VERTEX_SIZE, count * VERTEX_SIZE);
+            m_VertexData.flip();
+
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iVertexBuffer);
+            gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, start * VERTEX_BYTES, count * VERTEX_BYTES, m_VertexData);
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+            m_iUploadedVertices = count;
+        }
+
+        if(m_Builder.isIndicesDirty())
+        {
+            ShortArray indices = m_Builder.getIndices();
+
+            m_IndexData.clear();
+            m_IndexData.put(indices.items, 0, indices.size);
+            m_IndexData.flip();
+
+            if(indices.size > 0)
+            {
+                gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, m_iIndexBuffer);
+                gl.glBufferSubData(GL20.GL_ELEMENT_ARRAY_BUFFER, 0, indices.size * 2, m_IndexData);
+                gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+            }
+
+            m_iIndexCount = indices.size;
+        }
+
+        m_Builder.clearDirty();
+    }
+
+    /*
+     *
+     */
+    private void unregisterResources()
+    {
+        if(m_Resources != null)
+        {
+            for(int i = 0; i < m_Resources.length; i++)
+            {
+                m_Resources[i].unregister();
+            }
+
+            m_Resources = null;
+        }
+    }
+}
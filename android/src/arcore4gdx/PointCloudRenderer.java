@@ -0,0 +1,270 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PointCloudRenderer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Streams the ARCore point cloud into a ring of vertex buffers
+ ** PREMISES:       GL thread only
+ ** REMARKS:        The points are copied from the native buffer of the PointCloud straight
+ **                 into GL, nothing is copied when the cloud did not change
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.funtech.gdxar.graphics.GLStateTracker;
+import com.funtech.gdxar.graphics.GpuResource;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.google.ar.core.Frame;
+import com.google.ar.core.PointCloud;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Shows the feature points of ARCore. The cloud changes at the camera rate at most, update()
+ * compares its timestamp with the one uploaded last and returns at once when they are the
+ * same. A new cloud goes to the next buffer of the ring, so the upload does not wait for the
+ * GPU to finish drawing the buffer of the previous frame.
+ *
+ * <p>The points are drawn by the BackgroundRenderer in its pass, with its shared PointShader.
+ */
+public class PointCloudRenderer implements Disposable
+{
+    public static final int             DEFAULT_MAX_POINTS          = 4096;
+    public static final int             DEFAULT_RING_SIZE           = 3;
+
+    private final PointShader           m_Shader;
+    private final int                   m_iMaxPoints;
+    private final int                   m_iBuffers[];
+    private final Color                 m_Color                     = new Color(0.12f, 0.74f, 0.82f, 1.0f);
+
+    private GpuResource                 m_Resource;
+    private boolean                     m_bBuffersValid;
+    private int                         m_iCurrent;
+    private int                         m_iPointCount;
+    private long                        m_lTimestamp                = -1;
+    private float                       m_fPointSize                = 5.0f;
+    private int                         m_iUploads;
+
+    /*
+     *
+     */
+    public PointCloudRenderer(PointShader shader)
+    {
+        this(shader, DEFAULT_MAX_POINTS, DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * @param shader        - shared, not disposed by the renderer
+     * @param maxPoints     - points kept of a cloud
+     * @param ringSize      - vertex buffers written in turn
+     */
+    public PointCloudRenderer(PointShader shader, int maxPoints, int ringSize)
+    {
+        m_Shader        = shader;
+        m_iMaxPoints    = maxPoints;
+        m_iBuffers      = new int[Math.max(1, ringSize)];
+    }
+
+    /*
+     *
+     */
+    public void setColor(Color color)
+    {
+        m_Color.set(color);
+    }
+
+    /*
+     *
+     */
+    public void setPointSize(float pointSize)
+    {
+        m_fPointSize = pointSize;
+    }
+
+    /*
+     *
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        if(m_Resource != null)
+        {
+            m_Resource.unregister();
+            m_Resource = null;
+        }
+
+        if(registry != null)
+        {
+            m_Resource = registry.register("PointCloudRenderer.ring", GpuResource.KIND_BUFFER,
+                                           (long)m_iBuffers.length * m_iMaxPoints * PointShader.VERTEX_BYTES, null);
+        }
+    }
+
+    /**
+     * Uploads the point cloud of the frame if it is newer than the one uploaded.
+     */
+    public void update(Frame frame)
+    {
+        PointCloud pointCloud = frame.acquirePointCloud();
+
+        try
+        {
+            long timestamp = pointCloud.getTimestamp();
+
+            if(m_bBuffersValid && (timestamp == m_lTimestamp))
+            {
+                return;
+            }
+
+            if(!m_bBuffersValid)
+            {
+                createBuffers();
+            }
+
+            upload(pointCloud.getPoints());
+            m_lTimestamp = timestamp;
+        }
+        finally
+        {
+            pointCloud.release();
+        }
+    }
+
+    /**
+     * Draws the last uploaded cloud, called by the BackgroundRenderer.
+     */
+    public void draw(GLStateTracker stateTracker, Matrix4 projViewTrans)
+    {
+        if(!m_bBuffersValid || (m_iPointCount == 0))
+        {
+            return;
+        }
+
+        GL20 gl = Gdx.gl;
+
+        stateTracker.setBlending(true);
+        stateTracker.setBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        m_Shader.begin(projViewTrans, m_Color, m_fPointSize);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iBuffers[m_iCurrent]);
+        m_Shader.draw(gl, m_iPointCount);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        m_Shader.end();
+    }
+
+    /**
+     * Must be called when the GL context may have been recreated, i.e. on resume.
+     */
+    public void invalidate()
+    {
+        m_bBuffersValid = false;
+        m_iPointCount   = 0;
+    }
+
+    /*
+     *
+     */
+    public int getPointCount()
+    {
+        return m_iPointCount;
+    }
+
+    /**
+     * Clouds uploaded since the creation, less than the frames when the cloud did not change.
+     */
+    public int getUploadCount()
+    {
+        return m_iUploads;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        if(m_Resource != null)
+        {
+            m_Resource.unregister();
+            m_Resource = null;
+        }
+
+        if(m_bBuffersValid)
+        {
+            for(int i = 0; i < m_iBuffers.length; i++)
+            {
+                Gdx.gl.glDeleteBuffer(m_iBuffers[i]);
+            }
+
+            m_bBuffersValid = false;
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Allocates the ring at its full size, the uploads only replace the start of a buffer.
+     */
+    private void createBuffers()
+    {
+        GL20 gl = Gdx.gl;
+
+        for(int i = 0; i < m_iBuffers.length; i++)
+        {
+            m_iBuffers[i] = gl.glGenBuffer();
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iBuffers[i]);
+            gl.glBufferData(GL20.GL_ARRAY_BUFFER, m_iMaxPoints * PointShader.VERTEX_BYTES, null, GL20.GL_STREAM_DRAW);
+        }
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+        m_bBuffersValid = true;
+        m_iPointCount   = 0;
+    }
+
+    /**
+     * GL reads the native buffer of the cloud from its position, no array in between.
+     */
+    private void upload(FloatBuffer points)
+    {
+        GL20 gl     = Gdx.gl;
+        int  count  = Math.min(m_iMaxPoints, points.remaining() / PointShader.VERTEX_SIZE);
+
+        m_iCurrent      = (m_iCurrent + 1) % m_iBuffers.length;
+        m_iPointCount   = count;
+
+        if(count > 0)
+        {
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iBuffers[m_iCurrent]);
+            gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, 0, count * PointShader.VERTEX_BYTES, points);
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        }
+
+        m_iUploads++;
+    }
+}
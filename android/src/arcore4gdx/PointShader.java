@@ -0,0 +1,138 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PointShader.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Small program drawing GL_POINTS from ( x, y, z, w ) vertices
+ ** PREMISES:       GL thread only
+ ** REMARKS:        Shared by the renderers drawing points, i.e. the point cloud drawn in
+ **                 the background pass
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * World space points of one color and size. The w of a vertex scales the alpha, i.e. the
+ * confidence of an ARCore feature point.
+ */
+public class PointShader implements Disposable
+{
+    public static final int             VERTEX_SIZE                 = 4;        // x, y, z, w
+    public static final int             VERTEX_BYTES                = VERTEX_SIZE * 4;
+
+    private static final String         VERTEX_SHADER               =
+                        "attribute vec4 a_position;\n"
+                    +   "uniform mat4 u_projViewTrans;\n"
+                    +   "uniform float u_pointSize;\n"
+                    +   "varying float v_alpha;\n"
+                    +   "void main() {\n"
+                    +   "    v_alpha = clamp(a_position.w, 0.0, 1.0);\n"
+                    +   "    gl_PointSize = u_pointSize;\n"
+                    +   "    gl_Position = u_projViewTrans * vec4(a_position.xyz, 1.0);\n"
+                    +   "}";
+
+    private static final String         FRAGMENT_SHADER             =
+                        "#ifdef GL_ES\n"
+                    +   "precision mediump float;\n"
+                    +   "#endif\n"
+                    +   "uniform vec4 u_color;\n"
+                    +   "varying float v_alpha;\n"
+                    +   "void main() {\n"
+                    +   "    gl_FragColor = vec4(u_color.rgb, u_color.a * v_alpha);\n"
+                    +   "}";
+
+    private final ShaderProgram         m_Program;
+    private final int                   m_iProjViewTrans;
+    private final int                   m_iPointSize;
+    private final int                   m_iColor;
+    private final int                   m_iPosition;
+
+    /*
+     *
+     */
+    public PointShader()
+    {
+        m_Program = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+
+        if(!m_Program.isCompiled())
+        {
+            throw new GdxRuntimeException("PointShader: " + m_Program.getLog());
+        }
+
+        m_iProjViewTrans    = m_Program.fetchUniformLocation("u_projViewTrans", false);
+        m_iPointSize        = m_Program.fetchUniformLocation("u_pointSize", false);
+        m_iColor            = m_Program.fetchUniformLocation("u_color", false);
+        m_iPosition         = m_Program.getAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE);
+    }
+
+    /**
+     * Binds the program and sets its uniforms.
+     */
+    public void begin(Matrix4 projViewTrans, Color color, float pointSize)
+    {
+        m_Program.begin();
+        m_Program.setUniformMatrix(m_iProjViewTrans, projViewTrans);
+        m_Program.setUniformf(m_iPointSize, pointSize);
+        m_Program.setUniformf(m_iColor, color.r, color.g, color.b, color.a);
+    }
+
+    /**
+     * Draws count points from the vertex buffer bound to GL_ARRAY_BUFFER.
+     */
+    public void draw(GL20 gl, int count)
+    {
+        gl.glEnableVertexAttribArray(m_iPosition);
+        gl.glVertexAttribPointer(m_iPosition, VERTEX_SIZE, GL20.GL_FLOAT, false, VERTEX_BYTES, 0);
+        gl.glDrawArrays(GL20.GL_POINTS, 0, count);
+        gl.glDisableVertexAttribArray(m_iPosition);
+    }
+
+    /*
+     *
+     */
+    public void end()
+    {
+        m_Program.end();
+    }
+
+    /*
+     *
+     */
+    public ShaderProgram getProgram()
+    {
+        return m_Program;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        m_Program.dispose();
+    }
+}
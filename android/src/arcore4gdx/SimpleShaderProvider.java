@@ -1,60 +0,0 @@
-/*
- * Copyright 2017 Google Inc.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    https://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-/*
- *  This is a Derivative Works copy
- *  Original Author
- *      Clayton Wilkinson
- *  Whitepaper
- *      https://medium.com/@wilkinsonclay/investigating-arcore-with-libgdx-f69b83764118
- *  Source(s)
- *      https://github.com/google/helloargdx
- *
- *  Modification History
- *      2018-05-09  -   Farell Leiking  :   Modified code formats ( i.e. indents, spaces etc. )
- *                                          and placements
- */
-
-package arcore4gdx;
-
-import com.badlogic.gdx.graphics.g3d.Renderable;
-import com.badlogic.gdx.graphics.g3d.Shader;
-import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
-import com.badlogic.gdx.graphics.g3d.utils.BaseShaderProvider;
-
-/**
- * Simple shader provider that gives an extension point to register new shaders.
- * TODO: THere must be a better way to do this....
- */
-public class SimpleShaderProvider extends BaseShaderProvider
-{
-    /*
-     *
-     */
-    public void registerShader(Shader shader)
-    {
-        this.shaders.add(shader);
-    }
-
-    /*
-     *
-     */
-    @Override
-    protected Shader createShader(Renderable renderable)
-    {
-        return new DefaultShader(renderable);
-    }
-}
@@ -0,0 +1,85 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameSnapshot.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Copy of the per-frame camera data, taken once per frame
+ ** PREMISES:       All storage is preallocated, capture() does not allocate
+ ** REMARKS:        The arrays returned by the getters are owned by the snapshot and
+ **                 must be treated as read only
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : clearFrame() for the copies handed to the update thread
+ **                 2026-10-18 : Light estimate
+ **                 2026-10-18 : Data and capture moved to CameraSnapshot in core
+ **                 2026-10-18 : Captures from any CameraFrameSource, for CameraScene
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx.frame;
+
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.google.ar.core.Frame;
+import com.google.ar.core.TrackingState;
+
+/**
+ * CameraSnapshot that also keeps the ARCore frame the data was taken from, for the code that
+ * still needs it on the GL thread ( i.e. hit tests and the camera texture ).
+ */
+public class FrameSnapshot extends CameraSnapshot
+{
+    private static final TrackingState  TRACKING_STATES[]       = TrackingState.values();
+
+    private Frame                       m_Frame;
+
+    /**
+     * Copies the data of the current frame of the source, and its ARCore frame if it is a
+     * FrameSource.
+     */
+    @Override
+    public void capture(CameraFrameSource frameSource, float near, float far)
+    {
+        super.capture(frameSource, near, far);
+        m_Frame = (frameSource instanceof FrameSource) ? ((FrameSource) frameSource).getFrame() : null;
+    }
+
+    /**
+     * Copies another snapshot into this one.
+     */
+    public void set(FrameSnapshot other)
+    {
+        super.set(other);
+        m_Frame = other.m_Frame;
+    }
+
+    /**
+     * The ARCore frame the data was taken from, null when replaying.
+     */
+    public Frame getFrame()
+    {
+        return m_Frame;
+    }
+
+    /*
+     *
+     */
+    public TrackingState getTrackingState()
+    {
+        return TRACKING_STATES[getTrackingStateIndex()];
+    }
+}
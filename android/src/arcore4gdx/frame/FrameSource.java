@@ -0,0 +1,56 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Source of per-frame camera data consumed by ARCoreScene
+ ** PREMISES:
+ ** REMARKS:        LiveFrameSource reads from the ARCore session, ReplayFrameSource
+ **                 feeds a recorded session so the scene can run without a device
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : getLightEstimate()
+ **                 2026-10-18 : ARCore free part moved to CameraFrameSource in core
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx.frame;
+
+import android.support.annotation.Nullable;
+
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.google.ar.core.Frame;
+import com.google.ar.core.TrackingState;
+
+/**
+ * Provides the camera data of one frame to the rendering code. All accessors refer to the frame
+ * made current by the last successful call to {@link #update()}.
+ */
+public interface FrameSource extends CameraFrameSource
+{
+    /**
+     * The ARCore frame backing the current data. This is null when the data does not come from
+     * a live session ( i.e. when replaying a recording ).
+     */
+    @Nullable
+    Frame               getFrame();
+
+    /**
+     * The state matching getTrackingStateIndex().
+     */
+    TrackingState       getTrackingState();
+}
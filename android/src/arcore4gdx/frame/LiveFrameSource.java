@@ -0,0 +1,219 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LiveFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       FrameSource backed by the ARCore session
+ ** PREMISES:
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : getLightEstimate()
+ **                 2026-10-18 : getTrackingStateIndex()
+ **                 2026-10-18 : View matrix and light estimate read once per frame, pose
+ **                                derived from the view matrix
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx.frame;
+
+import com.funtech.gdxar.frame.CachingFrameSource;
+import com.google.ar.core.Camera;
+import com.google.ar.core.Frame;
+import com.google.ar.core.LightEstimate;
+import com.google.ar.core.TrackingState;
+
+import java.nio.FloatBuffer;
+
+import arcore4gdx.util.ARSessionSupport;
+import arcore4gdx.util.ARSessionSupport.ARSessionInterface;
+
+/**
+ * FrameSource that pulls each frame from ARSessionSupport.update(). This is the default source
+ * used by ARCoreGraphics.
+ *
+ * <p>Frame.getLightEstimate() returns a new LightEstimate on every call and ARCore has no call
+ * filling an existing one, so the estimate is read once per frame and its values cached.
+ * Camera.getPose() returns a new Pose, the pose is derived from the cached view matrix instead.
+ */
+public class LiveFrameSource extends CachingFrameSource implements FrameSource
+{
+    private final ARSessionInterface    m_arSessionInterface;
+    private Frame                       m_Frame;
+    private Camera                      m_Camera;
+
+    /*
+     *
+     */
+    public LiveFrameSource(ARSessionInterface arSessionInterface)
+    {
+        m_arSessionInterface    = arSessionInterface;
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected boolean nextFrame()
+    {
+        m_Frame     = null;
+        m_Camera    = null;
+
+        if(m_arSessionInterface != null)
+        {
+            m_Frame = m_arSessionInterface.getSessionSupport().update();
+        }
+
+        if(m_Frame != null)
+        {
+            m_Camera = m_Frame.getCamera();
+        }
+
+        return (m_Frame != null);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Frame getFrame()
+    {
+        return m_Frame;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public long getTimestamp()
+    {
+        return m_Frame.getTimestamp();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public TrackingState getTrackingState()
+    {
+        return m_Camera.getTrackingState();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getTrackingStateIndex()
+    {
+        return m_Camera.getTrackingState().ordinal();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean hasDisplayGeometryChanged()
+    {
+        return m_Frame.hasDisplayGeometryChanged();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+    {
+        m_Camera.getProjectionMatrix(dest, offset, near, far);
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected void fetchViewMatrix(float[] dest)
+    {
+        m_Camera.getViewMatrix(dest, 0);
+    }
+
+    /**
+     * Allocates the LightEstimate of the frame.
+     */
+    @Override
+    protected boolean fetchLightEstimate(float[] dest)
+    {
+        LightEstimate estimate = m_Frame.getLightEstimate();
+
+        if(estimate.getState() != LightEstimate.State.VALID)
+        {
+            return false;
+        }
+
+        estimate.getColorCorrection(dest, 0);
+        return true;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+    {
+        m_Frame.transformDisplayUvCoords(uvCoords, outUvCoords);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDisplayGeometry(int rotation, int width, int height)
+    {
+        ARSessionSupport sessionSupport = getSessionSupport();
+
+        if(sessionSupport != null)
+        {
+            sessionSupport.setDisplayGeometry(rotation, width, height);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setCameraTextureName(int textureId)
+    {
+        ARSessionSupport sessionSupport = getSessionSupport();
+
+        if(sessionSupport != null)
+        {
+            sessionSupport.setCameraTextureName(textureId);
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private ARSessionSupport getSessionSupport()
+    {
+        return (m_arSessionInterface != null) ? m_arSessionInterface.getSessionSupport() : null;
+    }
+}
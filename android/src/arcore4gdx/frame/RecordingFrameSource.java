@@ -0,0 +1,77 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         RecordingFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       FrameSource decorator that writes every frame of another source to a
+ **                 stream in the format read by FrameReplay
+ ** PREMISES:
+ ** REMARKS:        Meant for capturing sessions on a device, it queries the wrapped
+ **                 source more than a normal frame would
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Records the light estimate ( version 2 )
+ **                 2026-10-18 : Writing moved to FrameRecorder in core
+ **                 2026-10-18 : Display geometry required on construction
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx.frame;
+
+import com.funtech.gdxar.frame.FrameRecorder;
+import com.google.ar.core.Frame;
+import com.google.ar.core.TrackingState;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * FrameRecorder seen as a FrameSource, the ARCore frame and tracking state are those of the
+ * wrapped source.
+ */
+public class RecordingFrameSource extends FrameRecorder implements FrameSource
+{
+    private final FrameSource           m_Source;
+
+    /**
+     * The geometry is the one the wrapped source currently uses, i.e.
+     * ARCoreGraphics.getDisplayRotation(), Gdx.graphics.getWidth() and getHeight().
+     */
+    public RecordingFrameSource(FrameSource source, OutputStream out, int rotation, int width, int height) throws IOException
+    {
+        super(source, out, rotation, width, height);
+        m_Source = source;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Frame getFrame()
+    {
+        return m_Source.getFrame();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public TrackingState getTrackingState()
+    {
+        return m_Source.getTrackingState();
+    }
+}
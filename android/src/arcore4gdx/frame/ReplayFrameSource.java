@@ -0,0 +1,73 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         ReplayFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       FrameSource that plays back a session written by RecordingFrameSource
+ ** PREMISES:       The whole recording is loaded into primitive arrays up front so that
+ **                 update() does no I/O and no allocation
+ ** REMARKS:        Used to run ARCoreScene on a device with repeatable input. Off the device
+ **                 a CameraScene replays the FrameReplay itself
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Light estimate, version 2 of the recording
+ **                 2026-10-18 : Parsing moved to FrameReplay in core
+ ** REVIEW:
+ ********************************************************************************/
+
+package arcore4gdx.frame;
+
+import com.funtech.gdxar.frame.FrameReplay;
+import com.google.ar.core.Frame;
+import com.google.ar.core.TrackingState;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * FrameReplay seen as a FrameSource. {@link #getFrame()} always returns null.
+ */
+public class ReplayFrameSource extends FrameReplay implements FrameSource
+{
+    private static final TrackingState  TRACKING_STATES[]       = TrackingState.values();
+
+    /**
+     * Loads a recording. The stream is read to the end but not closed.
+     */
+    public ReplayFrameSource(InputStream in) throws IOException
+    {
+        super(in);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Frame getFrame()
+    {
+        return null;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public TrackingState getTrackingState()
+    {
+        return TRACKING_STATES[getTrackingStateIndex()];
+    }
+}
@@ -30,14 +30,18 @@
 
 package arcore4gdx.helper;
 
-import android.content.Context;
 import android.opengl.GLES11Ext;
-import android.opengl.GLES20;
-import com.google.ar.core.Frame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.utils.VertexUtils;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 
+
 /**
  * Sets up the OES texture used to render the camera. This is refactored out from the rendering of
  * the background to decouple the backgrond processing, such a rotation, from the actual rendering.
@@ -48,7 +52,9 @@ public class BackgroundRendererHelper
     private static final int    COORDS_PER_VERTEX           = 3;
     private static final int    TEXCOORDS_PER_VERTEX        = 2;
     private static final int    FLOAT_SIZE                  = 4;
-    private static final int    NUMBER_OF_VERTICES          = 4;
+
+    public static final int     NUMBER_OF_VERTICES          = 4;
+    public static final int     VERTEX_SIZE                 = COORDS_PER_VERTEX + TEXCOORDS_PER_VERTEX;
 
     private FloatBuffer         quadVertices;
     private FloatBuffer         quadTexCoord;
@@ -90,17 +96,16 @@ public class BackgroundRendererHelper
     /*
      *
      */
-    public void createOnGlThread(Context context)
+    public void createOnGlThread()
     {
         // Generate the background texture.
-        int textures[]  = new int[1];
-        GLES20.glGenTextures(1, textures, 0);
-        mTextureId      = textures[0];
-        GLES20.glBindTexture(mTextureTarget, mTextureId);
-        GLES20.glTexParameteri(mTextureTarget, GLES20.GL_TEXTURE_WRAP_S,        GLES20.GL_CLAMP_TO_EDGE);
-        GLES20.glTexParameteri(mTextureTarget, GLES20.GL_TEXTURE_WRAP_T,        GLES20.GL_CLAMP_TO_EDGE);
-        GLES20.glTexParameteri(mTextureTarget, GLES20.GL_TEXTURE_MIN_FILTER,    GLES20.GL_NEAREST);
-        GLES20.glTexParameteri(mTextureTarget, GLES20.GL_TEXTURE_MAG_FILTER,    GLES20.GL_NEAREST);
+        GL20 gl         = Gdx.gl;
+        mTextureId      = gl.glGenTexture();
+        gl.glBindTexture(mTextureTarget, mTextureId);
+        gl.glTexParameteri(mTextureTarget, GL20.GL_TEXTURE_WRAP_S,      GL20.GL_CLAMP_TO_EDGE);
+        gl.glTexParameteri(mTextureTarget, GL20.GL_TEXTURE_WRAP_T,      GL20.GL_CLAMP_TO_EDGE);
+        gl.glTexParameteri(mTextureTarget, GL20.GL_TEXTURE_MIN_FILTER,  GL20.GL_NEAREST);
+        gl.glTexParameteri(mTextureTarget, GL20.GL_TEXTURE_MAG_FILTER,  GL20.GL_NEAREST);
 
         int numVertices = (QUAD_COORDS.length / COORDS_PER_VERTEX);
         if( NUMBER_OF_VERTICES != numVertices )
@@ -125,27 +130,34 @@ public class BackgroundRendererHelper
         quadTexCoordTransformed             = bbTexCoordsTransformed.asFloatBuffer();
     }
 
-    /*
+    /**
+     * Writes the background quad straight into an interleaved position / texcoord vertex buffer,
+     * i.e. Mesh.getVerticesBuffer(). Positions are only written when isFullWrite is set, the
+     * texture coordinates whenever the display geometry changed. Nothing is allocated, the mesh
+     * uploads the buffer the next time it is bound.
      *
-    */
-    public float[] getVertices(Frame frame)
+     * @param frameSource   - source of the display uv transformation
+     * @param vertices      - buffer of at least NUMBER_OF_VERTICES * VERTEX_SIZE floats
+     * @param isFullWrite   - write the whole quad, i.e. the first time the buffer is filled
+     * @return true if the buffer was written
+     */
+    public boolean writeVertices(CameraFrameSource frameSource, FloatBuffer vertices, boolean isFullWrite)
     {
-        if( (frame != null) && frame.hasDisplayGeometryChanged() )
+        boolean isChanged = (frameSource != null) && frameSource.hasDisplayGeometryChanged();
+
+        if(!isChanged && !isFullWrite)
         {
-            frame.transformDisplayUvCoords(quadTexCoord, quadTexCoordTransformed);
+            return false;
         }
 
-        float[] ret = new float[QUAD_COORDS.length + QUAD_TEXCOORDS.length];
-
-        for(int i = 0; i < NUMBER_OF_VERTICES; i++)
+        if(frameSource != null)
         {
-            ret[(i * 5) + 0]    = QUAD_COORDS[i * 3];
-            ret[(i * 5) + 1]    = QUAD_COORDS[(i * 3) + 1];
-            ret[(i * 5) + 2]    = QUAD_COORDS[(i * 3) + 2];
-            ret[(i * 5) + 3]    = quadTexCoordTransformed.get((i * 2));
-            ret[(i * 5) + 4]    = quadTexCoordTransformed.get((i * 2) + 1);
+            frameSource.transformDisplayUvCoords(quadTexCoord, quadTexCoordTransformed);
         }
 
-        return ret;
+        VertexUtils.interleave(QUAD_COORDS, COORDS_PER_VERTEX, quadTexCoordTransformed, TEXCOORDS_PER_VERTEX,
+                               NUMBER_OF_VERTICES, vertices, isFullWrite);
+
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -79,6 +79,8 @@ public class ARSessionSupport implements LifecycleObserver
     private int                         width;
     private int                         height;
     private boolean                     mUserRequestedInstall;
+    private Config                      m_Config;
+    private Config.UpdateMode           m_UpdateMode            = Config.UpdateMode.BLOCKING;
     private boolean                     m_bAllowARCoreInstall;  // flag to allow to install ARCore if not installed
                                                                 // This option is given for users who require that
                                                                 // that ARCore not be (asked to) automatically downloaded
@@ -163,6 +165,30 @@ public class ARSessionSupport implements LifecycleObserver
         return session;
     }
 
+    /**
+     * Sets whether update() waits for a new camera image ( BLOCKING, the default ) or returns
+     * at once with the latest one ( LATEST_CAMERA_IMAGE ), whose timestamp then tells whether
+     * it is new. The mode is kept if the session is not created yet. Called on the UI thread.
+     */
+    public void setUpdateMode(Config.UpdateMode updateMode)
+    {
+        m_UpdateMode = updateMode;
+
+        if((session != null) && (m_Config != null))
+        {
+            m_Config.setUpdateMode(updateMode);
+            session.configure(m_Config);
+        }
+    }
+
+    /*
+     *
+     */
+    public Config.UpdateMode getUpdateMode()
+    {
+        return m_UpdateMode;
+    }
+
     /**
      * Handle setting the display geometry.  The values are cached
      * if they are set before the session is available.
@@ -430,6 +456,7 @@ public class ARSessionSupport implements LifecycleObserver
 
         // Create default config and check if supported.
         Config defaultConfig = new Config(session);
+        defaultConfig.setUpdateMode(m_UpdateMode);
 
         if(!session.isSupported(defaultConfig))
         {
@@ -438,6 +465,7 @@ public class ARSessionSupport implements LifecycleObserver
         else
         {
             session.configure(defaultConfig);
+            m_Config = defaultConfig;
         }
 
         // Set the graphics information if it was already passed in.
@@ -23,15 +23,13 @@
  ** REMARKS:
  ** HISTORY:        2018-05-09 : Creation
  **                 2018-05-17 : Put in sensor to detect phone angle then to enable/disable AR
+ **                 2026-10-18 : Moved the sensor processing to TiltSensorProcessor
  ** REVIEW:
  ********************************************************************************/
 
 package com.funtech.gdxar;
 
 import android.app.Activity;
-import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Bundle;
 import android.support.v4.app.FragmentTransaction;
@@ -40,6 +38,7 @@ import android.support.v7.widget.Toolbar;
 import android.view.View;
 
 import com.badlogic.gdx.backends.android.AndroidFragmentApplication;
+import com.funtech.gdxar.sensor.TiltSensorProcessor;
 
 import utils.DebugPrint;
 
@@ -47,22 +46,34 @@ import utils.DebugPrint;
  *
  */
 public class AndroidLauncher extends AppCompatActivity implements AndroidFragmentApplication.Callbacks,
-                                                        Runnable, SensorEventListener
+                                                        Runnable, TiltSensorProcessor.Listener
 {
     private final boolean               ENABLE_DEBUG                = true;
     private final String                DEBUG_CLASS_NAME            = AndroidLauncher.class.toString();
 
     private DebugPrint                  m_DebugPrint                = null;
     private MainGameFragment            m_MainGame                  = null;
-    private GdxArFragment               m_gdxArFragment             = null;
+    private volatile GdxArFragment      m_gdxArFragment             = null;
 
     private int                         m_iCounter                  = 0;
 
-    private SensorManager               m_SensorManager;
-    private Sensor                      m_RotationSensor;
+    private TiltSensorProcessor         m_TiltSensor;
+    private volatile boolean            m_bTiltAREnabled            = false;
 
-    private static final int            SENSOR_DELAY                = 500 * 1000; // 500ms
-    private static final int            FROM_RADS_TO_DEGS           = -57;
+    private static final int            SENSOR_DELAY                = 20 * 1000; // 20ms
+
+    // Applies the tilt decision on the render thread, created once instead of per change
+    private final Runnable              m_ApplyTiltRunnable         = new Runnable()
+    {
+        /**
+         *
+         */
+        @Override
+        public void run()
+        {
+            applyTiltState();
+        }
+    };
 
     /**
      *
@@ -88,10 +99,9 @@ public class AndroidLauncher extends AppCompatActivity implements AndroidFragmen
         trans.replace(R.id.GameDisplay, m_gdxArFragment, m_gdxArFragment.getClass().toString());
         trans.commit();
 
-        // register the sensor
-        m_SensorManager             = (SensorManager) getSystemService( Activity.SENSOR_SERVICE);
-        m_RotationSensor            = m_SensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
-        m_SensorManager.registerListener(this, m_RotationSensor, SENSOR_DELAY);
+        // register the sensor, the events are processed on the sensor thread
+        m_TiltSensor                = new TiltSensorProcessor( (SensorManager) getSystemService( Activity.SENSOR_SERVICE ), this );
+        m_TiltSensor.start( SENSOR_DELAY );
     }
 
 
@@ -189,7 +199,7 @@ public class AndroidLauncher extends AppCompatActivity implements AndroidFragmen
     {
         m_DebugPrint.print("+onDestroy()");
 
-        m_SensorManager.unregisterListener( this );
+        m_TiltSensor.stop();
 
         super.onDestroy();
 
@@ -255,32 +265,22 @@ public class AndroidLauncher extends AppCompatActivity implements AndroidFragmen
     }
 
     /**
-     *
+     * Called on the sensor thread when the tilt decision changed
      */
     @Override
-    public void onAccuracyChanged( Sensor sensor, int accuracy)
+    public void onTiltStateChanged( boolean isAREnabled )
     {
-        // TODO Auto-generated method stub
-    }
+        m_bTiltAREnabled        = isAREnabled;
+        GdxArFragment fragment  = m_gdxArFragment;
 
-    /**
-     *
-     */
-    @Override
-    public void onSensorChanged(SensorEvent event)
-    {
-        if (event.sensor == m_RotationSensor)
+        if( (fragment != null) && (fragment.isViewCreated()) )
         {
-            if (event.values.length > 4)
-            {
-                float[] truncatedRotationVector = new float[4];
-                System.arraycopy(event.values, 0, truncatedRotationVector, 0, 4);
-                processSensorValues(truncatedRotationVector);
-            }
-            else
-            {
-                processSensorValues(event.values);
-            }
+            fragment.postRunnable( m_ApplyTiltRunnable );
+        }
+        else
+        {
+            // fragment not attached yet, try again with the next sensor event
+            m_TiltSensor.redeliver();
         }
     }
 
@@ -291,45 +291,29 @@ public class AndroidLauncher extends AppCompatActivity implements AndroidFragmen
      ********************************************************************************/
 
     /**
-     *
+     * Runs on the render thread
      */
-    private void processSensorValues(float[] vectors)
+    private void applyTiltState()
     {
-        float[] rotationMatrix          = new float[9];
-        SensorManager.getRotationMatrixFromVector(rotationMatrix, vectors);
-
-        int worldAxisX                  = SensorManager.AXIS_X;
-        int worldAxisZ                  = SensorManager.AXIS_Z;
-        float[] adjustedRotationMatrix  = new float[9];
-        SensorManager.remapCoordinateSystem(rotationMatrix, worldAxisX, worldAxisZ, adjustedRotationMatrix);
+        GdxArFragment fragment = m_gdxArFragment;
 
-        float[] orientation             = new float[3];
-        SensorManager.getOrientation(adjustedRotationMatrix, orientation);
-        int pitch                       = (int)(orientation[1] * FROM_RADS_TO_DEGS);
-        int roll                        = (int)(orientation[2] * FROM_RADS_TO_DEGS);
-
-        if( (m_gdxArFragment != null) && (m_gdxArFragment.isARAvailable()) )
+        if( (fragment != null) && (fragment.isARAvailable()) )
         {
-            GdxArApp gdxarapp = ( GdxArApp ) m_gdxArFragment.getGdxSession();
-
-            m_DebugPrint.print("pitch " + pitch + ", roll " + roll);
+            GdxArApp gdxarapp = ( GdxArApp ) fragment.getGdxSession();
 
             // enable/disable based on the held angle of the phone
-            if( Math.abs( pitch ) < 60 && Math.abs( roll ) < 50)
+            if( gdxarapp.isAREnabled() != m_bTiltAREnabled )
             {
-                if( !gdxarapp.isAREnabled() )
-                {
-                    gdxarapp.enableAR( true );
-                }
-            }
-            else
-            {
-                if( gdxarapp.isAREnabled() )
-                {
-                    gdxarapp.enableAR( false );
-                }
+                m_DebugPrint.print(m_bTiltAREnabled ? "AR on, pitch {}, roll {}" : "AR off, pitch {}, roll {}",
+                                   m_TiltSensor.getPitch(), m_TiltSensor.getRoll());
+                gdxarapp.enableAR( m_bTiltAREnabled );
             }
         }
+        else
+        {
+            // not applied, ask for the decision again with the next sensor event
+            m_TiltSensor.redeliver();
+        }
     }
 
     /**
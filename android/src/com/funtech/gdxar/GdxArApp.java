@@ -22,6 +22,10 @@
  ** PREMISES:
  ** REMARKS:
  ** HISTORY:        2018-05-09 : Creation
+ **                 2026-10-18 : 2D drawings moved to the HUD pass
+ **                 2026-10-18 : 2D drawings queued in the shared HudLayer
+ **                 2026-10-18 : Counters of the anchors, passes and HUD draw calls
+ **                 2026-10-18 : Sets the HUD font scale
  ** REVIEW:
  ********************************************************************************/
 
@@ -33,12 +37,13 @@ import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.Shader;
 import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.funtech.gdxar.graphics.NumericText;
+import com.funtech.gdxar.graphics.SimpleShaderProvider;
+import com.funtech.gdxar.utils.FrameMetrics;
 import com.funtech.gdxar.utils.FrameRate;
 import com.google.ar.core.Frame;
 
 import arcore4gdx.ARCoreScene;
-import arcore4gdx.SimpleShaderProvider;
 
 /*
  *
@@ -46,6 +51,10 @@ import arcore4gdx.SimpleShaderProvider;
 public class GdxArApp extends ARCoreScene
 {
     private FrameRate               m_frameRate;
+    private final FrameMetrics      m_FrameMetrics  = new FrameMetrics();
+    private NumericText             m_AnchorsText;
+    private NumericText             m_PassesText;
+    private NumericText             m_DrawCallsText;
 
     /*
      *
@@ -56,6 +65,15 @@ public class GdxArApp extends ARCoreScene
         super.create();
 
         m_frameRate = new com.funtech.gdxar.utils.FrameRate();
+        m_frameRate.setFrameMetrics(m_FrameMetrics);
+
+        // readable on a phone screen, the texts below are laid out with this scale
+        m_Hud.getFont().getData().setScale(2, 2);
+
+        m_AnchorsText   = new NumericText(m_Hud, "anchors ", "", 4, 0);
+        m_PassesText    = new NumericText(m_Hud, " passes ", "", 2, 0);
+        m_DrawCallsText = new NumericText(m_Hud, " hud calls ", "", 3, 0);
+        layoutCounters();
     }
 
     /*
@@ -76,6 +94,7 @@ public class GdxArApp extends ARCoreScene
     {
         super.resume();
         m_frameRate.resume();
+        m_FrameMetrics.skipInterval();
     }
 
     /*
@@ -96,6 +115,7 @@ public class GdxArApp extends ARCoreScene
     {
         super.resize(width, height);
         m_frameRate.resize(width, height);
+        layoutCounters();
     }
 
 
@@ -105,15 +125,19 @@ public class GdxArApp extends ARCoreScene
     @Override
     public void render()
     {
-        super.render(); // call the parent which will clear the screen and call the 3d rendering batch
+        m_FrameMetrics.beginFrame();
 
-        // here add 2D drawings
-        m_ShapeRenderer.begin( ShapeRenderer.ShapeType.Filled );
-        m_ShapeRenderer.setColor(Color.RED);
-        m_ShapeRenderer.circle( 100, 100, 20 );
-        m_ShapeRenderer.end();
+        super.render(); // call the parent which will run the passes of the frame, the HUD last
 
-        m_frameRate.render();
+        m_FrameMetrics.endFrame();
+    }
+
+    /**
+     * Frame time statistics of the app. FrameMetrics.read() can be called from any thread.
+     */
+    public FrameMetrics getFrameMetrics()
+    {
+        return m_FrameMetrics;
     }
 
     /********************************************************************************
@@ -121,9 +145,10 @@ public class GdxArApp extends ARCoreScene
      ********************************************************************************/
 
     /**
-     * This is the main render method. It is called on each frame. This is where all scene operations
-     * need to be. This includes interacting with the ARCore frame for hit tests, plane detection
-     * updates and anchor updates.
+     * This is the main render method. It is called on each frame the opaque pass is drawn, not
+     * while it is culled under the opaque fade. The models are drawn here and the ARCore frame
+     * can be used for hit tests and anchors, the scene logic which must not pause goes in
+     * update().
      *
      * <p>It also is where application specific objects are created and ultimately rendered.
      */
@@ -133,6 +158,27 @@ public class GdxArApp extends ARCoreScene
     }
 
 
+    /**
+     * Here add 2D drawings, drawn over the scene and the fade overlay.
+     */
+    @Override
+    protected void renderHud()
+    {
+        m_Hud.circle( 100, 100, 20, Color.RED );
+
+        m_frameRate.render( m_Hud );
+
+        // passes and draw calls of the previous frame, this one is not done yet
+        m_AnchorsText.setValue( getAnchorRegistry().getCount() );
+        m_PassesText.setValue( getRenderPassGraph().getExecutedCount() );
+        m_DrawCallsText.setValue( m_Hud.getDrawCalls() );
+
+        m_Hud.text( m_AnchorsText );
+        m_Hud.text( m_PassesText );
+        m_Hud.text( m_DrawCallsText );
+    }
+
+
     /** Create a new shader provider that is aware of the Plane material custom shader. */
     @Override
     protected ShaderProvider createShaderProvider()
@@ -154,4 +200,19 @@ public class GdxArApp extends ARCoreScene
     /********************************************************************************
      *                              PRIVATE                                         *
      ********************************************************************************/
+
+    /**
+     * One line below the frame rate.
+     */
+    private void layoutCounters()
+    {
+        float x = 4;
+        float y = m_iScreenHeight - 4 - m_Hud.getFont().getLineHeight();
+
+        m_AnchorsText.setPosition( x, y );
+        x += m_AnchorsText.getWidth();
+        m_PassesText.setPosition( x, y );
+        x += m_PassesText.getWidth();
+        m_DrawCallsText.setPosition( x, y );
+    }
 }
@@ -22,6 +22,7 @@
  ** PREMISES:
  ** REMARKS:
  ** HISTORY:        2018-05-09 : Creation
+ **                 2026-10-18 : Added isViewCreated() for callers on other threads
  ** REVIEW:
  ********************************************************************************/
 
@@ -49,6 +50,9 @@ public class GdxArFragment extends BaseARCoreFragment implements GdxSessionCallb
     private final DebugPrint            m_DebugPrint;
     private GdxArApp                    m_gdxArApp                  = null;
 
+    // set once the gdx view and Gdx.graphics exist, read from the sensor thread
+    private volatile boolean            m_bViewCreated              = false;
+
     /*
      *
      */
@@ -65,7 +69,9 @@ public class GdxArFragment extends BaseARCoreFragment implements GdxSessionCallb
     {
         AndroidApplicationConfiguration config  = new AndroidApplicationConfiguration();
         m_gdxArApp                              = new GdxArApp();
-        return initializeForView(m_gdxArApp, config);
+        View view                               = initializeForView(m_gdxArApp, config);
+        m_bViewCreated                          = true;
+        return view;
     }
 
     /*
@@ -128,6 +134,7 @@ public class GdxArFragment extends BaseARCoreFragment implements GdxSessionCallb
     {
         m_DebugPrint.print("+onDestroy()");
 
+        m_bViewCreated  = false;
         super.onDestroy();
 
         m_DebugPrint.print("-onDestroy()");
@@ -140,5 +147,14 @@ public class GdxArFragment extends BaseARCoreFragment implements GdxSessionCallb
     {
         return m_gdxArApp;
     }
+
+    /**
+     * True between onCreateView() and onDestroy(), only then postRunnable() can be used
+     * since it requests the rendering through Gdx.graphics.
+     */
+    public boolean isViewCreated()
+    {
+        return m_bViewCreated;
+    }
 }
 
@@ -0,0 +1,182 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TiltSensorProcessor.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Turns rotation vector events into AR enable / disable decisions on its
+ **                 own looper thread
+ ** PREMISES:       The listener is called on the sensor thread, only when the decision
+ **                 changed ( or when asked to with redeliver() )
+ ** REMARKS:        Nothing is allocated per event
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.sensor;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import com.funtech.gdxar.math.OrientationMath;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+public class TiltSensorProcessor implements SensorEventListener
+{
+    private static final String         THREAD_NAME                 = "TiltSensor";
+    private static final int            FROM_RADS_TO_DEGS           = -57;
+
+    /**
+     * Receives the decisions, called on the sensor thread.
+     */
+    public interface Listener
+    {
+        void onTiltStateChanged(boolean isAREnabled);
+    }
+
+    private final SensorManager         m_SensorManager;
+    private final Sensor                m_RotationSensor;
+    private final Listener              m_Listener;
+    private final TiltStateMachine      m_StateMachine              = new TiltStateMachine();
+
+    private final float                 m_fRotationMatrix[]         = new float[OrientationMath.MATRIX_SIZE];
+    private final float                 m_fAdjustedRotationMatrix[] = new float[OrientationMath.MATRIX_SIZE];
+    private final float                 m_fOrientation[]            = new float[OrientationMath.ORIENTATION_SIZE];
+
+    private HandlerThread               m_Thread                    = null;
+    private final AtomicBoolean         m_Redeliver                 = new AtomicBoolean(false);
+    private volatile int                m_iPitch;
+    private volatile int                m_iRoll;
+
+    /*
+     *
+     */
+    public TiltSensorProcessor(SensorManager sensorManager, Listener listener)
+    {
+        m_SensorManager     = sensorManager;
+        m_RotationSensor    = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
+        m_Listener          = listener;
+    }
+
+    /**
+     * Starts the sensor thread and registers for the rotation vector.
+     *
+     * @param samplingPeriodUs - requested time between events
+     * @return false if the device has no rotation vector sensor
+     */
+    public boolean start(int samplingPeriodUs)
+    {
+        if(m_RotationSensor == null)
+        {
+            return false;
+        }
+
+        if(m_Thread == null)
+        {
+            m_StateMachine.reset();
+
+            m_Thread = new HandlerThread(THREAD_NAME);
+            m_Thread.start();
+            m_SensorManager.registerListener(this, m_RotationSensor, samplingPeriodUs, new Handler(m_Thread.getLooper()));
+        }
+
+        return true;
+    }
+
+    /*
+     *
+     */
+    public void stop()
+    {
+        if(m_Thread != null)
+        {
+            m_SensorManager.unregisterListener(this);
+            m_Thread.quit();
+            m_Thread = null;
+        }
+    }
+
+    /**
+     * Makes the listener receive the current decision again with the next event, i.e. when
+     * the previous one could not be applied.
+     */
+    public void redeliver()
+    {
+        m_Redeliver.set(true);
+    }
+
+    /**
+     * Last pitch in degrees, for display only.
+     */
+    public int getPitch()
+    {
+        return m_iPitch;
+    }
+
+    /**
+     * Last roll in degrees, for display only.
+     */
+    public int getRoll()
+    {
+        return m_iRoll;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy)
+    {
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void onSensorChanged(SensorEvent event)
+    {
+        if(event.sensor != m_RotationSensor)
+        {
+            return;
+        }
+
+        // same as SensorManager getRotationMatrixFromVector(), remapCoordinateSystem(AXIS_X, AXIS_Z)
+        // and getOrientation(), into preallocated arrays
+        OrientationMath.getRotationMatrixFromVector(m_fRotationMatrix, event.values);
+        OrientationMath.remapCoordinateSystemXZ(m_fRotationMatrix, m_fAdjustedRotationMatrix);
+        OrientationMath.getOrientation(m_fAdjustedRotationMatrix, m_fOrientation);
+
+        int pitch   = (int)(m_fOrientation[1] * FROM_RADS_TO_DEGS);
+        int roll    = (int)(m_fOrientation[2] * FROM_RADS_TO_DEGS);
+
+        m_iPitch    = pitch;
+        m_iRoll     = roll;
+
+        boolean isChanged = m_StateMachine.update(pitch, roll, event.timestamp);
+
+        if(m_Redeliver.getAndSet(false) || isChanged)
+        {
+            m_Listener.onTiltStateChanged(m_StateMachine.isEnabled());
+        }
+    }
+}
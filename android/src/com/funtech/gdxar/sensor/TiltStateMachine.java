@@ -0,0 +1,103 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TiltStateMachine.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Decides from the phone tilt whether AR should be rendered
+ ** PREMISES:       Fed from a single thread
+ ** REMARKS:        The angles must stay in the new zone for DEBOUNCE_NS before the state
+ **                 changes, and leaving the AR zone needs a few degrees more than entering,
+ **                 so a phone held near a limit does not toggle AR on every sensor event
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.sensor;
+
+
+public class TiltStateMachine
+{
+    // AR is enabled while the phone is held up, within these angles in degrees
+    private final static int        PITCH_ENTER                 = 60;
+    private final static int        ROLL_ENTER                  = 50;
+    private final static int        HYSTERESIS                  = 5;
+    private final static long       DEBOUNCE_NS                 = 150 * 1000 * 1000L;
+
+    private boolean                 m_bEnabled                  = false;
+    private boolean                 m_bPending                  = false;    // a change is being debounced
+    private long                    m_lPendingSinceNs;
+
+    /**
+     * @param pitch         - degrees
+     * @param roll          - degrees
+     * @param timestampNs   - time of the sample, i.e. SensorEvent.timestamp
+     * @return true if the state changed with this sample
+     */
+    public boolean update(int pitch, int roll, long timestampNs)
+    {
+        boolean isInZone;
+
+        if(m_bEnabled)
+        {
+            isInZone = (Math.abs(pitch) < (PITCH_ENTER + HYSTERESIS)) && (Math.abs(roll) < (ROLL_ENTER + HYSTERESIS));
+        }
+        else
+        {
+            isInZone = (Math.abs(pitch) < PITCH_ENTER) && (Math.abs(roll) < ROLL_ENTER);
+        }
+
+        if(isInZone == m_bEnabled)
+        {
+            m_bPending = false;
+            return false;
+        }
+
+        if(!m_bPending)
+        {
+            m_bPending          = true;
+            m_lPendingSinceNs   = timestampNs;
+            return false;
+        }
+
+        if((timestampNs - m_lPendingSinceNs) < DEBOUNCE_NS)
+        {
+            return false;
+        }
+
+        m_bEnabled  = isInZone;
+        m_bPending  = false;
+        return true;
+    }
+
+    /*
+     *
+     */
+    public boolean isEnabled()
+    {
+        return m_bEnabled;
+    }
+
+    /*
+     *
+     */
+    public void reset()
+    {
+        m_bEnabled  = false;
+        m_bPending  = false;
+    }
+}
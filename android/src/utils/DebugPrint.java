@@ -20,8 +20,10 @@
  ** AUTHOR:         Farell Leiking
  ** ABSTRACT:
  ** PREMISES:
- ** REMARKS:
+ ** REMARKS:        Use the "{}" formats instead of string concatenation, they cost a
+ **                 branch when printing is disabled
  ** HISTORY:        2018-05-09 : Creation
+ **                 2026-10-18 : Added parameterized / lazy prints and the ring buffer mode
  ** REVIEW:
  ********************************************************************************/
 
@@ -32,10 +34,29 @@ import android.util.Log;
 
 import com.funtech.gdxar.BuildConfig;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 public class DebugPrint
 {
-    private String      m_strDebugName;
-    private boolean     m_bIsEnabled;
+    private static final String         PLACEHOLDER             = "{}";
+    private static final String         RING_TAG                = "DebugPrint";
+
+    /**
+     * Message formatted only when it is printed. In the ring buffer mode it is formatted when
+     * the buffer is dumped, so it must not change after being printed.
+     */
+    public interface Message
+    {
+        void format(StringBuilder builder);
+    }
+
+    private static volatile RingBuffer  s_RingBuffer            = null;
+
+    private String                      m_strDebugName;
+    private boolean                     m_bIsEnabled;
+    private final StringBuilder         m_Builder               = new StringBuilder(128);
 
     /*
      *
@@ -46,6 +67,37 @@ public class DebugPrint
         m_bIsEnabled    = bEnablePrint & BuildConfig.BUILD_TYPE.equals("debug");
     }
 
+    /**
+     * Records the prints of all DebugPrint objects into an in memory ring buffer instead of the
+     * log, see dump().
+     *
+     * @param capacity - number of entries kept, rounded up to a power of 2. 0 to print to the log again
+     */
+    public static void setRingBuffer(int capacity)
+    {
+        s_RingBuffer = (capacity > 0) ? new RingBuffer(capacity) : null;
+    }
+
+    /**
+     * Writes the entries of the ring buffer to the log, oldest first.
+     *
+     * @return number of entries written
+     */
+    public static int dump()
+    {
+        RingBuffer ringBuffer = s_RingBuffer;
+
+        return (ringBuffer != null) ? ringBuffer.dump() : 0;
+    }
+
+    /*
+     *
+     */
+    public boolean isEnabled()
+    {
+        return m_bIsEnabled;
+    }
+
     /*
      *
      */
@@ -53,7 +105,240 @@ public class DebugPrint
     {
         if(m_bIsEnabled)
         {
-            Log.i(m_strDebugName, strDebugMsg);
+            output(strDebugMsg, 0, 0, 0, 0, null);
+        }
+    }
+
+    /**
+     * @param format - message with a "{}" for the argument
+     */
+    public void print(String format, long arg0)
+    {
+        if(m_bIsEnabled)
+        {
+            output(format, 1, arg0, 0, 0, null);
+        }
+    }
+
+    /**
+     * @param format - message with a "{}" for each argument
+     */
+    public void print(String format, long arg0, long arg1)
+    {
+        if(m_bIsEnabled)
+        {
+            output(format, 2, arg0, arg1, 0, null);
+        }
+    }
+
+    /**
+     * @param format - message with a "{}" for each argument
+     */
+    public void print(String format, long arg0, long arg1, long arg2)
+    {
+        if(m_bIsEnabled)
+        {
+            output(format, 3, arg0, arg1, arg2, null);
+        }
+    }
+
+    /*
+     *
+     */
+    public void print(Message message)
+    {
+        if(m_bIsEnabled)
+        {
+            output(null, 0, 0, 0, 0, message);
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void output(String format, int argCount, long arg0, long arg1, long arg2, Message message)
+    {
+        RingBuffer ringBuffer = s_RingBuffer;
+
+        if(ringBuffer != null)
+        {
+            ringBuffer.record(m_strDebugName, format, argCount, arg0, arg1, arg2, message);
+            return;
+        }
+
+        if((argCount == 0) && (message == null))
+        {
+            Log.i(m_strDebugName, format);
+            return;
+        }
+
+        // the builder is shared by the threads printing through this object
+        synchronized(m_Builder)
+        {
+            m_Builder.setLength(0);
+            appendMessage(m_Builder, format, argCount, arg0, arg1, arg2, message);
+            Log.i(m_strDebugName, m_Builder.toString());
+        }
+    }
+
+    /*
+     *
+     */
+    private static void appendMessage(StringBuilder builder, String format, int argCount, long arg0, long arg1, long arg2, Message message)
+    {
+        if(message != null)
+        {
+            message.format(builder);
+            return;
+        }
+
+        int start = 0;
+
+        for(int i = 0; i < argCount; i++)
+        {
+            int index = format.indexOf(PLACEHOLDER, start);
+
+            if(index < 0)
+            {
+                break;
+            }
+
+            builder.append(format, start, index);
+            builder.append((i == 0) ? arg0 : ((i == 1) ? arg1 : arg2));
+            start = index + PLACEHOLDER.length();
+        }
+
+        builder.append(format, start, format.length());
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE CLASSES                                 *
+     ********************************************************************************/
+
+    /**
+     * Fixed size buffer of print events. Writers claim a slot with one atomic increment and
+     * publish it with its sequence number, the reader skips slots that are being written or
+     * were overwritten while reading. Only the references of the format and name are stored.
+     */
+    private static class RingBuffer
+    {
+        private static final int                    ARGS_PER_ENTRY      = 3;
+
+        private final int                           m_iMask;
+        private final AtomicLong                    m_lSequence         = new AtomicLong();
+        private final AtomicLongArray               m_lPublished;       // sequence of the entry in the slot, -1 while written
+        private final AtomicLongArray               m_lTimestamps;
+        private final AtomicLongArray               m_lArgs;
+        private final AtomicLongArray               m_lArgCounts;
+        private final AtomicReferenceArray<String>  m_strNames;
+        private final AtomicReferenceArray<String>  m_strFormats;
+        private final AtomicReferenceArray<Message> m_Messages;
+
+        /*
+         *
+         */
+        RingBuffer(int capacity)
+        {
+            int size        = Integer.highestOneBit(capacity);
+
+            if(size < capacity)
+            {
+                size <<= 1;
+            }
+
+            m_iMask         = size - 1;
+            m_lPublished    = new AtomicLongArray(size);
+            m_lTimestamps   = new AtomicLongArray(size);
+            m_lArgs         = new AtomicLongArray(size * ARGS_PER_ENTRY);
+            m_lArgCounts    = new AtomicLongArray(size);
+            m_strNames      = new AtomicReferenceArray<>(size);
+            m_strFormats    = new AtomicReferenceArray<>(size);
+            m_Messages      = new AtomicReferenceArray<>(size);
+
+            for(int i = 0; i < size; i++)
+            {
+                m_lPublished.set(i, -1);
+            }
+        }
+
+        /*
+         *
+         */
+        void record(String name, String format, int argCount, long arg0, long arg1, long arg2, Message message)
+        {
+            long    sequence    = m_lSequence.getAndIncrement();
+            int     slot        = (int)(sequence & m_iMask);
+
+            m_lPublished.set(slot, -1);
+
+            m_lTimestamps.set(slot, System.nanoTime());
+            m_strNames.set(slot, name);
+            m_strFormats.set(slot, format);
+            m_Messages.set(slot, message);
+            m_lArgCounts.set(slot, argCount);
+            m_lArgs.set((slot * ARGS_PER_ENTRY),     arg0);
+            m_lArgs.set((slot * ARGS_PER_ENTRY) + 1, arg1);
+            m_lArgs.set((slot * ARGS_PER_ENTRY) + 2, arg2);
+
+            m_lPublished.set(slot, sequence);
+        }
+
+        /*
+         *
+         */
+        int dump()
+        {
+            long            end         = m_lSequence.get();
+            long            begin       = Math.max(0, end - (m_iMask + 1));
+            long            firstTime   = -1;
+            int             count       = 0;
+            StringBuilder   builder     = new StringBuilder(128);
+
+            for(long sequence = begin; sequence < end; sequence++)
+            {
+                int slot = (int)(sequence & m_iMask);
+
+                if(m_lPublished.get(slot) != sequence)
+                {
+                    continue;
+                }
+
+                long    timestamp   = m_lTimestamps.get(slot);
+                String  name        = m_strNames.get(slot);
+                String  format      = m_strFormats.get(slot);
+                Message message     = m_Messages.get(slot);
+                int     argCount    = (int)m_lArgCounts.get(slot);
+                long    arg0        = m_lArgs.get((slot * ARGS_PER_ENTRY));
+                long    arg1        = m_lArgs.get((slot * ARGS_PER_ENTRY) + 1);
+                long    arg2        = m_lArgs.get((slot * ARGS_PER_ENTRY) + 2);
+
+                // overwritten while reading
+                if(m_lPublished.get(slot) != sequence)
+                {
+                    continue;
+                }
+
+                if(firstTime < 0)
+                {
+                    firstTime = timestamp;
+                }
+
+                builder.setLength(0);
+                builder.append('+').append((timestamp - firstTime) / 1000L).append("us ").append(name).append(": ");
+                appendMessage(builder, format, argCount, arg0, arg1, arg2, message);
+                Log.i(RING_TAG, builder.toString());
+                count++;
+            }
+
+            return count;
         }
     }
 }
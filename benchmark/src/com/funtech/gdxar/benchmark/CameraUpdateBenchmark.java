@@ -0,0 +1,140 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraUpdateBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Per frame camera composition of CameraScene.render()
+ ** PREMISES:
+ ** REMARKS:        The ARCore frame is stubbed by a ring of precomputed view matrices of a
+ **                 camera walking around the origin, as FrameSnapshot would hold them
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.funtech.gdxar.math.CameraMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CameraUpdateBenchmark
+{
+    private final static int        VIEW_COUNT                  = 64;
+
+    private final float             m_fViews[][]                = new float[VIEW_COUNT][CameraMath.MATRIX_SIZE];
+    private final float             m_fProjection[]             = new float[CameraMath.MATRIX_SIZE];
+    private final float             m_fPose[]                   = new float[CameraMath.POSE_SIZE];
+    private PerspectiveCamera       m_Camera;
+    private int                     m_iIndex;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        // Matrix4.mul() is native in this libGDX version
+        GdxNativesLoader.load();
+
+        Matrix4 view = new Matrix4();
+
+        for(int i = 0; i < VIEW_COUNT; i++)
+        {
+            float angle = (float)((2 * Math.PI * i) / VIEW_COUNT);
+
+            view.setToLookAt(new Vector3((float)Math.cos(angle), 1.6f, (float)Math.sin(angle)),
+                             new Vector3(0, 0, 0),
+                             Vector3.Y);
+            System.arraycopy(view.val, 0, m_fViews[i], 0, CameraMath.MATRIX_SIZE);
+        }
+
+        m_Camera = new PerspectiveCamera(67, 1080, 1920);
+        m_Camera.near   = .01f;
+        m_Camera.far    = 30f;
+        m_Camera.update();
+        System.arraycopy(m_Camera.projection.val, 0, m_fProjection, 0, CameraMath.MATRIX_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    public float[] viewToPose()
+    {
+        CameraMath.viewToPose(nextView(), m_fPose);
+        return m_fPose;
+    }
+
+    /**
+     * FrameSnapshot.capture() pose derivation and CameraScene.updateCamera().
+     */
+    @Benchmark
+    public PerspectiveCamera updateCamera()
+    {
+        float view[] = nextView();
+
+        CameraMath.viewToPose(view, m_fPose);
+        CameraMath.setCameraView(m_Camera, view, m_fPose);
+        return m_Camera;
+    }
+
+    /**
+     * Reference: the same frame with the projection set again, as before FrameSnapshot.
+     */
+    @Benchmark
+    public PerspectiveCamera updateCameraWithProjection()
+    {
+        float view[] = nextView();
+
+        m_Camera.projection.set(m_fProjection);
+        CameraMath.viewToPose(view, m_fPose);
+        CameraMath.setCameraView(m_Camera, view, m_fPose);
+        return m_Camera;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private float[] nextView()
+    {
+        m_iIndex = (m_iIndex + 1) & (VIEW_COUNT - 1);
+        return m_fViews[m_iIndex];
+    }
+}
@@ -0,0 +1,143 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameAllocationBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Checks that the per frame camera path does not allocate in steady state
+ ** PREMISES:       Run with the gc profiler ( see build.gradle ), gc.alloc.rate.norm is
+ **                 expected to be 0 B/op
+ ** REMARKS:        setup() counts the bytes allocated by the thread over CHECKED_FRAMES
+ **                 frames and fails the run if there are any, so the check does not depend
+ **                 on reading the profiler output
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.frame.FrameReplay;
+import com.funtech.gdxar.math.CameraMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameAllocationBenchmark
+{
+    private final static int        WARMUP_FRAMES               = 20000;
+    private final static int        CHECKED_FRAMES              = 100000;
+
+    private FrameReplay             m_Replay;
+    private final CameraSnapshot    m_Snapshot                  = new CameraSnapshot();
+    private PerspectiveCamera       m_Camera;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        // Matrix4.mul() is native in this libGDX version
+        GdxNativesLoader.load();
+
+        m_Replay = new FrameReplay(new ByteArrayInputStream(FrameReplayBenchmark.recordSynthetic()));
+        m_Replay.setLooping(true);
+
+        m_Camera = new PerspectiveCamera(67, 1080, 1920);
+        m_Camera.near   = .01f;
+        m_Camera.far    = 30f;
+        m_Camera.update();
+
+        checkNoAllocation();
+    }
+
+    /**
+     * FrameSnapshot.capture() and CameraScene.updateCamera() for one frame.
+     */
+    @Benchmark
+    public PerspectiveCamera captureFrame()
+    {
+        m_Replay.update();
+        m_Snapshot.capture(m_Replay, m_Camera.near, m_Camera.far);
+
+        if(m_Snapshot.isProjectionChanged())
+        {
+            m_Camera.projection.set(m_Snapshot.getProjectionMatrix());
+        }
+
+        CameraMath.setCameraView(m_Camera, m_Snapshot.getViewMatrix(), m_Snapshot.getPose());
+        return m_Camera;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Throws if captureFrame() allocates once warmed up. Skipped on VMs that do not count the
+     * allocated bytes per thread, the gc profiler still reports them.
+     */
+    private void checkNoAllocation()
+    {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        if(!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled())
+        {
+            return;
+        }
+
+        long threadId = Thread.currentThread().getId();
+
+        for(int i = 0; i < WARMUP_FRAMES; i++)
+        {
+            captureFrame();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+
+        for(int i = 0; i < CHECKED_FRAMES; i++)
+        {
+            captureFrame();
+        }
+
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        if(allocated > 0)
+        {
+            throw new IllegalStateException("Steady state frame allocated " + allocated + " bytes over " + CHECKED_FRAMES + " frames");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameMetricsBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Cost of recording a frame and of reading the percentiles
+ ** PREMISES:
+ ** REMARKS:        readStats() runs concurrently with recording threads to show that the
+ **                 reader does not slow down the recording ( render ) thread
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.funtech.gdxar.utils.FrameMetrics;
+import com.funtech.gdxar.utils.LogHistogram;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameMetricsBenchmark
+{
+    private FrameMetrics            m_FrameMetrics;
+    private LogHistogram            m_Histogram;
+    private long                    m_lValue;
+
+    /**
+     * Reader side state, each reader thread owns its Stats.
+     */
+    @State(Scope.Thread)
+    public static class Reader
+    {
+        FrameMetrics.Stats          m_Stats;
+    }
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        m_FrameMetrics  = new FrameMetrics();
+        m_Histogram     = new LogHistogram(10000000L);
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    @Group("record")
+    public void recordValue()
+    {
+        m_lValue = (m_lValue + 4099) & 0xFFFFF;
+        m_Histogram.record(m_lValue);
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    @Group("frame")
+    @GroupThreads(1)
+    public void beginEndFrame()
+    {
+        m_FrameMetrics.beginFrame();
+        m_FrameMetrics.endFrame();
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    @Group("frame")
+    @GroupThreads(1)
+    public FrameMetrics.Stats readStats(Reader reader)
+    {
+        if(reader.m_Stats == null)
+        {
+            reader.m_Stats = m_FrameMetrics.createStats();
+        }
+
+        m_FrameMetrics.read(reader.m_Stats);
+        return reader.m_Stats;
+    }
+}
@@ -0,0 +1,124 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameRateBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       FrameRate text path, from the metrics to the HudLayer flush
+ ** PREMISES:       GL is stubbed by GdxStub, the SpriteBatch flush runs without a GPU
+ ** REMARKS:        concatenated() is the former "fps" string building, kept as the reference
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : FrameRate draws through a HudLayer
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.funtech.gdxar.graphics.HudLayer;
+import com.funtech.gdxar.utils.FrameMetrics;
+import com.funtech.gdxar.utils.FrameRate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FrameRateBenchmark
+{
+    @Param({ "0", "1", "2", "3" })  // FrameRate.MODE_
+    public int                      m_iDisplayMode;
+
+    private FrameMetrics            m_FrameMetrics;
+    private FrameRate               m_FrameRate;
+    private HudLayer                m_Hud;
+    private SpriteBatch             m_SpriteBatch;
+    private BitmapFont              m_Font;
+    private int                     m_iFrameCount;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        GdxStub.init();
+
+        m_FrameMetrics  = new FrameMetrics();
+        m_FrameRate     = new FrameRate();
+        m_FrameRate.setFrameMetrics(m_FrameMetrics);
+        m_FrameRate.setDisplayMode(m_iDisplayMode);
+        m_FrameRate.resize(1080, 1920);
+
+        m_Hud           = new HudLayer();
+        m_Hud.getFont().getData().setScale(2, 2);   // as GdxArApp
+        m_Hud.resize(1080, 1920);
+
+        m_SpriteBatch   = new SpriteBatch();
+        m_Font          = new BitmapFont();
+        m_Font.getData().setScale(2, 2);
+    }
+
+    /*
+     *
+     */
+    @TearDown
+    public void tearDown()
+    {
+        m_FrameRate.dispose();
+        m_Hud.dispose();
+        m_SpriteBatch.dispose();
+        m_Font.dispose();
+    }
+
+    /**
+     * One frame as GdxArApp draws it.
+     */
+    @Benchmark
+    public void render()
+    {
+        m_FrameMetrics.beginFrame();
+        m_FrameRate.render(m_Hud);
+        m_Hud.flush();
+        m_FrameMetrics.endFrame();
+    }
+
+    /**
+     * Reference: the text built with string concatenation every frame.
+     */
+    @Benchmark
+    public void concatenated()
+    {
+        m_iFrameCount++;
+
+        m_SpriteBatch.begin();
+        m_Font.draw(m_SpriteBatch, (m_iFrameCount & 63) + " fps", 4, 1916);
+        m_SpriteBatch.end();
+    }
+}
@@ -0,0 +1,384 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameReplayBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Per frame path of CameraScene.render() fed by a recorded session
+ ** PREMISES:       Runs on the desktop, no ARCore. -p m_strRecording=<file> replays a session
+ **                 recorded on a device by RecordingFrameSource
+ ** REMARKS:        Without a file a synthetic session ( camera walking around the origin ) is
+ **                 recorded in memory by FrameRecorder first, so both ends of the format run
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Geometry passed to the FrameRecorder constructor
+ **                 2026-10-18 : renderFrame(), the whole CameraScene frame on the stub GL
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.frame.FrameRecorder;
+import com.funtech.gdxar.frame.FrameReplay;
+import com.funtech.gdxar.graphics.LightEnvironment;
+import com.funtech.gdxar.math.CameraMath;
+import com.funtech.gdxar.scene.CameraScene;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameReplayBenchmark
+{
+    private final static int        SYNTHETIC_FRAME_COUNT       = 256;
+    private final static int        DISPLAY_WIDTH               = 1080;
+    private final static int        DISPLAY_HEIGHT              = 1920;
+    private final static float      NEAR                        = .01f;
+    private final static float      FAR                         = 30f;
+
+    @Param({ "" })                  // empty: synthetic session
+    public String                   m_strRecording;
+
+    private FrameReplay             m_Replay;
+    private final CameraSnapshot    m_Snapshot                  = new CameraSnapshot();
+    private final LightEnvironment  m_LightEnvironment          = new LightEnvironment();
+    private PerspectiveCamera       m_Camera;
+    private ReplayScene             m_Scene;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup() throws IOException
+    {
+        // Matrix4.mul() is native in this libGDX version
+        GdxNativesLoader.load();
+
+        InputStream in = m_strRecording.isEmpty() ? new ByteArrayInputStream(recordSynthetic())
+                                                  : new FileInputStream(m_strRecording);
+
+        byte recording[];
+
+        try
+        {
+            recording = readAll(in);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        m_Replay = new FrameReplay(new ByteArrayInputStream(recording));
+
+        if(m_Replay.getFrameCount() == 0)
+        {
+            throw new IOException("Empty frame recording");
+        }
+
+        m_Replay.setLooping(true);
+
+        // the scene replays a copy of its own, the stub GL stands for the device
+        FrameReplay sceneReplay = new FrameReplay(new ByteArrayInputStream(recording));
+        sceneReplay.setLooping(true);
+
+        GdxStub.init();
+        m_Scene = new ReplayScene();
+        m_Scene.create();
+        m_Scene.resize(DISPLAY_WIDTH, DISPLAY_HEIGHT);
+        m_Scene.setFrameSource(sceneReplay);
+        m_Scene.enableAR(true);
+
+        m_Camera = new PerspectiveCamera(67, DISPLAY_WIDTH, DISPLAY_HEIGHT);
+        m_Camera.near   = NEAR;
+        m_Camera.far    = FAR;
+        m_Camera.update();
+    }
+
+    /*
+     *
+     */
+    @TearDown
+    public void tearDown()
+    {
+        m_Scene.dispose();
+    }
+
+    /**
+     * Capture, camera update and light of CameraScene.render() for one replayed frame.
+     */
+    @Benchmark
+    public PerspectiveCamera replayFrame()
+    {
+        m_Replay.update();
+        m_Snapshot.capture(m_Replay, m_Camera.near, m_Camera.far);
+
+        float light[] = m_Snapshot.getLightEstimate();
+        m_LightEnvironment.update(m_Snapshot.isLightEstimateValid(), light[0], light[1], light[2], light[3]);
+
+        if(m_Snapshot.isProjectionChanged())
+        {
+            m_Camera.projection.set(m_Snapshot.getProjectionMatrix());
+        }
+
+        CameraMath.setCameraView(m_Camera, m_Snapshot.getViewMatrix(), m_Snapshot.getPose());
+        return m_Camera;
+    }
+
+    /**
+     * CameraScene.render() for one replayed frame: the capture, update(), and the passes of an
+     * empty scene through the state tracker, the model batch and the HUD flush.
+     */
+    @Benchmark
+    public CameraScene renderFrame()
+    {
+        m_Scene.render();
+        return m_Scene;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Records SYNTHETIC_FRAME_COUNT frames of SyntheticFrameSource, querying the recorder the
+     * way the renderer does. Also used by FrameAllocationBenchmark.
+     */
+    static byte[] recordSynthetic() throws IOException
+    {
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = new FrameRecorder(new SyntheticFrameSource(), out, 0, DISPLAY_WIDTH, DISPLAY_HEIGHT);
+        FloatBuffer             quadUv      = FloatBuffer.wrap(new float[] { 0, 1, 0, 0, 1, 1, 1, 0 });
+        FloatBuffer             outUv       = FloatBuffer.allocate(FrameReplay.QUAD_UV_SIZE);
+        float                   projection[] = new float[FrameReplay.MATRIX_SIZE];
+
+        while(recorder.update())
+        {
+            if(recorder.hasDisplayGeometryChanged())
+            {
+                recorder.transformDisplayUvCoords(quadUv, outUv);
+            }
+
+            recorder.getProjectionMatrix(projection, 0, NEAR, FAR);
+        }
+
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    /*
+     *
+     */
+    private static byte[] readAll(InputStream in) throws IOException
+    {
+        ByteArrayOutputStream   out     = new ByteArrayOutputStream();
+        byte                    buffer[] = new byte[8192];
+        int                     count;
+
+        while((count = in.read(buffer)) > 0)
+        {
+            out.write(buffer, 0, count);
+        }
+
+        return out.toByteArray();
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Scene of no content, there is no camera image to draw without a device.
+     */
+    private static class ReplayScene extends CameraScene
+    {
+        /*
+         *
+         */
+        @Override
+        protected void renderBackground(CameraFrameSource frameSource, Camera camera)
+        {
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void renderModels(ModelBatch modelBatch)
+        {
+        }
+    }
+
+    /**
+     * Camera walking around the origin, with a slowly changing light estimate.
+     */
+    private static class SyntheticFrameSource implements CameraFrameSource
+    {
+        private final Matrix4           m_View              = new Matrix4();
+        private final float             m_fPose[]           = new float[CameraMath.POSE_SIZE];
+        private final PerspectiveCamera m_Camera            = new PerspectiveCamera(67, DISPLAY_WIDTH, DISPLAY_HEIGHT);
+        private int                     m_iFrame            = -1;
+
+        /*
+         *
+         */
+        @Override
+        public boolean update()
+        {
+            if((m_iFrame + 1) >= SYNTHETIC_FRAME_COUNT)
+            {
+                return false;
+            }
+
+            m_iFrame++;
+
+            float angle = (float)((2 * Math.PI * m_iFrame) / SYNTHETIC_FRAME_COUNT);
+
+            m_View.setToLookAt(new Vector3((float)Math.cos(angle), 1.6f, (float)Math.sin(angle)),
+                               new Vector3(0, 0, 0),
+                               Vector3.Y);
+            CameraMath.viewToPose(m_View.val, m_fPose);
+            return true;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public long getTimestamp()
+        {
+            return m_iFrame * 33333333L;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getTrackingStateIndex()
+        {
+            return TRACKING_STATE_TRACKING;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean hasDisplayGeometryChanged()
+        {
+            return false;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+        {
+            m_Camera.near   = near;
+            m_Camera.far    = far;
+            m_Camera.update();
+            System.arraycopy(m_Camera.projection.val, 0, dest, offset, CameraMath.MATRIX_SIZE);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void getViewMatrix(float[] dest, int offset)
+        {
+            System.arraycopy(m_View.val, 0, dest, offset, CameraMath.MATRIX_SIZE);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void getCameraPose(float[] dest, int offset)
+        {
+            System.arraycopy(m_fPose, 0, dest, offset, CameraMath.POSE_SIZE);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean getLightEstimate(float[] dest, int offset)
+        {
+            dest[offset]        = 1f;
+            dest[offset + 1]    = 0.95f;
+            dest[offset + 2]    = 0.9f;
+            dest[offset + 3]    = 0.3f + (0.2f * (m_iFrame & 31) / 31f);
+            return true;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+        {
+            for(int i = 0; i < FrameReplay.QUAD_UV_SIZE; i++)
+            {
+                outUvCoords.put(i, uvCoords.get(i));
+            }
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void setDisplayGeometry(int rotation, int width, int height)
+        {
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void setCameraTextureName(int textureId)
+        {
+        }
+    }
+}
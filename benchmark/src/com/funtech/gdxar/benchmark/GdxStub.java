@@ -0,0 +1,59 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         GdxStub.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Sets up the Gdx globals for benchmarks that need a GL context
+ ** PREMISES:       Needs the gdx natives-desktop jar on the classpath
+ ** REMARKS:        The headless application provides files, graphics and the natives,
+ **                 Gdx.gl is replaced by StubGL20
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+
+public class GdxStub
+{
+    private static HeadlessApplication  m_Application           = null;
+
+    /**
+     * Creates the headless application once per JVM and installs the stub GL.
+     */
+    public static synchronized void init()
+    {
+        if(m_Application != null)
+        {
+            return;
+        }
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval   = 1f;  // keep the idle loop thread out of the measurements
+
+        m_Application           = new HeadlessApplication(new ApplicationAdapter() {}, config);
+
+        Gdx.gl                  = StubGL20.create();
+        Gdx.gl20                = Gdx.gl;
+    }
+}
@@ -0,0 +1,143 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         OrientationBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Tilt computation of TiltSensorProcessor.onSensorChanged()
+ ** PREMISES:
+ ** REMARKS:        The sensor events are stubbed by a ring of random unit rotation vectors
+ **                 with the heading accuracy as 5th value, as TYPE_ROTATION_VECTOR reports
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.funtech.gdxar.math.OrientationMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrientationBenchmark
+{
+    private final static int        EVENT_COUNT                 = 64;
+    private final static int        FROM_RADS_TO_DEGS           = -57;      // same as TiltSensorProcessor
+
+    private final float             m_fEvents[][]               = new float[EVENT_COUNT][5];
+    private final float             m_fRotationMatrix[]         = new float[OrientationMath.MATRIX_SIZE];
+    private final float             m_fAdjustedRotationMatrix[] = new float[OrientationMath.MATRIX_SIZE];
+    private final float             m_fOrientation[]            = new float[OrientationMath.ORIENTATION_SIZE];
+    private int                     m_iIndex;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(1);
+
+        for(int i = 0; i < EVENT_COUNT; i++)
+        {
+            float x = random.nextFloat() - 0.5f;
+            float y = random.nextFloat() - 0.5f;
+            float z = random.nextFloat() - 0.5f;
+            float w = random.nextFloat() - 0.5f;
+            float l = (float)Math.sqrt((x * x) + (y * y) + (z * z) + (w * w));
+
+            m_fEvents[i][0] = x / l;
+            m_fEvents[i][1] = y / l;
+            m_fEvents[i][2] = z / l;
+            m_fEvents[i][3] = w / l;
+            m_fEvents[i][4] = 0.1f;
+        }
+    }
+
+    /**
+     * Returns pitch and roll in degrees packed in an int.
+     */
+    @Benchmark
+    public int tilt()
+    {
+        OrientationMath.getRotationMatrixFromVector(m_fRotationMatrix, nextEvent());
+        OrientationMath.remapCoordinateSystemXZ(m_fRotationMatrix, m_fAdjustedRotationMatrix);
+        OrientationMath.getOrientation(m_fAdjustedRotationMatrix, m_fOrientation);
+
+        return pack(m_fOrientation);
+    }
+
+    /**
+     * Reference: the former processSensorValues() with its per event arrays.
+     */
+    @Benchmark
+    public int tiltAllocating()
+    {
+        float[] event                   = nextEvent();
+        float[] truncatedRotationVector = new float[4];
+        System.arraycopy(event, 0, truncatedRotationVector, 0, 4);
+
+        float[] rotationMatrix          = new float[9];
+        OrientationMath.getRotationMatrixFromVector(rotationMatrix, truncatedRotationVector);
+
+        float[] adjustedRotationMatrix  = new float[9];
+        OrientationMath.remapCoordinateSystemXZ(rotationMatrix, adjustedRotationMatrix);
+
+        float[] orientation             = new float[3];
+        OrientationMath.getOrientation(adjustedRotationMatrix, orientation);
+
+        return pack(orientation);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private float[] nextEvent()
+    {
+        m_iIndex = (m_iIndex + 1) & (EVENT_COUNT - 1);
+        return m_fEvents[m_iIndex];
+    }
+
+    /*
+     *
+     */
+    private static int pack(float orientation[])
+    {
+        int pitch   = (int)(orientation[1] * FROM_RADS_TO_DEGS);
+        int roll    = (int)(orientation[2] * FROM_RADS_TO_DEGS);
+
+        return (pitch << 16) ^ roll;
+    }
+}
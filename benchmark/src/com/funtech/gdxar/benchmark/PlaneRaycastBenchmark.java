@@ -0,0 +1,208 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneRaycastBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       PlaneBVH ray casts against the brute force reference, on synthetic planes
+ ** PREMISES:       The scene is generated from a fixed seed, runs are repeatable
+ ** REMARKS:        setup() compares raycast() with raycastBruteForce() for every ray and fails
+ **                 the run on any mismatch of the plane hit or of the distance
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.funtech.gdxar.scene.PlaneBVH;
+import com.funtech.gdxar.scene.PlaneHit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlaneRaycastBenchmark
+{
+    private final static long       SEED                        = 0x5eed;
+    private final static int        RAY_COUNT                   = 4096;     // power of two
+    private final static int        MAX_VERTICES                = 12;
+    private final static float      SCENE_SIZE                  = 10f;      // planes within +-SCENE_SIZE
+    private final static float      MAX_DISTANCE                = 100f;
+    private final static float      DISTANCE_TOLERANCE          = 1e-4f;
+
+    @Param({ "4", "16", "64" })
+    public int                      m_iPlaneCount;
+
+    private final PlaneBVH          m_Planes                    = new PlaneBVH();
+    private final Ray               m_Rays[]                    = new Ray[RAY_COUNT];
+    private final PlaneHit          m_Hit                       = new PlaneHit();
+    private final PlaneHit          m_ReferenceHit              = new PlaneHit();
+    private int                     m_iIndex;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(SEED);
+
+        createPlanes(random);
+        createRays(random);
+        checkAgainstBruteForce();
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    public boolean raycast()
+    {
+        return m_Planes.raycast(nextRay(), MAX_DISTANCE, m_Hit);
+    }
+
+    /**
+     * Reference: every plane tested.
+     */
+    @Benchmark
+    public boolean raycastBruteForce()
+    {
+        return m_Planes.raycastBruteForce(nextRay(), MAX_DISTANCE, m_Hit);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Convex polygons around the origin of the plane space, placed with a random rigid pose.
+     * A third of the planes are horizontal ( floors, tables ), a third vertical ( walls ).
+     */
+    private void createPlanes(Random random)
+    {
+        Matrix4     model       = new Matrix4();
+        Quaternion  rotation    = new Quaternion();
+        Vector3     position    = new Vector3();
+        float       polygon[]   = new float[MAX_VERTICES * 2];
+
+        for(int i = 0; i < m_iPlaneCount; i++)
+        {
+            int kind = i % 3;
+
+            if(kind == 0)
+            {
+                rotation.setFromAxis(Vector3.Y, random.nextFloat() * 360f);
+            }
+            else
+            if(kind == 1)
+            {
+                rotation.setFromAxis(Vector3.X, 90f).mulLeft(new Quaternion(Vector3.Y, random.nextFloat() * 360f));
+            }
+            else
+            {
+                rotation.setEulerAngles(random.nextFloat() * 360f, random.nextFloat() * 360f, random.nextFloat() * 360f);
+            }
+
+            position.set(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+            model.set(position, rotation);
+
+            int     vertices    = 3 + random.nextInt(MAX_VERTICES - 2);
+            float   radius      = 0.3f + (random.nextFloat() * 2f);
+
+            for(int v = 0; v < vertices; v++)
+            {
+                float angle     = (float)((2 * Math.PI * v) / vertices);
+                float scale     = radius * (0.8f + (0.2f * random.nextFloat()));
+
+                polygon[(v * 2)]        = (float)Math.cos(angle) * scale;
+                polygon[(v * 2) + 1]    = (float)Math.sin(angle) * scale;
+            }
+
+            m_Planes.update(Integer.valueOf(i), polygon, vertices * 2, model.val);
+        }
+    }
+
+    /**
+     * Rays from points of the scene towards other points of the scene, like screen rays of a
+     * camera walking through it.
+     */
+    private void createRays(Random random)
+    {
+        for(int i = 0; i < RAY_COUNT; i++)
+        {
+            Vector3 origin  = new Vector3(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+            Vector3 target  = new Vector3(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+
+            m_Rays[i] = new Ray(origin, target.sub(origin).nor());
+        }
+    }
+
+    /**
+     * Throws on the first ray for which the tree and the brute force cast disagree.
+     */
+    private void checkAgainstBruteForce()
+    {
+        for(int i = 0; i < RAY_COUNT; i++)
+        {
+            boolean isHit       = m_Planes.raycast(m_Rays[i], MAX_DISTANCE, m_Hit);
+            boolean isReference = m_Planes.raycastBruteForce(m_Rays[i], MAX_DISTANCE, m_ReferenceHit);
+
+            if( (isHit != isReference)
+                || (isHit && ( (m_Hit.key != m_ReferenceHit.key)
+                               || (Math.abs(m_Hit.distance - m_ReferenceHit.distance) > DISTANCE_TOLERANCE) )) )
+            {
+                throw new IllegalStateException("PlaneBVH mismatch on ray " + i + ": " + m_Hit.key + " at " + m_Hit.distance
+                                                + ", brute force " + m_ReferenceHit.key + " at " + m_ReferenceHit.distance);
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    private static float randomCoordinate(Random random)
+    {
+        return ((random.nextFloat() * 2f) - 1f) * SCENE_SIZE;
+    }
+
+    /*
+     *
+     */
+    private Ray nextRay()
+    {
+        m_iIndex = (m_iIndex + 1) & (RAY_COUNT - 1);
+        return m_Rays[m_iIndex];
+    }
+}
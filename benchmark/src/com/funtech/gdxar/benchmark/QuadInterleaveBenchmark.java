@@ -0,0 +1,123 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         QuadInterleaveBenchmark.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Background quad vertex writing ( BackgroundRendererHelper )
+ ** PREMISES:
+ ** REMARKS:        allocating() is the former getVertices(), kept as the reference
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.utils.BufferUtils;
+import com.funtech.gdxar.utils.VertexUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuadInterleaveBenchmark
+{
+    // same as BackgroundRendererHelper
+    private final static int        COORDS_PER_VERTEX           = 3;
+    private final static int        TEXCOORDS_PER_VERTEX        = 2;
+    private final static int        NUMBER_OF_VERTICES          = 4;
+    private final static float      QUAD_COORDS[]               = new float[]
+                                                                    {
+                                                                        -1.0f, -1.0f, 0.0f, -1.0f, +1.0f
+                                                                        ,0.0f, +1.0f, -1.0f, 0.0f, +1.0f
+                                                                        ,+1.0f, 0.0f
+                                                                    };
+
+    private FloatBuffer             m_TexCoords;
+    private FloatBuffer             m_Vertices;
+
+    /*
+     *
+     */
+    @Setup
+    public void setup()
+    {
+        m_TexCoords = ByteBuffer.allocateDirect(NUMBER_OF_VERTICES * TEXCOORDS_PER_VERTEX * 4)
+                                .order(ByteOrder.nativeOrder())
+                                .asFloatBuffer();
+        m_TexCoords.put(new float[] { 0.0f, 1.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, 0.0f });
+        m_TexCoords.position(0);
+
+        // direct like the buffer of a Mesh
+        m_Vertices  = BufferUtils.newFloatBuffer(NUMBER_OF_VERTICES * (COORDS_PER_VERTEX + TEXCOORDS_PER_VERTEX));
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    public float[] allocating()
+    {
+        float[] ret = new float[QUAD_COORDS.length + (NUMBER_OF_VERTICES * TEXCOORDS_PER_VERTEX)];
+
+        for(int i = 0; i < NUMBER_OF_VERTICES; i++)
+        {
+            ret[(i * 5) + 0]    = QUAD_COORDS[i * 3];
+            ret[(i * 5) + 1]    = QUAD_COORDS[(i * 3) + 1];
+            ret[(i * 5) + 2]    = QUAD_COORDS[(i * 3) + 2];
+            ret[(i * 5) + 3]    = m_TexCoords.get((i * 2));
+            ret[(i * 5) + 4]    = m_TexCoords.get((i * 2) + 1);
+        }
+
+        return ret;
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    public FloatBuffer inPlaceFull()
+    {
+        VertexUtils.interleave(QUAD_COORDS, COORDS_PER_VERTEX, m_TexCoords, TEXCOORDS_PER_VERTEX,
+                               NUMBER_OF_VERTICES, m_Vertices, true);
+        return m_Vertices;
+    }
+
+    /*
+     *
+     */
+    @Benchmark
+    public FloatBuffer inPlaceTexCoords()
+    {
+        VertexUtils.interleave(QUAD_COORDS, COORDS_PER_VERTEX, m_TexCoords, TEXCOORDS_PER_VERTEX,
+                               NUMBER_OF_VERTICES, m_Vertices, false);
+        return m_Vertices;
+    }
+}
@@ -0,0 +1,117 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         StubGL20.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       GL20 that does nothing, for running render code on a JVM without a GPU
+ ** PREMISES:       Shaders always compile and link, generated handles are unique
+ ** REMARKS:        Every call goes through java.lang.reflect.Proxy, so benchmarks using it
+ **                 measure the Java side of the render path plus a constant proxy cost
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Texture units reported, for the texture binder of ModelBatch
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.benchmark;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+
+public class StubGL20 implements InvocationHandler
+{
+    private final static int        MAX_TEXTURE_UNITS           = 16;
+
+    private int                     m_iNextHandle               = 1;
+
+    /*
+     *
+     */
+    public static GL20 create()
+    {
+        return (GL20)Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class }, new StubGL20());
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+    {
+        String      name        = method.getName();
+        Class<?>    returnType  = method.getReturnType();
+
+        if(name.equals("equals"))
+        {
+            return (proxy == args[0]);
+        }
+
+        if(name.equals("hashCode"))
+        {
+            return System.identityHashCode(proxy);
+        }
+
+        // glGenBuffer(), glGenTexture(), glCreateShader(), glCreateProgram() ...
+        if((returnType == int.class) && (name.startsWith("glGen") || name.startsWith("glCreate")))
+        {
+            return m_iNextHandle++;
+        }
+
+        if(name.equals("glGetShaderiv") || name.equals("glGetProgramiv"))
+        {
+            int pname = (Integer)args[1];
+            boolean isStatus = (pname == GL20.GL_COMPILE_STATUS) || (pname == GL20.GL_LINK_STATUS);
+
+            ((IntBuffer)args[2]).put(0, isStatus ? GL20.GL_TRUE : 0);
+            return null;
+        }
+
+        if(name.equals("glGetIntegerv"))
+        {
+            int pname = (Integer)args[0];
+            ((IntBuffer)args[1]).put(0, (pname == GL20.GL_MAX_TEXTURE_IMAGE_UNITS) ? MAX_TEXTURE_UNITS : 0);
+            return null;
+        }
+
+        return getDefaultValue(returnType);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static Object getDefaultValue(Class<?> type)
+    {
+        if(type == int.class)       return 0;
+        if(type == boolean.class)   return false;
+        if(type == float.class)     return 0f;
+        if(type == long.class)      return 0L;
+        if(type == String.class)    return "";
+
+        return null;
+    }
+}
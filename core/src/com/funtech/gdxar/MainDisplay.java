@@ -23,6 +23,11 @@
  ** REMARKS:
  ** HISTORY:        2018-05-09 : Creation
  **                 2018-07-12 : Change image
+ **                 2026-10-18 : Record frame metrics
+ **                 2026-10-18 : Load the image through the AssetPipeline
+ **                 2026-10-18 : Count the GPU memory
+ **                 2026-10-18 : Draw the image and the frame rate through one HudLayer
+ **                 2026-10-18 : Sets the HUD font scale
  ** REVIEW:
  ********************************************************************************/
 
@@ -32,14 +37,21 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.funtech.gdxar.assets.AssetHandle;
+import com.funtech.gdxar.assets.AssetPipeline;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.graphics.HudLayer;
+import com.funtech.gdxar.utils.FrameMetrics;
 import com.funtech.gdxar.utils.FrameRate;
 
 public class MainDisplay extends ApplicationAdapter
 {
-    SpriteBatch     batch;
-    Texture         img;
-    FrameRate       m_frameRate;
+    HudLayer                m_hud;
+    AssetPipeline           m_assets;
+    AssetHandle<Texture>    m_img;
+    FrameRate               m_frameRate;
+    FrameMetrics            m_frameMetrics;
+    GpuResourceRegistry     m_gpuResources;
 
     /*
      *
@@ -47,9 +59,28 @@ public class MainDisplay extends ApplicationAdapter
     @Override
     public void create()
     {
-        batch       = new SpriteBatch();
-        img         = new Texture("gdxar.png");
-        m_frameRate = new FrameRate();
+        m_hud           = new HudLayer();
+        m_hud.getFont().getData().setScale(2, 2);   // readable on a phone screen
+        m_gpuResources  = new GpuResourceRegistry();
+        m_assets        = new AssetPipeline();
+        m_assets.setResourceRegistry(m_gpuResources);
+        m_img           = m_assets.load("gdxar.png", AssetPipeline.TEXTURE, AssetPipeline.PRIORITY_HIGH, null);
+        m_frameRate     = new FrameRate();
+        m_frameMetrics  = new FrameMetrics();
+
+        m_frameRate.setFrameMetrics(m_frameMetrics);
+        m_frameRate.setResourceRegistry(m_gpuResources);
+        m_hud.setResourceRegistry(m_gpuResources);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void resize(int width, int height)
+    {
+        m_hud.resize(width, height);
+        m_frameRate.resize(width, height);
     }
 
     /*
@@ -58,13 +89,27 @@ public class MainDisplay extends ApplicationAdapter
     @Override
     public void render()
     {
+        m_frameMetrics.beginFrame();
+
         Gdx.gl.glClearColor(0, 0, 0, 0);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-        batch.begin();
-        batch.draw(img, (Gdx.graphics.getWidth()/2 - img.getWidth()/2), (Gdx.graphics.getHeight()/2 - img.getHeight()/2));
-        batch.end();
 
-        m_frameRate.render();
+        m_gpuResources.update();
+        m_assets.update();
+
+        // drawn once loaded
+        Texture img = m_img.get();
+
+        if(img != null)
+        {
+            m_hud.draw(img, (Gdx.graphics.getWidth()/2 - img.getWidth()/2), (Gdx.graphics.getHeight()/2 - img.getHeight()/2),
+                       img.getWidth(), img.getHeight());
+        }
+
+        m_frameRate.render(m_hud);
+        m_hud.flush();
+
+        m_frameMetrics.endFrame();
     }
 
     /*
@@ -73,8 +118,8 @@ public class MainDisplay extends ApplicationAdapter
     @Override
     public void dispose()
     {
-        batch.dispose();
-        img.dispose();
+        m_hud.dispose();
+        m_assets.dispose();
         m_frameRate.dispose();
     }
 }
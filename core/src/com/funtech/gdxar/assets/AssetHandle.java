@@ -0,0 +1,147 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         AssetHandle.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Reference to an asset of the AssetPipeline, loaded or not
+ ** PREMISES:       The getters are meant for the GL thread
+ ** REMARKS:        The handle is also the task passed between the queues of the pipeline
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : GPU resources of the asset
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.funtech.gdxar.graphics.GpuResource;
+
+/*
+ *
+ */
+public class AssetHandle<T> implements Comparable<AssetHandle<?>>
+{
+    final static int                    STATE_QUEUED            = 0;
+    final static int                    STATE_DECODED           = 1;
+    final static int                    STATE_LOADED            = 2;
+    final static int                    STATE_FAILED            = 3;
+
+    final String                        m_strPath;
+    final FileHandle                    m_File;
+    final AssetType<T>                  m_Type;
+    final long                          m_lSequence;
+    final Array<AssetPipeline.Callback<T>> m_Callbacks          = new Array<AssetPipeline.Callback<T>>(1);
+
+    // written by the worker, read by the GL thread once the handle is in the upload queue
+    volatile Object                     m_Decoded;
+    volatile Throwable                  m_Error;
+    volatile int                        m_iState;
+    volatile boolean                    m_bCancelled;
+
+    // only changed while the handle is in no queue
+    int                                 m_iPriority;
+
+    T                                   m_Asset;
+    int                                 m_iRefCount;
+
+    // GL objects of the loaded asset counted in the GpuResourceRegistry
+    final Array<GpuResource>            m_Resources             = new Array<GpuResource>(false, 1);
+
+    /*
+     *
+     */
+    AssetHandle(String path, FileHandle file, AssetType<T> type, int priority, long sequence)
+    {
+        m_strPath   = path;
+        m_File      = file;
+        m_Type      = type;
+        m_iPriority = priority;
+        m_lSequence = sequence;
+    }
+
+    /*
+     *
+     */
+    public String getPath()
+    {
+        return m_strPath;
+    }
+
+    /**
+     * The asset, null until it is loaded.
+     */
+    public T get()
+    {
+        return m_Asset;
+    }
+
+    /*
+     *
+     */
+    public boolean isLoaded()
+    {
+        return (m_iState == STATE_LOADED);
+    }
+
+    /*
+     *
+     */
+    public boolean isFailed()
+    {
+        return (m_iState == STATE_FAILED);
+    }
+
+    /**
+     * Why the load failed, null otherwise.
+     */
+    public Throwable getError()
+    {
+        return m_Error;
+    }
+
+    /*
+     *
+     */
+    public int getPriority()
+    {
+        return m_iPriority;
+    }
+
+    /*
+     *
+     */
+    public int getRefCount()
+    {
+        return m_iRefCount;
+    }
+
+    /**
+     * Higher priority first, then in the order requested.
+     */
+    @Override
+    public int compareTo(AssetHandle<?> other)
+    {
+        if(m_iPriority != other.m_iPriority)
+        {
+            return (m_iPriority > other.m_iPriority) ? -1 : 1;
+        }
+
+        return (m_lSequence < other.m_lSequence) ? -1 : ((m_lSequence == other.m_lSequence) ? 0 : 1);
+    }
+}
@@ -0,0 +1,536 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         AssetPipeline.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Loads textures and models without stalling the render loop
+ ** PREMISES:       load(), unload(), update() and dispose() are called on the GL thread,
+ **                 the callbacks are called from update()
+ ** REMARKS:        Files are read and decoded by a pool of worker threads, the GL objects
+ **                 are created by update() within a time budget per frame
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Compressed KTX variants and texture budget
+ **                 2026-10-18 : Loaded assets counted in a GpuResourceRegistry
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Asynchronous replacement for new Texture(path) and the synchronous model loaders.
+ *
+ * <p>A load() returns a handle at once. The workers take the requests by priority, read and
+ * decode them, and update() turns the decoded data into GL objects until the budget given is
+ * spent, at least one per call. Loading the same path again returns the same handle with one
+ * more reference, the asset is disposed when unload() released the last one.
+ */
+public class AssetPipeline implements Disposable
+{
+    public final static int             PRIORITY_LOW            = -10;
+    public final static int             PRIORITY_NORMAL         = 0;
+    public final static int             PRIORITY_HIGH           = 10;
+
+    public final static long            DEFAULT_UPLOAD_BUDGET   = 4000000L;     // 4ms in ns
+
+    // memory of the textures loaded with TEXTURE and MODEL
+    public final static TextureBudget   TEXTURE_BUDGET          = new TextureBudget(TextureBudget.DEFAULT_BUDGET);
+
+    public final static AssetType<Texture> TEXTURE              = new TextureAssetType(false, Texture.TextureFilter.Linear, Texture.TextureFilter.Linear, TEXTURE_BUDGET);
+    public final static AssetType<Model>   MODEL                = new ModelAssetType(false, Texture.TextureFilter.Linear, Texture.TextureFilter.Linear, TEXTURE_BUDGET);
+
+    private final ObjectMap<String, AssetHandle<?>>             m_Handles       = new ObjectMap<String, AssetHandle<?>>();
+    private final PriorityBlockingQueue<AssetHandle<?>>         m_DecodeQueue   = new PriorityBlockingQueue<AssetHandle<?>>();
+    private final PriorityBlockingQueue<AssetHandle<?>>         m_UploadQueue   = new PriorityBlockingQueue<AssetHandle<?>>();
+    private final Array<AssetHandle<?>>                         m_Notify        = new Array<AssetHandle<?>>(false, 8);
+    private final Thread                                        m_Workers[];
+
+    private GpuResourceRegistry         m_ResourceRegistry;
+    private long                        m_lSequence;
+    private int                         m_iPending;
+    private volatile boolean            m_bDisposed;
+
+    /**
+     * Called on the GL thread once the asset is loaded or failed.
+     */
+    public interface Callback<T>
+    {
+        /*
+         *
+         */
+        void onLoaded(AssetHandle<T> handle);
+
+        /*
+         *
+         */
+        void onFailed(AssetHandle<T> handle, Throwable error);
+    }
+
+    /**
+     * One worker per spare core, at most two, so the decoding does not take the cores of the
+     * GL and the ARCore threads.
+     */
+    public AssetPipeline()
+    {
+        this(Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 2)));
+    }
+
+    /*
+     *
+     */
+    public AssetPipeline(int workerCount)
+    {
+        // formats the workers pick the texture variants for
+        TextureCaps.setCurrent(TextureCaps.query());
+
+        m_Workers = new Thread[workerCount];
+
+        for(int i = 0; i < workerCount; i++)
+        {
+            m_Workers[i] = new Thread(new Runnable()
+            {
+                /*
+                 *
+                 */
+                @Override
+                public void run()
+                {
+                    decodeLoop();
+                }
+            }, "AssetPipeline-" + i);
+
+            m_Workers[i].setDaemon(true);
+            m_Workers[i].setPriority(Thread.NORM_PRIORITY - 1);
+            m_Workers[i].start();
+        }
+    }
+
+    /**
+     * Registry the textures and meshes of the assets loaded from now on are counted in, their
+     * textures can then be evicted while not drawn. Null to not count them.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        m_ResourceRegistry = registry;
+    }
+
+    /*
+     *
+     */
+    public <T> AssetHandle<T> load(String path, AssetType<T> type)
+    {
+        return load(path, type, PRIORITY_NORMAL, null);
+    }
+
+    /**
+     * Requests an internal file.
+     *
+     * @param path      - internal path of the file
+     * @param type      - i.e. TEXTURE or MODEL
+     * @param priority  - higher is loaded first, raises the priority of a pending request
+     * @param callback  - called from update() when done, can be null
+     * @return the handle holding one more reference to the asset
+     */
+    @SuppressWarnings("unchecked")
+    public <T> AssetHandle<T> load(String path, AssetType<T> type, int priority, Callback<T> callback)
+    {
+        if(m_bDisposed)
+        {
+            throw new GdxRuntimeException("AssetPipeline is disposed");
+        }
+
+        AssetHandle<T> handle = (AssetHandle<T>) m_Handles.get(path);
+
+        if(handle == null)
+        {
+            handle = new AssetHandle<T>(path, Gdx.files.internal(path), type, priority, m_lSequence++);
+            m_Handles.put(path, handle);
+            m_iPending++;
+            m_DecodeQueue.add(handle);
+        }
+        else if(handle.m_Type != type)
+        {
+            throw new GdxRuntimeException("Asset " + path + " is already loaded with another type");
+        }
+        else if(priority > handle.m_iPriority)
+        {
+            raisePriority(handle, priority);
+        }
+
+        handle.m_iRefCount++;
+
+        if(callback != null)
+        {
+            handle.m_Callbacks.add(callback);
+
+            // done already, notified by the next update()
+            if((handle.m_iState == AssetHandle.STATE_LOADED) || (handle.m_iState == AssetHandle.STATE_FAILED))
+            {
+                m_Notify.add(handle);
+            }
+        }
+
+        return handle;
+    }
+
+    /**
+     * Releases one reference. The asset is disposed, or its loading dropped, when it was the
+     * last one.
+     */
+    public void unload(AssetHandle<?> handle)
+    {
+        if((handle.m_iRefCount <= 0) || (--handle.m_iRefCount > 0))
+        {
+            return;
+        }
+
+        // a failed handle was already replaced by any later load() of the path
+        if(m_Handles.get(handle.m_strPath) == handle)
+        {
+            m_Handles.remove(handle.m_strPath);
+        }
+
+        m_Notify.removeValue(handle, true);
+        handle.m_Callbacks.clear();
+
+        if(handle.m_iState == AssetHandle.STATE_LOADED)
+        {
+            disposeAsset(handle);
+        }
+        else if(handle.m_iState != AssetHandle.STATE_FAILED)
+        {
+            if(m_DecodeQueue.remove(handle))
+            {
+                m_iPending--;
+            }
+            else
+            {
+                // being decoded or waiting for the upload, dropped by update()
+                handle.m_bCancelled = true;
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    public boolean update()
+    {
+        return update(DEFAULT_UPLOAD_BUDGET);
+    }
+
+    /**
+     * Uploads the decoded assets and calls the callbacks. At least one asset is uploaded per
+     * call, then others while the budget is not spent.
+     *
+     * @param budgetNanos - time given to the uploads
+     * @return true when nothing is left to load
+     */
+    public boolean update(long budgetNanos)
+    {
+        long start = TimeUtils.nanoTime();
+
+        for(int i = 0; i < m_Notify.size; i++)
+        {
+            notify(m_Notify.get(i));
+        }
+
+        m_Notify.clear();
+
+        do
+        {
+            AssetHandle<?> handle = m_UploadQueue.poll();
+
+            if(handle == null)
+            {
+                break;
+            }
+
+            finish(handle);
+        }
+        while((TimeUtils.nanoTime() - start) < budgetNanos);
+
+        return (m_iPending == 0);
+    }
+
+    /**
+     * Requests not loaded yet, whether decoding or waiting for the upload.
+     */
+    public int getPendingCount()
+    {
+        return m_iPending;
+    }
+
+    /*
+     *
+     */
+    public boolean isIdle()
+    {
+        return (m_iPending == 0);
+    }
+
+    /**
+     * Stops the workers and disposes all assets, whatever their references.
+     */
+    @Override
+    public void dispose()
+    {
+        m_bDisposed = true;
+
+        for(int i = 0; i < m_Workers.length; i++)
+        {
+            m_Workers[i].interrupt();
+        }
+
+        // let the current decodes end, their result is then discarded below
+        for(int i = 0; i < m_Workers.length; i++)
+        {
+            try
+            {
+                m_Workers[i].join();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        for(AssetHandle<?> handle : m_Handles.values())
+        {
+            if(handle.m_iState == AssetHandle.STATE_LOADED)
+            {
+                disposeAsset(handle);
+            }
+
+            handle.m_bCancelled = true;
+        }
+
+        AssetHandle<?> handle;
+
+        while((handle = m_UploadQueue.poll()) != null)
+        {
+            discard(handle);
+        }
+
+        m_Handles.clear();
+        m_DecodeQueue.clear();
+        m_Notify.clear();
+        m_iPending = 0;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Runs on the workers.
+     */
+    private void decodeLoop()
+    {
+        while(!m_bDisposed)
+        {
+            AssetHandle<?> handle;
+
+            try
+            {
+                handle = m_DecodeQueue.take();
+            }
+            catch(InterruptedException e)
+            {
+                return;
+            }
+
+            if(!handle.m_bCancelled)
+            {
+                try
+                {
+                    handle.m_Decoded = handle.m_Type.decode(handle.m_File);
+                }
+                catch(Throwable t)
+                {
+                    handle.m_Error = t;
+                }
+            }
+
+            handle.m_iState = AssetHandle.STATE_DECODED;
+            m_UploadQueue.add(handle);
+        }
+    }
+
+    /**
+     * The queues are ordered on the priority, so it is changed while the handle is out.
+     */
+    private void raisePriority(AssetHandle<?> handle, int priority)
+    {
+        if(m_DecodeQueue.remove(handle))
+        {
+            handle.m_iPriority = priority;
+            m_DecodeQueue.add(handle);
+        }
+        else if(m_UploadQueue.remove(handle))
+        {
+            handle.m_iPriority = priority;
+            m_UploadQueue.add(handle);
+        }
+    }
+
+    /*
+     *
+     */
+    private <T> void finish(AssetHandle<T> handle)
+    {
+        m_iPending--;
+
+        if(handle.m_bCancelled)
+        {
+            discard(handle);
+            return;
+        }
+
+        if(handle.m_Error == null)
+        {
+            try
+            {
+                handle.m_Asset  = handle.m_Type.upload(handle.m_File, handle.m_Decoded);
+                handle.m_iState = AssetHandle.STATE_LOADED;
+
+                registerResources(handle);
+            }
+            catch(Throwable t)
+            {
+                handle.m_Error  = t;
+                discard(handle);
+            }
+        }
+
+        handle.m_Decoded = null;
+
+        if(handle.m_Error != null)
+        {
+            handle.m_iState = AssetHandle.STATE_FAILED;
+            Gdx.app.error("AssetPipeline", "Failed to load " + handle.m_strPath, handle.m_Error);
+
+            // a later load() requests the file again
+            m_Handles.remove(handle.m_strPath);
+        }
+
+        notify(handle);
+    }
+
+    /*
+     *
+     */
+    private <T> void notify(AssetHandle<T> handle)
+    {
+        for(int i = 0; i < handle.m_Callbacks.size; i++)
+        {
+            if(handle.m_iState == AssetHandle.STATE_LOADED)
+            {
+                handle.m_Callbacks.get(i).onLoaded(handle);
+            }
+            else
+            {
+                handle.m_Callbacks.get(i).onFailed(handle, handle.m_Error);
+            }
+        }
+
+        handle.m_Callbacks.clear();
+    }
+
+    /*
+     *
+     */
+    private void discard(AssetHandle<?> handle)
+    {
+        Object decoded = handle.m_Decoded;
+
+        handle.m_Decoded = null;
+
+        if(decoded != null)
+        {
+            handle.m_Type.discard(decoded);
+        }
+    }
+
+    /*
+     *
+     */
+    private void registerResources(AssetHandle<?> handle)
+    {
+        GpuResourceRegistry registry    = m_ResourceRegistry;
+        Object              asset       = handle.m_Asset;
+
+        if(registry == null)
+        {
+            return;
+        }
+
+        if(asset instanceof Texture)
+        {
+            handle.m_Resources.add(registry.registerTexture(handle.m_strPath, (Texture) asset));
+        }
+        else if(asset instanceof Model)
+        {
+            Model model = (Model) asset;
+
+            for(int i = 0; i < model.meshes.size; i++)
+            {
+                handle.m_Resources.add(registry.registerMesh(handle.m_strPath + "#mesh" + i, model.meshes.get(i)));
+            }
+
+            int textureCount = 0;
+
+            for(Disposable disposable : model.getManagedDisposables())
+            {
+                if(disposable instanceof Texture)
+                {
+                    handle.m_Resources.add(registry.registerTexture(handle.m_strPath + "#texture" + textureCount++, (Texture) disposable));
+                }
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    private <T> void disposeAsset(AssetHandle<T> handle)
+    {
+        for(int i = 0; i < handle.m_Resources.size; i++)
+        {
+            handle.m_Resources.get(i).unregister();
+        }
+
+        handle.m_Resources.clear();
+        handle.m_Type.dispose(handle.m_Asset);
+        handle.m_Asset  = null;
+        handle.m_iState = AssetHandle.STATE_QUEUED;
+    }
+}
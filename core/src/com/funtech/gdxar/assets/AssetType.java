@@ -0,0 +1,61 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         AssetType.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       How an asset of the AssetPipeline is decoded and uploaded
+ ** PREMISES:       decode() runs on a worker thread and must not use GL, the other
+ **                 methods run on the GL thread
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/*
+ *
+ */
+public interface AssetType<T>
+{
+    /**
+     * Reads and decodes the file, i.e. to a Pixmap. Runs on a worker thread.
+     *
+     * @return the decoded data handed to upload()
+     */
+    Object decode(FileHandle file);
+
+    /**
+     * Creates the asset from the decoded data. Runs on the GL thread within the upload budget
+     * of AssetPipeline.update(), so it should not do more than the GL calls.
+     */
+    T upload(FileHandle file, Object decoded);
+
+    /**
+     * Releases decoded data that will not be uploaded, i.e. when the asset was unloaded while
+     * being decoded.
+     */
+    void discard(Object decoded);
+
+    /*
+     *
+     */
+    void dispose(T asset);
+}
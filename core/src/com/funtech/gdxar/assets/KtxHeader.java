@@ -0,0 +1,308 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         KtxHeader.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Header and mip level layout of a KTX 1.1 file
+ ** PREMISES:       2D textures only, no arrays, cube maps or 3D textures
+ ** REMARKS:        Plain Java, parses from a ByteBuffer starting at index 0
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ *
+ */
+public class KtxHeader
+{
+    public final static int             HEADER_SIZE             = 64;
+
+    private final static byte           IDENTIFIER[]            = { (byte)0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte)0xBB, '\r', '\n', 0x1A, '\n' };
+    private final static int            ENDIANNESS              = 0x04030201;
+
+    private ByteOrder                   m_ByteOrder;
+    private int                         m_iGlType;
+    private int                         m_iGlTypeSize;
+    private int                         m_iGlFormat;
+    private int                         m_iGlInternalFormat;
+    private int                         m_iGlBaseInternalFormat;
+    private int                         m_iWidth;
+    private int                         m_iHeight;
+    private int                         m_iMipLevels;
+    private int                         m_iLevelOffset[];
+    private int                         m_iLevelSize[];
+
+    /**
+     * True if the data starts with the KTX 1.1 identifier.
+     */
+    public static boolean isKtx(ByteBuffer data)
+    {
+        if(data.limit() < HEADER_SIZE)
+        {
+            return false;
+        }
+
+        for(int i = 0; i < IDENTIFIER.length; i++)
+        {
+            if(data.get(i) != IDENTIFIER[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads the header and locates the image of every mip level.
+     *
+     * @param data - the whole file, from index 0 to the limit
+     * @throws GdxRuntimeException if the data is not a supported KTX file
+     */
+    public static KtxHeader parse(ByteBuffer data)
+    {
+        if(!isKtx(data))
+        {
+            throw new GdxRuntimeException("Not a KTX 1.1 file");
+        }
+
+        ByteBuffer buffer = data.duplicate();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if(buffer.getInt(12) != ENDIANNESS)
+        {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if(buffer.getInt(12) != ENDIANNESS)
+            {
+                throw new GdxRuntimeException("Invalid KTX endianness");
+            }
+        }
+
+        KtxHeader header                = new KtxHeader();
+        header.m_ByteOrder              = buffer.order();
+        header.m_iGlType                = buffer.getInt(16);
+        header.m_iGlTypeSize            = buffer.getInt(20);
+        header.m_iGlFormat              = buffer.getInt(24);
+        header.m_iGlInternalFormat      = buffer.getInt(28);
+        header.m_iGlBaseInternalFormat  = buffer.getInt(32);
+        header.m_iWidth                 = buffer.getInt(36);
+        header.m_iHeight                = Math.max(1, buffer.getInt(40));
+        header.m_iMipLevels             = buffer.getInt(56);
+
+        int depth           = buffer.getInt(44);
+        int arrayElements   = buffer.getInt(48);
+        int faces           = buffer.getInt(52);
+        int keyValueBytes   = buffer.getInt(60);
+
+        if((header.m_iWidth <= 0) || (depth != 0) || (arrayElements != 0) || (faces != 1))
+        {
+            throw new GdxRuntimeException("Unsupported KTX texture, only 2D textures are supported");
+        }
+
+        int levelCount          = header.getLevelCount();
+        int offset              = HEADER_SIZE + keyValueBytes;
+        header.m_iLevelOffset   = new int[levelCount];
+        header.m_iLevelSize     = new int[levelCount];
+
+        for(int level = 0; level < levelCount; level++)
+        {
+            if((offset < HEADER_SIZE) || ((offset + 4) > buffer.limit()))
+            {
+                throw new GdxRuntimeException("Truncated KTX file at mip level " + level);
+            }
+
+            int size = buffer.getInt(offset);
+            offset  += 4;
+
+            if((size < 0) || ((offset + size) > buffer.limit()))
+            {
+                throw new GdxRuntimeException("Truncated KTX file at mip level " + level);
+            }
+
+            header.m_iLevelOffset[level]    = offset;
+            header.m_iLevelSize[level]      = size;
+
+            // each level is padded to 4 bytes
+            offset += (size + 3) & ~3;
+        }
+
+        return header;
+    }
+
+    /**
+     * Byte order of the file, the one of the uncompressed texel data.
+     */
+    public ByteOrder getByteOrder()
+    {
+        return m_ByteOrder;
+    }
+
+    /**
+     * True for compressed data, whose glType and glFormat are 0.
+     */
+    public boolean isCompressed()
+    {
+        return (m_iGlType == 0);
+    }
+
+    /*
+     *
+     */
+    public int getGlType()
+    {
+        return m_iGlType;
+    }
+
+    /*
+     *
+     */
+    public int getGlTypeSize()
+    {
+        return m_iGlTypeSize;
+    }
+
+    /*
+     *
+     */
+    public int getGlFormat()
+    {
+        return m_iGlFormat;
+    }
+
+    /*
+     *
+     */
+    public int getGlInternalFormat()
+    {
+        return m_iGlInternalFormat;
+    }
+
+    /*
+     *
+     */
+    public int getGlBaseInternalFormat()
+    {
+        return m_iGlBaseInternalFormat;
+    }
+
+    /*
+     *
+     */
+    public int getWidth()
+    {
+        return m_iWidth;
+    }
+
+    /*
+     *
+     */
+    public int getHeight()
+    {
+        return m_iHeight;
+    }
+
+    /**
+     * Levels stored in the file. 0 in the header means that the mip maps are to be generated,
+     * the file then holds one level.
+     */
+    public int getLevelCount()
+    {
+        return Math.max(1, m_iMipLevels);
+    }
+
+    /**
+     * True if the file asks for the mip maps to be generated.
+     */
+    public boolean isMipMapGenerated()
+    {
+        return (m_iMipLevels == 0);
+    }
+
+    /*
+     *
+     */
+    public int getLevelWidth(int level)
+    {
+        return Math.max(1, m_iWidth >> level);
+    }
+
+    /*
+     *
+     */
+    public int getLevelHeight(int level)
+    {
+        return Math.max(1, m_iHeight >> level);
+    }
+
+    /**
+     * Position of the image of the level in the file.
+     */
+    public int getLevelOffset(int level)
+    {
+        return m_iLevelOffset[level];
+    }
+
+    /*
+     *
+     */
+    public int getLevelSize(int level)
+    {
+        return m_iLevelSize[level];
+    }
+
+    /**
+     * Size of the images from the level to the smallest one.
+     */
+    public long getSizeFromLevel(int level)
+    {
+        long size = 0;
+
+        for(int i = level; i < m_iLevelSize.length; i++)
+        {
+            size += m_iLevelSize[i];
+        }
+
+        return size;
+    }
+
+    /**
+     * First level to upload so that the texture fits the memory available, at most the
+     * smallest level. Each level dropped divides the memory by four.
+     */
+    public int selectBaseLevel(long available)
+    {
+        int     base    = 0;
+        long    size    = getSizeFromLevel(0);
+
+        while((size > available) && (base < (m_iLevelSize.length - 1)))
+        {
+            size -= m_iLevelSize[base];
+            base++;
+        }
+
+        return base;
+    }
+}
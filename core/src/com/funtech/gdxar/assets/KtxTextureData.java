@@ -0,0 +1,334 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         KtxTextureData.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       TextureData uploading the mip levels of a KTX file as they are stored
+ ** PREMISES:       prepare() reads and checks the file off the GL thread, only the
+ **                 glCompressedTexImage2D calls are left for the upload
+ ** REMARKS:        ETC1 data the device can not upload is decoded to RGB565, other
+ **                 unsupported formats are reported by isSupported() for the caller to
+ **                 load the uncompressed fallback
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.graphics.glutils.MipMapGenerator;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unlike libGDX's KTXTextureData, the format is checked against the device before the upload,
+ * ETC1 data is uploaded as ETC2 when only the latter is available, and the top mip levels are
+ * left out while the TextureBudget is exceeded. The texture is managed, the file is read again
+ * when the context is lost.
+ */
+public class KtxTextureData implements TextureData
+{
+    private final FileHandle            m_File;
+    private final TextureCaps           m_Caps;
+    private final TextureBudget         m_Budget;
+    private final boolean               m_bGenMipMaps;
+
+    private KtxHeader                   m_Header;
+    private ByteBuffer                  m_Data;
+    private Pixmap                      m_Pixmap;                       // decoded ETC1
+    private int                         m_iUploadFormat;
+    private int                         m_iBaseLevel                = -1;
+    private long                        m_lUploadedBytes;
+
+    /**
+     * @param file          - the KTX file
+     * @param caps          - formats of the device
+     * @param budget        - memory left for textures, null for no limit
+     * @param genMipMaps    - generate the mip maps of a file holding a single level
+     */
+    public KtxTextureData(FileHandle file, TextureCaps caps, TextureBudget budget, boolean genMipMaps)
+    {
+        m_File          = file;
+        m_Caps          = caps;
+        m_Budget        = budget;
+        m_bGenMipMaps   = genMipMaps;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public TextureDataType getType()
+    {
+        return TextureDataType.Custom;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean isPrepared()
+    {
+        return (m_Data != null) || (m_Pixmap != null);
+    }
+
+    /**
+     * Reads the file and selects what is uploaded. Does not use GL.
+     */
+    @Override
+    public void prepare()
+    {
+        if(isPrepared())
+        {
+            throw new GdxRuntimeException("Already prepared");
+        }
+
+        byte bytes[]    = m_File.readBytes();
+        m_Data          = BufferUtils.newByteBuffer(bytes.length);
+        m_Data.put(bytes);
+        m_Data.flip();
+
+        m_Header        = KtxHeader.parse(m_Data);
+        m_iUploadFormat = m_Header.isCompressed() ? m_Caps.getUploadFormat(m_Header.getGlInternalFormat()) : m_Header.getGlInternalFormat();
+
+        // kept when prepared again after a context loss
+        if(m_iBaseLevel < 0)
+        {
+            m_iBaseLevel = m_Header.selectBaseLevel((m_Budget != null) ? m_Budget.getAvailable() : Long.MAX_VALUE);
+        }
+
+        if(m_iUploadFormat != 0)
+        {
+            m_lUploadedBytes = m_Header.getSizeFromLevel(m_iBaseLevel);
+
+            if(m_Header.isMipMapGenerated() && m_bGenMipMaps)
+            {
+                m_lUploadedBytes = (m_lUploadedBytes * 4) / 3;
+            }
+        }
+        else if(TextureFormats.isEtc1(m_Header.getGlInternalFormat()))
+        {
+            decodeEtc1();
+        }
+    }
+
+    /**
+     * False if the device has no way to use the data, the caller should then load the
+     * uncompressed fallback. Valid once prepared.
+     */
+    public boolean isSupported()
+    {
+        return (m_iUploadFormat != 0) || (m_Pixmap != null);
+    }
+
+    /**
+     * Frees the prepared data without uploading it.
+     */
+    public void release()
+    {
+        m_Data = null;
+
+        if(m_Pixmap != null)
+        {
+            m_Pixmap.dispose();
+            m_Pixmap = null;
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void consumeCustomData(int target)
+    {
+        if(!isPrepared())
+        {
+            throw new GdxRuntimeException("Call prepare() before calling consumeCustomData()");
+        }
+
+        GL20 gl = Gdx.gl;
+
+        // rows of KTX images are 4 bytes aligned
+        gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 4);
+
+        if(m_Pixmap != null)
+        {
+            if(m_bGenMipMaps)
+            {
+                MipMapGenerator.generateMipMap(target, m_Pixmap, m_Pixmap.getWidth(), m_Pixmap.getHeight());
+            }
+            else
+            {
+                gl.glTexImage2D(target, 0, m_Pixmap.getGLInternalFormat(), m_Pixmap.getWidth(), m_Pixmap.getHeight(), 0,
+                                m_Pixmap.getGLFormat(), m_Pixmap.getGLType(), m_Pixmap.getPixels());
+            }
+        }
+        else
+        {
+            for(int level = m_iBaseLevel; level < m_Header.getLevelCount(); level++)
+            {
+                int width   = m_Header.getLevelWidth(level);
+                int height  = m_Header.getLevelHeight(level);
+                int size    = m_Header.getLevelSize(level);
+
+                m_Data.limit(m_Header.getLevelOffset(level) + size);
+                m_Data.position(m_Header.getLevelOffset(level));
+
+                if(m_Header.isCompressed())
+                {
+                    gl.glCompressedTexImage2D(target, level - m_iBaseLevel, m_iUploadFormat, width, height, 0, size, m_Data);
+                }
+                else
+                {
+                    gl.glTexImage2D(target, level - m_iBaseLevel, m_iUploadFormat, width, height, 0,
+                                    m_Header.getGlFormat(), m_Header.getGlType(), m_Data);
+                }
+            }
+
+            if(!m_Header.isCompressed() && m_Header.isMipMapGenerated() && m_bGenMipMaps)
+            {
+                gl.glGenerateMipmap(target);
+            }
+        }
+
+        release();
+    }
+
+    /**
+     * GPU memory taken by the texture, valid once prepared.
+     */
+    public long getUploadedBytes()
+    {
+        return m_lUploadedBytes;
+    }
+
+    /**
+     * Levels of the file left out to fit the budget.
+     */
+    public int getBaseLevel()
+    {
+        return m_iBaseLevel;
+    }
+
+    /**
+     * Header of the file, null until prepared.
+     */
+    public KtxHeader getHeader()
+    {
+        return m_Header;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Pixmap consumePixmap()
+    {
+        throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean disposePixmap()
+    {
+        throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getWidth()
+    {
+        return (m_Pixmap != null) ? m_Pixmap.getWidth() : m_Header.getLevelWidth(m_iBaseLevel);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getHeight()
+    {
+        return (m_Pixmap != null) ? m_Pixmap.getHeight() : m_Header.getLevelHeight(m_iBaseLevel);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Pixmap.Format getFormat()
+    {
+        if(m_Pixmap != null)
+        {
+            return m_Pixmap.getFormat();
+        }
+
+        return (m_Header.getGlBaseInternalFormat() == GL20.GL_RGB) ? Pixmap.Format.RGB888 : Pixmap.Format.RGBA8888;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean useMipMaps()
+    {
+        return m_bGenMipMaps || (m_Header.getLevelCount() > 1);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean isManaged()
+    {
+        return true;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Software fallback for the devices with neither ETC1 nor ETC2, only the base level is
+     * decoded, the smaller ones are generated if asked.
+     */
+    private void decodeEtc1()
+    {
+        int offset = m_Header.getLevelOffset(m_iBaseLevel);
+
+        m_Data.limit(offset + m_Header.getLevelSize(m_iBaseLevel));
+        m_Data.position(offset);
+
+        ETC1.ETC1Data etc1 = new ETC1.ETC1Data(m_Header.getLevelWidth(m_iBaseLevel), m_Header.getLevelHeight(m_iBaseLevel), m_Data.slice(), 0);
+
+        m_Pixmap            = ETC1.decodeImage(etc1, Pixmap.Format.RGB565);
+        m_Data              = null;
+        m_lUploadedBytes    = TextureBudget.estimateBytes(m_Pixmap.getWidth(), m_Pixmap.getHeight(), Pixmap.Format.RGB565, m_bGenMipMaps);
+    }
+}
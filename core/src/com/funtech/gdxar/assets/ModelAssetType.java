@@ -0,0 +1,196 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         ModelAssetType.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Model parsed to ModelData on the worker thread, with the texture data
+ **                 of its materials
+ ** PREMISES:       .g3dj, .g3db and .obj files
+ ** REMARKS:        The meshes and textures are created by the upload, the textures are
+ **                 owned and disposed by the model
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Compressed KTX variants and texture budget
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader;
+import com.badlogic.gdx.graphics.g3d.loader.ObjLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
+import com.badlogic.gdx.graphics.g3d.utils.TextureProvider;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.UBJsonReader;
+
+/*
+ *
+ */
+public class ModelAssetType implements AssetType<Model>
+{
+    private final boolean               m_bGenMipMaps;
+    private final Texture.TextureFilter m_MinFilter;
+    private final Texture.TextureFilter m_MagFilter;
+    private final TextureBudget         m_Budget;
+
+    /*
+     *
+     */
+    public ModelAssetType(boolean genMipMaps, Texture.TextureFilter minFilter, Texture.TextureFilter magFilter, TextureBudget budget)
+    {
+        m_bGenMipMaps   = genMipMaps;
+        m_MinFilter     = minFilter;
+        m_MagFilter     = magFilter;
+        m_Budget        = budget;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Object decode(FileHandle file)
+    {
+        Decoded     decoded     = new Decoded();
+        String      extension   = file.extension().toLowerCase();
+
+        // the loaders keep parsing state, one per decode
+        if(extension.equals("g3dj"))
+        {
+            decoded.m_ModelData = new G3dModelLoader(new JsonReader()).parseModel(file);
+        }
+        else if(extension.equals("g3db"))
+        {
+            decoded.m_ModelData = new G3dModelLoader(new UBJsonReader()).parseModel(file);
+        }
+        else if(extension.equals("obj"))
+        {
+            decoded.m_ModelData = new ObjLoader().loadModelData(file, new ObjLoader.ObjLoaderParameters());
+        }
+        else
+        {
+            throw new GdxRuntimeException("Unsupported model format: " + file.path());
+        }
+
+        // the loaders give the texture paths relative to the working directory
+        for(ModelMaterial material : decoded.m_ModelData.materials)
+        {
+            if(material.textures == null)
+            {
+                continue;
+            }
+
+            for(ModelTexture texture : material.textures)
+            {
+                if(!decoded.m_Textures.containsKey(texture.fileName))
+                {
+                    FileHandle textureFile = Gdx.files.getFileHandle(texture.fileName, file.type());
+                    decoded.m_Textures.put(texture.fileName, TextureAssetType.prepare(textureFile, m_bGenMipMaps, m_Budget));
+                }
+            }
+        }
+
+        return decoded;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Model upload(FileHandle file, Object decoded)
+    {
+        final Decoded                       data        = (Decoded) decoded;
+        final ObjectMap<String, Texture>    textures    = new ObjectMap<String, Texture>();
+
+        for(ObjectMap.Entry<String, TextureData> entry : data.m_Textures)
+        {
+            textures.put(entry.key, TextureAssetType.create(entry.value, m_MinFilter, m_MagFilter, m_Budget));
+        }
+
+        data.m_Textures.clear();
+
+        return new Model(data.m_ModelData, new TextureProvider()
+        {
+            /*
+             *
+             */
+            @Override
+            public Texture load(String fileName)
+            {
+                return textures.get(fileName);
+            }
+        });
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void discard(Object decoded)
+    {
+        Decoded data = (Decoded) decoded;
+
+        for(TextureData texture : data.m_Textures.values())
+        {
+            TextureAssetType.release(texture);
+        }
+
+        data.m_Textures.clear();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose(Model asset)
+    {
+        // the textures of the model are among its managed disposables
+        for(Disposable disposable : asset.getManagedDisposables())
+        {
+            if(disposable instanceof Texture)
+            {
+                m_Budget.unregister((Texture) disposable);
+            }
+        }
+
+        asset.dispose();
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static class Decoded
+    {
+        ModelData                           m_ModelData;
+        final ObjectMap<String, TextureData> m_Textures         = new ObjectMap<String, TextureData>();
+    }
+}
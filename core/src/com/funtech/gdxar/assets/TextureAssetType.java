@@ -0,0 +1,186 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TextureAssetType.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Texture decoded to TextureData on the worker thread
+ ** PREMISES:       TextureCaps.getCurrent() is set, see AssetPipeline
+ ** REMARKS:        Same split as libGDX's TextureLoader, the TextureData is prepared off
+ **                 the GL thread and only glTexImage2D is left for the upload
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Compressed KTX variants and texture budget
+ **                 2026-10-18 : Evictable textures
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.funtech.gdxar.graphics.EvictableTexture;
+
+/**
+ * Loads the best compressed variant of the texture the device supports ( see TextureFormats ),
+ * the file itself otherwise. The textures are counted in the TextureBudget.
+ */
+public class TextureAssetType implements AssetType<Texture>
+{
+    private final boolean               m_bGenMipMaps;
+    private final Texture.TextureFilter m_MinFilter;
+    private final Texture.TextureFilter m_MagFilter;
+    private final TextureBudget         m_Budget;
+
+    /*
+     *
+     */
+    public TextureAssetType(boolean genMipMaps, Texture.TextureFilter minFilter, Texture.TextureFilter magFilter, TextureBudget budget)
+    {
+        m_bGenMipMaps   = genMipMaps;
+        m_MinFilter     = minFilter;
+        m_MagFilter     = magFilter;
+        m_Budget        = budget;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Object decode(FileHandle file)
+    {
+        return prepare(file, m_bGenMipMaps, m_Budget);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Texture upload(FileHandle file, Object decoded)
+    {
+        return create((TextureData) decoded, m_MinFilter, m_MagFilter, m_Budget);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void discard(Object decoded)
+    {
+        release((TextureData) decoded);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose(Texture asset)
+    {
+        m_Budget.unregister(asset);
+        asset.dispose();
+    }
+
+    /**
+     * Loads and prepares the texture data of the file, without GL.
+     */
+    static TextureData prepare(FileHandle file, boolean genMipMaps, TextureBudget budget)
+    {
+        TextureCaps caps = TextureCaps.getCurrent();
+
+        file = TextureFormats.selectVariant(file, caps);
+
+        if(TextureFormats.isKtx(file.name()))
+        {
+            KtxTextureData ktx = new KtxTextureData(file, caps, budget, genMipMaps);
+            ktx.prepare();
+
+            if(ktx.isSupported())
+            {
+                return ktx;
+            }
+
+            ktx.release();
+
+            // none of the formats of the device, load the uncompressed file shipped with it
+            FileHandle fallback = file.sibling(TextureFormats.getFallbackName(file.name()));
+
+            if(!fallback.exists())
+            {
+                throw new GdxRuntimeException("Unsupported format " + Integer.toHexString(ktx.getHeader().getGlInternalFormat())
+                                              + " for " + file.path() + " with " + caps + " and no " + fallback.name());
+            }
+
+            file = fallback;
+        }
+
+        TextureData data = TextureData.Factory.loadFromFile(file, genMipMaps);
+
+        if(!data.isPrepared())
+        {
+            data.prepare();
+        }
+
+        return data;
+    }
+
+    /**
+     * Creates the texture on the GL thread and counts it in the budget. The texture can be
+     * evicted once registered in a GpuResourceRegistry.
+     */
+    static Texture create(TextureData data, Texture.TextureFilter minFilter, Texture.TextureFilter magFilter, TextureBudget budget)
+    {
+        Texture texture = new EvictableTexture(data);
+
+        // a mip mapped KTX file brings its levels, use them
+        if((data instanceof KtxTextureData) && data.useMipMaps() && !minFilter.isMipMap())
+        {
+            minFilter = Texture.TextureFilter.MipMapLinearNearest;
+        }
+
+        texture.setFilter(minFilter, magFilter);
+
+        if(!budget.register(texture, data))
+        {
+            Gdx.app.log("TextureBudget", "Over budget, " + (budget.getUsed() >> 10) + " of " + (budget.getBudget() >> 10) + " KB used");
+        }
+
+        return texture;
+    }
+
+    /**
+     * Frees the pixmap of prepared texture data that is not uploaded.
+     */
+    static void release(TextureData data)
+    {
+        if(data instanceof KtxTextureData)
+        {
+            ((KtxTextureData) data).release();
+        }
+        else if(data.isPrepared() && (data.getType() == TextureData.TextureDataType.Pixmap))
+        {
+            Pixmap pixmap = data.consumePixmap();
+
+            if(data.disposePixmap())
+            {
+                pixmap.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TextureBudget.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Accounting of the GPU memory used by the textures of the AssetPipeline
+ ** PREMISES:       register() and unregister() on the GL thread, the other methods from
+ **                 any thread
+ ** REMARKS:        Compressed textures are loaded from a lower mip level while over the
+ **                 budget, uncompressed ones are only counted
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ *
+ */
+public class TextureBudget
+{
+    public final static long            DEFAULT_BUDGET          = 64L * 1024L * 1024L;
+
+    private final AtomicLong            m_lUsed                 = new AtomicLong();
+    private final ObjectIntMap<Texture> m_Sizes                 = new ObjectIntMap<Texture>();
+    private volatile long               m_lBudget;
+
+    /*
+     *
+     */
+    public TextureBudget(long budgetBytes)
+    {
+        m_lBudget = budgetBytes;
+    }
+
+    /*
+     *
+     */
+    public long getBudget()
+    {
+        return m_lBudget;
+    }
+
+    /*
+     *
+     */
+    public void setBudget(long budgetBytes)
+    {
+        m_lBudget = budgetBytes;
+    }
+
+    /**
+     * Memory of the registered textures.
+     */
+    public long getUsed()
+    {
+        return m_lUsed.get();
+    }
+
+    /*
+     *
+     */
+    public long getAvailable()
+    {
+        return Math.max(0, m_lBudget - m_lUsed.get());
+    }
+
+    /*
+     *
+     */
+    public boolean isOverBudget()
+    {
+        return (m_lUsed.get() > m_lBudget);
+    }
+
+    /**
+     * Counts a texture created from the data.
+     *
+     * @return false if the budget is now exceeded
+     */
+    public boolean register(Texture texture, TextureData data)
+    {
+        int bytes = (int)Math.min(Integer.MAX_VALUE, estimateBytes(data));
+
+        m_Sizes.put(texture, bytes);
+
+        return (m_lUsed.addAndGet(bytes) <= m_lBudget);
+    }
+
+    /**
+     * Releases a texture counted by register(), i.e. when it is disposed.
+     */
+    public void unregister(Texture texture)
+    {
+        m_lUsed.addAndGet(-m_Sizes.remove(texture, 0));
+    }
+
+    /**
+     * GPU memory of a texture created from the data.
+     */
+    public static long estimateBytes(TextureData data)
+    {
+        if(data instanceof KtxTextureData)
+        {
+            return ((KtxTextureData) data).getUploadedBytes();
+        }
+
+        return estimateBytes(data.getWidth(), data.getHeight(), data.getFormat(), data.useMipMaps());
+    }
+
+    /**
+     * GPU memory of an uncompressed texture, a third more with its mip maps.
+     */
+    public static long estimateBytes(int width, int height, Pixmap.Format format, boolean useMipMaps)
+    {
+        long size = (long)width * height * getBytesPerPixel(format);
+
+        return useMipMaps ? ((size * 4) / 3) : size;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static int getBytesPerPixel(Pixmap.Format format)
+    {
+        switch(format)
+        {
+            case Alpha:
+            case Intensity:
+                return 1;
+
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+
+            case RGB888:
+                return 3;
+
+            default:
+                return 4;
+        }
+    }
+}
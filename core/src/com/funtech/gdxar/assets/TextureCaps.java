@@ -0,0 +1,156 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TextureCaps.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Compressed texture formats the device can upload
+ ** PREMISES:       query() must be called on the GL thread, the caps are then read from
+ **                 the decoding workers through getCurrent()
+ ** REMARKS:        Plain Java apart from query()
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.Gdx;
+
+/*
+ *
+ */
+public class TextureCaps
+{
+    public final static String          EXTENSION_ETC1          = "GL_OES_compressed_ETC1_RGB8_texture";
+    public final static String          EXTENSION_ASTC          = "GL_KHR_texture_compression_astc_ldr";
+
+    public final static TextureCaps     NONE                    = new TextureCaps(false, false, false);
+
+    private static volatile TextureCaps s_Current               = NONE;
+
+    private final boolean               m_bEtc1;
+    private final boolean               m_bEtc2;
+    private final boolean               m_bAstc;
+
+    /*
+     *
+     */
+    public TextureCaps(boolean isEtc1, boolean isEtc2, boolean isAstc)
+    {
+        m_bEtc1 = isEtc1;
+        m_bEtc2 = isEtc2;
+        m_bAstc = isAstc;
+    }
+
+    /**
+     * Reads the formats of the current context. ETC2 is core in GLES 3.0, which is what the
+     * Android drivers give even when a GLES 2.0 context is asked for.
+     */
+    public static TextureCaps query()
+    {
+        if(Gdx.graphics == null)
+        {
+            return NONE;
+        }
+
+        return new TextureCaps(Gdx.graphics.supportsExtension(EXTENSION_ETC1),
+                               Gdx.graphics.getGLVersion().getMajorVersion() >= 3,
+                               Gdx.graphics.supportsExtension(EXTENSION_ASTC));
+    }
+
+    /**
+     * Caps used by the texture loading, NONE until set.
+     */
+    public static TextureCaps getCurrent()
+    {
+        return s_Current;
+    }
+
+    /*
+     *
+     */
+    public static void setCurrent(TextureCaps caps)
+    {
+        s_Current = caps;
+    }
+
+    /*
+     *
+     */
+    public boolean isEtc1Supported()
+    {
+        return m_bEtc1;
+    }
+
+    /*
+     *
+     */
+    public boolean isEtc2Supported()
+    {
+        return m_bEtc2;
+    }
+
+    /*
+     *
+     */
+    public boolean isAstcSupported()
+    {
+        return m_bAstc;
+    }
+
+    /**
+     * Format to give glCompressedTexImage2D for data compressed with the format, 0 if the
+     * device can not use it. ETC1 data is valid ETC2 RGB data, so it is uploaded as such when
+     * the ETC1 extension is missing.
+     */
+    public int getUploadFormat(int glInternalFormat)
+    {
+        if(TextureFormats.isEtc1(glInternalFormat))
+        {
+            return m_bEtc1 ? glInternalFormat : (m_bEtc2 ? TextureFormats.GL_COMPRESSED_RGB8_ETC2 : 0);
+        }
+
+        if(TextureFormats.isEtc2(glInternalFormat))
+        {
+            return m_bEtc2 ? glInternalFormat : 0;
+        }
+
+        if(TextureFormats.isAstc(glInternalFormat))
+        {
+            return m_bAstc ? glInternalFormat : 0;
+        }
+
+        return 0;
+    }
+
+    /*
+     *
+     */
+    public boolean isSupported(int glInternalFormat)
+    {
+        return (getUploadFormat(glInternalFormat) != 0);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public String toString()
+    {
+        return "TextureCaps(etc1 " + m_bEtc1 + ", etc2 " + m_bEtc2 + ", astc " + m_bAstc + ")";
+    }
+}
@@ -0,0 +1,261 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TextureFormats.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       GL compressed texture formats and the naming of the texture variants
+ ** PREMISES:       A texture "name.png" may be shipped as "name.astc.ktx", "name.etc2.ktx"
+ **                 and "name.etc1.ktx", the best one supported by the device is loaded
+ ** REMARKS:        Plain Java apart from selectVariant() which checks the files
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/*
+ *
+ */
+public final class TextureFormats
+{
+    public final static int             GL_ETC1_RGB8_OES                            = 0x8D64;
+
+    public final static int             GL_COMPRESSED_R11_EAC                       = 0x9270;
+    public final static int             GL_COMPRESSED_SIGNED_R11_EAC                = 0x9271;
+    public final static int             GL_COMPRESSED_RG11_EAC                      = 0x9272;
+    public final static int             GL_COMPRESSED_SIGNED_RG11_EAC               = 0x9273;
+    public final static int             GL_COMPRESSED_RGB8_ETC2                     = 0x9274;
+    public final static int             GL_COMPRESSED_SRGB8_ETC2                    = 0x9275;
+    public final static int             GL_COMPRESSED_RGB8_PUNCHTHROUGH_ALPHA1_ETC2 = 0x9276;
+    public final static int             GL_COMPRESSED_SRGB8_PUNCHTHROUGH_ALPHA1_ETC2 = 0x9277;
+    public final static int             GL_COMPRESSED_RGBA8_ETC2_EAC                = 0x9278;
+    public final static int             GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC         = 0x9279;
+
+    public final static int             GL_COMPRESSED_RGBA_ASTC_4x4_KHR             = 0x93B0;
+    public final static int             GL_COMPRESSED_RGBA_ASTC_12x12_KHR           = 0x93BD;
+    public final static int             GL_COMPRESSED_SRGB8_ALPHA8_ASTC_4x4_KHR     = 0x93D0;
+    public final static int             GL_COMPRESSED_SRGB8_ALPHA8_ASTC_12x12_KHR   = 0x93DD;
+
+    public final static String          VARIANT_ASTC                = "astc";
+    public final static String          VARIANT_ETC2                = "etc2";
+    public final static String          VARIANT_ETC1                = "etc1";
+
+    public final static String          KTX_EXTENSION               = ".ktx";
+    public final static String          FALLBACK_EXTENSION          = ".png";
+
+    // block footprints of the ASTC formats, in the order of their GL values
+    private final static int            ASTC_BLOCKS[][]             = { {4, 4}, {5, 4}, {5, 5}, {6, 5}, {6, 6}, {8, 5}, {8, 6},
+                                                                        {8, 8}, {10, 5}, {10, 6}, {10, 8}, {10, 10}, {12, 10}, {12, 12} };
+
+    /*
+     *
+     */
+    private TextureFormats() {}
+
+    /*
+     *
+     */
+    public static boolean isEtc1(int glInternalFormat)
+    {
+        return (glInternalFormat == GL_ETC1_RGB8_OES);
+    }
+
+    /**
+     * ETC2 and EAC formats, core in GLES 3.0.
+     */
+    public static boolean isEtc2(int glInternalFormat)
+    {
+        return (glInternalFormat >= GL_COMPRESSED_R11_EAC) && (glInternalFormat <= GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC);
+    }
+
+    /*
+     *
+     */
+    public static boolean isAstc(int glInternalFormat)
+    {
+        return getAstcBlock(glInternalFormat) != null;
+    }
+
+    /**
+     * Size of an image compressed with the format, -1 if the format is not known.
+     */
+    public static int getCompressedSize(int glInternalFormat, int width, int height)
+    {
+        int astcBlock[] = getAstcBlock(glInternalFormat);
+
+        if(astcBlock != null)
+        {
+            return ((width + astcBlock[0] - 1) / astcBlock[0]) * ((height + astcBlock[1] - 1) / astcBlock[1]) * 16;
+        }
+
+        int blocks = ((width + 3) / 4) * ((height + 3) / 4);
+
+        switch(glInternalFormat)
+        {
+            case GL_ETC1_RGB8_OES:
+            case GL_COMPRESSED_R11_EAC:
+            case GL_COMPRESSED_SIGNED_R11_EAC:
+            case GL_COMPRESSED_RGB8_ETC2:
+            case GL_COMPRESSED_SRGB8_ETC2:
+            case GL_COMPRESSED_RGB8_PUNCHTHROUGH_ALPHA1_ETC2:
+            case GL_COMPRESSED_SRGB8_PUNCHTHROUGH_ALPHA1_ETC2:
+                return blocks * 8;
+
+            case GL_COMPRESSED_RG11_EAC:
+            case GL_COMPRESSED_SIGNED_RG11_EAC:
+            case GL_COMPRESSED_RGBA8_ETC2_EAC:
+            case GL_COMPRESSED_SRGB8_ALPHA8_ETC2_EAC:
+                return blocks * 16;
+
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Name of a compressed variant, i.e. "gdxar.png" and VARIANT_ETC2 give "gdxar.etc2.ktx".
+     */
+    public static String getVariantName(String name, String variant)
+    {
+        return getBaseName(name) + "." + variant + KTX_EXTENSION;
+    }
+
+    /**
+     * Uncompressed file used when the device has none of the formats of a KTX file, i.e.
+     * "gdxar.etc2.ktx" gives "gdxar.png".
+     */
+    public static String getFallbackName(String name)
+    {
+        return getBaseName(name) + FALLBACK_EXTENSION;
+    }
+
+    /**
+     * Variants in the order they are preferred, the ones the device can not use are left out.
+     */
+    public static String[] getVariantNames(String name, TextureCaps caps)
+    {
+        String  variants[]  = new String[3];
+        int     count       = 0;
+
+        if(caps.isAstcSupported())
+        {
+            variants[count++] = getVariantName(name, VARIANT_ASTC);
+        }
+
+        if(caps.isEtc2Supported())
+        {
+            variants[count++] = getVariantName(name, VARIANT_ETC2);
+        }
+
+        if(caps.isEtc1Supported() || caps.isEtc2Supported())
+        {
+            variants[count++] = getVariantName(name, VARIANT_ETC1);
+        }
+
+        String result[] = new String[count];
+        System.arraycopy(variants, 0, result, 0, count);
+
+        return result;
+    }
+
+    /**
+     * The best compressed variant of an uncompressed file that exists, the file itself
+     * otherwise. KTX files are returned as they are.
+     */
+    public static FileHandle selectVariant(FileHandle file, TextureCaps caps)
+    {
+        if(isKtx(file.name()))
+        {
+            return file;
+        }
+
+        String variants[] = getVariantNames(file.name(), caps);
+
+        for(int i = 0; i < variants.length; i++)
+        {
+            FileHandle variant = file.sibling(variants[i]);
+
+            if(variant.exists())
+            {
+                return variant;
+            }
+        }
+
+        return file;
+    }
+
+    /*
+     *
+     */
+    public static boolean isKtx(String name)
+    {
+        return name.toLowerCase().endsWith(KTX_EXTENSION);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static int[] getAstcBlock(int glInternalFormat)
+    {
+        if((glInternalFormat >= GL_COMPRESSED_RGBA_ASTC_4x4_KHR) && (glInternalFormat <= GL_COMPRESSED_RGBA_ASTC_12x12_KHR))
+        {
+            return ASTC_BLOCKS[glInternalFormat - GL_COMPRESSED_RGBA_ASTC_4x4_KHR];
+        }
+
+        if((glInternalFormat >= GL_COMPRESSED_SRGB8_ALPHA8_ASTC_4x4_KHR) && (glInternalFormat <= GL_COMPRESSED_SRGB8_ALPHA8_ASTC_12x12_KHR))
+        {
+            return ASTC_BLOCKS[glInternalFormat - GL_COMPRESSED_SRGB8_ALPHA8_ASTC_4x4_KHR];
+        }
+
+        return null;
+    }
+
+    /**
+     * The name without its extension nor its variant.
+     */
+    private static String getBaseName(String name)
+    {
+        String  base    = name;
+        int     dot     = base.lastIndexOf('.');
+
+        if(dot > 0)
+        {
+            base = base.substring(0, dot);
+        }
+
+        if(isKtx(name))
+        {
+            String lower = base.toLowerCase();
+
+            if(lower.endsWith("." + VARIANT_ASTC) || lower.endsWith("." + VARIANT_ETC2) || lower.endsWith("." + VARIANT_ETC1))
+            {
+                base = base.substring(0, base.length() - 5);
+            }
+        }
+
+        return base;
+    }
+}
@@ -0,0 +1,138 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CachingFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       CameraFrameSource that reads the view matrix and the light estimate of
+ **                 a frame at most once
+ ** PREMISES:       Used from one thread, like the source it backs
+ ** REMARKS:        Reading the cached values does not allocate
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.funtech.gdxar.math.CameraMath;
+
+/**
+ * Base of sources whose reads are expensive, i.e. a JNI call that allocates a result object
+ * on ARCore. The view matrix and the light estimate are fetched on the first request of a
+ * frame and copied out of the cache afterwards, whoever asks ( snapshot, recorder, light
+ * environment ). The pose is derived from the cached view matrix, it is the pose of the
+ * display oriented camera the view belongs to.
+ */
+public abstract class CachingFrameSource implements CameraFrameSource
+{
+    private final float                 m_fView[]               = new float[CameraMath.MATRIX_SIZE];
+    private final float                 m_fPose[]               = new float[CameraMath.POSE_SIZE];
+    private final float                 m_fLight[]              = new float[CameraSnapshot.LIGHT_SIZE];
+    private boolean                     m_bViewCached;
+    private boolean                     m_bPoseCached;
+    private boolean                     m_bLightCached;
+    private boolean                     m_bLightValid;
+
+    /**
+     * Drops the cache, then advances to the next frame.
+     */
+    @Override
+    public final boolean update()
+    {
+        m_bViewCached   = false;
+        m_bPoseCached   = false;
+        m_bLightCached  = false;
+        m_bLightValid   = false;
+
+        return nextFrame();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getViewMatrix(float[] dest, int offset)
+    {
+        if(!m_bViewCached)
+        {
+            fetchViewMatrix(m_fView);
+            m_bViewCached = true;
+        }
+
+        System.arraycopy(m_fView, 0, dest, offset, CameraMath.MATRIX_SIZE);
+    }
+
+    /**
+     * The inverse of the view matrix.
+     */
+    @Override
+    public void getCameraPose(float[] dest, int offset)
+    {
+        if(!m_bPoseCached)
+        {
+            getViewMatrix(m_fView, 0);
+            CameraMath.viewToPose(m_fView, m_fPose);
+            m_bPoseCached = true;
+        }
+
+        System.arraycopy(m_fPose, 0, dest, offset, CameraMath.POSE_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean getLightEstimate(float[] dest, int offset)
+    {
+        if(!m_bLightCached)
+        {
+            m_bLightValid   = fetchLightEstimate(m_fLight);
+            m_bLightCached  = true;
+        }
+
+        if(m_bLightValid)
+        {
+            System.arraycopy(m_fLight, 0, dest, offset, CameraSnapshot.LIGHT_SIZE);
+        }
+
+        return m_bLightValid;
+    }
+
+
+
+    /********************************************************************************
+     *                            PROTECTED                                         *
+     ********************************************************************************/
+
+    /**
+     * Same as CameraFrameSource.update().
+     */
+    protected abstract boolean nextFrame();
+
+    /**
+     * Reads the view matrix of the current frame, called at most once per frame.
+     */
+    protected abstract void fetchViewMatrix(float dest[]);
+
+    /**
+     * Reads the light estimate of the current frame, called at most once per frame.
+     *
+     * @param dest - r, g, b color correction and pixel intensity
+     * @return false if the estimate is not valid
+     */
+    protected abstract boolean fetchLightEstimate(float dest[]);
+}
@@ -0,0 +1,104 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Camera data of one frame as seen by the rendering code, without ARCore
+ ** PREMISES:       All accessors refer to the frame made current by the last update()
+ ** REMARKS:        The Android FrameSource extends it with the ARCore Frame and TrackingState
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Provides the camera data of one frame. Only plain types are used so that recordings can be
+ * replayed and measured on the desktop.
+ *
+ * <p>The tracking state is the ordinal of the ARCore TrackingState, see TRACKING_STATE_*.
+ */
+public interface CameraFrameSource
+{
+    int                 TRACKING_STATE_TRACKING = 0;
+    int                 TRACKING_STATE_PAUSED   = 1;
+    int                 TRACKING_STATE_STOPPED  = 2;
+
+    /**
+     * Advances to the next frame.
+     *
+     * @return true if a frame is available, false if there is none ( i.e. session not ready or
+     *         end of a recording )
+     */
+    boolean             update();
+
+    /*
+     *
+     */
+    long                getTimestamp();
+
+    /**
+     * One of the TRACKING_STATE_* values.
+     */
+    int                 getTrackingStateIndex();
+
+    /*
+     *
+     */
+    boolean             hasDisplayGeometryChanged();
+
+    /*
+     *
+     */
+    void                getProjectionMatrix(float[] dest, int offset, float near, float far);
+
+    /*
+     *
+     */
+    void                getViewMatrix(float[] dest, int offset);
+
+    /**
+     * Writes the pose of the camera of the view matrix, the display oriented one, as
+     * translation followed by rotation quaternion ( tx, ty, tz, qx, qy, qz, qw ).
+     */
+    void                getCameraPose(float[] dest, int offset);
+
+    /**
+     * Writes the color correction of the light estimate ( r, g, b, pixel intensity ).
+     *
+     * @return false if the estimate of the frame is not valid, dest is then left as is
+     */
+    boolean             getLightEstimate(float[] dest, int offset);
+
+    /*
+     *
+     */
+    void                transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords);
+
+    /*
+     *
+     */
+    void                setDisplayGeometry(int rotation, int width, int height);
+
+    /*
+     *
+     */
+    void                setCameraTextureName(int textureId);
+}
@@ -0,0 +1,195 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraSnapshot.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Copy of the camera data of the current frame
+ ** PREMISES:       capture() is called once per frame, on the thread that renders
+ ** REMARKS:        No allocation after construction. The Android FrameSnapshot adds the
+ **                 ARCore Frame the data was taken from
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.funtech.gdxar.math.CameraMath;
+
+/**
+ * Holds the camera data of the current frame so that the scene and its subclasses read it from
+ * plain arrays instead of going through the source ( and JNI ) again.
+ *
+ * <p>The projection matrix is only fetched again when near / far or the display geometry
+ * change. The pose is derived from the view matrix, which avoids the Pose object that
+ * Camera.getPose() allocates on every call.
+ */
+public class CameraSnapshot
+{
+    public static final int             MATRIX_SIZE             = CameraMath.MATRIX_SIZE;
+    public static final int             POSE_SIZE               = CameraMath.POSE_SIZE;
+    public static final int             LIGHT_SIZE              = 4;
+
+    private final float                 m_fView[]               = new float[MATRIX_SIZE];
+    private final float                 m_fProjection[]         = new float[MATRIX_SIZE];
+    private final float                 m_fPose[]               = new float[POSE_SIZE];     // tx, ty, tz, qx, qy, qz, qw
+    private final float                 m_fLight[]              = new float[LIGHT_SIZE];    // r, g, b, pixel intensity
+
+    private long                        m_lTimestamp;
+    private int                         m_iTrackingState;
+    private boolean                     m_bGeometryChanged;
+    private boolean                     m_bProjectionValid;
+    private boolean                     m_bProjectionChanged;
+    private boolean                     m_bLightValid;
+    private float                       m_fNear;
+    private float                       m_fFar;
+
+    /**
+     * Copies the data of the current frame of the source.
+     */
+    public void capture(CameraFrameSource frameSource, float near, float far)
+    {
+        m_lTimestamp        = frameSource.getTimestamp();
+        m_iTrackingState    = frameSource.getTrackingStateIndex();
+        m_bGeometryChanged  = frameSource.hasDisplayGeometryChanged();
+
+        frameSource.getViewMatrix(m_fView, 0);
+        CameraMath.viewToPose(m_fView, m_fPose);
+
+        m_bLightValid       = frameSource.getLightEstimate(m_fLight, 0);
+
+        m_bProjectionChanged = !m_bProjectionValid || m_bGeometryChanged || (near != m_fNear) || (far != m_fFar);
+
+        if(m_bProjectionChanged)
+        {
+            frameSource.getProjectionMatrix(m_fProjection, 0, near, far);
+            m_fNear             = near;
+            m_fFar              = far;
+            m_bProjectionValid  = true;
+        }
+    }
+
+    /**
+     * Copies another snapshot into this one.
+     */
+    public void set(CameraSnapshot other)
+    {
+        System.arraycopy(other.m_fView,         0, m_fView,         0, MATRIX_SIZE);
+        System.arraycopy(other.m_fProjection,   0, m_fProjection,   0, MATRIX_SIZE);
+        System.arraycopy(other.m_fPose,         0, m_fPose,         0, POSE_SIZE);
+        System.arraycopy(other.m_fLight,        0, m_fLight,        0, LIGHT_SIZE);
+
+        m_lTimestamp            = other.m_lTimestamp;
+        m_iTrackingState        = other.m_iTrackingState;
+        m_bGeometryChanged      = other.m_bGeometryChanged;
+        m_bProjectionValid      = other.m_bProjectionValid;
+        m_bProjectionChanged    = other.m_bProjectionChanged;
+        m_bLightValid           = other.m_bLightValid;
+        m_fNear                 = other.m_fNear;
+        m_fFar                  = other.m_fFar;
+    }
+
+    /**
+     * Forces the projection to be fetched again on the next capture, i.e. after the camera
+     * that uses it was recreated.
+     */
+    public void invalidateProjection()
+    {
+        m_bProjectionValid = false;
+    }
+
+    /*
+     *
+     */
+    public long getTimestamp()
+    {
+        return m_lTimestamp;
+    }
+
+    /**
+     * One of the CameraFrameSource.TRACKING_STATE_* values.
+     */
+    public int getTrackingStateIndex()
+    {
+        return m_iTrackingState;
+    }
+
+    /*
+     *
+     */
+    public boolean isTracking()
+    {
+        return (m_iTrackingState == CameraFrameSource.TRACKING_STATE_TRACKING);
+    }
+
+    /*
+     *
+     */
+    public boolean hasDisplayGeometryChanged()
+    {
+        return m_bGeometryChanged;
+    }
+
+    /**
+     * True if the projection was fetched again during the last capture.
+     */
+    public boolean isProjectionChanged()
+    {
+        return m_bProjectionChanged;
+    }
+
+    /**
+     * Column major view matrix.
+     */
+    public float[] getViewMatrix()
+    {
+        return m_fView;
+    }
+
+    /**
+     * Column major projection matrix.
+     */
+    public float[] getProjectionMatrix()
+    {
+        return m_fProjection;
+    }
+
+    /**
+     * Display oriented camera pose as ( tx, ty, tz, qx, qy, qz, qw ).
+     */
+    public float[] getPose()
+    {
+        return m_fPose;
+    }
+
+    /**
+     * False if the source had no light estimate for the frame, getLightEstimate() then holds
+     * the last valid one.
+     */
+    public boolean isLightEstimateValid()
+    {
+        return m_bLightValid;
+    }
+
+    /**
+     * Color correction of the light estimate as ( r, g, b, pixel intensity ).
+     */
+    public float[] getLightEstimate()
+    {
+        return m_fLight;
+    }
+}
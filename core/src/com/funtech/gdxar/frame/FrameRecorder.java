@@ -0,0 +1,344 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameRecorder.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       CameraFrameSource that records the frames of a wrapped source
+ ** PREMISES:       Used on the thread that renders, like the wrapped source
+ ** REMARKS:        Writes the format read by FrameReplay. The Android RecordingFrameSource
+ **                 extends it
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Display geometry required on construction
+ **                 2026-10-18 : Matrices recorded from the calls of the renderer, not
+ **                                fetched again
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.badlogic.gdx.Gdx;
+import com.funtech.gdxar.math.CameraMath;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.FloatBuffer;
+
+/**
+ * Records the frames of a wrapped CameraFrameSource. A frame is written out when the next frame
+ * is requested ( or on close() ) so that the quad UVs and projection requested by the renderer
+ * during the frame end up in the record.
+ *
+ * <p>The first recorded frame always reports a display geometry change, so that it holds the
+ * geometry and the quad UVs even when the wrapped source was already running.
+ *
+ * <p>The recorder does not fetch the matrices on its own, each one is a JNI call on ARCore. The
+ * view matrix, the pose and the projection are copied when the renderer asks for them. When it
+ * did not during a frame, the pose is derived from the view matrix and the projection of the
+ * previous frame is written again: CameraSnapshot only asks for it again when it changed. The
+ * source is only asked at write time if the renderer never did, i.e. for the first frame.
+ */
+public class FrameRecorder implements CameraFrameSource
+{
+    private static final String         TAG                     = FrameRecorder.class.toString();
+    private static final float          DEFAULT_NEAR            = 0.01f;
+    private static final float          DEFAULT_FAR             = 30f;
+
+    private final CameraFrameSource     m_Source;
+    private DataOutputStream            m_Output;
+
+    private boolean                     m_bPending;
+    private boolean                     m_bFirstFrame           = true;
+    private long                        m_lTimestamp;
+    private int                         m_iTrackingState;
+    private boolean                     m_bGeometryChanged;
+    private int                         m_iRotation;
+    private int                         m_iWidth;
+    private int                         m_iHeight;
+    private final float                 m_fQuadUv[]             = new float[FrameReplay.QUAD_UV_SIZE];
+    private float                       m_fNear                 = DEFAULT_NEAR;
+    private float                       m_fFar                  = DEFAULT_FAR;
+    private final float                 m_fProjection[]         = new float[FrameReplay.MATRIX_SIZE];
+    private final float                 m_fView[]               = new float[FrameReplay.MATRIX_SIZE];
+    private final float                 m_fPose[]               = new float[FrameReplay.POSE_SIZE];
+    private boolean                     m_bProjectionValid;                 // for any frame
+    private boolean                     m_bViewValid;                       // for the pending frame
+    private boolean                     m_bPoseValid;
+    private final float                 m_fLight[]              = new float[FrameReplay.LIGHT_SIZE];
+    private boolean                     m_bLightValid;
+
+    /**
+     * @param rotation  display rotation the wrapped source currently uses
+     * @param width     display width the wrapped source currently uses
+     * @param height    display height the wrapped source currently uses
+     */
+    public FrameRecorder(CameraFrameSource source, OutputStream out, int rotation, int width, int height) throws IOException
+    {
+        m_Source    = source;
+        m_iRotation = rotation;
+        m_iWidth    = width;
+        m_iHeight   = height;
+        m_Output    = new DataOutputStream(new BufferedOutputStream(out));
+        m_Output.writeInt(FrameReplay.FILE_MAGIC);
+        m_Output.writeInt(FrameReplay.FILE_VERSION);
+    }
+
+    /**
+     * Writes the last pending frame and closes the stream. The wrapped source keeps working.
+     */
+    public void close()
+    {
+        if(m_Output == null)
+        {
+            return;
+        }
+
+        writePending();
+
+        try
+        {
+            m_Output.close();
+        }
+        catch(IOException exp)
+        {
+            Gdx.app.error(TAG, "Failed to close frame recording", exp);
+        }
+
+        m_Output = null;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean update()
+    {
+        writePending();
+
+        if(!m_Source.update())
+        {
+            return false;
+        }
+
+        m_lTimestamp        = m_Source.getTimestamp();
+        m_iTrackingState    = m_Source.getTrackingStateIndex();
+        m_bGeometryChanged  = m_Source.hasDisplayGeometryChanged() || m_bFirstFrame;
+        m_bFirstFrame       = false;
+        m_bViewValid        = false;
+        m_bPoseValid        = false;
+        m_bLightValid       = m_Source.getLightEstimate(m_fLight, 0);
+        m_bPending          = true;
+
+        return true;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public long getTimestamp()
+    {
+        return m_Source.getTimestamp();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getTrackingStateIndex()
+    {
+        return m_Source.getTrackingStateIndex();
+    }
+
+    /**
+     * Also true for the first recorded frame, so that the renderer transforms the quad UVs
+     * through the recorder.
+     */
+    @Override
+    public boolean hasDisplayGeometryChanged()
+    {
+        return m_bGeometryChanged;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+    {
+        m_Source.getProjectionMatrix(dest, offset, near, far);
+
+        m_fNear             = near;
+        m_fFar              = far;
+        m_bProjectionValid  = true;
+        System.arraycopy(dest, offset, m_fProjection, 0, FrameReplay.MATRIX_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getViewMatrix(float[] dest, int offset)
+    {
+        m_Source.getViewMatrix(dest, offset);
+
+        m_bViewValid = true;
+        System.arraycopy(dest, offset, m_fView, 0, FrameReplay.MATRIX_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getCameraPose(float[] dest, int offset)
+    {
+        m_Source.getCameraPose(dest, offset);
+
+        m_bPoseValid = true;
+        System.arraycopy(dest, offset, m_fPose, 0, FrameReplay.POSE_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean getLightEstimate(float[] dest, int offset)
+    {
+        if(m_bLightValid)
+        {
+            System.arraycopy(m_fLight, 0, dest, offset, FrameReplay.LIGHT_SIZE);
+        }
+
+        return m_bLightValid;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+    {
+        m_Source.transformDisplayUvCoords(uvCoords, outUvCoords);
+
+        for(int i = 0; i < m_fQuadUv.length; i++)
+        {
+            m_fQuadUv[i] = outUvCoords.get(i);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDisplayGeometry(int rotation, int width, int height)
+    {
+        m_iRotation = rotation;
+        m_iWidth    = width;
+        m_iHeight   = height;
+        m_Source.setDisplayGeometry(rotation, width, height);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setCameraTextureName(int textureId)
+    {
+        m_Source.setCameraTextureName(textureId);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void writePending()
+    {
+        if(!m_bPending || (m_Output == null))
+        {
+            return;
+        }
+
+        m_bPending = false;
+
+        // the wrapped source is still on the pending frame
+        if(!m_bViewValid)
+        {
+            m_Source.getViewMatrix(m_fView, 0);
+        }
+
+        if(!m_bPoseValid)
+        {
+            CameraMath.viewToPose(m_fView, m_fPose);
+        }
+
+        if(!m_bProjectionValid)
+        {
+            m_Source.getProjectionMatrix(m_fProjection, 0, m_fNear, m_fFar);
+            m_bProjectionValid = true;
+        }
+
+        try
+        {
+            m_Output.writeLong(m_lTimestamp);
+            m_Output.writeByte(m_iTrackingState);
+            m_Output.writeByte((m_bGeometryChanged ? FrameReplay.FLAG_GEOMETRY_CHANGED : 0)
+                               | (m_bLightValid ? FrameReplay.FLAG_LIGHT_VALID : 0));
+
+            if(m_bGeometryChanged)
+            {
+                m_Output.writeInt(m_iRotation);
+                m_Output.writeInt(m_iWidth);
+                m_Output.writeInt(m_iHeight);
+                writeFloats(m_fQuadUv);
+            }
+
+            m_Output.writeFloat(m_fNear);
+            m_Output.writeFloat(m_fFar);
+            writeFloats(m_fProjection);
+            writeFloats(m_fView);
+            writeFloats(m_fPose);
+
+            if(m_bLightValid)
+            {
+                writeFloats(m_fLight);
+            }
+        }
+        catch(IOException exp)
+        {
+            Gdx.app.error(TAG, "Failed to write frame recording, recording stopped", exp);
+            m_Output = null;
+        }
+    }
+
+    /*
+     *
+     */
+    private void writeFloats(float[] values) throws IOException
+    {
+        for(float value : values)
+        {
+            m_Output.writeFloat(value);
+        }
+    }
+}
@@ -0,0 +1,472 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameReplay.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       CameraFrameSource that plays back a session written by FrameRecorder
+ ** PREMISES:       The whole recording is loaded into primitive arrays up front so that
+ **                 update() does no I/O and no allocation
+ ** REMARKS:        No ARCore, runs on the desktop. The Android ReplayFrameSource extends it
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : A recording ending inside a frame is an error
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+
+/**
+ * Replays camera poses, view and projection matrices, timestamps and display geometry changes
+ * from a recording.
+ *
+ * <p>Recording layout ( big endian, see FrameRecorder ):
+ * <pre>
+ *  int     FILE_MAGIC
+ *  int     FILE_VERSION
+ *  per frame
+ *      long    timestamp
+ *      byte    tracking state ordinal
+ *      byte    flags ( FLAG_GEOMETRY_CHANGED, FLAG_LIGHT_VALID )
+ *      [int rotation, int width, int height, float[8] transformed quad uv]   if geometry changed
+ *      float   near, float far
+ *      float[16] projection, float[16] view, float[7] pose
+ *      [float[4] light color correction r, g, b, pixel intensity]          if light valid
+ * </pre>
+ *
+ * <p>Version 1 recordings have no light estimate, it is never valid when replaying them.
+ *
+ * <p>A recording ends between two frames. One ending inside a frame was cut while it was
+ * written and is refused.
+ */
+public class FrameReplay implements CameraFrameSource
+{
+    public static final int             FILE_MAGIC              = 0x47415252;   // "GARR"
+    public static final int             FILE_VERSION            = 2;
+    public static final int             FLAG_GEOMETRY_CHANGED   = 0x01;
+    public static final int             FLAG_LIGHT_VALID        = 0x02;
+
+    public static final int             MATRIX_SIZE             = 16;
+    public static final int             POSE_SIZE               = 7;
+    public static final int             QUAD_UV_SIZE            = 8;
+    public static final int             LIGHT_SIZE              = 4;
+
+    private static final int            INITIAL_CAPACITY        = 256;
+
+    private int                         m_iFrameCount;
+    private long                        m_lTimestamps[];
+    private byte                        m_bTrackingStates[];
+    private boolean                     m_bGeometryChanged[];
+    private int                         m_iDisplayGeometry[];   // rotation, width, height per frame
+    private float                       m_fQuadUvs[];
+    private float                       m_fNearFar[];
+    private float                       m_fProjections[];
+    private float                       m_fViews[];
+    private float                       m_fPoses[];
+    private boolean                     m_bLightValid[];
+    private float                       m_fLights[];
+    private final int                   m_iVersion;
+
+    private int                         m_iCurrent              = -1;
+    private boolean                     m_bLooping;
+    private long                        m_lLoopOffset;          // keeps timestamps increasing across loops
+
+    /**
+     * Loads a recording. The stream is read to the end but not closed.
+     *
+     * @throws IOException if the stream fails, is not a recording or ends inside a frame
+     */
+    public FrameReplay(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+        if(data.readInt() != FILE_MAGIC)
+        {
+            throw new IOException("Not a frame recording");
+        }
+
+        m_iVersion = data.readInt();
+        if((m_iVersion < 1) || (m_iVersion > FILE_VERSION))
+        {
+            throw new IOException("Unsupported frame recording version " + m_iVersion);
+        }
+
+        allocate(INITIAL_CAPACITY);
+
+        while(readFrame(data))
+        {
+            m_iFrameCount++;
+        }
+    }
+
+    /*
+     *
+     */
+    public void setLooping(boolean isLooping)
+    {
+        m_bLooping = isLooping;
+    }
+
+    /*
+     *
+     */
+    public int getFrameCount()
+    {
+        return m_iFrameCount;
+    }
+
+    /**
+     * Index of the current frame, -1 before the first update().
+     */
+    public int getFrameIndex()
+    {
+        return m_iCurrent;
+    }
+
+    /**
+     * Rewinds to before the first frame.
+     */
+    public void rewind()
+    {
+        m_iCurrent      = -1;
+        m_lLoopOffset   = 0;
+    }
+
+    /*
+     *
+     */
+    public int getDisplayRotation()
+    {
+        return m_iDisplayGeometry[(m_iCurrent * 3)];
+    }
+
+    /*
+     *
+     */
+    public int getDisplayWidth()
+    {
+        return m_iDisplayGeometry[(m_iCurrent * 3) + 1];
+    }
+
+    /*
+     *
+     */
+    public int getDisplayHeight()
+    {
+        return m_iDisplayGeometry[(m_iCurrent * 3) + 2];
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean update()
+    {
+        if(m_iFrameCount == 0)
+        {
+            return false;
+        }
+
+        if((m_iCurrent + 1) >= m_iFrameCount)
+        {
+            if(!m_bLooping)
+            {
+                return false;
+            }
+
+            m_lLoopOffset   += (m_lTimestamps[m_iFrameCount - 1] - m_lTimestamps[0]) + 1;
+            m_iCurrent      = -1;
+        }
+
+        m_iCurrent++;
+        return true;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public long getTimestamp()
+    {
+        return m_lTimestamps[m_iCurrent] + m_lLoopOffset;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getTrackingStateIndex()
+    {
+        return m_bTrackingStates[m_iCurrent];
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean hasDisplayGeometryChanged()
+    {
+        return m_bGeometryChanged[m_iCurrent];
+    }
+
+    /**
+     * Returns the recorded projection. If near / far differ from the recorded planes the depth
+     * terms are recomputed, the remaining terms only depend on the camera intrinsics.
+     */
+    @Override
+    public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+    {
+        System.arraycopy(m_fProjections, m_iCurrent * MATRIX_SIZE, dest, offset, MATRIX_SIZE);
+
+        if( (near != m_fNearFar[m_iCurrent * 2]) || (far != m_fNearFar[(m_iCurrent * 2) + 1]) )
+        {
+            dest[offset + 10]   = (far + near) / (near - far);
+            dest[offset + 14]   = (2.0f * far * near) / (near - far);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getViewMatrix(float[] dest, int offset)
+    {
+        System.arraycopy(m_fViews, m_iCurrent * MATRIX_SIZE, dest, offset, MATRIX_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getCameraPose(float[] dest, int offset)
+    {
+        System.arraycopy(m_fPoses, m_iCurrent * POSE_SIZE, dest, offset, POSE_SIZE);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean getLightEstimate(float[] dest, int offset)
+    {
+        if(!m_bLightValid[m_iCurrent])
+        {
+            return false;
+        }
+
+        System.arraycopy(m_fLights, m_iCurrent * LIGHT_SIZE, dest, offset, LIGHT_SIZE);
+        return true;
+    }
+
+    /**
+     * Writes the recorded transformed coordinates of the background quad. The input is assumed
+     * to be the same quad that was used while recording and is not read.
+     */
+    @Override
+    public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+    {
+        int base = m_iCurrent * QUAD_UV_SIZE;
+
+        for(int i = 0; i < QUAD_UV_SIZE; i++)
+        {
+            outUvCoords.put(i, m_fQuadUvs[base + i]);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDisplayGeometry(int rotation, int width, int height)
+    {
+        // geometry comes from the recording
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setCameraTextureName(int textureId)
+    {
+        // no camera image is replayed
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Reads the frame m_iFrameCount.
+     *
+     * @return false at the end of the recording
+     * @throws EOFException if the recording ends inside the frame
+     */
+    private boolean readFrame(DataInputStream data) throws IOException
+    {
+        // only the end of the stream before the first byte of a frame is the end of the recording
+        int first = data.read();
+
+        if(first < 0)
+        {
+            return false;
+        }
+
+        if(m_iFrameCount == m_lTimestamps.length)
+        {
+            allocate(m_iFrameCount * 2);
+        }
+
+        try
+        {
+            readFrame(data, first, m_iFrameCount);
+        }
+        catch(EOFException exp)
+        {
+            throw new EOFException("Frame recording truncated inside frame " + m_iFrameCount);
+        }
+
+        return true;
+    }
+
+    /*
+     *
+     */
+    private void readFrame(DataInputStream data, int first, int index) throws IOException
+    {
+        m_lTimestamps[index]            = ((long)first << 56)
+                                          | ((data.readInt() & 0xFFFFFFFFL) << 24)
+                                          | ((long)data.readUnsignedShort() << 8)
+                                          | data.readUnsignedByte();
+        m_bTrackingStates[index]        = data.readByte();
+
+        int flags                       = data.readByte();
+        boolean isGeometryChanged       = (flags & FLAG_GEOMETRY_CHANGED) != 0;
+        m_bGeometryChanged[index]       = isGeometryChanged;
+        m_bLightValid[index]            = (m_iVersion >= 2) && ((flags & FLAG_LIGHT_VALID) != 0);
+
+        if(isGeometryChanged)
+        {
+            m_iDisplayGeometry[(index * 3)]     = data.readInt();
+            m_iDisplayGeometry[(index * 3) + 1] = data.readInt();
+            m_iDisplayGeometry[(index * 3) + 2] = data.readInt();
+            readFloats(data, m_fQuadUvs, index * QUAD_UV_SIZE, QUAD_UV_SIZE);
+        }
+        else
+        if(index > 0)
+        {
+            System.arraycopy(m_iDisplayGeometry, (index - 1) * 3, m_iDisplayGeometry, index * 3, 3);
+            System.arraycopy(m_fQuadUvs, (index - 1) * QUAD_UV_SIZE, m_fQuadUvs, index * QUAD_UV_SIZE, QUAD_UV_SIZE);
+        }
+
+        readFloats(data, m_fNearFar,        index * 2,              2);
+        readFloats(data, m_fProjections,    index * MATRIX_SIZE,    MATRIX_SIZE);
+        readFloats(data, m_fViews,          index * MATRIX_SIZE,    MATRIX_SIZE);
+        readFloats(data, m_fPoses,          index * POSE_SIZE,      POSE_SIZE);
+
+        if(m_bLightValid[index])
+        {
+            readFloats(data, m_fLights,     index * LIGHT_SIZE,     LIGHT_SIZE);
+        }
+    }
+
+    /*
+     *
+     */
+    private static void readFloats(DataInputStream data, float[] dest, int offset, int count) throws IOException
+    {
+        for(int i = 0; i < count; i++)
+        {
+            dest[offset + i] = data.readFloat();
+        }
+    }
+
+    /*
+     *
+     */
+    private void allocate(int capacity)
+    {
+        m_lTimestamps       = grow(m_lTimestamps,       capacity);
+        m_bTrackingStates   = grow(m_bTrackingStates,   capacity);
+        m_bGeometryChanged  = grow(m_bGeometryChanged,  capacity);
+        m_iDisplayGeometry  = grow(m_iDisplayGeometry,  capacity * 3);
+        m_fQuadUvs          = grow(m_fQuadUvs,          capacity * QUAD_UV_SIZE);
+        m_fNearFar          = grow(m_fNearFar,          capacity * 2);
+        m_fProjections      = grow(m_fProjections,      capacity * MATRIX_SIZE);
+        m_fViews            = grow(m_fViews,            capacity * MATRIX_SIZE);
+        m_fPoses            = grow(m_fPoses,            capacity * POSE_SIZE);
+        m_bLightValid       = grow(m_bLightValid,       capacity);
+        m_fLights           = grow(m_fLights,           capacity * LIGHT_SIZE);
+    }
+
+    /*
+     *
+     */
+    private static long[] grow(long[] array, int size)
+    {
+        long[] ret = new long[size];
+        if(array != null) System.arraycopy(array, 0, ret, 0, array.length);
+        return ret;
+    }
+
+    /*
+     *
+     */
+    private static byte[] grow(byte[] array, int size)
+    {
+        byte[] ret = new byte[size];
+        if(array != null) System.arraycopy(array, 0, ret, 0, array.length);
+        return ret;
+    }
+
+    /*
+     *
+     */
+    private static boolean[] grow(boolean[] array, int size)
+    {
+        boolean[] ret = new boolean[size];
+        if(array != null) System.arraycopy(array, 0, ret, 0, array.length);
+        return ret;
+    }
+
+    /*
+     *
+     */
+    private static int[] grow(int[] array, int size)
+    {
+        int[] ret = new int[size];
+        if(array != null) System.arraycopy(array, 0, ret, 0, array.length);
+        return ret;
+    }
+
+    /*
+     *
+     */
+    private static float[] grow(float[] array, int size)
+    {
+        float[] ret = new float[size];
+        if(array != null) System.arraycopy(array, 0, ret, 0, array.length);
+        return ret;
+    }
+}
@@ -0,0 +1,235 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         DynamicResolutionController.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Render scale of the virtual content, lowered when the frames take longer
+ **                 than the target and raised again once they are well below it
+ ** PREMISES:       update() is called once per frame with the measured frame time
+ ** REMARKS:        No GL calls, the controller runs headless on synthetic frame times.
+ **                 Times are in microseconds
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+/**
+ * The frame times are smoothed, then compared against two thresholds around the target. The
+ * scale drops after a few frames above the upper one, by the step that brings the pixel cost
+ * ( scale squared ) back under the target. It rises one step after many frames below the
+ * lower one. Both counters restart after each change and nothing changes for a while after
+ * one, so the scale does not oscillate between two values. The scale is a multiple of the
+ * step so that only a few framebuffer sizes are ever used.
+ */
+public class DynamicResolutionController
+{
+    public final static long            DEFAULT_TARGET_US       = 33333L;   // camera rate of ARCore
+    public final static float           DEFAULT_MIN_SCALE       = 0.5f;
+    public final static float           DEFAULT_MAX_SCALE       = 1.0f;
+    public final static float           SCALE_STEP              = 0.05f;
+
+    private final static float          SMOOTHING               = 0.1f;     // weight of the new sample
+    private final static float          DOWN_THRESHOLD          = 0.95f;    // of the target
+    private final static float          UP_THRESHOLD            = 0.75f;
+    private final static float          DOWN_HEADROOM           = 0.85f;    // aimed at when lowering
+    private final static int            DOWN_FRAMES             = 10;
+    private final static int            UP_FRAMES               = 90;
+    private final static int            COOLDOWN_FRAMES         = 30;
+
+    private long                        m_lTargetUs             = DEFAULT_TARGET_US;
+    private float                       m_fMinScale             = DEFAULT_MIN_SCALE;
+    private float                       m_fMaxScale             = DEFAULT_MAX_SCALE;
+    private float                       m_fScale                = DEFAULT_MAX_SCALE;
+    private float                       m_fSmoothedUs;
+    private int                         m_iOverFrames;
+    private int                         m_iUnderFrames;
+    private int                         m_iCooldown;
+    private int                         m_iChangeCount;
+
+    /**
+     * Takes the time of one frame.
+     *
+     * @return true if the scale changed
+     */
+    public boolean update(long frameTimeUs)
+    {
+        if(m_fSmoothedUs == 0)
+        {
+            m_fSmoothedUs = frameTimeUs;
+        }
+        else
+        {
+            m_fSmoothedUs += (frameTimeUs - m_fSmoothedUs) * SMOOTHING;
+        }
+
+        if(m_iCooldown > 0)
+        {
+            m_iCooldown--;
+            return false;
+        }
+
+        if(m_fSmoothedUs > (m_lTargetUs * DOWN_THRESHOLD))
+        {
+            m_iOverFrames++;
+            m_iUnderFrames = 0;
+        }
+        else
+        if(m_fSmoothedUs < (m_lTargetUs * UP_THRESHOLD))
+        {
+            m_iUnderFrames++;
+            m_iOverFrames = 0;
+        }
+        else
+        {
+            m_iOverFrames   = 0;
+            m_iUnderFrames  = 0;
+        }
+
+        float scale = m_fScale;
+
+        if(m_iOverFrames >= DOWN_FRAMES)
+        {
+            // the cost of the pass goes with the pixels, the square of the scale
+            float wanted = m_fScale * (float)Math.sqrt((m_lTargetUs * DOWN_HEADROOM) / m_fSmoothedUs);
+
+            scale = Math.min(quantize(wanted), m_fScale - SCALE_STEP);
+        }
+        else
+        if(m_iUnderFrames >= UP_FRAMES)
+        {
+            scale = quantize(m_fScale + SCALE_STEP);
+        }
+
+        return setScale(scale);
+    }
+
+    /**
+     * Back to the highest scale, i.e. after the content changed completely.
+     */
+    public void reset()
+    {
+        m_fScale        = m_fMaxScale;
+        m_fSmoothedUs   = 0;
+        m_iOverFrames   = 0;
+        m_iUnderFrames  = 0;
+        m_iCooldown     = 0;
+    }
+
+    /**
+     * Scale of the width and the height of the content pass, between the minimum and the
+     * maximum scale.
+     */
+    public float getScale()
+    {
+        return m_fScale;
+    }
+
+    /*
+     *
+     */
+    public void setScaleRange(float minScale, float maxScale)
+    {
+        m_fMinScale = quantize(Math.max(SCALE_STEP, Math.min(minScale, maxScale)));
+        m_fMaxScale = quantize(Math.max(m_fMinScale, maxScale));
+        m_fScale    = Math.max(m_fMinScale, Math.min(m_fScale, m_fMaxScale));
+    }
+
+    /*
+     *
+     */
+    public float getMinScale()
+    {
+        return m_fMinScale;
+    }
+
+    /*
+     *
+     */
+    public float getMaxScale()
+    {
+        return m_fMaxScale;
+    }
+
+    /*
+     *
+     */
+    public void setTargetFrameTime(long targetUs)
+    {
+        m_lTargetUs = targetUs;
+    }
+
+    /*
+     *
+     */
+    public long getTargetFrameTime()
+    {
+        return m_lTargetUs;
+    }
+
+    /*
+     *
+     */
+    public float getSmoothedFrameTime()
+    {
+        return m_fSmoothedUs;
+    }
+
+    /**
+     * Times the scale changed.
+     */
+    public int getChangeCount()
+    {
+        return m_iChangeCount;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private boolean setScale(float scale)
+    {
+        scale = Math.max(m_fMinScale, Math.min(scale, m_fMaxScale));
+
+        if(Math.abs(scale - m_fScale) < (SCALE_STEP * 0.5f))
+        {
+            return false;
+        }
+
+        m_fScale        = scale;
+        m_iOverFrames   = 0;
+        m_iUnderFrames  = 0;
+        m_iCooldown     = COOLDOWN_FRAMES;
+        m_iChangeCount++;
+
+        return true;
+    }
+
+    /**
+     * Nearest multiple of the step below, with some slack for the rounding of the floats.
+     */
+    private static float quantize(float scale)
+    {
+        return (float)Math.floor((scale / SCALE_STEP) + 0.001f) * SCALE_STEP;
+    }
+}
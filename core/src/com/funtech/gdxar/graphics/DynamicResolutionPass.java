@@ -0,0 +1,232 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         DynamicResolutionPass.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Renders the virtual content into a framebuffer scaled down by the
+ **                 dynamic resolution controller, then stretches it over the screen
+ ** PREMISES:       GL thread only
+ ** REMARKS:        The camera image is not part of the pass, it stays at the full resolution
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Moved from arcore4gdx, used by CameraScene
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * The models and the planes are drawn between begin() and end() into a framebuffer of the
+ * size of the screen times the scale of the controller, cleared to transparent. composite()
+ * then blends it over the camera image drawn beforehand. The content comes out premultiplied
+ * by its alpha, so it is blended with ( ONE, ONE_MINUS_SRC_ALPHA ).
+ *
+ * <p>At the highest scale the framebuffer is released and begin() returns false, the content
+ * is drawn straight to the screen as without the pass.
+ */
+public class DynamicResolutionPass implements Disposable
+{
+    private static final int            BYTES_PER_PIXEL         = 4 + 2;    // RGBA8888 and a 16 bit depth
+
+    private final DynamicResolutionController   m_Controller    = new DynamicResolutionController();
+    private final GLStateTracker        m_StateTracker;
+
+    private FrameBuffer                 m_FrameBuffer;
+    private GpuResourceRegistry         m_ResourceRegistry;
+    private GpuResource                 m_Resource;
+    private boolean                     m_bActive;
+
+    /*
+     *
+     */
+    public DynamicResolutionPass(GLStateTracker glStateTracker)
+    {
+        m_StateTracker = glStateTracker;
+    }
+
+    /**
+     * Counts the framebuffer in the registry while there is one.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        m_ResourceRegistry = registry;
+    }
+
+    /**
+     * Binds the framebuffer at the current scale, recreated if the scale or the screen size
+     * changed, and clears it. Nothing is done if it is already bound.
+     *
+     * @return false if the content is to be drawn at the full resolution instead, nothing
+     *         is bound then
+     */
+    public boolean begin(int screenWidth, int screenHeight)
+    {
+        float scale = m_Controller.getScale();
+
+        if(m_bActive)
+        {
+            return true;
+        }
+
+        if(scale >= 1.0f)
+        {
+            release();
+            return false;
+        }
+
+        int width   = Math.max(1, Math.round(screenWidth * scale));
+        int height  = Math.max(1, Math.round(screenHeight * scale));
+
+        if((m_FrameBuffer == null) || (m_FrameBuffer.getWidth() != width) || (m_FrameBuffer.getHeight() != height))
+        {
+            release();
+
+            m_FrameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, true);
+            m_FrameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+
+            if(m_ResourceRegistry != null)
+            {
+                m_Resource = m_ResourceRegistry.register("DynamicResolutionPass.frameBuffer", GpuResource.KIND_TEXTURE,
+                                                         (long)width * height * BYTES_PER_PIXEL, null);
+            }
+        }
+
+        m_FrameBuffer.begin();
+
+        // glClear of the depth buffer honours the depth mask
+        m_StateTracker.setDepthMask(true);
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+        m_bActive = true;
+
+        return true;
+    }
+
+    /**
+     * Whether begin() binds a framebuffer at the current scale.
+     */
+    public boolean isScaled()
+    {
+        return (m_Controller.getScale() < 1.0f);
+    }
+
+    /**
+     * Back to the screen, with its viewport.
+     */
+    public void end()
+    {
+        if(m_bActive)
+        {
+            m_FrameBuffer.end();
+        }
+    }
+
+    /**
+     * Blends the content over the screen. The batch must have the projection of the screen,
+     * the state it changes is invalidated in the tracker.
+     */
+    public void composite(SpriteBatch spriteBatch, int screenWidth, int screenHeight)
+    {
+        if(!m_bActive)
+        {
+            return;
+        }
+
+        m_bActive = false;
+
+        int srcFunc = spriteBatch.getBlendSrcFunc();
+        int dstFunc = spriteBatch.getBlendDstFunc();
+
+        m_StateTracker.setDepthTest(false);
+        m_StateTracker.setCullFace(false);
+
+        spriteBatch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        spriteBatch.begin();
+        // v = 0 at the bottom, the rows of a framebuffer texture start at the bottom
+        spriteBatch.draw(m_FrameBuffer.getColorBufferTexture(), 0, 0, screenWidth, screenHeight, 0, 0, 1, 1);
+        spriteBatch.end();
+        spriteBatch.setBlendFunction(srcFunc, dstFunc);
+
+        m_StateTracker.invalidate(GLStateTracker.STATE_BATCH_2D);
+    }
+
+    /**
+     * Takes the time of the frame, see DynamicResolutionController.update().
+     */
+    public void update(long frameTimeUs)
+    {
+        m_Controller.update(frameTimeUs);
+    }
+
+    /*
+     *
+     */
+    public DynamicResolutionController getController()
+    {
+        return m_Controller;
+    }
+
+    /**
+     * The framebuffer the content is drawn into, null at the full resolution.
+     */
+    public FrameBuffer getFrameBuffer()
+    {
+        return m_FrameBuffer;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        release();
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void release()
+    {
+        if(m_FrameBuffer != null)
+        {
+            m_FrameBuffer.dispose();
+            m_FrameBuffer = null;
+        }
+
+        if(m_Resource != null)
+        {
+            m_Resource.unregister();
+            m_Resource = null;
+        }
+    }
+}
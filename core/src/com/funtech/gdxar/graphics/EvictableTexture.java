@@ -0,0 +1,183 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         EvictableTexture.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Texture whose GL object can be freed by the GpuResourceRegistry and is
+ **                 created again the next time it is bound
+ ** PREMISES:       The texture data must be managed ( i.e. loaded from a file ), otherwise
+ **                 the texture is only counted
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+
+/**
+ * Every way to use the texture goes through bind() or getTextureObjectHandle(), both mark it
+ * as drawn and restore it if it was evicted.
+ */
+public class EvictableTexture extends Texture implements GpuResource.Evictable
+{
+    private GpuResource                 m_Resource;
+    private boolean                     m_bEvicted;
+
+    /*
+     *
+     */
+    public EvictableTexture(TextureData data)
+    {
+        super(data);
+    }
+
+    /**
+     * Counts the texture in the registry, as evictable if its data is managed.
+     */
+    GpuResource attach(GpuResourceRegistry registry, String name)
+    {
+        registry.unregister(m_Resource);
+
+        m_Resource = registry.register(name, GpuResource.KIND_TEXTURE, GpuResourceRegistry.getTextureBytes(this),
+                                       isManaged() ? this : null);
+
+        return m_Resource;
+    }
+
+    /*
+     *
+     */
+    public GpuResource getResource()
+    {
+        return m_Resource;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void bind()
+    {
+        touch();
+        super.bind();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void bind(int unit)
+    {
+        touch();
+        super.bind(unit);
+    }
+
+    /**
+     * Used by the code binding the handle itself, i.e. through the GLStateTracker.
+     */
+    @Override
+    public int getTextureObjectHandle()
+    {
+        touch();
+        return super.getTextureObjectHandle();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void evictGpu()
+    {
+        if(!m_bEvicted)
+        {
+            delete();
+            m_bEvicted = true;
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void restoreGpu()
+    {
+        if(m_bEvicted)
+        {
+            m_bEvicted = false;
+            super.reload();
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        if(m_Resource != null)
+        {
+            m_Resource.unregister();
+            m_Resource = null;
+        }
+
+        super.dispose();
+    }
+
+
+
+    /********************************************************************************
+     *                            PROTECTED                                         *
+     ********************************************************************************/
+
+    /**
+     * Called by libGDX when the context was recreated, this creates the texture whether it
+     * was evicted or not.
+     */
+    @Override
+    protected void reload()
+    {
+        m_bEvicted = false;
+        super.reload();
+
+        if(m_Resource != null)
+        {
+            m_Resource.m_Registry.onRestored(m_Resource);
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void touch()
+    {
+        // null while the super constructor loads the texture
+        if(m_Resource != null)
+        {
+            m_Resource.m_Registry.touch(m_Resource);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         GLStateTracker.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Shadow copy of the fixed function GL state set by the AR renderer
+ ** PREMISES:       Only valid for the GL thread. State changed by code that does not go
+ **                 through the tracker ( i.e. SpriteBatch ) must be reported with
+ **                 invalidate(), the tracker then issues the next change unconditionally
+ ** REMARKS:        Reading a state that is not known falls back to a single glGet
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Moved from arcore4gdx, used by CameraScene
+ **                 2026-10-18 : getActiveTexture()
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.IntBuffer;
+
+/**
+ * Wraps Gdx.gl for depth, blend, cull and texture binding state. Save / restore is answered
+ * from the shadow copy instead of glGetIntegerv, which forces a pipeline sync on tiled GPUs,
+ * and changes to the value already set are dropped.
+ */
+public class GLStateTracker
+{
+    public static final int             STATE_DEPTH_TEST        = 0x0001;
+    public static final int             STATE_DEPTH_MASK        = 0x0002;
+    public static final int             STATE_DEPTH_FUNC        = 0x0004;
+    public static final int             STATE_DEPTH_RANGE       = 0x0008;
+    public static final int             STATE_BLEND             = 0x0010;
+    public static final int             STATE_BLEND_FUNC        = 0x0020;
+    public static final int             STATE_CULL_FACE         = 0x0040;
+    public static final int             STATE_CULL_FACE_MODE    = 0x0080;
+    public static final int             STATE_TEXTURES          = 0x0100;
+    public static final int             STATE_ALL               = 0x01FF;
+
+    // State changed by SpriteBatch / BitmapFont drawing, which does not use the tracker
+    public static final int             STATE_BATCH_2D          = STATE_DEPTH_MASK | STATE_BLEND | STATE_BLEND_FUNC | STATE_TEXTURES;
+
+    private static final int            MAX_TEXTURE_UNITS       = 8;
+    private static final int            TARGET_TEXTURE_2D       = 0;
+    private static final int            TARGET_OTHER            = 1;
+
+    private int                         m_iKnown;               // STATE_ bits whose shadow value is valid
+
+    private boolean                     m_bDepthTest;
+    private boolean                     m_bDepthMask;
+    private int                         m_iDepthFunc;
+    private float                       m_fDepthNear;
+    private float                       m_fDepthFar;
+    private boolean                     m_bBlend;
+    private int                         m_iBlendSrc;
+    private int                         m_iBlendDst;
+    private boolean                     m_bCullFace;
+    private int                         m_iCullFaceMode;
+    private int                         m_iActiveUnit;
+    private final int                   m_iBoundTextures[]      = new int[MAX_TEXTURE_UNITS * 2];
+    private final int                   m_iBoundTargets[]       = new int[MAX_TEXTURE_UNITS];    // target of TARGET_OTHER slot
+
+    private final IntBuffer             m_QueryBuffer           = BufferUtils.newIntBuffer(16);
+
+    private long                        m_lIssuedCalls;
+    private long                        m_lSuppressedCalls;
+
+    /**
+     * Sets the whole state to the GL defaults. Call after the context was ( re )created.
+     */
+    public void reset()
+    {
+        m_iKnown = 0;
+
+        setDepthTest(false);
+        setDepthMask(true);
+        setDepthFunc(GL20.GL_LESS);
+        setDepthRange(0f, 1f);
+        setBlending(false);
+        setBlendFunc(GL20.GL_ONE, GL20.GL_ZERO);
+        setCullFace(false);
+        setCullFaceMode(GL20.GL_BACK);
+        invalidate(STATE_TEXTURES);
+    }
+
+    /**
+     * Marks state as unknown because it was changed without going through the tracker.
+     *
+     * @param states - combination of the STATE_ bits
+     */
+    public void invalidate(int states)
+    {
+        m_iKnown &= ~states;
+
+        if((states & STATE_TEXTURES) != 0)
+        {
+            m_iActiveUnit = -1;
+
+            for(int i = 0; i < m_iBoundTextures.length; i++)
+            {
+                m_iBoundTextures[i] = -1;
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    public void setDepthTest(boolean isEnable)
+    {
+        if(isKnown(STATE_DEPTH_TEST) && (m_bDepthTest == isEnable))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        setCapability(GL20.GL_DEPTH_TEST, isEnable);
+        m_bDepthTest = isEnable;
+        m_iKnown    |= STATE_DEPTH_TEST;
+    }
+
+    /*
+     *
+     */
+    public boolean isDepthTestEnabled()
+    {
+        if(!isKnown(STATE_DEPTH_TEST))
+        {
+            m_bDepthTest = Gdx.gl.glIsEnabled(GL20.GL_DEPTH_TEST);
+            m_iKnown    |= STATE_DEPTH_TEST;
+        }
+
+        return m_bDepthTest;
+    }
+
+    /*
+     *
+     */
+    public void setDepthMask(boolean isEnable)
+    {
+        if(isKnown(STATE_DEPTH_MASK) && (m_bDepthMask == isEnable))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glDepthMask(isEnable);
+        m_lIssuedCalls++;
+        m_bDepthMask    = isEnable;
+        m_iKnown       |= STATE_DEPTH_MASK;
+    }
+
+    /*
+     *
+     */
+    public boolean getDepthMask()
+    {
+        if(!isKnown(STATE_DEPTH_MASK))
+        {
+            m_bDepthMask    = (query(GL20.GL_DEPTH_WRITEMASK) == GL20.GL_TRUE);
+            m_iKnown       |= STATE_DEPTH_MASK;
+        }
+
+        return m_bDepthMask;
+    }
+
+    /*
+     *
+     */
+    public void setDepthFunc(int func)
+    {
+        if(isKnown(STATE_DEPTH_FUNC) && (m_iDepthFunc == func))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glDepthFunc(func);
+        m_lIssuedCalls++;
+        m_iDepthFunc    = func;
+        m_iKnown       |= STATE_DEPTH_FUNC;
+    }
+
+    /*
+     *
+     */
+    public int getDepthFunc()
+    {
+        if(!isKnown(STATE_DEPTH_FUNC))
+        {
+            m_iDepthFunc    = query(GL20.GL_DEPTH_FUNC);
+            m_iKnown       |= STATE_DEPTH_FUNC;
+        }
+
+        return m_iDepthFunc;
+    }
+
+    /*
+     *
+     */
+    public void setDepthRange(float near, float far)
+    {
+        if(isKnown(STATE_DEPTH_RANGE) && (m_fDepthNear == near) && (m_fDepthFar == far))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glDepthRangef(near, far);
+        m_lIssuedCalls++;
+        m_fDepthNear    = near;
+        m_fDepthFar     = far;
+        m_iKnown       |= STATE_DEPTH_RANGE;
+    }
+
+    /*
+     *
+     */
+    public void setBlending(boolean isEnable)
+    {
+        if(isKnown(STATE_BLEND) && (m_bBlend == isEnable))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        setCapability(GL20.GL_BLEND, isEnable);
+        m_bBlend    = isEnable;
+        m_iKnown   |= STATE_BLEND;
+    }
+
+    /*
+     *
+     */
+    public boolean isBlendingEnabled()
+    {
+        if(!isKnown(STATE_BLEND))
+        {
+            m_bBlend    = Gdx.gl.glIsEnabled(GL20.GL_BLEND);
+            m_iKnown   |= STATE_BLEND;
+        }
+
+        return m_bBlend;
+    }
+
+    /*
+     *
+     */
+    public void setBlendFunc(int srcFactor, int dstFactor)
+    {
+        if(isKnown(STATE_BLEND_FUNC) && (m_iBlendSrc == srcFactor) && (m_iBlendDst == dstFactor))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glBlendFunc(srcFactor, dstFactor);
+        m_lIssuedCalls++;
+        m_iBlendSrc     = srcFactor;
+        m_iBlendDst     = dstFactor;
+        m_iKnown       |= STATE_BLEND_FUNC;
+    }
+
+    /*
+     *
+     */
+    public void setCullFace(boolean isEnable)
+    {
+        if(isKnown(STATE_CULL_FACE) && (m_bCullFace == isEnable))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        setCapability(GL20.GL_CULL_FACE, isEnable);
+        m_bCullFace     = isEnable;
+        m_iKnown       |= STATE_CULL_FACE;
+    }
+
+    /*
+     *
+     */
+    public boolean isCullFaceEnabled()
+    {
+        if(!isKnown(STATE_CULL_FACE))
+        {
+            m_bCullFace     = Gdx.gl.glIsEnabled(GL20.GL_CULL_FACE);
+            m_iKnown       |= STATE_CULL_FACE;
+        }
+
+        return m_bCullFace;
+    }
+
+    /*
+     *
+     */
+    public void setCullFaceMode(int face)
+    {
+        if(isKnown(STATE_CULL_FACE_MODE) && (m_iCullFaceMode == face))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glCullFace(face);
+        m_lIssuedCalls++;
+        m_iCullFaceMode     = face;
+        m_iKnown           |= STATE_CULL_FACE_MODE;
+    }
+
+    /**
+     * @param unit - texture unit index, not GL_TEXTURE0 based
+     */
+    public void setActiveTexture(int unit)
+    {
+        if(m_iActiveUnit == unit)
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0 + unit);
+        m_lIssuedCalls++;
+        m_iActiveUnit = unit;
+    }
+
+    /**
+     * Active texture unit of the shadow, -1 while unknown ( i.e. after a texture binder or a
+     * SpriteBatch used GL directly ).
+     */
+    public int getActiveTexture()
+    {
+        return m_iActiveUnit;
+    }
+
+    /**
+     * Binds a texture to the active unit. Units beyond MAX_TEXTURE_UNITS are not shadowed.
+     */
+    public void bindTexture(int target, int handle)
+    {
+        int slot = getTextureSlot(target);
+
+        if((slot >= 0) && (m_iBoundTextures[slot] == handle))
+        {
+            m_lSuppressedCalls++;
+            return;
+        }
+
+        Gdx.gl.glBindTexture(target, handle);
+        m_lIssuedCalls++;
+
+        if(slot >= 0)
+        {
+            m_iBoundTextures[slot] = handle;
+        }
+    }
+
+    /**
+     * Number of GL calls that were dropped because the state was already set.
+     */
+    public long getSuppressedCalls()
+    {
+        return m_lSuppressedCalls;
+    }
+
+    /**
+     * Number of GL calls that were passed on to Gdx.gl.
+     */
+    public long getIssuedCalls()
+    {
+        return m_lIssuedCalls;
+    }
+
+    /*
+     *
+     */
+    public void resetCounters()
+    {
+        m_lSuppressedCalls  = 0;
+        m_lIssuedCalls      = 0;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private boolean isKnown(int state)
+    {
+        return ((m_iKnown & state) != 0);
+    }
+
+    /*
+     *
+     */
+    private void setCapability(int capability, boolean isEnable)
+    {
+        if(isEnable)
+        {
+            Gdx.gl.glEnable(capability);
+        }
+        else
+        {
+            Gdx.gl.glDisable(capability);
+        }
+
+        m_lIssuedCalls++;
+    }
+
+    /*
+     *
+     */
+    private int query(int name)
+    {
+        Gdx.gl.glGetIntegerv(name, m_QueryBuffer);
+        return m_QueryBuffer.get(0);
+    }
+
+    /**
+     * Each unit has one slot for GL_TEXTURE_2D and one for another target ( i.e. the external
+     * camera texture ). Returns -1 if the binding can not be shadowed.
+     */
+    private int getTextureSlot(int target)
+    {
+        if((m_iActiveUnit < 0) || (m_iActiveUnit >= MAX_TEXTURE_UNITS))
+        {
+            return -1;
+        }
+
+        if(target == GL20.GL_TEXTURE_2D)
+        {
+            return (m_iActiveUnit * 2) + TARGET_TEXTURE_2D;
+        }
+
+        if(m_iBoundTargets[m_iActiveUnit] != target)
+        {
+            m_iBoundTargets[m_iActiveUnit]                          = target;
+            m_iBoundTextures[(m_iActiveUnit * 2) + TARGET_OTHER]    = -1;
+        }
+
+        return (m_iActiveUnit * 2) + TARGET_OTHER;
+    }
+}
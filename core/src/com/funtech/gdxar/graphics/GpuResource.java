@@ -0,0 +1,142 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         GpuResource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       GL object counted by the GpuResourceRegistry
+ ** PREMISES:       GL thread only
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+/*
+ *
+ */
+public class GpuResource
+{
+    public final static int             KIND_TEXTURE            = 0;
+    public final static int             KIND_MESH               = 1;
+    public final static int             KIND_SHADER             = 2;
+    public final static int             KIND_BUFFER             = 3;
+    public final static int             KIND_COUNT              = 4;
+
+    final GpuResourceRegistry           m_Registry;
+    final String                        m_strName;
+    final int                           m_iKind;
+    final Evictable                     m_Evictable;
+    long                                m_lBytes;
+    long                                m_lLastUsedFrame;
+    boolean                             m_bResident             = true;
+    boolean                             m_bRegistered           = true;
+
+    /**
+     * A resource whose GL object can be freed while it is not drawn and created again from its
+     * data when it is.
+     */
+    public interface Evictable
+    {
+        /**
+         * Frees the GL object, the data to create it again is kept.
+         */
+        void evictGpu();
+
+        /**
+         * Creates the GL object again.
+         */
+        void restoreGpu();
+    }
+
+    /*
+     *
+     */
+    GpuResource(GpuResourceRegistry registry, String name, int kind, long bytes, Evictable evictable)
+    {
+        m_Registry  = registry;
+        m_strName   = name;
+        m_iKind     = kind;
+        m_lBytes    = bytes;
+        m_Evictable = evictable;
+    }
+
+    /**
+     * Marks the resource as drawn this frame, restoring it first if it was evicted.
+     */
+    public void touch()
+    {
+        m_Registry.touch(this);
+    }
+
+    /**
+     * Stops counting the resource, can be called again.
+     */
+    public void unregister()
+    {
+        m_Registry.unregister(this);
+    }
+
+    /*
+     *
+     */
+    public String getName()
+    {
+        return m_strName;
+    }
+
+    /*
+     *
+     */
+    public int getKind()
+    {
+        return m_iKind;
+    }
+
+    /*
+     *
+     */
+    public long getBytes()
+    {
+        return m_lBytes;
+    }
+
+    /**
+     * False while evicted.
+     */
+    public boolean isResident()
+    {
+        return m_bResident;
+    }
+
+    /*
+     *
+     */
+    public boolean isEvictable()
+    {
+        return (m_Evictable != null);
+    }
+
+    /*
+     *
+     */
+    public long getLastUsedFrame()
+    {
+        return m_lLastUsedFrame;
+    }
+}
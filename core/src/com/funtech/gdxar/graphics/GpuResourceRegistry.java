@@ -0,0 +1,437 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         GpuResourceRegistry.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Byte size of the GL objects created by the app, with eviction of the
+ **                 least recently drawn ones above a budget
+ ** PREMISES:       GL thread only. update() is called once per frame
+ ** REMARKS:        Only Evictable resources ( i.e. EvictableTexture ) are evicted, the
+ **                 others are counted. Mesh data stays in client memory in libGDX, so
+ **                 meshes are counted only
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.funtech.gdxar.assets.TextureBudget;
+
+/**
+ * Keeps the memory the app has in GL objects and frees the textures not drawn for a while
+ * when it goes above the budget. An evicted texture is created again, from its file, the next
+ * time it is bound.
+ */
+public class GpuResourceRegistry
+{
+    public final static long            DEFAULT_BUDGET          = 128L * 1024L * 1024L;
+    public final static int             DEFAULT_MIN_IDLE_FRAMES = 120;      // 2s at 60 fps
+
+    // drivers do not tell the size of a program, this is the order of magnitude of a small one
+    public final static long            SHADER_BYTES            = 16L * 1024L;
+
+    private final Array<GpuResource>    m_Resources             = new Array<GpuResource>(false, 64);
+    private final long                  m_lResidentBytes[]      = new long[GpuResource.KIND_COUNT];
+    private long                        m_lBudget;
+    private int                         m_iMinIdleFrames;
+    private long                        m_lFrame;
+    private long                        m_lEvictedBytes;
+    private int                         m_iEvictions;
+    private int                         m_iRestores;
+
+    /*
+     *
+     */
+    public GpuResourceRegistry()
+    {
+        this(DEFAULT_BUDGET, DEFAULT_MIN_IDLE_FRAMES);
+    }
+
+    /**
+     * @param budgetBytes       - resident memory above which resources are evicted
+     * @param minIdleFrames     - frames a resource must not have been drawn to be evicted
+     */
+    public GpuResourceRegistry(long budgetBytes, int minIdleFrames)
+    {
+        m_lBudget           = budgetBytes;
+        m_iMinIdleFrames    = minIdleFrames;
+    }
+
+    /**
+     * Counts a GL object.
+     *
+     * @param name      - shown in log()
+     * @param kind      - one of GpuResource.KIND_
+     * @param bytes     - memory of the object
+     * @param evictable - null if the object can not be evicted
+     */
+    public GpuResource register(String name, int kind, long bytes, GpuResource.Evictable evictable)
+    {
+        GpuResource resource        = new GpuResource(this, name, kind, bytes, evictable);
+        resource.m_lLastUsedFrame   = m_lFrame;
+
+        m_Resources.add(resource);
+        m_lResidentBytes[kind] += bytes;
+
+        return resource;
+    }
+
+    /**
+     * Counts a texture, an EvictableTexture is attached to the registry so that it can be
+     * evicted.
+     */
+    public GpuResource registerTexture(String name, Texture texture)
+    {
+        if(texture instanceof EvictableTexture)
+        {
+            return ((EvictableTexture) texture).attach(this, name);
+        }
+
+        return register(name, GpuResource.KIND_TEXTURE, getTextureBytes(texture), null);
+    }
+
+    /*
+     *
+     */
+    public GpuResource registerMesh(String name, Mesh mesh)
+    {
+        return register(name, GpuResource.KIND_MESH, getMeshBytes(mesh), null);
+    }
+
+    /*
+     *
+     */
+    public GpuResource registerShader(String name, ShaderProgram shader)
+    {
+        return register(name, GpuResource.KIND_SHADER, SHADER_BYTES, null);
+    }
+
+    /**
+     * Stops counting a resource, i.e. when its GL object is disposed. Can be called again.
+     */
+    public void unregister(GpuResource resource)
+    {
+        if((resource == null) || !resource.m_bRegistered)
+        {
+            return;
+        }
+
+        if(resource.m_bResident)
+        {
+            m_lResidentBytes[resource.m_iKind] -= resource.m_lBytes;
+        }
+        else
+        {
+            m_lEvictedBytes -= resource.m_lBytes;
+        }
+
+        resource.m_bRegistered = false;
+        m_Resources.removeValue(resource, true);
+    }
+
+    /**
+     * Changes the size of a resource, i.e. after its texture was loaded again.
+     */
+    public void setBytes(GpuResource resource, long bytes)
+    {
+        if(resource.m_bRegistered)
+        {
+            if(resource.m_bResident)
+            {
+                m_lResidentBytes[resource.m_iKind] += bytes - resource.m_lBytes;
+            }
+            else
+            {
+                m_lEvictedBytes += bytes - resource.m_lBytes;
+            }
+        }
+
+        resource.m_lBytes = bytes;
+    }
+
+    /**
+     * Marks the resource as drawn this frame, it is restored if it was evicted.
+     */
+    public void touch(GpuResource resource)
+    {
+        resource.m_lLastUsedFrame = m_lFrame;
+
+        if(!resource.m_bResident)
+        {
+            // resident before restoring, the restore binds the texture which touches it again
+            resource.m_bResident    = true;
+            m_lEvictedBytes        -= resource.m_lBytes;
+            m_lResidentBytes[resource.m_iKind] += resource.m_lBytes;
+            m_iRestores++;
+
+            resource.m_Evictable.restoreGpu();
+        }
+    }
+
+    /**
+     * Called when the object was created again behind the registry, i.e. by libGDX after the
+     * context was lost.
+     */
+    public void onRestored(GpuResource resource)
+    {
+        if(resource.m_bRegistered && !resource.m_bResident)
+        {
+            resource.m_bResident    = true;
+            m_lEvictedBytes        -= resource.m_lBytes;
+            m_lResidentBytes[resource.m_iKind] += resource.m_lBytes;
+        }
+    }
+
+    /**
+     * Starts a new frame and evicts while the budget is exceeded.
+     */
+    public void update()
+    {
+        m_lFrame++;
+
+        while(getResidentBytes() > m_lBudget)
+        {
+            GpuResource oldest = findOldestEvictable();
+
+            if(oldest == null)
+            {
+                break;
+            }
+
+            evict(oldest);
+        }
+    }
+
+    /**
+     * Evicts all evictable resources not drawn for the idle frames, i.e. when the system
+     * reports low memory.
+     *
+     * @return memory freed
+     */
+    public long trim()
+    {
+        long freed = 0;
+
+        for(int i = 0; i < m_Resources.size; i++)
+        {
+            GpuResource resource = m_Resources.get(i);
+
+            if(isEvictable(resource))
+            {
+                freed += resource.m_lBytes;
+                evict(resource);
+            }
+        }
+
+        return freed;
+    }
+
+    /*
+     *
+     */
+    public long getBudget()
+    {
+        return m_lBudget;
+    }
+
+    /*
+     *
+     */
+    public void setBudget(long budgetBytes)
+    {
+        m_lBudget = budgetBytes;
+    }
+
+    /*
+     *
+     */
+    public void setMinIdleFrames(int minIdleFrames)
+    {
+        m_iMinIdleFrames = minIdleFrames;
+    }
+
+    /**
+     * Memory of the objects currently in GL.
+     */
+    public long getResidentBytes()
+    {
+        long bytes = 0;
+
+        for(int i = 0; i < GpuResource.KIND_COUNT; i++)
+        {
+            bytes += m_lResidentBytes[i];
+        }
+
+        return bytes;
+    }
+
+    /*
+     *
+     */
+    public long getResidentBytes(int kind)
+    {
+        return m_lResidentBytes[kind];
+    }
+
+    /**
+     * Memory of the evicted objects, created again when drawn.
+     */
+    public long getEvictedBytes()
+    {
+        return m_lEvictedBytes;
+    }
+
+    /*
+     *
+     */
+    public int getResourceCount()
+    {
+        return m_Resources.size;
+    }
+
+    /**
+     * Evictions since the creation.
+     */
+    public int getEvictionCount()
+    {
+        return m_iEvictions;
+    }
+
+    /**
+     * Evicted resources drawn again since the creation.
+     */
+    public int getRestoreCount()
+    {
+        return m_iRestores;
+    }
+
+    /*
+     *
+     */
+    public long getFrame()
+    {
+        return m_lFrame;
+    }
+
+    /**
+     * Logs the totals and every resource.
+     */
+    public void log(String tag)
+    {
+        Gdx.app.log(tag, "resident " + (getResidentBytes() >> 10) + " KB ( textures " + (m_lResidentBytes[GpuResource.KIND_TEXTURE] >> 10)
+                         + ", meshes " + (m_lResidentBytes[GpuResource.KIND_MESH] >> 10)
+                         + ", shaders " + (m_lResidentBytes[GpuResource.KIND_SHADER] >> 10)
+                         + ", buffers " + (m_lResidentBytes[GpuResource.KIND_BUFFER] >> 10)
+                         + " ) evicted " + (m_lEvictedBytes >> 10) + " KB, budget " + (m_lBudget >> 10) + " KB, "
+                         + m_iEvictions + " evictions, " + m_iRestores + " restores");
+
+        for(int i = 0; i < m_Resources.size; i++)
+        {
+            GpuResource resource = m_Resources.get(i);
+
+            Gdx.app.log(tag, "  " + resource.m_strName + " " + (resource.m_lBytes >> 10) + " KB"
+                             + (resource.m_bResident ? "" : " evicted")
+                             + ", drawn " + (m_lFrame - resource.m_lLastUsedFrame) + " frames ago");
+        }
+    }
+
+    /*
+     *
+     */
+    public static long getTextureBytes(Texture texture)
+    {
+        return TextureBudget.estimateBytes(texture.getTextureData());
+    }
+
+    /*
+     *
+     */
+    public static long getMeshBytes(Mesh mesh)
+    {
+        return ((long)mesh.getMaxVertices() * mesh.getVertexSize()) + (mesh.getMaxIndices() * 2L);
+    }
+
+    /**
+     * Memory of the mesh of a SpriteBatch of the given size, 4 vertices of 20 bytes and 6
+     * indices per sprite.
+     */
+    public static long getSpriteBatchBytes(int size)
+    {
+        return (size * 4L * 20L) + (size * 6L * 2L);
+    }
+
+    /**
+     * Memory of the mesh of a ShapeRenderer of the given vertices, position and packed color.
+     */
+    public static long getShapeRendererBytes(int maxVertices)
+    {
+        return maxVertices * 16L;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private boolean isEvictable(GpuResource resource)
+    {
+        return resource.m_bResident && (resource.m_Evictable != null)
+            && ((m_lFrame - resource.m_lLastUsedFrame) >= m_iMinIdleFrames);
+    }
+
+    /*
+     *
+     */
+    private GpuResource findOldestEvictable()
+    {
+        GpuResource oldest = null;
+
+        for(int i = 0; i < m_Resources.size; i++)
+        {
+            GpuResource resource = m_Resources.get(i);
+
+            if(isEvictable(resource) && ((oldest == null) || (resource.m_lLastUsedFrame < oldest.m_lLastUsedFrame)))
+            {
+                oldest = resource;
+            }
+        }
+
+        return oldest;
+    }
+
+    /*
+     *
+     */
+    private void evict(GpuResource resource)
+    {
+        resource.m_Evictable.evictGpu();
+        resource.m_bResident    = false;
+        m_lResidentBytes[resource.m_iKind] -= resource.m_lBytes;
+        m_lEvictedBytes        += resource.m_lBytes;
+        m_iEvictions++;
+    }
+}
@@ -0,0 +1,500 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         HudLayer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       2D layer drawn over the frame. Shapes, sprites and text of all the
+ **                 producers are queued during the frame and drawn by one flush()
+ ** PREMISES:       The font has a single page
+ ** REMARKS:        Shapes sample a white block added below the font page, so shapes and
+ **                 text share one texture and are drawn by the same draw call
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : text() of a NumericText
+ **                 2026-10-18 : Font left at scale 1, the application sets its scale
+ **                 2026-10-18 : underlay(), a rectangle under the whole queue
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Owns the only SpriteBatch, font and screen camera of the 2D drawings. Nothing is drawn when
+ * a producer calls rect(), circle(), text() or draw(), the quads are appended to one vertex
+ * array in the SpriteBatch format, so the producers can queue at any time of the frame, i.e.
+ * while a ModelBatch is active. flush() then hands the array to the batch in runs of the same
+ * texture, in the order they were queued.
+ *
+ * <p>underlay() is the exception, a rectangle drawn under all the queue whenever it is set,
+ * i.e. a fade over the scene that the HUD queued earlier in the frame must stay above.
+ *
+ * <p>The font page is copied into a texture a few rows taller, the added rows are white. The
+ * shapes take their uv from there, a circle is a fan of quads with a degenerate second
+ * triangle. Shapes and text thus never break a run, a HUD of shapes and text is one draw
+ * call, each sprite of another texture adds one run.
+ */
+public class HudLayer implements Disposable
+{
+    public final static String          DEFAULT_FONT            = "com/badlogic/gdx/utils/arial-15.fnt";
+    public final static int             DEFAULT_SIZE            = 1000;     // sprites per draw call
+
+    private final static int            VERTEX_SIZE             = 5;        // x, y, color, u, v
+    private final static int            SPRITE_SIZE             = 4 * VERTEX_SIZE;
+    private final static int            WHITE_SIZE              = 4;        // rows added below the font page
+    private final static float          WHITE_BITS              = Color.WHITE.toFloatBits();
+
+    private final SpriteBatch           m_Batch;
+    private final OrthographicCamera    m_Camera                = new OrthographicCamera();
+    private final Texture               m_Atlas;
+    private final BitmapFont            m_Font;
+    private final BitmapFontCache       m_TextCache;
+    private final int                   m_iSize;
+    private final float                 m_fWhiteU;
+    private final float                 m_fWhiteV;
+
+    private float                       m_fVertices[];
+    private int                         m_iVertexCount;                     // floats queued
+    private final Array<Texture>        m_RunTextures           = new Array<Texture>(true, 8);
+    private final IntArray              m_RunEnds               = new IntArray(true, 8);
+    private final float                 m_fUnderlay[]           = new float[SPRITE_SIZE];
+    private boolean                     m_bUnderlay;
+    private GpuResource                 m_Resources[];
+    private int                         m_iDrawCalls;
+
+    /*
+     *
+     */
+    public HudLayer()
+    {
+        this(Gdx.files.classpath(DEFAULT_FONT), DEFAULT_SIZE);
+    }
+
+    /**
+     * @param fontFile  - BMFont file of a single page font
+     * @param size      - sprites the batch draws per draw call
+     */
+    public HudLayer(FileHandle fontFile, int size)
+    {
+        BitmapFont.BitmapFontData fontData = new BitmapFont.BitmapFontData(fontFile, false);
+
+        if(fontData.getImagePaths().length != 1)
+        {
+            throw new GdxRuntimeException("HudLayer needs a single page font: " + fontFile);
+        }
+
+        Pixmap page     = new Pixmap(Gdx.files.getFileHandle(fontData.getImagePath(0), fontFile.type()));
+        int pageWidth   = page.getWidth();
+        int pageHeight  = page.getHeight();
+        Pixmap atlas    = new Pixmap(pageWidth, pageHeight + WHITE_SIZE, Pixmap.Format.RGBA8888);
+
+        atlas.setBlending(Pixmap.Blending.None);
+        atlas.drawPixmap(page, 0, 0);
+        atlas.setColor(Color.WHITE);
+        atlas.fillRectangle(0, pageHeight, WHITE_SIZE, WHITE_SIZE);
+
+        m_Atlas         = new Texture(atlas);
+        page.dispose();
+        atlas.dispose();
+
+        // middle of the white block, the neighbours are white too whatever the filter
+        m_fWhiteU       = (WHITE_SIZE * 0.5f) / pageWidth;
+        m_fWhiteV       = (pageHeight + (WHITE_SIZE * 0.5f)) / (pageHeight + WHITE_SIZE);
+
+        m_Font          = new BitmapFont(fontData, new TextureRegion(m_Atlas, 0, 0, pageWidth, pageHeight), true);
+        m_TextCache     = m_Font.newFontCache();
+
+        m_iSize         = size;
+        m_Batch         = new SpriteBatch(size);
+        m_fVertices     = new float[64 * SPRITE_SIZE];
+
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    /**
+     * Counts the texture and the batch in the registry.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        unregisterResources();
+
+        if(registry != null)
+        {
+            m_Resources = new GpuResource[]
+                            {
+                                registry.registerTexture("HudLayer.atlas", m_Atlas),
+                                registry.register("HudLayer.batch", GpuResource.KIND_MESH,
+                                                  GpuResourceRegistry.getSpriteBatchBytes(m_iSize), null)
+                            };
+        }
+    }
+
+    /**
+     * Screen projection, origin in the lower left corner.
+     */
+    public void resize(int screenWidth, int screenHeight)
+    {
+        m_Camera.setToOrtho(false, screenWidth, screenHeight);
+        m_Batch.setProjectionMatrix(m_Camera.combined);
+    }
+
+    /**
+     * The shared font. Changing its scale changes the size of the text queued afterwards.
+     */
+    public BitmapFont getFont()
+    {
+        return m_Font;
+    }
+
+    /**
+     * The batch with the screen projection, for the drawings which cannot wait for flush().
+     * It must not be begun while flush() runs.
+     */
+    public SpriteBatch getBatch()
+    {
+        return m_Batch;
+    }
+
+    /*
+     *
+     */
+    public void rect(float x, float y, float width, float height, Color color)
+    {
+        float c = color.toFloatBits();
+
+        quad(m_Atlas,
+             x,         y,          m_fWhiteU,  m_fWhiteV,
+             x,         y + height, m_fWhiteU,  m_fWhiteV,
+             x + width, y + height, m_fWhiteU,  m_fWhiteV,
+             x + width, y,          m_fWhiteU,  m_fWhiteV,
+             c);
+    }
+
+    /**
+     * Rectangle drawn before everything queued, whether it was queued before or after this
+     * call. There is one per flush, a second call replaces it. It shares the run of the shapes
+     * and text, so it adds no draw call to them.
+     */
+    public void underlay(float x, float y, float width, float height, Color color)
+    {
+        float c = color.toFloatBits();
+        float v[] = m_fUnderlay;
+
+        v[0]  = x;          v[1]  = y;          v[2]  = c;  v[3]  = m_fWhiteU;  v[4]  = m_fWhiteV;
+        v[5]  = x;          v[6]  = y + height; v[7]  = c;  v[8]  = m_fWhiteU;  v[9]  = m_fWhiteV;
+        v[10] = x + width;  v[11] = y + height; v[12] = c;  v[13] = m_fWhiteU;  v[14] = m_fWhiteV;
+        v[15] = x + width;  v[16] = y;          v[17] = c;  v[18] = m_fWhiteU;  v[19] = m_fWhiteV;
+
+        m_bUnderlay = true;
+    }
+
+    /*
+     *
+     */
+    public void line(float x1, float y1, float x2, float y2, float width, Color color)
+    {
+        float dx    = x2 - x1;
+        float dy    = y2 - y1;
+        float len   = (float)Math.sqrt((dx * dx) + (dy * dy));
+
+        if(len == 0)
+        {
+            return;
+        }
+
+        // half the width along the normal
+        float nx    = (-dy / len) * width * 0.5f;
+        float ny    = ( dx / len) * width * 0.5f;
+        float c     = color.toFloatBits();
+
+        quad(m_Atlas,
+             x1 - nx,   y1 - ny,    m_fWhiteU,  m_fWhiteV,
+             x1 + nx,   y1 + ny,    m_fWhiteU,  m_fWhiteV,
+             x2 + nx,   y2 + ny,    m_fWhiteU,  m_fWhiteV,
+             x2 - nx,   y2 - ny,    m_fWhiteU,  m_fWhiteV,
+             c);
+    }
+
+    /**
+     * Filled circle, with as many segments as ShapeRenderer would use.
+     */
+    public void circle(float x, float y, float radius, Color color)
+    {
+        circle(x, y, radius, Math.max(1, (int)(6 * (float)Math.cbrt(radius))), color);
+    }
+
+    /*
+     *
+     */
+    public void circle(float x, float y, float radius, int segments, Color color)
+    {
+        float c     = color.toFloatBits();
+        float angle = MathUtils.PI2 / segments;
+        float cos   = MathUtils.cos(angle);
+        float sin   = MathUtils.sin(angle);
+        float cx    = radius;
+        float cy    = 0;
+
+        for(int i = 0; i < segments; i++)
+        {
+            float nx = (cos * cx) - (sin * cy);
+            float ny = (sin * cx) + (cos * cy);
+
+            quad(m_Atlas,
+                 x,         y,          m_fWhiteU,  m_fWhiteV,
+                 x + cx,    y + cy,     m_fWhiteU,  m_fWhiteV,
+                 x + nx,    y + ny,     m_fWhiteU,  m_fWhiteV,
+                 x + nx,    y + ny,     m_fWhiteU,  m_fWhiteV,
+                 c);
+
+            cx = nx;
+            cy = ny;
+        }
+    }
+
+    /**
+     * @param y - top of the text, as BitmapFont.draw()
+     */
+    public void text(CharSequence text, float x, float y, Color color)
+    {
+        int start = m_TextCache.getVertexCount(0);
+
+        m_TextCache.setColor(color);
+        m_TextCache.addText(text, x, y);
+
+        append(m_Atlas, m_TextCache.getVertices(0), start, m_TextCache.getVertexCount(0) - start);
+    }
+
+    /**
+     * Copies the quads of the text as they are, nothing is laid out.
+     */
+    public void text(NumericText text)
+    {
+        append(m_Atlas, text.getVertices(), 0, text.getVertexCount());
+    }
+
+    /*
+     *
+     */
+    public void draw(Texture texture, float x, float y, float width, float height)
+    {
+        quad(texture,
+             x,         y,          0,  1,
+             x,         y + height, 0,  0,
+             x + width, y + height, 1,  0,
+             x + width, y,          1,  1,
+             WHITE_BITS);
+    }
+
+    /*
+     *
+     */
+    public void draw(TextureRegion region, float x, float y, float width, float height, Color color)
+    {
+        quad(region.getTexture(),
+             x,         y,          region.getU(),  region.getV2(),
+             x,         y + height, region.getU(),  region.getV(),
+             x + width, y + height, region.getU2(), region.getV(),
+             x + width, y,          region.getU2(), region.getV2(),
+             color.toFloatBits());
+    }
+
+    /**
+     * Draws everything queued since the last flush and empties the queue.
+     */
+    public void flush()
+    {
+        if((m_iVertexCount > 0) || m_bUnderlay)
+        {
+            int start = 0;
+
+            m_Batch.begin();
+
+            // the batch joins it to the first run when that is of the atlas too
+            if(m_bUnderlay)
+            {
+                m_Batch.draw(m_Atlas, m_fUnderlay, 0, SPRITE_SIZE);
+            }
+
+            for(int i = 0; i < m_RunTextures.size; i++)
+            {
+                int end = m_RunEnds.get(i);
+
+                m_Batch.draw(m_RunTextures.get(i), m_fVertices, start, end - start);
+                start = end;
+            }
+
+            m_Batch.end();
+            m_iDrawCalls = m_Batch.renderCalls;
+        }
+        else
+        {
+            m_iDrawCalls = 0;
+        }
+
+        clear();
+    }
+
+    /**
+     * Drops what is queued without drawing it.
+     */
+    public void clear()
+    {
+        m_bUnderlay    = false;
+        m_iVertexCount = 0;
+        m_RunTextures.clear();
+        m_RunEnds.clear();
+        m_TextCache.clear();
+    }
+
+    /**
+     * Sprites queued since the last flush, the underlay included.
+     */
+    public int getQueuedCount()
+    {
+        return (m_iVertexCount / SPRITE_SIZE) + (m_bUnderlay ? 1 : 0);
+    }
+
+    /**
+     * Runs of the same texture queued since the last flush.
+     */
+    public int getRunCount()
+    {
+        return m_RunTextures.size;
+    }
+
+    /**
+     * Draw calls of the last flush.
+     */
+    public int getDrawCalls()
+    {
+        return m_iDrawCalls;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        unregisterResources();
+        clear();
+        m_Batch.dispose();
+        m_Font.dispose();
+        m_Atlas.dispose();
+    }
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Vertices in the order of SpriteBatch, lower left then clockwise.
+     */
+    private void quad(Texture texture,
+                      float x1, float y1, float u1, float v1,
+                      float x2, float y2, float u2, float v2,
+                      float x3, float y3, float u3, float v3,
+                      float x4, float y4, float u4, float v4,
+                      float color)
+    {
+        int i = reserve(texture, SPRITE_SIZE);
+        float v[] = m_fVertices;
+
+        v[i]      = x1;  v[i + 1]  = y1;  v[i + 2]  = color;  v[i + 3]  = u1;  v[i + 4]  = v1;
+        v[i + 5]  = x2;  v[i + 6]  = y2;  v[i + 7]  = color;  v[i + 8]  = u2;  v[i + 9]  = v2;
+        v[i + 10] = x3;  v[i + 11] = y3;  v[i + 12] = color;  v[i + 13] = u3;  v[i + 14] = v3;
+        v[i + 15] = x4;  v[i + 16] = y4;  v[i + 17] = color;  v[i + 18] = u4;  v[i + 19] = v4;
+    }
+
+    /*
+     *
+     */
+    private void append(Texture texture, float vertices[], int offset, int count)
+    {
+        if(count > 0)
+        {
+            System.arraycopy(vertices, offset, m_fVertices, reserve(texture, count), count);
+        }
+    }
+
+    /**
+     * Grows the vertex array and extends or opens the run of the texture.
+     *
+     * @return index of the first reserved float
+     */
+    private int reserve(Texture texture, int count)
+    {
+        int start = m_iVertexCount;
+
+        if((start + count) > m_fVertices.length)
+        {
+            float vertices[] = new float[Math.max(start + count, m_fVertices.length * 2)];
+
+            System.arraycopy(m_fVertices, 0, vertices, 0, start);
+            m_fVertices = vertices;
+        }
+
+        m_iVertexCount += count;
+
+        int last = m_RunTextures.size - 1;
+
+        if((last >= 0) && (m_RunTextures.get(last) == texture))
+        {
+            m_RunEnds.set(last, m_iVertexCount);
+        }
+        else
+        {
+            m_RunTextures.add(texture);
+            m_RunEnds.add(m_iVertexCount);
+        }
+
+        return start;
+    }
+
+    /*
+     *
+     */
+    private void unregisterResources()
+    {
+        if(m_Resources != null)
+        {
+            for(int i = 0; i < m_Resources.length; i++)
+            {
+                m_Resources[i].unregister();
+            }
+
+            m_Resources = null;
+        }
+    }
+}
@@ -0,0 +1,843 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         InstancedRenderer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Draws many copies of the same Model with one draw call per mesh part
+ ** PREMISES:       GLES3 ( Gdx.gl30, config.useGL30 ) uses hardware instancing, GLES2 draws
+ **                 a mesh holding several copies of the part, each picking its transform
+ **                 from a uniform array
+ ** REMARKS:        Only the diffuse color, diffuse texture, blending and cull face of the
+ **                 material are applied, models needing lighting stay with the ModelBatch
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : GL objects counted in a GpuResourceRegistry
+ **                 2026-10-18 : Moved from arcore4gdx, used by CameraScene
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.IntAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Renders models placed many times in the scene, i.e. the same marker on every anchor.
+ * The ModelBatch draws and sets up every copy on its own, here the copies of a mesh part are
+ * collected during the frame and drawn together, so the number of draw calls follows the
+ * number of distinct models rather than the number of copies.
+ *
+ * <p>Call begin(), add() the copies, then end() which does the drawing. The transforms passed
+ * to add() are referenced, not copied, and must not change before end().
+ */
+public class InstancedRenderer implements Disposable
+{
+    public static final int             DEFAULT_MAX_INSTANCES       = 256;      // per draw call with GLES3
+
+    private static final int            MAX_BATCH_INSTANCES         = 32;       // per draw call with GLES2
+    private static final int            RESERVED_UNIFORM_VECTORS    = 8;        // u_projViewTrans and the material
+    private static final int            MAX_BATCH_VERTICES          = 65536;    // short indices
+    private static final int            MATRIX_SIZE                 = 16;
+    private static final int            MATRIX_BYTES                = MATRIX_SIZE * 4;
+    private static final int            BATCH_VERTEX_SIZE           = 6;        // position, uv, instance index
+
+    private static final String         INSTANCE_TRANSFORM          = "a_instanceTrans";
+    private static final String         INSTANCE_INDEX              = "a_instanceIndex";
+
+    // The version line must come first, so it is put before the defines.
+    private static final String         GLES3_VERSION               = "#version 300 es\n";
+
+    private static final String         GLES3_VERTEX                =
+                        "in vec3 a_position;\n"
+                    +   "in vec2 a_texCoord0;\n"
+                    +   "in mat4 " + INSTANCE_TRANSFORM + ";\n"
+                    +   "uniform mat4 u_projViewTrans;\n"
+                    +   "uniform vec4 u_diffuseUVTransform;\n"
+                    +   "out vec2 v_texCoord0;\n"
+                    +   "void main() {\n"
+                    +   "    v_texCoord0 = u_diffuseUVTransform.xy + a_texCoord0 * u_diffuseUVTransform.zw;\n"
+                    +   "    gl_Position = u_projViewTrans * " + INSTANCE_TRANSFORM + " * vec4(a_position, 1.0);\n"
+                    +   "}";
+
+    private static final String         GLES3_FRAGMENT              =
+                        "precision mediump float;\n"
+                    +   "uniform vec4 u_diffuseColor;\n"
+                    +   "uniform sampler2D u_diffuseTexture;\n"
+                    +   "in vec2 v_texCoord0;\n"
+                    +   "out vec4 fragColor;\n"
+                    +   "void main() {\n"
+                    +   "#ifdef diffuseTextureFlag\n"
+                    +   "    fragColor = texture(u_diffuseTexture, v_texCoord0) * u_diffuseColor;\n"
+                    +   "#else\n"
+                    +   "    fragColor = u_diffuseColor;\n"
+                    +   "#endif\n"
+                    +   "}";
+
+    private static final String         GLES2_VERTEX                =
+                        "attribute vec3 a_position;\n"
+                    +   "attribute vec2 a_texCoord0;\n"
+                    +   "attribute float " + INSTANCE_INDEX + ";\n"
+                    +   "uniform mat4 u_projViewTrans;\n"
+                    +   "uniform mat4 u_instanceTrans[MAX_INSTANCES];\n"
+                    +   "uniform vec4 u_diffuseUVTransform;\n"
+                    +   "varying vec2 v_texCoord0;\n"
+                    +   "void main() {\n"
+                    +   "    v_texCoord0 = u_diffuseUVTransform.xy + a_texCoord0 * u_diffuseUVTransform.zw;\n"
+                    +   "    gl_Position = u_projViewTrans * u_instanceTrans[int(" + INSTANCE_INDEX + ")] * vec4(a_position, 1.0);\n"
+                    +   "}";
+
+    private static final String         GLES2_FRAGMENT              =
+                        "#ifdef GL_ES\n"
+                    +   "precision mediump float;\n"
+                    +   "#endif\n"
+                    +   "uniform vec4 u_diffuseColor;\n"
+                    +   "uniform sampler2D u_diffuseTexture;\n"
+                    +   "varying vec2 v_texCoord0;\n"
+                    +   "void main() {\n"
+                    +   "#ifdef diffuseTextureFlag\n"
+                    +   "    gl_FragColor = texture2D(u_diffuseTexture, v_texCoord0) * u_diffuseColor;\n"
+                    +   "#else\n"
+                    +   "    gl_FragColor = u_diffuseColor;\n"
+                    +   "#endif\n"
+                    +   "}";
+
+    private final GLStateTracker        m_StateTracker;
+    private final boolean               m_bHardwareInstancing;
+    private final int                   m_iMaxInstances;
+    private final IdentityMap<Model, Entry> m_Entries               = new IdentityMap<Model, Entry>();
+    private final Array<Entry>          m_Queued                    = new Array<Entry>(false, 16);
+    private final Matrix4               m_TempTransform             = new Matrix4();
+    private final float                 m_fUniformData[];
+    private final FloatBuffer           m_InstanceData;
+    private final InstanceShader        m_ColorShader;
+    private final InstanceShader        m_TextureShader;
+
+    private GpuResourceRegistry         m_ResourceRegistry;
+    private GpuResource                 m_InstanceBufferResource;
+    private int                         m_iInstanceBuffer           = -1;
+    private boolean                     m_bBufferValid;
+    private Camera                      m_Camera;
+    private int                         m_iDrawCalls;
+    private int                         m_iInstanceCount;
+
+    /*
+     *
+     */
+    public InstancedRenderer(GLStateTracker glStateTracker)
+    {
+        this(glStateTracker, DEFAULT_MAX_INSTANCES);
+    }
+
+    /**
+     * Must be created on the GL thread.
+     *
+     * @param glStateTracker    - shadow of the GL state shared with the scene
+     * @param maxInstances      - copies drawn by one GLES3 draw call, more copies take more calls
+     */
+    public InstancedRenderer(GLStateTracker glStateTracker, int maxInstances)
+    {
+        m_StateTracker          = glStateTracker;
+        m_bHardwareInstancing   = (Gdx.gl30 != null);
+
+        if(m_bHardwareInstancing)
+        {
+            m_iMaxInstances     = maxInstances;
+            m_fUniformData      = null;
+            m_InstanceData      = BufferUtils.newFloatBuffer(maxInstances * MATRIX_SIZE);
+        }
+        else
+        {
+            // the transforms share the vertex uniforms with the camera and the material
+            IntBuffer result    = BufferUtils.newIntBuffer(16);
+            Gdx.gl.glGetIntegerv(GL20.GL_MAX_VERTEX_UNIFORM_VECTORS, result);
+
+            m_iMaxInstances     = Math.max(1, Math.min(Math.min(maxInstances, MAX_BATCH_INSTANCES),
+                                                       (result.get(0) - RESERVED_UNIFORM_VECTORS) / 4));
+            m_fUniformData      = new float[m_iMaxInstances * MATRIX_SIZE];
+            m_InstanceData      = null;
+        }
+
+        m_ColorShader           = new InstanceShader(false);
+        m_TextureShader         = new InstanceShader(true);
+    }
+
+    /**
+     * True if the copies are drawn with GLES3 instancing.
+     */
+    public boolean isHardwareInstancing()
+    {
+        return m_bHardwareInstancing;
+    }
+
+    /**
+     * Copies drawn by one draw call.
+     */
+    public int getMaxInstances()
+    {
+        return m_iMaxInstances;
+    }
+
+    /**
+     * Prepares the model now rather than on its first add(). With GLES2 this builds the meshes
+     * holding the copies, which should not happen in the middle of a frame.
+     */
+    public void prepare(Model model)
+    {
+        getEntry(model);
+    }
+
+    /**
+     * Releases what was prepared for the model, i.e. before disposing it.
+     */
+    public void release(Model model)
+    {
+        Entry entry = m_Entries.remove(model);
+
+        if(entry != null)
+        {
+            m_Queued.removeValue(entry, true);
+            entry.dispose();
+        }
+    }
+
+    /*
+     *
+     */
+    public void begin(Camera camera)
+    {
+        m_Camera            = camera;
+        m_iDrawCalls        = 0;
+        m_iInstanceCount    = 0;
+    }
+
+    /**
+     * Queues a copy of the model.
+     *
+     * @param transform - world transform of the copy, referenced until end()
+     */
+    public void add(Model model, Matrix4 transform)
+    {
+        Entry entry = getEntry(model);
+
+        if(entry.m_Instances.size == 0)
+        {
+            m_Queued.add(entry);
+        }
+
+        entry.m_Instances.add(transform);
+        m_iInstanceCount++;
+    }
+
+    /**
+     * Queues a copy of the model of the instance. Changes made to the materials of the
+     * instance are not seen, the ones of the model are used.
+     */
+    public void add(ModelInstance instance)
+    {
+        add(instance.model, instance.transform);
+    }
+
+    /**
+     * Draws the queued copies.
+     */
+    public void end()
+    {
+        if(m_Queued.size > 0)
+        {
+            if(m_bHardwareInstancing && !m_bBufferValid)
+            {
+                createInstanceBuffer();
+            }
+
+            m_StateTracker.setDepthTest(true);
+            m_StateTracker.setDepthFunc(GL20.GL_LEQUAL);
+
+            for(int i = 0; i < m_Queued.size; i++)
+            {
+                Entry entry = m_Queued.get(i);
+
+                for(int j = 0; j < entry.m_Parts.size; j++)
+                {
+                    Part part = entry.m_Parts.get(j);
+
+                    if(m_bHardwareInstancing)
+                    {
+                        renderInstanced(part, entry.m_Instances);
+                    }
+                    else
+                    {
+                        renderBatched(part, entry.m_Instances);
+                    }
+                }
+
+                entry.m_Instances.clear();
+            }
+
+            m_Queued.clear();
+        }
+
+        m_Camera = null;
+    }
+
+    /**
+     * Draw calls issued by the last end().
+     */
+    public int getDrawCalls()
+    {
+        return m_iDrawCalls;
+    }
+
+    /**
+     * Copies queued since the last begin().
+     */
+    public int getInstanceCount()
+    {
+        return m_iInstanceCount;
+    }
+
+    /**
+     * Counts the shaders, the instance buffer and the batch meshes in the registry.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        m_ResourceRegistry = registry;
+
+        m_ColorShader.register(registry, "InstancedRenderer.color");
+        m_TextureShader.register(registry, "InstancedRenderer.texture");
+    }
+
+    /**
+     * Must be called when the GL context may have been recreated, i.e. on resume. The meshes
+     * and shaders are managed by libGDX, only the instance buffer is created again.
+     */
+    public void invalidate()
+    {
+        m_bBufferValid = false;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        for(Entry entry : m_Entries.values())
+        {
+            entry.dispose();
+        }
+
+        m_Entries.clear();
+        m_Queued.clear();
+
+        if(m_bBufferValid)
+        {
+            Gdx.gl.glDeleteBuffer(m_iInstanceBuffer);
+            m_bBufferValid = false;
+        }
+
+        if(m_InstanceBufferResource != null)
+        {
+            m_InstanceBufferResource.unregister();
+            m_InstanceBufferResource = null;
+        }
+
+        m_ColorShader.dispose();
+        m_TextureShader.dispose();
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private Entry getEntry(Model model)
+    {
+        Entry entry = m_Entries.get(model);
+
+        if(entry == null)
+        {
+            entry = new Entry();
+
+            for(int i = 0; i < model.nodes.size; i++)
+            {
+                addParts(entry, model.nodes.get(i));
+            }
+
+            m_Entries.put(model, entry);
+        }
+
+        return entry;
+    }
+
+    /*
+     *
+     */
+    private void addParts(Entry entry, Node node)
+    {
+        for(int i = 0; i < node.parts.size; i++)
+        {
+            NodePart nodePart = node.parts.get(i);
+
+            if(nodePart.enabled)
+            {
+                Part part = new Part(nodePart.meshPart, nodePart.material, node.globalTransform);
+
+                if(!m_bHardwareInstancing)
+                {
+                    createBatchMesh(part);
+                }
+
+                entry.m_Parts.add(part);
+            }
+        }
+
+        for(Node child : node.getChildren())
+        {
+            addParts(entry, child);
+        }
+    }
+
+    /**
+     * GLES2 : builds a mesh holding as many copies of the part as one draw call takes, each
+     * copy tagged with its index in the transform array.
+     */
+    private void createBatchMesh(Part part)
+    {
+        MeshPart        meshPart        = part.m_MeshPart;
+        Mesh            mesh            = meshPart.mesh;
+        int             indexCount      = meshPart.size;
+        int             stride          = mesh.getVertexSize() / 4;
+        VertexAttribute position        = mesh.getVertexAttribute(VertexAttributes.Usage.Position);
+        VertexAttribute texCoords       = mesh.getVertexAttribute(VertexAttributes.Usage.TextureCoordinates);
+        int             positionOffset  = position.offset / 4;
+        int             texCoordsOffset = (texCoords != null) ? (texCoords.offset / 4) : -1;
+
+        // only the vertices used by the part are copied
+        int sourceIndices[] = new int[indexCount];
+
+        if(mesh.getNumIndices() > 0)
+        {
+            short indices[] = new short[indexCount];
+            mesh.getIndices(meshPart.offset, indexCount, indices, 0);
+
+            for(int i = 0; i < indexCount; i++)
+            {
+                sourceIndices[i] = indices[i] & 0xFFFF;
+            }
+        }
+        else
+        {
+            for(int i = 0; i < indexCount; i++)
+            {
+                sourceIndices[i] = meshPart.offset + i;
+            }
+        }
+
+        IntIntMap   remap           = new IntIntMap(indexCount);
+        int         vertexOrder[]   = new int[indexCount];
+        short       partIndices[]   = new short[indexCount];
+        int         vertexCount     = 0;
+
+        for(int i = 0; i < indexCount; i++)
+        {
+            int index = remap.get(sourceIndices[i], -1);
+
+            if(index < 0)
+            {
+                index                       = vertexCount++;
+                vertexOrder[index]          = sourceIndices[i];
+                remap.put(sourceIndices[i], index);
+            }
+
+            partIndices[i] = (short)index;
+        }
+
+        // strips and fans can not be joined, draw them one copy at a time
+        int primitiveType   = meshPart.primitiveType;
+        boolean isListed    = (primitiveType == GL20.GL_TRIANGLES) || (primitiveType == GL20.GL_LINES) || (primitiveType == GL20.GL_POINTS);
+        int batchSize       = isListed ? Math.max(1, Math.min(m_iMaxInstances, MAX_BATCH_VERTICES / Math.max(1, vertexCount))) : 1;
+
+        float   source[]    = mesh.getVertices(new float[mesh.getNumVertices() * stride]);
+        float   vertices[]  = new float[batchSize * vertexCount * BATCH_VERTEX_SIZE];
+        short   indices[]   = new short[batchSize * indexCount];
+        int     v           = 0;
+        int     n           = 0;
+
+        for(int copy = 0; copy < batchSize; copy++)
+        {
+            for(int i = 0; i < vertexCount; i++)
+            {
+                int s = vertexOrder[i] * stride;
+
+                vertices[v++] = source[s + positionOffset];
+                vertices[v++] = source[s + positionOffset + 1];
+                vertices[v++] = (position.numComponents > 2) ? source[s + positionOffset + 2] : 0.0f;
+                vertices[v++] = (texCoordsOffset >= 0) ? source[s + texCoordsOffset] : 0.0f;
+                vertices[v++] = (texCoordsOffset >= 0) ? source[s + texCoordsOffset + 1] : 0.0f;
+                vertices[v++] = copy;
+            }
+
+            for(int i = 0; i < indexCount; i++)
+            {
+                indices[n++] = (short)(partIndices[i] + (copy * vertexCount));
+            }
+        }
+
+        part.m_BatchMesh    = new Mesh(true, batchSize * vertexCount, indices.length,
+                                       VertexAttribute.Position(), VertexAttribute.TexCoords(0),
+                                       new VertexAttribute(VertexAttributes.Usage.Generic, 1, INSTANCE_INDEX));
+        part.m_BatchMesh.setVertices(vertices);
+        part.m_BatchMesh.setIndices(indices);
+        part.m_iBatchSize   = batchSize;
+
+        if(m_ResourceRegistry != null)
+        {
+            part.m_BatchResource = m_ResourceRegistry.registerMesh("InstancedRenderer.batch", part.m_BatchMesh);
+        }
+    }
+
+    /*
+     *
+     */
+    private void createInstanceBuffer()
+    {
+        m_iInstanceBuffer   = Gdx.gl.glGenBuffer();
+        m_bBufferValid      = true;
+
+        // created again with the context, counted once
+        if((m_ResourceRegistry != null) && (m_InstanceBufferResource == null))
+        {
+            m_InstanceBufferResource = m_ResourceRegistry.register("InstancedRenderer.instances", GpuResource.KIND_BUFFER,
+                                                                   (long)m_iMaxInstances * MATRIX_BYTES, null);
+        }
+    }
+
+    /**
+     * GLES3 : the transforms are streamed into a vertex buffer read once per copy.
+     */
+    private void renderInstanced(Part part, Array<Matrix4> instances)
+    {
+        GL20            gl          = Gdx.gl;
+        GL30            gl30        = Gdx.gl30;
+        MeshPart        meshPart    = part.m_MeshPart;
+        Mesh            mesh        = meshPart.mesh;
+        InstanceShader  shader      = beginShader(part.m_Material);
+        int             location    = shader.m_iInstanceTransform;
+
+        mesh.bind(shader.m_Program);
+
+        for(int first = 0; first < instances.size; first += m_iMaxInstances)
+        {
+            int count = Math.min(m_iMaxInstances, instances.size - first);
+
+            m_InstanceData.clear();
+
+            for(int i = 0; i < count; i++)
+            {
+                m_TempTransform.set(instances.get(first + i)).mul(part.m_NodeTransform);
+                m_InstanceData.put(m_TempTransform.val);
+            }
+
+            m_InstanceData.flip();
+
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, m_iInstanceBuffer);
+            gl.glBufferData(GL20.GL_ARRAY_BUFFER, count * MATRIX_BYTES, m_InstanceData, GL20.GL_STREAM_DRAW);
+
+            // a mat4 attribute takes four consecutive locations, one per column
+            for(int column = 0; column < 4; column++)
+            {
+                gl.glEnableVertexAttribArray(location + column);
+                gl.glVertexAttribPointer(location + column, 4, GL20.GL_FLOAT, false, MATRIX_BYTES, column * 16);
+                gl30.glVertexAttribDivisor(location + column, 1);
+            }
+
+            if(mesh.getNumIndices() > 0)
+            {
+                gl30.glDrawElementsInstanced(meshPart.primitiveType, meshPart.size, GL20.GL_UNSIGNED_SHORT, meshPart.offset * 2, count);
+            }
+            else
+            {
+                gl30.glDrawArraysInstanced(meshPart.primitiveType, meshPart.offset, meshPart.size, count);
+            }
+
+            m_iDrawCalls++;
+        }
+
+        // the mesh may keep its attributes in a vertex array object, leave it as it was
+        for(int column = 0; column < 4; column++)
+        {
+            gl30.glVertexAttribDivisor(location + column, 0);
+            gl.glDisableVertexAttribArray(location + column);
+        }
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        mesh.unbind(shader.m_Program);
+        shader.m_Program.end();
+    }
+
+    /**
+     * GLES2 : the transforms go to a uniform array indexed by the copies of the batch mesh.
+     */
+    private void renderBatched(Part part, Array<Matrix4> instances)
+    {
+        Mesh            mesh        = part.m_BatchMesh;
+        int             batchSize   = part.m_iBatchSize;
+        int             indexCount  = part.m_MeshPart.size;
+        InstanceShader  shader      = beginShader(part.m_Material);
+
+        mesh.bind(shader.m_Program);
+
+        for(int first = 0; first < instances.size; first += batchSize)
+        {
+            int count = Math.min(batchSize, instances.size - first);
+
+            for(int i = 0; i < count; i++)
+            {
+                m_TempTransform.set(instances.get(first + i)).mul(part.m_NodeTransform);
+                System.arraycopy(m_TempTransform.val, 0, m_fUniformData, i * MATRIX_SIZE, MATRIX_SIZE);
+            }
+
+            shader.m_Program.setUniformMatrix4fv(shader.m_iInstanceTransform, m_fUniformData, 0, count * MATRIX_SIZE);
+            mesh.render(shader.m_Program, part.m_MeshPart.primitiveType, 0, count * indexCount, false);
+
+            m_iDrawCalls++;
+        }
+
+        mesh.unbind(shader.m_Program);
+        shader.m_Program.end();
+    }
+
+    /**
+     * Binds the shader for the material and applies the material.
+     */
+    private InstanceShader beginShader(Material material)
+    {
+        TextureAttribute    texture     = (TextureAttribute) material.get(TextureAttribute.Diffuse);
+        ColorAttribute      color       = (ColorAttribute) material.get(ColorAttribute.Diffuse);
+        BlendingAttribute   blending    = (BlendingAttribute) material.get(BlendingAttribute.Type);
+        IntAttribute        cullFace    = (IntAttribute) material.get(IntAttribute.CullFace);
+        InstanceShader      shader      = (texture != null) ? m_TextureShader : m_ColorShader;
+        ShaderProgram       program     = shader.m_Program;
+        float               opacity     = ((blending != null) && blending.blended) ? blending.opacity : 1.0f;
+
+        program.begin();
+        program.setUniformMatrix(shader.m_iProjViewTrans, m_Camera.combined);
+
+        if(color != null)
+        {
+            Color c = color.color;
+            program.setUniformf(shader.m_iDiffuseColor, c.r, c.g, c.b, c.a * opacity);
+        }
+        else
+        {
+            program.setUniformf(shader.m_iDiffuseColor, 1.0f, 1.0f, 1.0f, opacity);
+        }
+
+        if(texture != null)
+        {
+            m_StateTracker.setActiveTexture(0);
+            m_StateTracker.bindTexture(GL20.GL_TEXTURE_2D, texture.textureDescription.texture.getTextureObjectHandle());
+            program.setUniformi(shader.m_iDiffuseTexture, 0);
+            program.setUniformf(shader.m_iDiffuseUVTransform, texture.offsetU, texture.offsetV, texture.scaleU, texture.scaleV);
+        }
+
+        if((blending != null) && blending.blended)
+        {
+            m_StateTracker.setBlending(true);
+            m_StateTracker.setBlendFunc(blending.sourceFunction, blending.destFunction);
+            m_StateTracker.setDepthMask(false);
+        }
+        else
+        {
+            m_StateTracker.setBlending(false);
+            m_StateTracker.setDepthMask(true);
+        }
+
+        int face = (cullFace != null) ? cullFace.value : GL20.GL_BACK;
+
+        if(face == 0)
+        {
+            m_StateTracker.setCullFace(false);
+        }
+        else
+        {
+            m_StateTracker.setCullFace(true);
+            m_StateTracker.setCullFaceMode(face);
+        }
+
+        return shader;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Queued copies of a model and its parts.
+     */
+    private static class Entry implements Disposable
+    {
+        final Array<Part>       m_Parts                     = new Array<Part>();
+        final Array<Matrix4>    m_Instances                 = new Array<Matrix4>(false, 16);
+
+        /*
+         *
+         */
+        @Override
+        public void dispose()
+        {
+            for(int i = 0; i < m_Parts.size; i++)
+            {
+                if(m_Parts.get(i).m_BatchMesh != null)
+                {
+                    m_Parts.get(i).m_BatchMesh.dispose();
+                }
+
+                if(m_Parts.get(i).m_BatchResource != null)
+                {
+                    m_Parts.get(i).m_BatchResource.unregister();
+                }
+            }
+
+            m_Parts.clear();
+        }
+    }
+
+    /**
+     * A mesh part of a model with its material and node transform.
+     */
+    private static class Part
+    {
+        final MeshPart          m_MeshPart;
+        final Material          m_Material;
+        final Matrix4           m_NodeTransform;
+
+        // GLES2 only
+        Mesh                    m_BatchMesh;
+        GpuResource             m_BatchResource;
+        int                     m_iBatchSize;
+
+        /*
+         *
+         */
+        Part(MeshPart meshPart, Material material, Matrix4 nodeTransform)
+        {
+            m_MeshPart      = meshPart;
+            m_Material      = material;
+            m_NodeTransform = nodeTransform;
+        }
+    }
+
+    /**
+     * Program with the locations it uses. Unused uniforms are optimised out by the compiler,
+     * their location is then -1 which GL ignores.
+     */
+    private class InstanceShader implements Disposable
+    {
+        final ShaderProgram     m_Program;
+        final int               m_iProjViewTrans;
+        final int               m_iDiffuseColor;
+        final int               m_iDiffuseTexture;
+        final int               m_iDiffuseUVTransform;
+        final int               m_iInstanceTransform;       // attribute with GLES3, uniform with GLES2
+        GpuResource             m_Resource;
+
+        /*
+         *
+         */
+        InstanceShader(boolean isTextured)
+        {
+            String defines  = (isTextured ? "#define diffuseTextureFlag\n" : "")
+                            + (m_bHardwareInstancing ? "" : "#define MAX_INSTANCES " + m_iMaxInstances + "\n");
+
+            m_Program       = m_bHardwareInstancing ? new ShaderProgram(GLES3_VERSION + defines + GLES3_VERTEX, GLES3_VERSION + defines + GLES3_FRAGMENT)
+                                                    : new ShaderProgram(defines + GLES2_VERTEX, defines + GLES2_FRAGMENT);
+
+            if(!m_Program.isCompiled())
+            {
+                throw new GdxRuntimeException("InstancedRenderer shader: " + m_Program.getLog());
+            }
+
+            m_iProjViewTrans        = m_Program.fetchUniformLocation("u_projViewTrans", false);
+            m_iDiffuseColor         = m_Program.fetchUniformLocation("u_diffuseColor", false);
+            m_iDiffuseTexture       = m_Program.fetchUniformLocation("u_diffuseTexture", false);
+            m_iDiffuseUVTransform   = m_Program.fetchUniformLocation("u_diffuseUVTransform", false);
+            m_iInstanceTransform    = m_bHardwareInstancing ? m_Program.getAttributeLocation(INSTANCE_TRANSFORM)
+                                                            : m_Program.fetchUniformLocation("u_instanceTrans", false);
+        }
+
+        /*
+         *
+         */
+        void register(GpuResourceRegistry registry, String name)
+        {
+            if(m_Resource != null)
+            {
+                m_Resource.unregister();
+            }
+
+            m_Resource = (registry != null) ? registry.registerShader(name, m_Program) : null;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public void dispose()
+        {
+            if(m_Resource != null)
+            {
+                m_Resource.unregister();
+            }
+
+            m_Program.dispose();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LightEnvironment.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Environment shared by the lit content, following the light estimate of
+ **                 the camera image
+ ** PREMISES:       update() is called once per frame, on the thread that renders
+ ** REMARKS:        No GL calls. The estimate only has an intensity and a color, the light
+ **                 comes from a fixed direction above the scene
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.AmbientCubemap;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * The color correction of the estimate, scaled by its pixel intensity relative to middle
+ * grey, is smoothed over the frames. The smoothed color is split between an ambient and a
+ * directional light. Those are only changed, and the version raised, once the smoothed color
+ * has moved by more than the threshold since they were last changed. Shaders compare the
+ * version with the one they uploaded, see LightEnvironmentShader, so the uniforms of the
+ * lights are not uploaded again while the estimate stays about the same.
+ *
+ * <p>Until the first valid estimate the lights are white, frames without a valid estimate
+ * keep the lights as they are.
+ */
+public class LightEnvironment
+{
+    public final static float           DEFAULT_SMOOTHING       = 0.1f;     // weight of the new estimate
+    public final static float           DEFAULT_THRESHOLD       = 0.02f;    // of a color channel
+
+    private final static float          MIDDLE_GREY             = 0.466f;   // pixel intensity of a neutral scene
+    private final static float          AMBIENT_SHARE           = 0.4f;
+    private final static float          DIRECTIONAL_SHARE       = 0.6f;
+
+    private final Environment           m_Environment           = new Environment();
+    private final ColorAttribute        m_Ambient               = new ColorAttribute(ColorAttribute.AmbientLight, 0, 0, 0, 1);
+    private final DirectionalLight      m_Directional           = new DirectionalLight();
+    private final AmbientCubemap        m_AmbientCubemap        = new AmbientCubemap();
+    private final float                 m_fSmoothed[]           = new float[3];
+    private final float                 m_fApplied[]            = new float[3];
+
+    private float                       m_fSmoothing            = DEFAULT_SMOOTHING;
+    private float                       m_fThreshold            = DEFAULT_THRESHOLD;
+    private boolean                     m_bEstimated;
+    private int                         m_iVersion;
+
+    /*
+     *
+     */
+    public LightEnvironment()
+    {
+        m_Directional.direction.set(-0.25f, -1f, -0.35f).nor();
+        m_Environment.set(m_Ambient);
+        m_Environment.add(m_Directional);
+
+        reset();
+    }
+
+    /**
+     * Back to white lights, the next valid estimate is taken as is.
+     */
+    public void reset()
+    {
+        for(int i = 0; i < 3; i++)
+        {
+            m_fSmoothed[i] = 1f;
+        }
+
+        m_bEstimated = false;
+        apply();
+    }
+
+    /**
+     * Raises the version without changing the lights, so that every shader uploads them
+     * again, i.e. after the GL context was recreated along with the uniforms.
+     */
+    public void invalidate()
+    {
+        m_iVersion++;
+    }
+
+    /**
+     * Takes the estimate of a frame.
+     *
+     * @param isValid   - false if the frame has no estimate, nothing changes then
+     * @param r, g, b   - color correction
+     * @param intensity - pixel intensity
+     * @return true if the lights changed
+     */
+    public boolean update(boolean isValid, float r, float g, float b, float intensity)
+    {
+        if(!isValid)
+        {
+            return false;
+        }
+
+        float scale     = intensity / MIDDLE_GREY;
+        float weight    = m_bEstimated ? m_fSmoothing : 1f;
+
+        m_fSmoothed[0] += (MathUtils.clamp(r * scale, 0f, 1f) - m_fSmoothed[0]) * weight;
+        m_fSmoothed[1] += (MathUtils.clamp(g * scale, 0f, 1f) - m_fSmoothed[1]) * weight;
+        m_fSmoothed[2] += (MathUtils.clamp(b * scale, 0f, 1f) - m_fSmoothed[2]) * weight;
+        m_bEstimated    = true;
+
+        for(int i = 0; i < 3; i++)
+        {
+            if(Math.abs(m_fSmoothed[i] - m_fApplied[i]) > m_fThreshold)
+            {
+                apply();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param smoothing - weight of a new estimate, 1 follows the estimate without smoothing
+     */
+    public void setSmoothing(float smoothing)
+    {
+        m_fSmoothing = MathUtils.clamp(smoothing, 0.01f, 1f);
+    }
+
+    /**
+     * @param threshold - change of a color channel before the lights are changed
+     */
+    public void setThreshold(float threshold)
+    {
+        m_fThreshold = Math.max(0f, threshold);
+    }
+
+    /**
+     * The environment to render the lit content with. Its attributes are changed in place
+     * and must not be changed by the users.
+     */
+    public Environment getEnvironment()
+    {
+        return m_Environment;
+    }
+
+    /**
+     * Raised each time the lights changed.
+     */
+    public int getVersion()
+    {
+        return m_iVersion;
+    }
+
+    /**
+     * Ambient light as the six colors of u_ambientCubemap.
+     */
+    public float[] getAmbientCubemap()
+    {
+        return m_AmbientCubemap.data;
+    }
+
+    /**
+     * Color the lights are made of, before it is split between them.
+     */
+    public void getLightColor(Color color)
+    {
+        color.set(m_fApplied[0], m_fApplied[1], m_fApplied[2], 1f);
+    }
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void apply()
+    {
+        System.arraycopy(m_fSmoothed, 0, m_fApplied, 0, 3);
+
+        m_Ambient.color.set(m_fApplied[0] * AMBIENT_SHARE, m_fApplied[1] * AMBIENT_SHARE, m_fApplied[2] * AMBIENT_SHARE, 1f);
+        m_Directional.color.set(m_fApplied[0] * DIRECTIONAL_SHARE, m_fApplied[1] * DIRECTIONAL_SHARE, m_fApplied[2] * DIRECTIONAL_SHARE, 1f);
+        m_AmbientCubemap.set(m_Ambient.color);
+
+        m_iVersion++;
+    }
+}
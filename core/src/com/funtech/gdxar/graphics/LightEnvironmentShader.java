@@ -0,0 +1,135 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LightEnvironmentShader.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       DefaultShader for the renderables lit by the shared LightEnvironment,
+ **                 the light uniforms are only uploaded when its version changed
+ ** PREMISES:       Only renders renderables whose environment is the shared one
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Attributes;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.shaders.BaseShader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+
+/**
+ * DefaultShader uploads the lights for every renderable, the ambient cubemap in a setter and
+ * the other lights in bindLights(). A GL program keeps its uniforms between draw calls and
+ * frames, and this shader only draws with the one environment, so both are skipped while the
+ * version of the LightEnvironment is the one already uploaded.
+ */
+public class LightEnvironmentShader extends DefaultShader
+{
+    private final LightEnvironment      m_Light;
+    private int                         m_iLightsVersion        = -1;
+    private int                         m_iAmbientVersion       = -1;
+    private int                         m_iUploadCount;
+
+    /*
+     *
+     */
+    public LightEnvironmentShader(Renderable renderable, LightEnvironment light)
+    {
+        this(renderable, new Config(), light);
+    }
+
+    /*
+     *
+     */
+    public LightEnvironmentShader(Renderable renderable, Config config, LightEnvironment light)
+    {
+        super(renderable, config);
+
+        m_Light = light;
+
+        // same uniform, replaces the per renderable setter of DefaultShader
+        register(Inputs.ambientCube, new AmbientSetter());
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean canRender(Renderable renderable)
+    {
+        return (renderable.environment == m_Light.getEnvironment()) && super.canRender(renderable);
+    }
+
+    /**
+     * Light uploads since the shader was created, one per changed version.
+     */
+    public int getUploadCount()
+    {
+        return m_iUploadCount;
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected void bindLights(Renderable renderable, Attributes attributes)
+    {
+        int version = m_Light.getVersion();
+
+        if(version == m_iLightsVersion)
+        {
+            return;
+        }
+
+        super.bindLights(renderable, attributes);
+
+        m_iLightsVersion = version;
+        m_iUploadCount++;
+    }
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Global, so it is called once per begin() instead of once per renderable.
+     */
+    private final class AmbientSetter extends GlobalSetter
+    {
+        /*
+         *
+         */
+        @Override
+        public void set(BaseShader shader, int inputID, Renderable renderable, Attributes combinedAttributes)
+        {
+            int version = m_Light.getVersion();
+
+            if(version == m_iAmbientVersion)
+            {
+                return;
+            }
+
+            float data[] = m_Light.getAmbientCubemap();
+
+            shader.program.setUniform3fv(shader.loc(inputID), data, 0, data.length);
+            m_iAmbientVersion = version;
+        }
+    }
+}
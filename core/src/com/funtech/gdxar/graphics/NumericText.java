@@ -0,0 +1,498 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         NumericText.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Label, number and suffix whose quads are kept between frames, only the
+ **                 digits that changed are written again
+ ** PREMISES:       Built with the font of the HudLayer it is drawn by
+ ** REMARKS:        setValue() and setFixed() do not allocate
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : toString()
+ **                 2026-10-18 : Glyphs built again when the font scale changes, no overflow
+ **                                of setValue(long)
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+
+/**
+ * The number is right aligned in a fixed count of cells of the widest digit, the decimal
+ * point has a fixed place among them, so neither the cells nor the suffix ever move. The
+ * quad of each digit and of the minus sign is laid out once by the font, relative to the
+ * origin of a cell. A new value is formatted into a char array and the quad of a cell is
+ * only copied again when its char differs from the one already there. Empty cells are
+ * degenerate quads, so the vertex count stays the same and HudLayer.text() copies the
+ * vertices as they are.
+ *
+ * <p>Values that do not fit in the cells are clamped to the largest ones that do.
+ *
+ * <p>The glyph quads and the layout depend on the scale of the font. A change of the scale is
+ * seen by the next call and everything is laid out again, other changes of the font data
+ * need invalidate().
+ */
+public class NumericText
+{
+    private final static String         GLYPHS                  = "0123456789-";
+    private final static int            MINUS                   = 10;
+    private final static int            VERTEX_SIZE             = 5;        // x, y, color, u, v
+    private final static int            SPRITE_SIZE             = 4 * VERTEX_SIZE;
+    private final static char           BLANK                   = ' ';
+    private final static char           INVALID                 = 0;        // never matches, the cell is written
+
+    private final BitmapFontData        m_FontData;
+    private final BitmapFontCache       m_LayoutCache;                      // only used when laid out again
+    private final CharSequence          m_Label;
+    private final CharSequence          m_Suffix;
+    private final int                   m_iIntCells;
+    private final int                   m_iDecimals;
+    private final long                  m_lMaxFixed;
+    private final long                  m_lScale;                           // ten to the power of the decimals
+    private final float                 m_fTemplates[]          = new float[GLYPHS.length() * SPRITE_SIZE];
+    private final char                  m_cCells[];
+    private final char                  m_cFormat[];
+    private final float                 m_fCellX[];
+    private final int                   m_iCellOffset[];                    // first float of the quad of each cell
+
+    private float                       m_fVertices[]           = new float[0];
+    private float                       m_fCellWidth;
+    private float                       m_fFontScaleX;                      // of the glyph quads
+    private float                       m_fFontScaleY;
+    private int                         m_iVertexCount;
+    private float                       m_fX;
+    private float                       m_fY;
+    private float                       m_fWidth;
+    private float                       m_fColor                = Color.WHITE.toFloatBits();
+    private long                        m_lFixed;
+    private boolean                     m_bValid;
+    private int                         m_iChangedCount;
+
+    /**
+     * @param hud       - layer drawing the text, its font is used
+     * @param label     - text before the number, may be empty
+     * @param suffix    - text after the number, i.e. the unit, may be empty
+     * @param cells     - digits, and the minus sign if any, of the whole number
+     * @param decimals  - digits after the decimal point
+     */
+    public NumericText(HudLayer hud, CharSequence label, CharSequence suffix, int cells, int decimals)
+    {
+        m_FontData      = hud.getFont().getData();
+        m_LayoutCache   = hud.getFont().newFontCache();
+        m_Label         = label;
+        m_Suffix        = suffix;
+        m_iIntCells     = Math.max(1, cells);
+        m_iDecimals     = Math.max(0, decimals);
+
+        int count       = m_iIntCells + m_iDecimals;
+        long max        = 1;
+        long scale      = 1;
+
+        for(int i = 0; i < count; i++)
+        {
+            max *= 10;
+            scale *= (i < m_iDecimals) ? 10 : 1;
+        }
+
+        m_lMaxFixed     = max - 1;
+        m_lScale        = scale;
+        m_cCells        = new char[count];
+        m_cFormat       = new char[count];
+        m_fCellX        = new float[count];
+        m_iCellOffset   = new int[count];
+
+        buildGlyphs();
+        setPosition(0, 0);
+    }
+
+    /**
+     * @param y - top of the text, as HudLayer.text()
+     */
+    public void setPosition(float x, float y)
+    {
+        m_fX = Math.round(x);
+        m_fY = Math.round(y);
+
+        if(isScaleChanged())
+        {
+            buildGlyphs();
+        }
+
+        layout();
+    }
+
+    /*
+     *
+     */
+    public void setColor(Color color)
+    {
+        setColor(color.toFloatBits());
+    }
+
+    /**
+     * Sets an integer, shown with zero decimals.
+     */
+    public void setValue(long value)
+    {
+        // beyond the limit the product overflows, any such value is clamped to the cells anyway
+        long limit = Long.MAX_VALUE / m_lScale;
+
+        setFixed(Math.max(-limit, Math.min(value, limit)) * m_lScale);
+    }
+
+    /*
+     *
+     */
+    public void setValue(float value)
+    {
+        setFixed(Math.round((double)value * m_lScale));
+    }
+
+    /**
+     * Sets the value multiplied by ten to the power of the decimals, i.e. 123 shows 12.3
+     * with one decimal.
+     */
+    public void setFixed(long fixed)
+    {
+        m_iChangedCount = 0;
+
+        validate();
+
+        if(m_bValid && (fixed == m_lFixed))
+        {
+            return;
+        }
+
+        m_lFixed = fixed;
+        m_bValid = true;
+
+        writeCells();
+    }
+
+    /**
+     * Builds the glyph quads and the layout again, i.e. after the glyphs of the font data
+     * were changed. Allocates.
+     */
+    public void invalidate()
+    {
+        boolean isValid = m_bValid;
+
+        buildGlyphs();
+        layout();
+
+        if(isValid)
+        {
+            m_bValid = true;
+            writeCells();
+        }
+    }
+
+    /**
+     * Cells written by the last setValue() or setFixed().
+     */
+    public int getChangedCount()
+    {
+        return m_iChangedCount;
+    }
+
+    /**
+     * Width of the label, the cells and the suffix.
+     */
+    public float getWidth()
+    {
+        validate();
+        return m_fWidth;
+    }
+
+    /**
+     * Quads in the SpriteBatch format, in the texture of the font.
+     */
+    public float[] getVertices()
+    {
+        validate();
+        return m_fVertices;
+    }
+
+    /**
+     * Floats of getVertices() in use.
+     */
+    public int getVertexCount()
+    {
+        validate();
+        return m_iVertexCount;
+    }
+
+    /**
+     * Label, cells and suffix as drawn, blank cells as spaces. Allocates.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder(m_Label);
+
+        for(int i = 0; i < m_cCells.length; i++)
+        {
+            if(i == m_iIntCells)
+            {
+                text.append('.');
+            }
+
+            text.append((m_cCells[i] == INVALID) ? BLANK : m_cCells[i]);
+        }
+
+        return text.append(m_Suffix).toString();
+    }
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Lays out each glyph of a cell at the origin, and the width of the cells, at the current
+     * scale of the font.
+     */
+    private void buildGlyphs()
+    {
+        float cellWidth = 0;
+
+        m_fFontScaleX   = m_FontData.scaleX;
+        m_fFontScaleY   = m_FontData.scaleY;
+
+        for(int i = 0; i < GLYPHS.length(); i++)
+        {
+            char c = GLYPHS.charAt(i);
+
+            cellWidth = Math.max(cellWidth, advance(c));
+
+            m_LayoutCache.clear();
+            m_LayoutCache.addText(GLYPHS.subSequence(i, i + 1), 0, 0);
+
+            if(m_LayoutCache.getVertexCount(0) >= SPRITE_SIZE)
+            {
+                System.arraycopy(m_LayoutCache.getVertices(0), 0, m_fTemplates, i * SPRITE_SIZE, SPRITE_SIZE);
+            }
+        }
+
+        m_LayoutCache.clear();
+        m_fCellWidth    = (float)Math.ceil(cellWidth);
+    }
+
+    /*
+     *
+     */
+    private boolean isScaleChanged()
+    {
+        return (m_FontData.scaleX != m_fFontScaleX) || (m_FontData.scaleY != m_fFontScaleY);
+    }
+
+    /**
+     * Lays out again if the scale of the font changed since the glyphs were built.
+     */
+    private void validate()
+    {
+        if(isScaleChanged())
+        {
+            invalidate();
+        }
+    }
+
+    /**
+     * Writes the cells whose char differs from the format of the value.
+     */
+    private void writeCells()
+    {
+        format(m_lFixed);
+
+        for(int i = 0; i < m_cCells.length; i++)
+        {
+            if(m_cFormat[i] != m_cCells[i])
+            {
+                m_cCells[i] = m_cFormat[i];
+                writeCell(i);
+                m_iChangedCount++;
+            }
+        }
+    }
+
+    /**
+     * Places the label, the cells, the decimal point and the suffix. All the cells are
+     * written again by the next value.
+     */
+    private void layout()
+    {
+        float x = m_fX;
+
+        m_LayoutCache.clear();
+        m_LayoutCache.setColor(Color.WHITE);
+        m_LayoutCache.addText(m_Label, x, m_fY);
+        x += advance(m_Label);
+
+        int labelEnd = m_LayoutCache.getVertexCount(0);
+
+        for(int i = 0; i < m_cCells.length; i++)
+        {
+            if(i == m_iIntCells)
+            {
+                m_LayoutCache.addText(".", x, m_fY);
+                x += Math.round(advance('.'));
+            }
+
+            m_fCellX[i] = x;
+            x += m_fCellWidth;
+        }
+
+        m_LayoutCache.addText(m_Suffix, x, m_fY);
+        m_fWidth = (x + advance(m_Suffix)) - m_fX;
+
+        // label, cells, decimal point and suffix in that order
+        int cellsSize   = m_cCells.length * SPRITE_SIZE;
+        int textSize    = m_LayoutCache.getVertexCount(0);
+
+        m_iVertexCount  = textSize + cellsSize;
+
+        if(m_fVertices.length < m_iVertexCount)
+        {
+            m_fVertices = new float[m_iVertexCount];
+        }
+
+        float text[] = m_LayoutCache.getVertices(0);
+
+        System.arraycopy(text, 0, m_fVertices, 0, labelEnd);
+        System.arraycopy(text, labelEnd, m_fVertices, labelEnd + cellsSize, textSize - labelEnd);
+
+        for(int i = 0; i < m_cCells.length; i++)
+        {
+            m_iCellOffset[i] = labelEnd + (i * SPRITE_SIZE);
+            m_cCells[i]      = INVALID;
+        }
+
+        m_LayoutCache.clear();
+        m_bValid = false;
+
+        setColor(m_fColor);
+    }
+
+    /*
+     *
+     */
+    private void setColor(float color)
+    {
+        m_fColor = color;
+
+        for(int i = 2; i < m_iVertexCount; i += VERTEX_SIZE)
+        {
+            m_fVertices[i] = color;
+        }
+    }
+
+    /**
+     * Right aligned digits of the value into m_cFormat, blanks in front.
+     */
+    private void format(long fixed)
+    {
+        boolean isNegative  = (fixed < 0);
+        // one cell less for the minus sign, which then takes the place of the first digit
+        long max            = isNegative ? (m_lMaxFixed / 10) : m_lMaxFixed;
+        long value          = Math.min(isNegative ? -Math.max(fixed, -max) : fixed, max);
+        int first           = m_iIntCells - 1;        // at least one digit before the point
+        int i               = m_cFormat.length - 1;
+
+        for(; i >= 0; i--)
+        {
+            if((value == 0) && (i < first))
+            {
+                break;
+            }
+
+            m_cFormat[i] = (char)('0' + (value % 10));
+            value /= 10;
+        }
+
+        if(isNegative && (i >= 0))
+        {
+            m_cFormat[i--] = '-';
+        }
+
+        for(; i >= 0; i--)
+        {
+            m_cFormat[i] = BLANK;
+        }
+    }
+
+    /**
+     * Copies the quad of the char of the cell, translated to the cell.
+     */
+    private void writeCell(int cell)
+    {
+        char c      = m_cCells[cell];
+        int dst     = m_iCellOffset[cell];
+        int glyph   = (c == '-') ? MINUS : (c - '0');
+
+        if(c == BLANK)
+        {
+            for(int i = 0; i < SPRITE_SIZE; i += VERTEX_SIZE)
+            {
+                m_fVertices[dst + i]     = m_fCellX[cell];
+                m_fVertices[dst + i + 1] = m_fY;
+            }
+
+            return;
+        }
+
+        int src = glyph * SPRITE_SIZE;
+
+        for(int i = 0; i < SPRITE_SIZE; i += VERTEX_SIZE)
+        {
+            m_fVertices[dst + i]     = m_fTemplates[src + i]     + m_fCellX[cell];
+            m_fVertices[dst + i + 1] = m_fTemplates[src + i + 1] + m_fY;
+            m_fVertices[dst + i + 2] = m_fColor;
+            m_fVertices[dst + i + 3] = m_fTemplates[src + i + 3];
+            m_fVertices[dst + i + 4] = m_fTemplates[src + i + 4];
+        }
+    }
+
+    /*
+     *
+     */
+    private float advance(char c)
+    {
+        BitmapFont.Glyph glyph = m_FontData.getGlyph(c);
+
+        return (glyph != null) ? (glyph.xadvance * m_FontData.scaleX) : 0;
+    }
+
+    /*
+     *
+     */
+    private float advance(CharSequence text)
+    {
+        float width = 0;
+
+        for(int i = 0; i < text.length(); i++)
+        {
+            width += advance(text.charAt(i));
+        }
+
+        return width;
+    }
+}
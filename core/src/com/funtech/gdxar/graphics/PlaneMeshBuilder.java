@@ -0,0 +1,550 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneMeshBuilder.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Packs the polygons of the detected planes into one vertex and index
+ **                 array, triangulating again only the planes whose polygon changed
+ ** PREMISES:       Not thread safe. No GL, the owner uploads the arrays
+ ** REMARKS:        Each plane holds a range of the vertex array sized to a power of two,
+ **                 so a growing polygon moves rarely. The array is compacted when the
+ **                 end is reached
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.ShortArray;
+import com.funtech.gdxar.math.PolygonTriangulator;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Keeps world space triangles for a set of plane polygons. update() compares the polygon and
+ * the pose of a plane with what it got the previous time: nothing is done when both are the
+ * same, the vertices are transformed again when only the pose moved, and the polygon is
+ * triangulated again only when it changed.
+ *
+ * <p>The vertices written since the last clearDirty() are between getDirtyStart() and
+ * getDirtyEnd(), so the owner uploads that range only. The indices are built again when a
+ * plane was added, removed, moved in the array or changed its triangles.
+ */
+public class PlaneMeshBuilder
+{
+    public final static int             VERTEX_SIZE             = 4;        // x, y, z, packed color
+    public final static int             MATRIX_SIZE             = 16;
+
+    private final static int            MIN_CAPACITY            = 16;       // vertices
+
+    private final int                   m_iMaxVertices;
+    private final float                 m_fVertices[];
+    private final ShortArray            m_Indices;
+    private final IdentityMap<Object, Slot> m_Slots             = new IdentityMap<Object, Slot>();
+    private final Array<Slot>           m_Ordered               = new Array<Slot>(true, 16);      // by vertex offset
+    private final Array<Slot>           m_FreeSlots             = new Array<Slot>(false, 4);
+    private final PolygonTriangulator   m_Triangulator          = new PolygonTriangulator();
+
+    private int                         m_iVertexEnd;
+    private int                         m_iDirtyStart           = Integer.MAX_VALUE;
+    private int                         m_iDirtyEnd;
+    private boolean                     m_bIndicesDirty;
+    private int                         m_iTriangulations;
+    private int                         m_iDropped;
+
+    /**
+     * @param maxVertices - size of the shared vertex array, at most 65536 for short indices
+     */
+    public PlaneMeshBuilder(int maxVertices)
+    {
+        if((maxVertices <= 0) || (maxVertices > 65536))
+        {
+            throw new GdxRuntimeException("maxVertices must be in 1 .. 65536");
+        }
+
+        m_iMaxVertices  = maxVertices;
+        m_fVertices     = new float[maxVertices * VERTEX_SIZE];
+        m_Indices       = new ShortArray(false, maxVertices * 3);
+    }
+
+    /**
+     * Updates a plane, added if unknown.
+     *
+     * @param key       - identifies the plane, i.e. the ARCore Plane
+     * @param polygon   - x, z pairs in the plane space, read from its position to its limit
+     * @param model     - column major plane to world matrix
+     * @param color     - packed color of the vertices, i.e. Color.toFloatBits()
+     * @return true if the vertices of the plane were written
+     */
+    public boolean update(Object key, FloatBuffer polygon, float model[], float color)
+    {
+        Slot    slot            = m_Slots.get(key);
+        int     start           = polygon.position();
+        int     count           = polygon.remaining() & ~1;
+        boolean isNew           = (slot == null);
+
+        if(isNew)
+        {
+            slot = (m_FreeSlots.size > 0) ? m_FreeSlots.pop() : new Slot();
+            slot.reset();
+            m_Slots.put(key, slot);
+        }
+
+        boolean isPolygonChanged    = isNew || !slot.isSamePolygon(polygon, start, count);
+        boolean isPoseChanged       = isNew || !slot.isSamePose(model, color);
+
+        if(!isPolygonChanged && !isPoseChanged)
+        {
+            return false;
+        }
+
+        if(isPolygonChanged)
+        {
+            slot.setPolygon(polygon, start, count);
+
+            ShortArray triangles = m_Triangulator.triangulate(slot.m_fPolygon, 0, count);
+
+            slot.setIndices(triangles);
+            m_iTriangulations++;
+            m_bIndicesDirty = true;
+
+            if(!allocate(slot, count / 2))
+            {
+                return false;
+            }
+        }
+
+        System.arraycopy(model, 0, slot.m_fModel, 0, MATRIX_SIZE);
+        slot.m_fColor = color;
+
+        if(slot.m_iVertexCount > 0)
+        {
+            writeVertices(slot);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes a plane, i.e. once subsumed or no longer tracked. Its range is reused at the next
+     * compaction.
+     */
+    public void remove(Object key)
+    {
+        Slot slot = m_Slots.remove(key);
+
+        if(slot == null)
+        {
+            return;
+        }
+
+        if(slot.m_iVertexCapacity > 0)
+        {
+            m_Ordered.removeValue(slot, true);
+        }
+
+        m_FreeSlots.add(slot);
+        m_bIndicesDirty = true;
+    }
+
+    /*
+     *
+     */
+    public void clear()
+    {
+        for(Slot slot : m_Slots.values())
+        {
+            m_FreeSlots.add(slot);
+        }
+
+        m_Slots.clear();
+        m_Ordered.clear();
+        m_iVertexEnd    = 0;
+        m_bIndicesDirty = true;
+    }
+
+    /*
+     *
+     */
+    public boolean contains(Object key)
+    {
+        return m_Slots.containsKey(key);
+    }
+
+    /**
+     * Shared vertex array, VERTEX_SIZE floats per vertex.
+     */
+    public float[] getVertices()
+    {
+        return m_fVertices;
+    }
+
+    /**
+     * Vertices in use, the ranges of removed planes included until the next compaction.
+     */
+    public int getVertexEnd()
+    {
+        return m_iVertexEnd;
+    }
+
+    /*
+     *
+     */
+    public boolean isVerticesDirty()
+    {
+        return (m_iDirtyEnd > m_iDirtyStart);
+    }
+
+    /**
+     * First vertex written since clearDirty().
+     */
+    public int getDirtyStart()
+    {
+        return m_iDirtyStart;
+    }
+
+    /**
+     * Vertex after the last one written since clearDirty().
+     */
+    public int getDirtyEnd()
+    {
+        return m_iDirtyEnd;
+    }
+
+    /*
+     *
+     */
+    public boolean isIndicesDirty()
+    {
+        return m_bIndicesDirty;
+    }
+
+    /**
+     * Indices of all planes, built again if needed.
+     */
+    public ShortArray getIndices()
+    {
+        if(m_bIndicesDirty)
+        {
+            buildIndices();
+        }
+
+        return m_Indices;
+    }
+
+    /**
+     * Called once the owner uploaded the dirty vertices and indices.
+     */
+    public void clearDirty()
+    {
+        m_iDirtyStart   = Integer.MAX_VALUE;
+        m_iDirtyEnd     = 0;
+
+        if(m_bIndicesDirty)
+        {
+            buildIndices();
+        }
+    }
+
+    /**
+     * Marks everything dirty, i.e. when the GL buffers were created again.
+     */
+    public void invalidate()
+    {
+        markDirty(0, m_iVertexEnd);
+        m_bIndicesDirty = true;
+    }
+
+    /*
+     *
+     */
+    public int getPlaneCount()
+    {
+        return m_Slots.size;
+    }
+
+    /*
+     *
+     */
+    public int getMaxVertices()
+    {
+        return m_iMaxVertices;
+    }
+
+    /**
+     * Polygons triangulated since the creation.
+     */
+    public int getTriangulationCount()
+    {
+        return m_iTriangulations;
+    }
+
+    /**
+     * Planes not drawn because the vertex array was full, since the creation.
+     */
+    public int getDroppedCount()
+    {
+        return m_iDropped;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Gives the slot a range of at least vertexCount vertices. Moves it to the end when its
+     * range is too small, compacting the array first if the end is reached.
+     */
+    private boolean allocate(Slot slot, int vertexCount)
+    {
+        if(vertexCount <= slot.m_iVertexCapacity)
+        {
+            slot.m_iVertexCount = vertexCount;
+            return true;
+        }
+
+        if(slot.m_iVertexCapacity > 0)
+        {
+            m_Ordered.removeValue(slot, true);
+            slot.m_iVertexCapacity = 0;
+        }
+
+        int capacity = Math.max(MIN_CAPACITY, MathUtils.nextPowerOfTwo(vertexCount));
+
+        if((m_iVertexEnd + capacity) > m_iMaxVertices)
+        {
+            compact();
+
+            if((m_iVertexEnd + capacity) > m_iMaxVertices)
+            {
+                capacity = vertexCount;
+            }
+
+            if((m_iVertexEnd + capacity) > m_iMaxVertices)
+            {
+                slot.m_iVertexCount = 0;
+                slot.m_iIndexCount  = 0;
+                m_iDropped++;
+                return false;
+            }
+        }
+
+        slot.m_iVertexOffset    = m_iVertexEnd;
+        slot.m_iVertexCapacity  = capacity;
+        slot.m_iVertexCount     = vertexCount;
+        m_iVertexEnd           += capacity;
+
+        m_Ordered.add(slot);
+
+        return true;
+    }
+
+    /**
+     * Packs the ranges at the start of the array, in their order so they only move down.
+     */
+    private void compact()
+    {
+        int end = 0;
+
+        for(int i = 0; i < m_Ordered.size; i++)
+        {
+            Slot slot = m_Ordered.get(i);
+
+            if(slot.m_iVertexOffset != end)
+            {
+                System.arraycopy(m_fVertices, slot.m_iVertexOffset * VERTEX_SIZE, m_fVertices, end * VERTEX_SIZE,
+                                 slot.m_iVertexCount * VERTEX_SIZE);
+                slot.m_iVertexOffset = end;
+            }
+
+            end += slot.m_iVertexCapacity;
+        }
+
+        m_iVertexEnd    = end;
+        m_bIndicesDirty = true;
+
+        markDirty(0, end);
+    }
+
+    /**
+     * Plane space ( x, 0, z ) to world space.
+     */
+    private void writeVertices(Slot slot)
+    {
+        float   m[]     = slot.m_fModel;
+        float   p[]     = slot.m_fPolygon;
+        int     v       = slot.m_iVertexOffset * VERTEX_SIZE;
+
+        for(int i = 0; i < slot.m_iVertexCount; i++)
+        {
+            float x = p[i * 2];
+            float z = p[(i * 2) + 1];
+
+            m_fVertices[v++] = (m[0] * x) + (m[8]  * z) + m[12];
+            m_fVertices[v++] = (m[1] * x) + (m[9]  * z) + m[13];
+            m_fVertices[v++] = (m[2] * x) + (m[10] * z) + m[14];
+            m_fVertices[v++] = slot.m_fColor;
+        }
+
+        markDirty(slot.m_iVertexOffset, slot.m_iVertexOffset + slot.m_iVertexCount);
+    }
+
+    /*
+     *
+     */
+    private void markDirty(int start, int end)
+    {
+        m_iDirtyStart   = Math.min(m_iDirtyStart, start);
+        m_iDirtyEnd     = Math.max(m_iDirtyEnd, end);
+    }
+
+    /*
+     *
+     */
+    private void buildIndices()
+    {
+        m_Indices.clear();
+
+        for(int i = 0; i < m_Ordered.size; i++)
+        {
+            Slot    slot    = m_Ordered.get(i);
+            int     offset  = slot.m_iVertexOffset;
+
+            for(int j = 0; j < slot.m_iIndexCount; j++)
+            {
+                m_Indices.add((short)(slot.m_sIndices[j] + offset));
+            }
+        }
+
+        m_bIndicesDirty = false;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * A plane, with the polygon and pose it was last written with.
+     */
+    private static class Slot
+    {
+        float                   m_fPolygon[]                = new float[32];
+        int                     m_iPolygonCount;
+        final float             m_fModel[]                  = new float[MATRIX_SIZE];
+        float                   m_fColor;
+        short                   m_sIndices[]                = new short[48];
+        int                     m_iIndexCount;
+        int                     m_iVertexOffset;
+        int                     m_iVertexCapacity;
+        int                     m_iVertexCount;
+
+        /*
+         *
+         */
+        void reset()
+        {
+            m_iPolygonCount     = 0;
+            m_iIndexCount       = 0;
+            m_iVertexOffset     = 0;
+            m_iVertexCapacity   = 0;
+            m_iVertexCount      = 0;
+        }
+
+        /*
+         *
+         */
+        boolean isSamePolygon(FloatBuffer polygon, int start, int count)
+        {
+            if(count != m_iPolygonCount)
+            {
+                return false;
+            }
+
+            for(int i = 0; i < count; i++)
+            {
+                if(polygon.get(start + i) != m_fPolygon[i])
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /*
+         *
+         */
+        boolean isSamePose(float model[], float color)
+        {
+            if(color != m_fColor)
+            {
+                return false;
+            }
+
+            for(int i = 0; i < MATRIX_SIZE; i++)
+            {
+                if(model[i] != m_fModel[i])
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /*
+         *
+         */
+        void setPolygon(FloatBuffer polygon, int start, int count)
+        {
+            if(m_fPolygon.length < count)
+            {
+                m_fPolygon = new float[MathUtils.nextPowerOfTwo(count)];
+            }
+
+            for(int i = 0; i < count; i++)
+            {
+                m_fPolygon[i] = polygon.get(start + i);
+            }
+
+            m_iPolygonCount = count;
+        }
+
+        /*
+         *
+         */
+        void setIndices(ShortArray triangles)
+        {
+            if(m_sIndices.length < triangles.size)
+            {
+                m_sIndices = new short[MathUtils.nextPowerOfTwo(triangles.size)];
+            }
+
+            System.arraycopy(triangles.items, 0, m_sIndices, 0, triangles.size);
+            m_iIndexCount = triangles.size;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         RenderPass.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       One step of the frame in a RenderPassGraph, with the targets it reads
+ **                 and writes and the time it takes
+ ** PREMISES:       GL thread only
+ ** REMARKS:        Times are the CPU time of execute(), in ns
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+/**
+ * A pass tells the graph, every frame, whether it has anything to draw and which targets it
+ * reads, writes and covers. Reading a target means the result depends on what was in it
+ * before, i.e. blending with the color or testing against the depth. Covering it means every
+ * pixel of it is overwritten without being read, i.e. a full screen opaque quad. From that the
+ * graph culls the passes whose output nobody sees.
+ */
+public abstract class RenderPass
+{
+    public final static int             TARGET_COLOR            = 0x1;
+    public final static int             TARGET_DEPTH            = 0x2;
+    public final static int             TARGET_CONTENT          = 0x4;      // offscreen target of the scaled content
+
+    private final static float          SMOOTHING               = 0.05f;
+
+    private final String                m_Name;
+
+    // per frame, set by the graph
+    boolean                             m_bCulled;
+    int                                 m_iLiveWrites;
+
+    private long                        m_lLastTimeNs;
+    private float                       m_fAverageTimeNs;
+    private long                        m_lExecuteCount;
+    private long                        m_lCullCount;
+
+    /*
+     *
+     */
+    protected RenderPass(String name)
+    {
+        m_Name = name;
+    }
+
+    /**
+     * Whether the pass has anything to draw this frame, asked once per frame before the
+     * culling. An inactive pass is culled whatever the others need.
+     */
+    public abstract boolean isActive();
+
+    /**
+     * TARGET_ bits the pass writes this frame.
+     */
+    public abstract int getWrites();
+
+    /**
+     * TARGET_ bits whose previous content the pass depends on this frame.
+     */
+    public int getReads()
+    {
+        return 0;
+    }
+
+    /**
+     * TARGET_ bits entirely overwritten, without being read, this frame.
+     */
+    public int getCovers()
+    {
+        return 0;
+    }
+
+    /*
+     *
+     */
+    public String getName()
+    {
+        return m_Name;
+    }
+
+    /**
+     * Whether the pass was culled in the last frame.
+     */
+    public boolean isCulled()
+    {
+        return m_bCulled;
+    }
+
+    /**
+     * Targets written by the pass that are read later in the frame or presented, i.e. the
+     * buffers a clear pass actually has to clear.
+     */
+    public int getLiveWrites()
+    {
+        return m_iLiveWrites;
+    }
+
+    /**
+     * Time of the last execution.
+     */
+    public long getLastTime()
+    {
+        return m_lLastTimeNs;
+    }
+
+    /**
+     * Smoothed time of the executions.
+     */
+    public float getAverageTime()
+    {
+        return m_fAverageTimeNs;
+    }
+
+    /*
+     *
+     */
+    public long getExecuteCount()
+    {
+        return m_lExecuteCount;
+    }
+
+    /*
+     *
+     */
+    public long getCullCount()
+    {
+        return m_lCullCount;
+    }
+
+
+
+    /********************************************************************************
+     *                            PROTECTED                                         *
+     ********************************************************************************/
+
+    /**
+     * Draws the pass.
+     *
+     * @param liveWrites - the targets written that are needed afterwards, see getLiveWrites()
+     */
+    protected abstract void execute(int liveWrites);
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    void run()
+    {
+        long start = System.nanoTime();
+
+        execute(m_iLiveWrites);
+
+        m_lLastTimeNs = System.nanoTime() - start;
+
+        if(m_lExecuteCount == 0)
+        {
+            m_fAverageTimeNs = m_lLastTimeNs;
+        }
+        else
+        {
+            m_fAverageTimeNs += (m_lLastTimeNs - m_fAverageTimeNs) * SMOOTHING;
+        }
+
+        m_lExecuteCount++;
+    }
+
+    /*
+     *
+     */
+    void cull()
+    {
+        m_bCulled       = true;
+        m_iLiveWrites   = 0;
+        m_lCullCount++;
+    }
+}
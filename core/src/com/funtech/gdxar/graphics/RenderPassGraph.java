@@ -0,0 +1,180 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         RenderPassGraph.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Runs the passes of a frame in order, leaving out those whose output is
+ **                 not visible
+ ** PREMISES:       GL thread only
+ ** REMARKS:        The culling does no GL call and runs headless
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The passes are run in the order they were added, each one drawing over the targets of the
+ * previous ones. Before running them the graph walks them backwards, keeping the set of the
+ * targets whose current content is still needed: at the end the presented color, before a
+ * pass the targets it reads plus those needed after it that it does not cover. A pass which
+ * writes none of the needed targets is culled.
+ *
+ * <p>So a full screen opaque pass culls whatever was drawn before it, i.e. the fade overlay
+ * at full opacity, and the camera image makes the clear of the color useless.
+ */
+public class RenderPassGraph
+{
+    private final Array<RenderPass>     m_Passes                = new Array<RenderPass>();
+    private int                         m_iPresented            = RenderPass.TARGET_COLOR;
+    private int                         m_iExecuted;
+    private long                        m_lFrameTimeNs;
+
+    /**
+     * Adds a pass after those already added.
+     */
+    public <T extends RenderPass> T add(T pass)
+    {
+        m_Passes.add(pass);
+
+        return pass;
+    }
+
+    /*
+     *
+     */
+    public void remove(RenderPass pass)
+    {
+        m_Passes.removeValue(pass, true);
+    }
+
+    /**
+     * Targets needed at the end of the frame, the color by default.
+     */
+    public void setPresentedTargets(int targets)
+    {
+        m_iPresented = targets;
+    }
+
+    /**
+     * Culls then runs the passes.
+     *
+     * @return passes run
+     */
+    public int execute()
+    {
+        long start = System.nanoTime();
+
+        cull();
+
+        for(int i = 0; i < m_Passes.size; i++)
+        {
+            RenderPass pass = m_Passes.get(i);
+
+            if(!pass.m_bCulled)
+            {
+                pass.run();
+            }
+        }
+
+        m_lFrameTimeNs = System.nanoTime() - start;
+
+        return m_iExecuted;
+    }
+
+    /**
+     * Decides which passes run this frame, without running them.
+     *
+     * @return passes to run
+     */
+    public int cull()
+    {
+        int live    = m_iPresented;
+
+        m_iExecuted = 0;
+
+        for(int i = m_Passes.size - 1; i >= 0; i--)
+        {
+            RenderPass  pass    = m_Passes.get(i);
+            int         writes  = pass.isActive() ? (pass.getWrites() & live) : 0;
+
+            if(writes == 0)
+            {
+                pass.cull();
+                continue;
+            }
+
+            pass.m_bCulled      = false;
+            pass.m_iLiveWrites  = writes;
+            live                = (live & ~pass.getCovers()) | pass.getReads();
+            m_iExecuted++;
+        }
+
+        return m_iExecuted;
+    }
+
+    /*
+     *
+     */
+    public int getPassCount()
+    {
+        return m_Passes.size;
+    }
+
+    /*
+     *
+     */
+    public RenderPass getPass(int index)
+    {
+        return m_Passes.get(index);
+    }
+
+    /**
+     * Passes run in the last frame.
+     */
+    public int getExecutedCount()
+    {
+        return m_iExecuted;
+    }
+
+    /**
+     * Time of the last execute(), culling included, in ns.
+     */
+    public long getFrameTime()
+    {
+        return m_lFrameTimeNs;
+    }
+
+    /**
+     * Logs the time of each pass and how often it was culled.
+     */
+    public void log(String tag)
+    {
+        for(int i = 0; i < m_Passes.size; i++)
+        {
+            RenderPass pass = m_Passes.get(i);
+
+            Gdx.app.log(tag, pass.getName() + (pass.isCulled() ? " culled" : " run")
+                        + ", avg " + ((long)pass.getAverageTime() / 1000L) + "us"
+                        + ", run " + pass.getExecuteCount() + ", culled " + pass.getCullCount());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         ShaderIndex.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Constant time lookup of the shader for a renderable
+ ** PREMISES:       Shaders are keyed by what DefaultShader.canRender() compares: the vertex
+ **                 attributes, the material and environment attributes and the bone count,
+ **                 plus whether the environment is the shared one
+ ** REMARKS:        The key is a hash, so a bucket can hold shaders of different keys and
+ **                 every hit is confirmed with canRender(). No GL is needed
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Shared environment in the key
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+
+public class ShaderIndex
+{
+    private final LongMap<Array<Shader>>    m_Buckets           = new LongMap<Array<Shader>>();
+    private int                             m_iSize;
+
+    /**
+     * Key of the renderable, equal for renderables that the same DefaultShader can render.
+     */
+    public static long computeKey(Renderable renderable)
+    {
+        return computeKey(renderable, null);
+    }
+
+    /**
+     * Same as computeKey(Renderable), renderables lit by the shared environment get other
+     * keys than those with an equal environment of their own, they are rendered by other
+     * shaders ( i.e. LightEnvironmentShader ).
+     *
+     * @param sharedEnvironment - may be null
+     */
+    public static long computeKey(Renderable renderable, Environment sharedEnvironment)
+    {
+        long    vertexMask          = renderable.meshPart.mesh.getVertexAttributes().getMask();
+        long    materialMask        = (renderable.material != null) ? renderable.material.getMask() : 0;
+        long    environmentMask     = (renderable.environment != null) ? renderable.environment.getMask() : 0;
+        int     boneCount           = (renderable.bones != null) ? renderable.bones.length : 0;
+        boolean isShared            = (sharedEnvironment != null) && (renderable.environment == sharedEnvironment);
+
+        return computeKey(vertexMask, materialMask, environmentMask, (renderable.environment != null), isShared, boneCount);
+    }
+
+    /*
+     *
+     */
+    public static long computeKey(long vertexMask, long materialMask, long environmentMask, boolean hasEnvironment, boolean isSharedEnvironment, int boneCount)
+    {
+        long hash = mix(vertexMask);
+
+        hash = mix(hash ^ materialMask);
+        hash = mix(hash ^ environmentMask);
+        hash = mix(hash ^ ((((long)boneCount) << 2) | (isSharedEnvironment ? 2 : 0) | (hasEnvironment ? 1 : 0)));
+
+        return hash;
+    }
+
+    /**
+     * @return the first shader stored under the key that can render the renderable, null if none
+     */
+    public Shader find(long key, Renderable renderable)
+    {
+        Array<Shader> bucket = m_Buckets.get(key);
+
+        if(bucket == null)
+        {
+            return null;
+        }
+
+        for(int i = 0; i < bucket.size; i++)
+        {
+            Shader shader = bucket.get(i);
+
+            if(shader.canRender(renderable))
+            {
+                return shader;
+            }
+        }
+
+        return null;
+    }
+
+    /*
+     *
+     */
+    public void put(long key, Shader shader)
+    {
+        Array<Shader> bucket = m_Buckets.get(key);
+
+        if(bucket == null)
+        {
+            bucket = new Array<Shader>(false, 1);
+            m_Buckets.put(key, bucket);
+        }
+
+        if(!bucket.contains(shader, true))
+        {
+            bucket.add(shader);
+            m_iSize++;
+        }
+    }
+
+    /**
+     * Number of key / shader pairs stored.
+     */
+    public int size()
+    {
+        return m_iSize;
+    }
+
+    /**
+     * Number of distinct keys.
+     */
+    public int getKeyCount()
+    {
+        return m_Buckets.size;
+    }
+
+    /*
+     *
+     */
+    public void clear()
+    {
+        m_Buckets.clear();
+        m_iSize = 0;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * 64 bit finalizer of MurmurHash3, spreads the attribute bits over the whole key.
+     */
+    private static long mix(long value)
+    {
+        value ^= (value >>> 33);
+        value *= 0xff51afd7ed558ccdL;
+        value ^= (value >>> 33);
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= (value >>> 33);
+
+        return value;
+    }
+}
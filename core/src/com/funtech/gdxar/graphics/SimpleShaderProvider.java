@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ *  This is a Derivative Works copy
+ *  Original Author
+ *      Clayton Wilkinson
+ *  Whitepaper
+ *      https://medium.com/@wilkinsonclay/investigating-arcore-with-libgdx-f69b83764118
+ *  Source(s)
+ *      https://github.com/google/helloargdx
+ *
+ *  Modification History
+ *      2018-05-09  -   Farell Leiking  :   Modified code formats ( i.e. indents, spaces etc. )
+ *                                          and placements
+ */
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
+import com.badlogic.gdx.graphics.g3d.utils.BaseShaderProvider;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Simple shader provider that gives an extension point to register new shaders.
+ *
+ * <p>Shaders are looked up through a ShaderIndex keyed by the vertex, material and environment
+ * attributes of the renderable, instead of calling canRender() on every shader. Compiled
+ * programs are not persisted here: libGDX's ShaderProgram always links from source, and the
+ * Android driver blob cache already keeps compiled shaders between launches. Use prewarm() at
+ * load time so that the compile does not happen in the middle of a frame.
+ *
+ * <p>Renderables lit by the shared LightEnvironment get a LightEnvironmentShader, which only
+ * uploads the lights when the environment changed. A plain DefaultShader could render them as
+ * well, they are keyed apart and never given one.
+ */
+public class SimpleShaderProvider extends BaseShaderProvider
+{
+    private final ShaderIndex           m_ShaderIndex           = new ShaderIndex();
+    private LightEnvironment            m_LightEnvironment;
+
+    /**
+     * Registered shaders take precedence over the created ones, in the order registered.
+     */
+    public void registerShader(Shader shader)
+    {
+        this.shaders.add(shader);
+
+        // cached lookups may now resolve to the new shader
+        m_ShaderIndex.clear();
+    }
+
+    /**
+     * Environment shared by the lit content, the shaders created afterwards for it skip the
+     * redundant light uploads.
+     */
+    public void setLightEnvironment(LightEnvironment lightEnvironment)
+    {
+        m_LightEnvironment = lightEnvironment;
+
+        // cached lookups may now resolve to another shader
+        m_ShaderIndex.clear();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public Shader getShader(Renderable renderable)
+    {
+        Environment sharedEnvironment   = (m_LightEnvironment != null) ? m_LightEnvironment.getEnvironment() : null;
+        boolean     isShared            = (sharedEnvironment != null) && (renderable.environment == sharedEnvironment);
+        Shader      suggestedShader     = renderable.shader;
+
+        if((suggestedShader != null) && canRender(suggestedShader, renderable, isShared))
+        {
+            return suggestedShader;
+        }
+
+        long        key                 = ShaderIndex.computeKey(renderable, sharedEnvironment);
+        Shader      shader              = m_ShaderIndex.find(key, renderable);
+
+        if(shader != null)
+        {
+            return shader;
+        }
+
+        // first time for this key, same order as BaseShaderProvider
+        for(int i = 0; i < shaders.size; i++)
+        {
+            if(canRender(shaders.get(i), renderable, isShared))
+            {
+                shader = shaders.get(i);
+                break;
+            }
+        }
+
+        if(shader == null)
+        {
+            shader = createShader(renderable);
+            shader.init();
+            shaders.add(shader);
+        }
+
+        m_ShaderIndex.put(key, shader);
+        return shader;
+    }
+
+    /**
+     * Creates the shader of the renderable now rather than when it is first rendered.
+     */
+    public void prewarm(Renderable renderable)
+    {
+        getShader(renderable);
+    }
+
+    /**
+     * Creates the shaders of all renderables of the provider, i.e. a ModelInstance.
+     */
+    public void prewarm(RenderableProvider renderableProvider)
+    {
+        Array<Renderable>   renderables = new Array<Renderable>();
+        Pool<Renderable>    pool        = new Pool<Renderable>()
+        {
+            /*
+             *
+             */
+            @Override
+            protected Renderable newObject()
+            {
+                return new Renderable();
+            }
+        };
+
+        renderableProvider.getRenderables(renderables, pool);
+
+        for(int i = 0; i < renderables.size; i++)
+        {
+            prewarm(renderables.get(i));
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        m_ShaderIndex.clear();
+        super.dispose();
+    }
+
+    /*
+     *
+     */
+    @Override
+    protected Shader createShader(Renderable renderable)
+    {
+        if((m_LightEnvironment != null) && (renderable.environment == m_LightEnvironment.getEnvironment()))
+        {
+            return new LightEnvironmentShader(renderable, m_LightEnvironment);
+        }
+
+        return new DefaultShader(renderable);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * canRender(), except that a plain DefaultShader is refused for renderables lit by the
+     * shared environment: it would upload the shared lights again for every renderable.
+     */
+    private static boolean canRender(Shader shader, Renderable renderable, boolean isShared)
+    {
+        if(isShared && (shader.getClass() == DefaultShader.class))
+        {
+            return false;
+        }
+
+        return shader.canRender(renderable);
+    }
+}
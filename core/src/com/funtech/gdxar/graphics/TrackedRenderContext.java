@@ -0,0 +1,146 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TrackedRenderContext.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       RenderContext that routes the ModelBatch state changes through a GLStateTracker
+ ** PREMISES:
+ ** REMARKS:        The default RenderContext forces depth / blend / cull to a known value in
+ **                 begin() and end(), which costs up to 8 GL calls per batch even when
+ **                 nothing changed. Here those calls only reach GL if the shadow differs
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Moved from arcore4gdx, used by CameraScene
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.TextureBinder;
+
+public class TrackedRenderContext extends RenderContext
+{
+    private final GLStateTracker        m_StateTracker;
+
+    /*
+     *
+     */
+    public TrackedRenderContext(TextureBinder textures, GLStateTracker stateTracker)
+    {
+        super(textures);
+
+        m_StateTracker = stateTracker;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void begin()
+    {
+        textureBinder.begin();
+
+        m_StateTracker.setDepthTest(false);
+        m_StateTracker.setDepthMask(true);
+        m_StateTracker.setBlending(false);
+        m_StateTracker.setCullFace(false);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void end()
+    {
+        m_StateTracker.setDepthTest(false);
+        m_StateTracker.setDepthMask(true);
+        m_StateTracker.setBlending(false);
+        m_StateTracker.setCullFace(false);
+
+        textureBinder.end();
+
+        // The texture binder talks to GL directly
+        m_StateTracker.invalidate(GLStateTracker.STATE_TEXTURES);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDepthMask(boolean depthMask)
+    {
+        m_StateTracker.setDepthMask(depthMask);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDepthTest(int depthFunction)
+    {
+        setDepthTest(depthFunction, 0f, 1f);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDepthTest(int depthFunction, float depthRangeNear, float depthRangeFar)
+    {
+        boolean isEnable = (depthFunction != 0);
+
+        m_StateTracker.setDepthTest(isEnable);
+
+        if(isEnable)
+        {
+            m_StateTracker.setDepthFunc(depthFunction);
+            m_StateTracker.setDepthRange(depthRangeNear, depthRangeFar);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setBlending(boolean enabled, int sFactor, int dFactor)
+    {
+        m_StateTracker.setBlending(enabled);
+
+        if(enabled)
+        {
+            m_StateTracker.setBlendFunc(sFactor, dFactor);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setCullFace(int face)
+    {
+        boolean isEnable = ((face == GL20.GL_FRONT) || (face == GL20.GL_BACK) || (face == GL20.GL_FRONT_AND_BACK));
+
+        m_StateTracker.setCullFace(isEnable);
+
+        if(isEnable)
+        {
+            m_StateTracker.setCullFaceMode(face);
+        }
+    }
+}
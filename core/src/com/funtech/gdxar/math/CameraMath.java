@@ -0,0 +1,115 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraMath.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Camera math run every frame, kept free of Android and ARCore types
+ ** PREMISES:       Matrices are column major float[16] as used by GL, ARCore and Matrix4
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.math;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Matrix4;
+
+
+public class CameraMath
+{
+    public final static int         MATRIX_SIZE                 = 16;
+    public final static int         POSE_SIZE                   = 7;        // tx, ty, tz, qx, qy, qz, qw
+
+    /**
+     * The pose is the inverse of the view matrix, the rotation is the transposed upper 3x3
+     * and the position is -R^T * t.
+     */
+    public static void viewToPose(float view[], float pose[])
+    {
+        // a(i, j) of R^T is view[i * 4 + j]
+        float a00 = view[0],    a01 = view[1],  a02 = view[2];
+        float a10 = view[4],    a11 = view[5],  a12 = view[6];
+        float a20 = view[8],    a21 = view[9],  a22 = view[10];
+        float tx  = view[12],   ty  = view[13], tz  = view[14];
+
+        pose[0] = -((a00 * tx) + (a01 * ty) + (a02 * tz));
+        pose[1] = -((a10 * tx) + (a11 * ty) + (a12 * tz));
+        pose[2] = -((a20 * tx) + (a21 * ty) + (a22 * tz));
+
+        float trace = a00 + a11 + a22;
+        float s;
+
+        if(trace > 0)
+        {
+            s       = 0.5f / (float)Math.sqrt(trace + 1.0f);
+            pose[6] = 0.25f / s;
+            pose[3] = (a21 - a12) * s;
+            pose[4] = (a02 - a20) * s;
+            pose[5] = (a10 - a01) * s;
+        }
+        else
+        if((a00 > a11) && (a00 > a22))
+        {
+            s       = 2.0f * (float)Math.sqrt(1.0f + a00 - a11 - a22);
+            pose[6] = (a21 - a12) / s;
+            pose[3] = 0.25f * s;
+            pose[4] = (a01 + a10) / s;
+            pose[5] = (a02 + a20) / s;
+        }
+        else
+        if(a11 > a22)
+        {
+            s       = 2.0f * (float)Math.sqrt(1.0f + a11 - a00 - a22);
+            pose[6] = (a02 - a20) / s;
+            pose[3] = (a01 + a10) / s;
+            pose[4] = 0.25f * s;
+            pose[5] = (a12 + a21) / s;
+        }
+        else
+        {
+            s       = 2.0f * (float)Math.sqrt(1.0f + a22 - a00 - a11);
+            pose[6] = (a10 - a01) / s;
+            pose[3] = (a02 + a20) / s;
+            pose[4] = (a12 + a21) / s;
+            pose[5] = 0.25f * s;
+        }
+    }
+
+    /**
+     * Moves the camera to the given view without Camera.update(), which would rebuild the view
+     * from position / direction and overwrite the tracked one. The projection of the camera is
+     * expected to be set already. The frustum is updated as well, it is what the scene culls
+     * against.
+     *
+     * @param view - column major view matrix
+     * @param pose - pose of the view as returned by viewToPose()
+     */
+    public static void setCameraView(Camera camera, float view[], float pose[])
+    {
+        camera.view.set(view);
+        camera.position.set(pose[0], pose[1], pose[2]);
+        camera.direction.set(-view[2], -view[6], -view[10]);
+        camera.up.set(view[1], view[5], view[9]);
+        camera.combined.set(camera.projection);
+        Matrix4.mul(camera.combined.val, camera.view.val);
+        camera.invProjectionView.set(camera.combined);
+        Matrix4.inv(camera.invProjectionView.val);
+        camera.frustum.update(camera.invProjectionView);
+    }
+}
@@ -0,0 +1,104 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         OrientationMath.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Device orientation from the rotation vector sensor
+ ** PREMISES:       Same results as SensorManager.getRotationMatrixFromVector(),
+ **                 remapCoordinateSystem(AXIS_X, AXIS_Z) and getOrientation() for a 3x3 matrix
+ ** REMARKS:        Ported so the sensor path runs ( and can be measured ) off Android
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.math;
+
+
+public class OrientationMath
+{
+    public final static int         MATRIX_SIZE                 = 9;
+    public final static int         ORIENTATION_SIZE            = 3;        // azimuth, pitch, roll
+
+    /**
+     * 3x3 rotation matrix from the rotation vector ( x, y, z[, w] ). Values past the 4th,
+     * i.e. the heading accuracy, are ignored.
+     */
+    public static void getRotationMatrixFromVector(float R[], float rotationVector[])
+    {
+        float q0;
+        float q1 = rotationVector[0];
+        float q2 = rotationVector[1];
+        float q3 = rotationVector[2];
+
+        if(rotationVector.length >= 4)
+        {
+            q0 = rotationVector[3];
+        }
+        else
+        {
+            q0 = 1 - (q1 * q1) - (q2 * q2) - (q3 * q3);
+            q0 = (q0 > 0) ? (float)Math.sqrt(q0) : 0;
+        }
+
+        float sq_q1 = 2 * q1 * q1;
+        float sq_q2 = 2 * q2 * q2;
+        float sq_q3 = 2 * q3 * q3;
+        float q1_q2 = 2 * q1 * q2;
+        float q3_q0 = 2 * q3 * q0;
+        float q1_q3 = 2 * q1 * q3;
+        float q2_q0 = 2 * q2 * q0;
+        float q2_q3 = 2 * q2 * q3;
+        float q1_q0 = 2 * q1 * q0;
+
+        R[0] = 1 - sq_q2 - sq_q3;
+        R[1] = q1_q2 - q3_q0;
+        R[2] = q1_q3 + q2_q0;
+
+        R[3] = q1_q2 + q3_q0;
+        R[4] = 1 - sq_q1 - sq_q3;
+        R[5] = q2_q3 - q1_q0;
+
+        R[6] = q1_q3 - q2_q0;
+        R[7] = q2_q3 + q1_q0;
+        R[8] = 1 - sq_q1 - sq_q2;
+    }
+
+    /**
+     * remapCoordinateSystem(inR, AXIS_X, AXIS_Z, outR), the device held upright: x stays,
+     * the new y is the device z and the new z is the negated device y. inR and outR must differ.
+     */
+    public static void remapCoordinateSystemXZ(float inR[], float outR[])
+    {
+        for(int row = 0; row < 9; row += 3)
+        {
+            outR[row + 0] =  inR[row + 0];
+            outR[row + 1] = -inR[row + 2];
+            outR[row + 2] =  inR[row + 1];
+        }
+    }
+
+    /**
+     * Azimuth, pitch and roll in radians of a 3x3 rotation matrix.
+     */
+    public static void getOrientation(float R[], float values[])
+    {
+        values[0] = (float)Math.atan2(R[1], R[4]);
+        values[1] = (float)Math.asin(-R[7]);
+        values[2] = (float)Math.atan2(-R[6], R[8]);
+    }
+}
@@ -0,0 +1,108 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PolygonTriangulator.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Triangulates 2D polygons into a reused index array
+ ** PREMISES:       Not thread safe, one triangulator per thread
+ ** REMARKS:        The returned array is owned by the triangulator and overwritten by the
+ **                 next call
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.math;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * ARCore plane polygons are convex, they are cut into a fan which needs no search. Polygons
+ * that are not convex go through the ear clipping of libGDX, which also reuses its arrays.
+ * Nothing is allocated once the arrays grew to the largest polygon.
+ */
+public class PolygonTriangulator
+{
+    private final ShortArray                m_Indices           = new ShortArray(false, 64);
+    private final EarClippingTriangulator   m_EarClipping       = new EarClippingTriangulator();
+
+    /**
+     * @param polygon   - x, y pairs
+     * @param offset    - first float of the polygon
+     * @param count     - floats of the polygon, twice the number of points
+     * @return indices of the points, three per triangle
+     */
+    public ShortArray triangulate(float polygon[], int offset, int count)
+    {
+        int pointCount = count / 2;
+
+        m_Indices.clear();
+
+        if(pointCount < 3)
+        {
+            return m_Indices;
+        }
+
+        if(!isConvex(polygon, offset, pointCount))
+        {
+            return m_EarClipping.computeTriangles(polygon, offset, count);
+        }
+
+        m_Indices.ensureCapacity((pointCount - 2) * 3);
+
+        for(int i = 1; i < (pointCount - 1); i++)
+        {
+            m_Indices.add(0);
+            m_Indices.add(i);
+            m_Indices.add(i + 1);
+        }
+
+        return m_Indices;
+    }
+
+    /**
+     * True if all turns of the polygon go the same way, in either winding.
+     */
+    public static boolean isConvex(float polygon[], int offset, int pointCount)
+    {
+        int sign = 0;
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            int     a       = offset + (i * 2);
+            int     b       = offset + (((i + 1) % pointCount) * 2);
+            int     c       = offset + (((i + 2) % pointCount) * 2);
+            float   cross   = ((polygon[b] - polygon[a]) * (polygon[c + 1] - polygon[b + 1]))
+                            - ((polygon[b + 1] - polygon[a + 1]) * (polygon[c] - polygon[b]));
+
+            if(cross != 0)
+            {
+                int turn = (cross > 0) ? 1 : -1;
+
+                if((sign != 0) && (turn != sign))
+                {
+                    return false;
+                }
+
+                sign = turn;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,1227 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraScene.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Base of the scenes drawn over a camera image, fed by a CameraFrameSource
+ ** PREMISES:       Runs on the GL thread of any libGDX backend, the device specific parts
+ **                 ( camera image, tracking, frame acquisition ) are left to the subclass
+ ** REMARKS:        Moved out of ARCoreScene so a recorded session replays through the same
+ **                 frame update and pass graph as a live one, i.e. headless
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Render context begun and ended around the model batch
+ **                 2026-10-18 : InstancedRenderer created on first use
+ **                 2026-10-18 : AssetPipeline created on first use
+ **                 2026-10-18 : GpuResourceRegistry created on first use
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
+import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import com.funtech.gdxar.assets.AssetPipeline;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.graphics.DynamicResolutionController;
+import com.funtech.gdxar.graphics.DynamicResolutionPass;
+import com.funtech.gdxar.graphics.GLStateTracker;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.graphics.HudLayer;
+import com.funtech.gdxar.graphics.InstancedRenderer;
+import com.funtech.gdxar.graphics.LightEnvironment;
+import com.funtech.gdxar.graphics.RenderPass;
+import com.funtech.gdxar.graphics.RenderPassGraph;
+import com.funtech.gdxar.graphics.SimpleShaderProvider;
+import com.funtech.gdxar.graphics.TrackedRenderContext;
+import com.funtech.gdxar.math.CameraMath;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Draws the frames of a CameraFrameSource: the camera image, the models of the scene registry
+ * and of the subclass, the transparent content, the fade overlay and the HUD, as the passes of
+ * a RenderPassGraph. Each frame the camera data is captured once into a CameraSnapshot, the
+ * camera and the lights follow it, then update() runs, on the update thread when enabled.
+ *
+ * <p>The frames come from setFrameSource(), i.e. a FrameReplay, or else from the device through
+ * acquireDeviceFrame(). The subclass draws the camera image in renderBackground() and keeps
+ * its tracking ( planes, anchors ) up to date in updateTracking(). Nothing here depends on a
+ * device, a recorded session runs through render() on the desktop as it would on the phone.
+ *
+ * <p>A pass whose output would not be visible is not run. renderModels() belongs to the opaque
+ * pass, so it is skipped while the fade overlay is opaque. The logic which has to run every
+ * frame goes in update().
+ */
+public abstract class CameraScene extends ApplicationAdapter
+{
+    private final static float          VALUE_TRANSPARENT       = 0.0f;
+    private final static float          VALUE_OPAQUE            = 1.0f;
+    private final static float          VALUE_FADE_IN           = -0.05f;
+    private final static float          VALUE_FADE_OUT          = 0.10f;
+
+    // The camera which follows the pose of the frames.
+    private     PerspectiveCamera       m_Camera;
+    // Drawing batch, its context routes the state through the state tracker.
+    private     TrackedRenderContext    m_RenderContext;
+    private     ModelBatch              m_ModelBatch;
+    // Draws the copies of repeated models, flushed after the model batch, null until used.
+    private     InstancedRenderer       m_InstancedRenderer;
+    // Loads the textures and models of the scene in the background, null until used.
+    private     AssetPipeline           m_AssetPipeline;
+    // Overrides the frames of the device, i.e. to replay a recorded session.
+    private     CameraFrameSource       m_FrameSource;
+    // Camera data of the current frame, captured once per frame.
+    private final CameraSnapshot        m_FrameSnapshot;
+    // Lights of the lit content, following the light estimate of the frames
+    private final LightEnvironment      m_LightEnvironment      = new LightEnvironment();
+    // Shadow of the GL state, shared by the background, the model batch and the overlay.
+    private final GLStateTracker        m_StateTracker          = new GLStateTracker();
+    // Renderables culled against the camera frustum before the model batch.
+    private final SceneRegistry         m_SceneRegistry         = new SceneRegistry();
+    // Poses of a scene without tracking, see getTrackedPoses().
+    private final PoseTable             m_Poses                 = new PoseTable();
+    // Runs update() and the culling off the GL thread when enabled, null otherwise.
+    private     SceneUpdateThread       m_UpdateThread;
+    // Draws the virtual content at a lower resolution when the frames are too slow, null when disabled.
+    private     DynamicResolutionPass   m_DynamicResolution;
+    private final AtomicBoolean         m_bRedrawRequested      = new AtomicBoolean(true);
+    private     long                    m_lPresentedTimestamp   = -1;
+    // Frame acquired by a poll for a redraw or by render(), until the end of render().
+    private     CameraFrameSource       m_AcquiredFrame;
+    private     boolean                 m_bFrameAcquired;
+    // Passes of the frame, in drawing order. Those with no visible output are culled.
+    private final RenderPassGraph       m_PassGraph             = new RenderPassGraph();
+    private     CameraFrameSource       m_CurrentFrame;         // during render() only
+    // GPU memory of the scene, evicts the loaded textures not drawn above its budget, null until used.
+    private     GpuResourceRegistry     m_GpuResources;
+    private     boolean                 m_bRenderAR;
+    private     boolean                 m_bRenderTransition;
+    private     Color                   m_cOverlayColor         = new Color(0x000000FF);
+    private final Color                 m_cOverlayDraw          = new Color();
+    private     float                   m_fOverlayAlpha         = VALUE_OPAQUE;
+    private     float                   m_fTransitionVal        = VALUE_FADE_IN;
+
+    protected   int                     m_iScreenWidth;
+    protected   int                     m_iScreenHeight;
+
+    protected   HudLayer                m_Hud;
+
+    /*
+     *
+     */
+    protected CameraScene()
+    {
+        this(new CameraSnapshot());
+    }
+
+    /**
+     * @param frameSnapshot - captures the camera data of each frame, i.e. a subclass keeping
+     *                        the device frame along
+     */
+    protected CameraScene(CameraSnapshot frameSnapshot)
+    {
+        m_FrameSnapshot = frameSnapshot;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void create()
+    {
+        m_iScreenWidth      = Gdx.graphics.getWidth();
+        m_iScreenHeight     = Gdx.graphics.getHeight();
+
+        m_Camera            = createCamera();
+
+        m_bRenderAR         = false;
+        m_Hud               = new HudLayer();
+
+        m_StateTracker.reset();
+
+        ShaderProvider shaderProvider = createShaderProvider();
+        if(shaderProvider instanceof SimpleShaderProvider)
+        {
+            ((SimpleShaderProvider) shaderProvider).setLightEnvironment(m_LightEnvironment);
+        }
+
+        m_RenderContext     = new TrackedRenderContext(new DefaultTextureBinder(DefaultTextureBinder.WEIGHTED, 1), m_StateTracker);
+        m_ModelBatch        = new ModelBatch(m_RenderContext, shaderProvider);
+
+        m_PassGraph.add(new ClearPass());
+        m_PassGraph.add(new BackgroundPass());
+        m_PassGraph.add(new OpaquePass());
+        m_PassGraph.add(new TransparentPass());
+        m_PassGraph.add(new CompositePass());
+        m_PassGraph.add(new OverlayPass());
+        m_PassGraph.add(new HudPass());
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void resize(int width, int height)
+    {
+        m_iScreenWidth      = width;
+        m_iScreenHeight     = height;
+
+        m_Camera            = createCamera();
+        m_FrameSnapshot.invalidateProjection();
+
+        if(m_Hud != null)
+        {
+            m_Hud.resize(m_iScreenWidth, m_iScreenHeight);
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void render()
+    {
+        CameraFrameSource   frameSource     = (m_bRenderAR || m_bRenderTransition) ? acquireFrame() : null;
+        // the wait for the camera frame is not part of the time the content is scaled for
+        long                frameStartNs    = System.nanoTime();
+
+        // New frame for the eviction, then create the GL objects of the assets decoded
+        // meanwhile, this binds textures
+        if(m_GpuResources != null)
+        {
+            m_GpuResources.update();
+        }
+
+        if(m_AssetPipeline != null)
+        {
+            m_AssetPipeline.update();
+        }
+
+        // SpriteBatch of the previous frame changed the state behind the tracker
+        m_StateTracker.invalidate(GLStateTracker.STATE_BATCH_2D);
+
+        // SpriteBatch.end() leaves depth writes on. Setting it here costs one glDepthMask,
+        // while leaving it unknown makes the background query it ( a pipeline stall ) whenever
+        // the clear pass is culled
+        m_StateTracker.setDepthMask(true);
+
+        // Frame can be null when initializing or if the device has no camera frame yet.
+        m_CurrentFrame = frameSource;
+
+        if(frameSource != null)
+        {
+            m_FrameSnapshot.capture(frameSource, m_Camera.near, m_Camera.far);
+
+            // the estimate was read once by the capture, the lights follow it smoothed
+            float light[] = m_FrameSnapshot.getLightEstimate();
+            m_LightEnvironment.update(m_FrameSnapshot.isLightEstimateValid(), light[0], light[1], light[2], light[3]);
+
+            // Move the camera, the background pass draws with it.
+            updateCamera();
+
+            updateTracking(frameSource);
+
+            if(m_UpdateThread != null)
+            {
+                m_UpdateThread.post(m_FrameSnapshot, getTrackedPoses());
+            }
+            else
+            {
+                m_SceneRegistry.syncPoses();
+                update(m_FrameSnapshot, Gdx.graphics.getDeltaTime());
+            }
+        }
+
+        if(m_bRenderTransition)
+        {
+            m_fOverlayAlpha += m_fTransitionVal;
+
+            if(m_fOverlayAlpha > VALUE_OPAQUE)
+            {
+                m_fOverlayAlpha     = VALUE_OPAQUE;
+                m_bRenderTransition = false;
+            }
+            else
+            if(m_fOverlayAlpha < VALUE_TRANSPARENT)
+            {
+                m_fOverlayAlpha     = VALUE_TRANSPARENT;
+                m_bRenderTransition = false;
+            }
+        }
+
+        m_PassGraph.execute();
+
+        if(frameSource != null)
+        {
+            if(m_DynamicResolution != null)
+            {
+                m_DynamicResolution.update((System.nanoTime() - frameStartNs) / 1000L);
+            }
+
+            m_lPresentedTimestamp = m_FrameSnapshot.getTimestamp();
+        }
+
+        m_CurrentFrame = null;
+        releaseFrame();
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void resume()
+    {
+        super.resume();
+
+        // the context may have been recreated while paused
+        m_StateTracker.invalidate(GLStateTracker.STATE_ALL);
+        m_LightEnvironment.invalidate();
+
+        if(m_InstancedRenderer != null)
+        {
+            m_InstancedRenderer.invalidate();
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void dispose()
+    {
+        setUpdateThreadEnabled(false);
+        setDynamicResolutionEnabled(false);
+
+        if(m_InstancedRenderer != null)
+        {
+            m_InstancedRenderer.dispose();
+            m_InstancedRenderer = null;
+        }
+
+        if(m_AssetPipeline != null)
+        {
+            m_AssetPipeline.dispose();
+            m_AssetPipeline = null;
+        }
+
+        m_Hud.dispose();
+        super.dispose();
+    }
+
+    /*
+     *
+     */
+    public void enableAR(boolean isEnable)
+    {
+        if(m_bRenderAR != isEnable) // if current AR state not same, do the fade transition
+        {
+            if(m_bRenderAR)
+            {
+                m_fTransitionVal    = VALUE_FADE_OUT;
+            }
+            else
+            {
+                m_fTransitionVal    = VALUE_FADE_IN;
+            }
+
+            m_bRenderTransition     = true;
+        }
+
+        m_bRenderAR = isEnable;
+    }
+
+    /*
+     *
+     */
+    public boolean isAREnabled()
+    {
+        return m_bRenderAR;
+    }
+
+    /**
+     * Asks for a frame to be drawn when rendering on demand, i.e. after the scene changed.
+     * Can be called from any thread. A scene animating from update() calls it at every update
+     * for as long as it animates.
+     */
+    public void requestRedraw()
+    {
+        m_bRedrawRequested.set(true);
+    }
+
+    /**
+     * Sets the source of the frame data used instead of the one of the device. This allows
+     * the scene to run on a recorded session ( see FrameReplay ) without the device. Pass
+     * null to go back to the device.
+     */
+    public void setFrameSource(CameraFrameSource frameSource)
+    {
+        m_FrameSource = frameSource;
+    }
+
+
+
+    /********************************************************************************
+     *                            PROTECTED                                         *
+     ********************************************************************************/
+
+    /**
+     * Draws the camera image of the frame over the whole screen.
+     */
+    protected abstract void renderBackground(CameraFrameSource frameSource, Camera camera);
+
+    /**
+     * Called to render the models of the frame, after the camera image. The models of the
+     * scene registry and of the instanced renderer are drawn after them within the same batch.
+     *
+     * <p>It is part of the opaque pass, which is not run while nothing of it would be visible,
+     * i.e. under the fade overlay at full opacity. It is then not called at all, so it should
+     * only draw and leave the state of the scene to update().
+     */
+    protected abstract void renderModels(ModelBatch modelBatch);
+
+    /**
+     * Keeps the tracking of the subclass up to date with the current frame, after the camera
+     * moved and before update(). Called for every frame, on the GL thread.
+     */
+    protected void updateTracking(CameraFrameSource frameSource)
+    {
+    }
+
+    /**
+     * Whether renderTransparent() has anything to draw.
+     */
+    protected boolean hasTransparentContent()
+    {
+        return false;
+    }
+
+    /**
+     * Content blended over the models, i.e. the detected planes.
+     */
+    protected void renderTransparent(Camera camera)
+    {
+    }
+
+    /**
+     * Advances the frames of the device once per render(), null when there is no frame.
+     * Only called while no frame source is set. There is no device here.
+     */
+    protected CameraFrameSource acquireDeviceFrame()
+    {
+        return null;
+    }
+
+    /**
+     * Forgets the device frame acquired, the next acquireDeviceFrame() advances again.
+     */
+    protected void releaseDeviceFrame()
+    {
+    }
+
+    /**
+     * Poses the objects of getSceneRegistry() are attached to, i.e. of the anchors. Read once
+     * per frame, before update(). Empty here.
+     */
+    protected PoseTable getTrackedPoses()
+    {
+        return m_Poses;
+    }
+
+    /**
+     * Camera following the frames. This is used to determine where the user is looking.
+     */
+    protected PerspectiveCamera getCamera()
+    {
+        return m_Camera;
+    }
+
+    /**
+     * Camera data of the current frame. Valid only during render().
+     */
+    protected CameraSnapshot getCameraSnapshot()
+    {
+        return m_FrameSnapshot;
+    }
+
+    /**
+     * The frame source given to setFrameSource(), null while the frames come from the device.
+     */
+    protected CameraFrameSource getFrameSource()
+    {
+        return m_FrameSource;
+    }
+
+    /**
+     * Lights following the light estimate of the camera image. Lit content is rendered with
+     * getEnvironment() of it, the scene registry and the snapshots of the update thread are.
+     */
+    protected LightEnvironment getLightEnvironment()
+    {
+        return m_LightEnvironment;
+    }
+
+    /**
+     * Shadow of the GL state. Subclasses changing depth, blend, cull or texture state outside
+     * of the model batch should either go through the tracker or invalidate() what they changed.
+     */
+    protected GLStateTracker getStateTracker()
+    {
+        return m_StateTracker;
+    }
+
+    /**
+     * 2D drawings over the scene and the fade overlay, the last pass of the frame. They are
+     * queued in m_Hud, which has the projection of the screen and is flushed right after,
+     * over the overlay. m_Hud can also be filled earlier in the frame, i.e. from renderModels(),
+     * it stays over the overlay too.
+     */
+    protected void renderHud()
+    {
+    }
+
+    /**
+     * Passes of the frame with their timings, see RenderPassGraph.log().
+     */
+    protected RenderPassGraph getRenderPassGraph()
+    {
+        return m_PassGraph;
+    }
+
+    /**
+     * Scene logic, i.e. simulation and animation of the transforms of the scene registry.
+     * Called once per frame before the frame is drawn, on the update thread when it is
+     * enabled and on the GL thread otherwise, also when the passes drawing the scene are
+     * culled. The device frame is not available here.
+     *
+     * @param frameSnapshot - camera data of the frame
+     * @param deltaTime     - seconds since the last update
+     */
+    protected void update(CameraSnapshot frameSnapshot, float deltaTime)
+    {
+    }
+
+    /**
+     * Runs update() and the culling of the scene registry on a thread of their own, the GL
+     * thread then only draws the latest scene the update thread published. It should be
+     * enabled in create(), before objects are added: the update thread has a scene registry
+     * of its own, which must only be used from update() while the thread runs. The GL thread
+     * sets ModelInstance.transform from the published scene, so instances are added with a
+     * transform of their own, SceneRegistry.add(instance, bounds, transform).
+     */
+    protected void setUpdateThreadEnabled(boolean isEnable)
+    {
+        if(isEnable && (m_UpdateThread == null))
+        {
+            m_UpdateThread = new SceneUpdateThread(new SceneUpdateThread.Listener()
+            {
+                /*
+                 *
+                 */
+                @Override
+                public void update(CameraSnapshot frameSnapshot, float deltaTime)
+                {
+                    CameraScene.this.update(frameSnapshot, deltaTime);
+                }
+            });
+            m_UpdateThread.start();
+        }
+        else
+        if(!isEnable && (m_UpdateThread != null))
+        {
+            m_UpdateThread.stop();
+            m_UpdateThread = null;
+        }
+    }
+
+    /*
+     *
+     */
+    protected boolean isUpdateThreadEnabled()
+    {
+        return (m_UpdateThread != null);
+    }
+
+    /**
+     * Renderables added here are culled against the camera and rendered after renderModels(),
+     * within the same batch. With the update thread enabled this is the registry of the
+     * update thread, to be used from update() only.
+     */
+    protected SceneRegistry getSceneRegistry()
+    {
+        return (m_UpdateThread != null) ? m_UpdateThread.getSceneRegistry() : m_SceneRegistry;
+    }
+
+    /**
+     * Poses to attach the objects of getSceneRegistry() to. With the update thread enabled
+     * this is its copy of getTrackedPoses(), updated before each update().
+     */
+    protected PoseTable getAnchorPoses()
+    {
+        return (m_UpdateThread != null) ? m_UpdateThread.getPoses() : getTrackedPoses();
+    }
+
+    /**
+     * Models added here during renderModels() are drawn once the model batch ended, one draw
+     * call per mesh part for all the copies of a model. Created on the first call, which must
+     * be on the GL thread.
+     */
+    protected InstancedRenderer getInstancedRenderer()
+    {
+        if(m_InstancedRenderer == null)
+        {
+            m_InstancedRenderer = new InstancedRenderer(m_StateTracker);
+            m_InstancedRenderer.setResourceRegistry(getGpuResources());
+
+            // within the opaque pass the copies added from now on are drawn at its end
+            m_InstancedRenderer.begin(m_Camera);
+        }
+
+        return m_InstancedRenderer;
+    }
+
+    /**
+     * Memory of the GL objects of the scene. The textures loaded through the asset pipeline
+     * are evicted when not drawn for a while above the budget, and loaded again when drawn.
+     * Created on the first call after create(), by the first object of the scene which counts
+     * its memory, registerResources() then adds those the scene always has.
+     */
+    protected GpuResourceRegistry getGpuResources()
+    {
+        if(m_GpuResources == null)
+        {
+            m_GpuResources = new GpuResourceRegistry();
+            registerResources(m_GpuResources);
+        }
+
+        return m_GpuResources;
+    }
+
+    /**
+     * Adds the GL objects created in create() to the registry, once it is created. Objects
+     * created later register themselves through getGpuResources().
+     */
+    protected void registerResources(GpuResourceRegistry registry)
+    {
+        m_Hud.setResourceRegistry(registry);
+    }
+
+    /**
+     * Draws the models and the transparent content into a framebuffer whose size follows the
+     * time the frames take, composited over the camera image which stays at the full
+     * resolution. The time is measured on the CPU from the camera frame to the end of the
+     * content, a frame waiting on the GPU shows up as GL calls blocking.
+     */
+    protected void setDynamicResolutionEnabled(boolean isEnable)
+    {
+        if(isEnable && (m_DynamicResolution == null))
+        {
+            m_DynamicResolution = new DynamicResolutionPass(m_StateTracker);
+            m_DynamicResolution.setResourceRegistry(getGpuResources());
+        }
+        else
+        if(!isEnable && (m_DynamicResolution != null))
+        {
+            m_DynamicResolution.dispose();
+            m_DynamicResolution = null;
+        }
+    }
+
+    /**
+     * Scale and thresholds of the dynamic resolution, null while it is disabled.
+     */
+    protected DynamicResolutionController getDynamicResolution()
+    {
+        return (m_DynamicResolution != null) ? m_DynamicResolution.getController() : null;
+    }
+
+    /**
+     * Textures and models should be loaded through the pipeline rather than synchronously,
+     * it is updated at the start of every frame. Created on the first call, which must be on
+     * the GL thread, its workers are started then.
+     */
+    protected AssetPipeline getAssetPipeline()
+    {
+        if(m_AssetPipeline == null)
+        {
+            m_AssetPipeline = new AssetPipeline();
+            m_AssetPipeline.setResourceRegistry(getGpuResources());
+        }
+
+        return m_AssetPipeline;
+    }
+
+    /**
+     * Shader provider for creating shaders that are used by custom materials. It is protected access
+     * to allow overriding to inject other shaders.
+     */
+    protected ShaderProvider createShaderProvider()
+    {
+        return new SimpleShaderProvider();
+    }
+
+    /**
+     * Whether a frame should be drawn when rendering on demand: the scene asked for it
+     * ( requestRedraw() ), a fade is running, assets are loading or the frame source has a
+     * frame newer than the one presented. Called on the GL thread outside of render(), the
+     * frame is kept acquired for render() when it is to be drawn.
+     */
+    protected boolean pollRedraw()
+    {
+        boolean isRedraw = m_bRedrawRequested.getAndSet(false) || m_bRenderTransition
+                            || ((m_AssetPipeline != null) && !m_AssetPipeline.isIdle());
+
+        if(m_bRenderAR)
+        {
+            CameraFrameSource frameSource = acquireFrame();
+
+            isRedraw |= (frameSource != null) && (frameSource.getTimestamp() != m_lPresentedTimestamp);
+        }
+
+        if(!isRedraw)
+        {
+            releaseFrame();
+        }
+
+        return isRedraw;
+    }
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private PerspectiveCamera createCamera()
+    {
+        PerspectiveCamera camera = new PerspectiveCamera(67, m_iScreenWidth, m_iScreenHeight);
+
+        camera.position.set(0, 1.6f, 0f);
+        camera.lookAt(0, 0, 1f);
+        camera.near = .01f;
+        camera.far  = 30f;
+        camera.update();
+
+        return camera;
+    }
+
+    /**
+     * Moves the camera to the captured frame. Reads only from the snapshot and does not allocate.
+     */
+    private void updateCamera()
+    {
+        if(m_FrameSnapshot.isProjectionChanged())
+        {
+            m_Camera.projection.set(m_FrameSnapshot.getProjectionMatrix());
+        }
+
+        CameraMath.setCameraView(m_Camera, m_FrameSnapshot.getViewMatrix(), m_FrameSnapshot.getPose());
+    }
+
+    /**
+     * Whether the content passes draw into the framebuffer of the dynamic resolution.
+     */
+    private boolean isContentScaled()
+    {
+        return (m_DynamicResolution != null) && m_DynamicResolution.isScaled();
+    }
+
+    /**
+     * Binds the target of the content, once per frame, then sets the state of the 3D passes.
+     */
+    private void beginContent()
+    {
+        if(m_DynamicResolution != null)
+        {
+            m_DynamicResolution.begin(m_iScreenWidth, m_iScreenHeight);
+        }
+
+        m_StateTracker.setDepthMask(true);
+        m_StateTracker.setDepthTest(true);
+        m_StateTracker.setCullFace(true);
+    }
+
+    /**
+     * Advances the frame source once until releaseFrame(), the frame acquired by a poll for a
+     * redraw is the one render() draws.
+     */
+    private CameraFrameSource acquireFrame()
+    {
+        if(!m_bFrameAcquired)
+        {
+            if(m_FrameSource != null)
+            {
+                m_AcquiredFrame = m_FrameSource.update() ? m_FrameSource : null;
+            }
+            else
+            {
+                m_AcquiredFrame = acquireDeviceFrame();
+            }
+
+            m_bFrameAcquired = true;
+        }
+
+        return m_AcquiredFrame;
+    }
+
+    /*
+     *
+     */
+    private void releaseFrame()
+    {
+        if(m_bFrameAcquired)
+        {
+            m_AcquiredFrame     = null;
+            m_bFrameAcquired    = false;
+
+            if(m_FrameSource == null)
+            {
+                releaseDeviceFrame();
+            }
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Clears only the targets a later pass needs, the depth alone while the camera image
+     * covers the color.
+     */
+    private final class ClearPass extends RenderPass
+    {
+        /*
+         *
+         */
+        ClearPass()
+        {
+            super("clear");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return true;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return TARGET_COLOR | TARGET_DEPTH;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getCovers()
+        {
+            return TARGET_COLOR | TARGET_DEPTH;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            int mask = 0;
+
+            if((liveWrites & TARGET_COLOR) != 0)
+            {
+                mask |= GL20.GL_COLOR_BUFFER_BIT;
+            }
+
+            if((liveWrites & TARGET_DEPTH) != 0)
+            {
+                // glClear of the depth buffer honours the depth mask
+                m_StateTracker.setDepthMask(true);
+                mask |= GL20.GL_DEPTH_BUFFER_BIT;
+            }
+
+            Gdx.gl.glClear(mask);
+        }
+    }
+
+    /**
+     * The camera image of the subclass, it covers the screen.
+     */
+    private final class BackgroundPass extends RenderPass
+    {
+        /*
+         *
+         */
+        BackgroundPass()
+        {
+            super("background");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return (m_CurrentFrame != null);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getCovers()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            renderBackground(m_CurrentFrame, m_Camera);
+        }
+    }
+
+    /**
+     * The model batch, with renderModels(), the scene registry and the instanced models. Into
+     * the scaled target when the dynamic resolution lowered the scale.
+     */
+    private final class OpaquePass extends RenderPass
+    {
+        /*
+         *
+         */
+        OpaquePass()
+        {
+            super("opaque");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return (m_CurrentFrame != null);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return isContentScaled() ? TARGET_CONTENT : (TARGET_COLOR | TARGET_DEPTH);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getReads()
+        {
+            return isContentScaled() ? TARGET_CONTENT : TARGET_DEPTH;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            // ModelBatch only begins and ends a context it owns. This one resets the texture
+            // binder and, at the end, the texture state of the tracker the binder went around.
+            m_RenderContext.begin();
+            beginContent();
+
+            // Here is the rendering batch.
+            m_ModelBatch.begin(m_Camera);
+
+            if(m_InstancedRenderer != null)
+            {
+                m_InstancedRenderer.begin(m_Camera);
+            }
+
+            renderModels(m_ModelBatch);
+
+            if(m_UpdateThread != null)
+            {
+                m_UpdateThread.acquire().render(m_ModelBatch, m_LightEnvironment.getEnvironment());
+            }
+            else
+            {
+                m_SceneRegistry.render(m_ModelBatch, m_Camera, m_LightEnvironment.getEnvironment());
+            }
+
+            m_ModelBatch.end();
+            m_RenderContext.end();
+
+            if(m_InstancedRenderer != null)
+            {
+                m_InstancedRenderer.end();
+            }
+        }
+    }
+
+    /**
+     * renderTransparent() of the subclass, blended over the models.
+     */
+    private final class TransparentPass extends RenderPass
+    {
+        /*
+         *
+         */
+        TransparentPass()
+        {
+            super("transparent");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return (m_CurrentFrame != null) && hasTransparentContent();
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return isContentScaled() ? TARGET_CONTENT : TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getReads()
+        {
+            return isContentScaled() ? TARGET_CONTENT : (TARGET_COLOR | TARGET_DEPTH);
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            beginContent();
+            renderTransparent(m_Camera);
+        }
+    }
+
+    /**
+     * Blends the scaled content over the camera image.
+     */
+    private final class CompositePass extends RenderPass
+    {
+        /*
+         *
+         */
+        CompositePass()
+        {
+            super("composite");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return (m_CurrentFrame != null) && isContentScaled();
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getReads()
+        {
+            return TARGET_COLOR | TARGET_CONTENT;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            m_DynamicResolution.end();
+            m_DynamicResolution.composite(m_Hud.getBatch(), m_iScreenWidth, m_iScreenHeight);
+        }
+    }
+
+    /**
+     * The fade when AR is enabled or disabled. Not drawn while transparent, and covering
+     * everything drawn before it once opaque. The rectangle is the underlay of the HUD layer,
+     * so it goes out with the HUD in the same draw call and stays under all of the HUD, also
+     * what was queued before this pass.
+     */
+    private final class OverlayPass extends RenderPass
+    {
+        /*
+         *
+         */
+        OverlayPass()
+        {
+            super("overlay");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return (m_fOverlayAlpha > VALUE_TRANSPARENT);
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getReads()
+        {
+            return (m_fOverlayAlpha < VALUE_OPAQUE) ? TARGET_COLOR : 0;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getCovers()
+        {
+            return (m_fOverlayAlpha < VALUE_OPAQUE) ? 0 : TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            m_cOverlayDraw.set( m_cOverlayColor.r, m_cOverlayColor.g, m_cOverlayColor.b, m_fOverlayAlpha );
+            m_Hud.underlay( 0, 0, m_iScreenWidth, m_iScreenHeight, m_cOverlayDraw );
+        }
+    }
+
+    /**
+     * renderHud() of the subclass, then the flush of the HUD layer.
+     */
+    private final class HudPass extends RenderPass
+    {
+        /*
+         *
+         */
+        HudPass()
+        {
+            super("hud");
+        }
+
+        /*
+         *
+         */
+        @Override
+        public boolean isActive()
+        {
+            return true;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getWrites()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        public int getReads()
+        {
+            return TARGET_COLOR;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void execute(int liveWrites)
+        {
+            m_StateTracker.setDepthTest( false );
+            m_StateTracker.setCullFace( false );
+            renderHud();
+            m_Hud.flush();
+        }
+    }
+}
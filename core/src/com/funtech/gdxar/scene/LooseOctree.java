@@ -0,0 +1,349 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LooseOctree.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Loose octree of SceneObject bounding spheres for frustum queries
+ ** PREMISES:       Objects are stored in the deepest node whose loose bounds ( twice the
+ **                 cell ) contain the whole sphere, so an object is in exactly one node and
+ **                 moving it never splits it across cells
+ ** REMARKS:        Nodes are created on demand and kept when they become empty, objects
+ **                 outside the root cell are kept in a list and tested one by one
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+
+public class LooseOctree
+{
+    private final static int        OUTSIDE                     = 0;
+    private final static int        INTERSECT                   = 1;
+    private final static int        INSIDE                      = 2;
+
+    private final Node              m_Root;
+    private final int               m_iMaxDepth;
+    private final Array<SceneObject> m_Outside                  = new Array<SceneObject>(false, 16);
+    private int                     m_iNodeCount                = 1;
+    private int                     m_iObjectCount;
+
+    // statistics of the last query
+    private int                     m_iTestedNodes;
+    private int                     m_iTestedObjects;
+
+    /**
+     * @param center    - center of the indexed world
+     * @param halfSize  - half the edge of the root cell
+     * @param maxDepth  - depth of the smallest cells, the root is depth 0
+     */
+    public LooseOctree(Vector3 center, float halfSize, int maxDepth)
+    {
+        m_Root      = new Node(center.x, center.y, center.z, halfSize);
+        m_iMaxDepth = maxDepth;
+    }
+
+    /*
+     *
+     */
+    public void insert(SceneObject object)
+    {
+        Vector3 center  = object.m_WorldCenter;
+        float   radius  = object.m_fWorldRadius;
+
+        m_iObjectCount++;
+
+        if(!m_Root.containsCenter(center) || (radius > m_Root.m_fHalfSize))
+        {
+            object.m_Node = null;
+            m_Outside.add(object);
+            return;
+        }
+
+        Node node   = m_Root;
+        int  depth  = 0;
+
+        // the sphere fits the loose bounds of a child if its radius is below the child half size
+        while((depth < m_iMaxDepth) && (radius <= (node.m_fHalfSize * 0.5f)))
+        {
+            node = getChild(node, node.getOctant(center));
+            depth++;
+        }
+
+        node.m_Objects.add(object);
+        object.m_Node = node;
+    }
+
+    /*
+     *
+     */
+    public void remove(SceneObject object)
+    {
+        if(object.m_Node != null)
+        {
+            object.m_Node.m_Objects.removeValue(object, true);
+            object.m_Node = null;
+        }
+        else
+        {
+            m_Outside.removeValue(object, true);
+        }
+
+        m_iObjectCount--;
+    }
+
+    /**
+     * Moves the object after its bounds changed. Nothing is done while it still belongs to
+     * its node.
+     */
+    public void update(SceneObject object)
+    {
+        Node node = object.m_Node;
+
+        if((node != null) && node.containsCenter(object.m_WorldCenter) && (object.m_fWorldRadius <= node.m_fHalfSize)
+           && ((node.m_iDepth == m_iMaxDepth) || (object.m_fWorldRadius > (node.m_fHalfSize * 0.5f))))
+        {
+            return;
+        }
+
+        remove(object);
+        insert(object);
+    }
+
+    /**
+     * Adds the objects whose bounding sphere intersects the frustum to visible.
+     */
+    public void query(Frustum frustum, Array<SceneObject> visible)
+    {
+        m_iTestedNodes      = 0;
+        m_iTestedObjects    = 0;
+
+        for(int i = 0; i < m_Outside.size; i++)
+        {
+            SceneObject object = m_Outside.get(i);
+
+            m_iTestedObjects++;
+
+            if(frustum.sphereInFrustum(object.m_WorldCenter, object.m_fWorldRadius))
+            {
+                visible.add(object);
+            }
+        }
+
+        queryNode(m_Root, frustum, visible, false);
+    }
+
+    /*
+     *
+     */
+    public int getObjectCount()
+    {
+        return m_iObjectCount;
+    }
+
+    /*
+     *
+     */
+    public int getNodeCount()
+    {
+        return m_iNodeCount;
+    }
+
+    /**
+     * Nodes tested against the frustum by the last query.
+     */
+    public int getTestedNodes()
+    {
+        return m_iTestedNodes;
+    }
+
+    /**
+     * Objects tested against the frustum by the last query, the others were accepted or
+     * rejected with their node.
+     */
+    public int getTestedObjects()
+    {
+        return m_iTestedObjects;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void queryNode(Node node, Frustum frustum, Array<SceneObject> visible, boolean isInside)
+    {
+        if(!isInside)
+        {
+            m_iTestedNodes++;
+
+            // loose bounds are twice the cell
+            int result = classify(frustum, node.m_Center, node.m_fHalfSize * 2.0f);
+
+            if(result == OUTSIDE)
+            {
+                return;
+            }
+
+            isInside = (result == INSIDE);
+        }
+
+        Array<SceneObject> objects = node.m_Objects;
+
+        for(int i = 0; i < objects.size; i++)
+        {
+            SceneObject object = objects.get(i);
+
+            if(isInside)
+            {
+                visible.add(object);
+                continue;
+            }
+
+            m_iTestedObjects++;
+
+            if(frustum.sphereInFrustum(object.m_WorldCenter, object.m_fWorldRadius))
+            {
+                visible.add(object);
+            }
+        }
+
+        if(node.m_Children != null)
+        {
+            for(int i = 0; i < 8; i++)
+            {
+                if(node.m_Children[i] != null)
+                {
+                    queryNode(node.m_Children[i], frustum, visible, isInside);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cube against the frustum planes, whose normals point inside.
+     */
+    private static int classify(Frustum frustum, Vector3 center, float halfSize)
+    {
+        int result = INSIDE;
+
+        for(int i = 0; i < frustum.planes.length; i++)
+        {
+            Plane   plane       = frustum.planes[i];
+            Vector3 normal      = plane.normal;
+            float   distance    = (normal.x * center.x) + (normal.y * center.y) + (normal.z * center.z) + plane.d;
+            float   extent      = halfSize * (Math.abs(normal.x) + Math.abs(normal.y) + Math.abs(normal.z));
+
+            if(distance < -extent)
+            {
+                return OUTSIDE;
+            }
+
+            if(distance < extent)
+            {
+                result = INTERSECT;
+            }
+        }
+
+        return result;
+    }
+
+    /*
+     *
+     */
+    private Node getChild(Node node, int octant)
+    {
+        if(node.m_Children == null)
+        {
+            node.m_Children = new Node[8];
+        }
+
+        Node child = node.m_Children[octant];
+
+        if(child == null)
+        {
+            float quarter = node.m_fHalfSize * 0.5f;
+
+            child = new Node(node.m_Center.x + (((octant & 1) != 0) ? quarter : -quarter),
+                             node.m_Center.y + (((octant & 2) != 0) ? quarter : -quarter),
+                             node.m_Center.z + (((octant & 4) != 0) ? quarter : -quarter),
+                             quarter);
+            child.m_iDepth          = node.m_iDepth + 1;
+            node.m_Children[octant] = child;
+            m_iNodeCount++;
+        }
+
+        return child;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    static class Node
+    {
+        final Vector3               m_Center;
+        final float                 m_fHalfSize;
+        final Array<SceneObject>    m_Objects                   = new Array<SceneObject>(false, 4);
+        Node                        m_Children[];
+        int                         m_iDepth;
+
+        /*
+         *
+         */
+        Node(float x, float y, float z, float halfSize)
+        {
+            m_Center    = new Vector3(x, y, z);
+            m_fHalfSize = halfSize;
+        }
+
+        /*
+         *
+         */
+        boolean containsCenter(Vector3 point)
+        {
+            return (Math.abs(point.x - m_Center.x) <= m_fHalfSize)
+                && (Math.abs(point.y - m_Center.y) <= m_fHalfSize)
+                && (Math.abs(point.z - m_Center.z) <= m_fHalfSize);
+        }
+
+        /*
+         *
+         */
+        int getOctant(Vector3 point)
+        {
+            return ((point.x >= m_Center.x) ? 1 : 0)
+                 | ((point.y >= m_Center.y) ? 2 : 0)
+                 | ((point.z >= m_Center.z) ? 4 : 0);
+        }
+    }
+}
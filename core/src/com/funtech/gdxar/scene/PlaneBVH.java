@@ -0,0 +1,557 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneBVH.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Bounding volume hierarchy over plane polygons for ray casts
+ ** PREMISES:       Not thread safe. Plane polygons are x, z pairs in the plane space,
+ **                 the plane is y = 0 of its pose
+ ** REMARKS:        The tree is built again on the first query after a change, there are
+ **                 tens of planes at most. Queries do not allocate
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Answers ray versus plane polygon queries on the CPU, the same test as an ARCore hit test on
+ * planes ( the hit must be inside the polygon ) without the JNI call.
+ *
+ * <p>Each plane is bounded by the world box of its transformed polygon. The boxes are sorted
+ * into a binary tree split at the median of their longest axis, kept in flat arrays. A cast
+ * walks the tree front to back with a slab test and only intersects the planes of the leaves
+ * it reaches, the nearest hit wins.
+ */
+public class PlaneBVH
+{
+    public final static int             MATRIX_SIZE             = 16;
+
+    private final static int            LEAF_SIZE               = 2;
+    private final static float          EPSILON                 = 1e-6f;
+
+    private final IdentityMap<Object, Entry> m_Entries          = new IdentityMap<Object, Entry>();
+    private final Array<Entry>          m_List                  = new Array<Entry>(false, 16);
+    private final Array<Entry>          m_FreeEntries           = new Array<Entry>(false, 4);
+
+    // tree, node i has the box m_fBounds[i * 6 .. i * 6 + 5] ( min xyz, max xyz )
+    private float                       m_fBounds[]             = new float[0];
+    private int                         m_iLeft[]               = new int[0];       // -1 for a leaf
+    private int                         m_iFirst[]              = new int[0];       // leaf : first entry of m_Sorted
+    private int                         m_iCount[]              = new int[0];       // leaf : entries
+    private Entry                       m_Sorted[]              = new Entry[0];
+    private int                         m_iStack[]              = new int[64];
+    private int                         m_iNodeCount;
+    private boolean                     m_bDirty;
+
+    // statistics of the last cast
+    private int                         m_iTestedNodes;
+    private int                         m_iTestedPlanes;
+
+    /**
+     * Adds or updates a plane.
+     *
+     * @param key       - identifies the plane, i.e. the ARCore Plane
+     * @param polygon   - x, z pairs in the plane space, read from its position to its limit
+     * @param model     - column major plane to world matrix, rigid
+     */
+    public void update(Object key, FloatBuffer polygon, float model[])
+    {
+        Entry entry = m_Entries.get(key);
+
+        if(entry == null)
+        {
+            entry       = (m_FreeEntries.size > 0) ? m_FreeEntries.pop() : new Entry();
+            entry.m_Key = key;
+            m_Entries.put(key, entry);
+            m_List.add(entry);
+        }
+
+        entry.set(polygon, model);
+        m_bDirty = true;
+    }
+
+    /**
+     * Same as update() with the polygon in an array.
+     */
+    public void update(Object key, float polygon[], int count, float model[])
+    {
+        update(key, FloatBuffer.wrap(polygon, 0, count), model);
+    }
+
+    /*
+     *
+     */
+    public void remove(Object key)
+    {
+        Entry entry = m_Entries.remove(key);
+
+        if(entry != null)
+        {
+            m_List.removeValue(entry, true);
+            entry.m_Key = null;
+            m_FreeEntries.add(entry);
+            m_bDirty = true;
+        }
+    }
+
+    /*
+     *
+     */
+    public void clear()
+    {
+        for(int i = 0; i < m_List.size; i++)
+        {
+            m_List.get(i).m_Key = null;
+            m_FreeEntries.add(m_List.get(i));
+        }
+
+        m_Entries.clear();
+        m_List.clear();
+        m_bDirty = true;
+    }
+
+    /*
+     *
+     */
+    public int getPlaneCount()
+    {
+        return m_List.size;
+    }
+
+    /**
+     * Nearest plane polygon hit by the ray.
+     *
+     * @param ray       - direction need not be normalized, the distance is then in its units
+     * @param maxDistance - hits further are ignored
+     * @param hit       - filled when true is returned
+     * @return true if a polygon is hit
+     */
+    public boolean raycast(Ray ray, float maxDistance, PlaneHit hit)
+    {
+        if(m_bDirty)
+        {
+            build();
+        }
+
+        m_iTestedNodes  = 0;
+        m_iTestedPlanes = 0;
+
+        hit.reset();
+
+        if(m_iNodeCount == 0)
+        {
+            return false;
+        }
+
+        float ox = ray.origin.x,    oy = ray.origin.y,      oz = ray.origin.z;
+        float dx = ray.direction.x, dy = ray.direction.y,   dz = ray.direction.z;
+        float ix = 1.0f / dx,       iy = 1.0f / dy,         iz = 1.0f / dz;
+        float best = maxDistance;
+        int   top  = 0;
+
+        m_iStack[top++] = 0;
+
+        while(top > 0)
+        {
+            int node = m_iStack[--top];
+
+            m_iTestedNodes++;
+
+            if(intersectBox(node, ox, oy, oz, ix, iy, iz, best) < 0)
+            {
+                continue;
+            }
+
+            int left = m_iLeft[node];
+
+            if(left < 0)
+            {
+                int end = m_iFirst[node] + m_iCount[node];
+
+                for(int i = m_iFirst[node]; i < end; i++)
+                {
+                    m_iTestedPlanes++;
+
+                    if(m_Sorted[i].raycast(ox, oy, oz, dx, dy, dz, best, hit))
+                    {
+                        best = hit.distance;
+                    }
+                }
+            }
+            else
+            {
+                // the nearer child is popped first
+                int     right   = left + 1;
+                float   tLeft   = intersectBox(left,  ox, oy, oz, ix, iy, iz, best);
+                float   tRight  = intersectBox(right, ox, oy, oz, ix, iy, iz, best);
+
+                if(top + 2 > m_iStack.length)
+                {
+                    int stack[] = new int[m_iStack.length * 2];
+                    System.arraycopy(m_iStack, 0, stack, 0, top);
+                    m_iStack = stack;
+                }
+
+                if((tLeft >= 0) && (tRight >= 0))
+                {
+                    m_iStack[top++] = (tLeft <= tRight) ? right : left;
+                    m_iStack[top++] = (tLeft <= tRight) ? left : right;
+                }
+                else
+                if(tLeft >= 0)
+                {
+                    m_iStack[top++] = left;
+                }
+                else
+                if(tRight >= 0)
+                {
+                    m_iStack[top++] = right;
+                }
+            }
+        }
+
+        return (hit.key != null);
+    }
+
+    /**
+     * Tests the ray against every plane, i.e. to check the tree.
+     */
+    public boolean raycastBruteForce(Ray ray, float maxDistance, PlaneHit hit)
+    {
+        float best = maxDistance;
+
+        hit.reset();
+
+        for(int i = 0; i < m_List.size; i++)
+        {
+            if(m_List.get(i).raycast(ray.origin.x, ray.origin.y, ray.origin.z, ray.direction.x, ray.direction.y, ray.direction.z, best, hit))
+            {
+                best = hit.distance;
+            }
+        }
+
+        return (hit.key != null);
+    }
+
+    /**
+     * Nodes whose box was tested by the last raycast().
+     */
+    public int getTestedNodes()
+    {
+        return m_iTestedNodes;
+    }
+
+    /**
+     * Planes intersected by the last raycast().
+     */
+    public int getTestedPlanes()
+    {
+        return m_iTestedPlanes;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void build()
+    {
+        int count       = m_List.size;
+        int maxNodes    = Math.max(1, 2 * count);
+
+        if(m_iLeft.length < maxNodes)
+        {
+            m_fBounds   = new float[maxNodes * 6];
+            m_iLeft     = new int[maxNodes];
+            m_iFirst    = new int[maxNodes];
+            m_iCount    = new int[maxNodes];
+        }
+
+        if(m_Sorted.length < count)
+        {
+            m_Sorted    = new Entry[MathUtils.nextPowerOfTwo(count)];
+        }
+
+        for(int i = 0; i < count; i++)
+        {
+            m_Sorted[i] = m_List.get(i);
+        }
+
+        m_iNodeCount    = 0;
+        m_bDirty        = false;
+
+        if(count > 0)
+        {
+            m_iNodeCount = 1;
+            buildNode(0, 0, count);
+        }
+    }
+
+    /**
+     * Bounds the entries first .. first + count, splitting them in two children when more
+     * than a leaf. The children of a node are next to each other.
+     */
+    private void buildNode(int node, int first, int count)
+    {
+        float   b[]     = m_fBounds;
+        int     o       = node * 6;
+
+        b[o]     = b[o + 1] = b[o + 2] = Float.POSITIVE_INFINITY;
+        b[o + 3] = b[o + 4] = b[o + 5] = Float.NEGATIVE_INFINITY;
+
+        for(int i = first; i < first + count; i++)
+        {
+            float e[] = m_Sorted[i].m_fBounds;
+
+            for(int k = 0; k < 3; k++)
+            {
+                b[o + k]        = Math.min(b[o + k], e[k]);
+                b[o + 3 + k]    = Math.max(b[o + 3 + k], e[3 + k]);
+            }
+        }
+
+        if(count <= LEAF_SIZE)
+        {
+            m_iLeft[node]   = -1;
+            m_iFirst[node]  = first;
+            m_iCount[node]  = count;
+            return;
+        }
+
+        // split at the median of the centers along the longest axis of the node
+        int     axis    = 0;
+        float   extent  = b[o + 3] - b[o];
+
+        for(int k = 1; k < 3; k++)
+        {
+            if((b[o + 3 + k] - b[o + k]) > extent)
+            {
+                extent  = b[o + 3 + k] - b[o + k];
+                axis    = k;
+            }
+        }
+
+        sortByCenter(first, count, axis);
+
+        int half        = count / 2;
+        int left        = m_iNodeCount;
+
+        m_iNodeCount   += 2;
+        m_iLeft[node]   = left;
+
+        buildNode(left, first, half);
+        buildNode(left + 1, first + half, count - half);
+    }
+
+    /**
+     * Insertion sort, the lists are short.
+     */
+    private void sortByCenter(int first, int count, int axis)
+    {
+        for(int i = first + 1; i < first + count; i++)
+        {
+            Entry   entry   = m_Sorted[i];
+            float   center  = entry.getCenter(axis);
+            int     j       = i - 1;
+
+            while((j >= first) && (m_Sorted[j].getCenter(axis) > center))
+            {
+                m_Sorted[j + 1] = m_Sorted[j];
+                j--;
+            }
+
+            m_Sorted[j + 1] = entry;
+        }
+    }
+
+    /**
+     * Slab test.
+     *
+     * @return distance where the ray enters the box, -1 if it misses it before maxDistance
+     */
+    private float intersectBox(int node, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance)
+    {
+        float   b[]     = m_fBounds;
+        int     o       = node * 6;
+        float   t1      = (b[o]     - ox) * ix,     t2  = (b[o + 3] - ox) * ix;
+        float   tMin    = Math.min(t1, t2),         tMax = Math.max(t1, t2);
+
+        t1      = (b[o + 1] - oy) * iy;
+        t2      = (b[o + 4] - oy) * iy;
+        tMin    = Math.max(tMin, Math.min(t1, t2));
+        tMax    = Math.min(tMax, Math.max(t1, t2));
+
+        t1      = (b[o + 2] - oz) * iz;
+        t2      = (b[o + 5] - oz) * iz;
+        tMin    = Math.max(tMin, Math.min(t1, t2));
+        tMax    = Math.min(tMax, Math.max(t1, t2));
+
+        // NaN from a 0 * infinity slab compares false and keeps the box, entered at 0
+        if((tMax < 0) || (tMin > tMax) || (tMin > maxDistance))
+        {
+            return -1;
+        }
+
+        return (tMin > 0) ? tMin : 0;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * A plane, its polygon in the plane space and its world box.
+     */
+    private static class Entry
+    {
+        Object                  m_Key;
+        float                   m_fPolygon[]                = new float[32];
+        int                     m_iPolygonCount;
+        final float             m_fModel[]                  = new float[MATRIX_SIZE];
+        final float             m_fBounds[]                 = new float[6];
+
+        /*
+         *
+         */
+        void set(FloatBuffer polygon, float model[])
+        {
+            int start = polygon.position();
+            int count = polygon.remaining() & ~1;
+
+            if(m_fPolygon.length < count)
+            {
+                m_fPolygon = new float[MathUtils.nextPowerOfTwo(count)];
+            }
+
+            for(int i = 0; i < count; i++)
+            {
+                m_fPolygon[i] = polygon.get(start + i);
+            }
+
+            m_iPolygonCount = count;
+            System.arraycopy(model, 0, m_fModel, 0, MATRIX_SIZE);
+
+            float m[] = m_fModel;
+
+            m_fBounds[0] = m_fBounds[1] = m_fBounds[2] = Float.POSITIVE_INFINITY;
+            m_fBounds[3] = m_fBounds[4] = m_fBounds[5] = Float.NEGATIVE_INFINITY;
+
+            for(int i = 0; i < count; i += 2)
+            {
+                float x = m_fPolygon[i];
+                float z = m_fPolygon[i + 1];
+
+                for(int k = 0; k < 3; k++)
+                {
+                    float w = (m[k] * x) + (m[8 + k] * z) + m[12 + k];
+
+                    m_fBounds[k]        = Math.min(m_fBounds[k], w);
+                    m_fBounds[3 + k]    = Math.max(m_fBounds[3 + k], w);
+                }
+            }
+        }
+
+        /*
+         *
+         */
+        float getCenter(int axis)
+        {
+            return (m_fBounds[axis] + m_fBounds[3 + axis]) * 0.5f;
+        }
+
+        /**
+         * Intersects the plane y = 0 of the pose, then tests the polygon in the plane space.
+         */
+        boolean raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, PlaneHit hit)
+        {
+            float m[]   = m_fModel;
+            float nx    = m[4],     ny = m[5],      nz = m[6];
+            float denom = (nx * dx) + (ny * dy) + (nz * dz);
+
+            if(Math.abs(denom) < EPSILON)
+            {
+                return false;
+            }
+
+            float px    = m[12] - ox,   py = m[13] - oy,    pz = m[14] - oz;
+            float t     = ((nx * px) + (ny * py) + (nz * pz)) / denom;
+
+            if((t < 0) || (t >= maxDistance))
+            {
+                return false;
+            }
+
+            float wx    = ox + (dx * t) - m[12];
+            float wy    = oy + (dy * t) - m[13];
+            float wz    = oz + (dz * t) - m[14];
+            float lx    = (m[0] * wx) + (m[1] * wy) + (m[2]  * wz);
+            float lz    = (m[8] * wx) + (m[9] * wy) + (m[10] * wz);
+
+            if(!isInPolygon(lx, lz))
+            {
+                return false;
+            }
+
+            hit.key         = m_Key;
+            hit.distance    = t;
+            hit.localX      = lx;
+            hit.localZ      = lz;
+            hit.point.set(wx + m[12], wy + m[13], wz + m[14]);
+            hit.normal.set(nx, ny, nz);
+
+            return true;
+        }
+
+        /**
+         * Even odd rule.
+         */
+        boolean isInPolygon(float x, float z)
+        {
+            float   p[]     = m_fPolygon;
+            int     count   = m_iPolygonCount;
+            boolean inside  = false;
+
+            for(int i = 0, j = count - 2; i < count; j = i, i += 2)
+            {
+                float xi = p[i], zi = p[i + 1];
+                float xj = p[j], zj = p[j + 1];
+
+                if(((zi > z) != (zj > z)) && (x < ((xj - xi) * (z - zi) / (zj - zi)) + xi))
+                {
+                    inside = !inside;
+                }
+            }
+
+            return inside;
+        }
+    }
+}
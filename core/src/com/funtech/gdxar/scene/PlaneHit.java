@@ -0,0 +1,56 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneHit.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Result of a ray cast against the planes of a PlaneBVH
+ ** PREMISES:
+ ** REMARKS:        Reused by the caller, filled by PlaneBVH.raycast()
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.math.Vector3;
+
+/*
+ *
+ */
+public class PlaneHit
+{
+    public Object                       key;                                // plane or point hit
+    public float                        distance;                           // along the ray
+    public final Vector3                point                   = new Vector3();
+    public final Vector3                normal                  = new Vector3();
+    public float                        localX;                             // hit in the plane space
+    public float                        localZ;
+
+    /*
+     *
+     */
+    public void reset()
+    {
+        key         = null;
+        distance    = Float.POSITIVE_INFINITY;
+        localX      = 0;
+        localZ      = 0;
+        point.setZero();
+        normal.setZero();
+    }
+}
@@ -0,0 +1,407 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PoseTable.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Poses and model matrices of many tracked objects in flat float arrays,
+ **                 addressed by integer handles
+ ** PREMISES:       Not thread safe
+ ** REMARKS:        A handle holds the index of its slot and the generation of the slot, a
+ **                 handle of a freed slot is detected even once the slot is reused
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Added set() to copy a table for the update thread
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Structure of arrays for the anchors of a scene. Slot i has its translation at i * 3, its
+ * rotation quaternion at i * 4 and its column major model matrix at i * 16 of the arrays.
+ *
+ * <p>setPose() compares the new pose with the stored one and only computes the matrix and
+ * increments the version of the slot when it changed, so the consumers compare versions to
+ * know whether to read the matrix again.
+ */
+public class PoseTable
+{
+    public final static int             INVALID_HANDLE          = -1;
+    public final static int             TRANSLATION_SIZE        = 3;
+    public final static int             ROTATION_SIZE           = 4;
+    public final static int             MATRIX_SIZE             = 16;
+
+    private final static int            INDEX_BITS              = 16;
+    private final static int            INDEX_MASK              = (1 << INDEX_BITS) - 1;
+    private final static int            GENERATION_MASK         = 0x7FFF;
+    private final static int            MAX_CAPACITY            = 1 << INDEX_BITS;
+
+    private float                       m_fTranslations[];
+    private float                       m_fRotations[];
+    private float                       m_fMatrices[];
+    private int                         m_iVersions[];
+    private int                         m_iGenerations[];
+    private boolean                     m_bUsed[];
+    private boolean                     m_bTracking[];
+    private int                         m_iFree[];
+    private int                         m_iFreeCount;
+    private int                         m_iEnd;                             // slots ever used
+    private int                         m_iCount;
+
+    /*
+     *
+     */
+    public PoseTable()
+    {
+        this(64);
+    }
+
+    /*
+     *
+     */
+    public PoseTable(int capacity)
+    {
+        resize(Math.max(1, capacity));
+    }
+
+    /**
+     * Takes a slot, at the identity pose and not tracking.
+     */
+    public int allocate()
+    {
+        int index;
+
+        if(m_iFreeCount > 0)
+        {
+            index = m_iFree[--m_iFreeCount];
+        }
+        else
+        {
+            if(m_iEnd == m_bUsed.length)
+            {
+                if(m_iEnd == MAX_CAPACITY)
+                {
+                    throw new GdxRuntimeException("PoseTable is full");
+                }
+
+                resize(Math.min(MAX_CAPACITY, m_iEnd * 2));
+            }
+
+            index = m_iEnd++;
+        }
+
+        m_bUsed[index]      = true;
+        m_bTracking[index]  = false;
+        m_iVersions[index]++;
+        m_iCount++;
+
+        setIdentity(index);
+
+        return (m_iGenerations[index] << INDEX_BITS) | index;
+    }
+
+    /**
+     * Frees the slot of the handle, the handle is no longer valid.
+     */
+    public void free(int handle)
+    {
+        if(!isValid(handle))
+        {
+            return;
+        }
+
+        int index = handle & INDEX_MASK;
+
+        m_bUsed[index]          = false;
+        m_iGenerations[index]   = (m_iGenerations[index] + 1) & GENERATION_MASK;
+        m_iFree[m_iFreeCount++] = index;
+        m_iCount--;
+    }
+
+    /*
+     *
+     */
+    public boolean isValid(int handle)
+    {
+        if(handle < 0)
+        {
+            return false;
+        }
+
+        int index = handle & INDEX_MASK;
+
+        return (index < m_iEnd) && m_bUsed[index] && (m_iGenerations[index] == (handle >>> INDEX_BITS));
+    }
+
+    /**
+     * Index of the slot in the arrays, i.e. getMatrices()[indexOf(handle) * MATRIX_SIZE].
+     */
+    public static int indexOf(int handle)
+    {
+        return handle & INDEX_MASK;
+    }
+
+    /**
+     * Stores a pose, nothing is computed if it is the same as the stored one.
+     *
+     * @return true if the pose changed
+     */
+    public boolean setPose(int handle, float tx, float ty, float tz, float qx, float qy, float qz, float qw)
+    {
+        int     index   = handle & INDEX_MASK;
+        int     t       = index * TRANSLATION_SIZE;
+        int     r       = index * ROTATION_SIZE;
+        float   tr[]    = m_fTranslations;
+        float   ro[]    = m_fRotations;
+
+        if((tr[t] == tx) && (tr[t + 1] == ty) && (tr[t + 2] == tz)
+            && (ro[r] == qx) && (ro[r + 1] == qy) && (ro[r + 2] == qz) && (ro[r + 3] == qw))
+        {
+            return false;
+        }
+
+        tr[t]       = tx;
+        tr[t + 1]   = ty;
+        tr[t + 2]   = tz;
+        ro[r]       = qx;
+        ro[r + 1]   = qy;
+        ro[r + 2]   = qz;
+        ro[r + 3]   = qw;
+
+        computeMatrix(index);
+        m_iVersions[index]++;
+
+        return true;
+    }
+
+    /*
+     *
+     */
+    public void setTracking(int handle, boolean isTracking)
+    {
+        m_bTracking[handle & INDEX_MASK] = isTracking;
+    }
+
+    /*
+     *
+     */
+    public boolean isTracking(int handle)
+    {
+        return m_bTracking[handle & INDEX_MASK];
+    }
+
+    /**
+     * Incremented whenever the pose of the slot changed.
+     */
+    public int getVersion(int handle)
+    {
+        return m_iVersions[handle & INDEX_MASK];
+    }
+
+    /**
+     * Copies the model matrix of the slot.
+     */
+    public Matrix4 getMatrix(int handle, Matrix4 out)
+    {
+        System.arraycopy(m_fMatrices, (handle & INDEX_MASK) * MATRIX_SIZE, out.val, 0, MATRIX_SIZE);
+
+        return out;
+    }
+
+    /**
+     * Translations, TRANSLATION_SIZE floats per slot. The arrays are replaced when the table
+     * grows, they must not be kept across allocate().
+     */
+    public float[] getTranslations()
+    {
+        return m_fTranslations;
+    }
+
+    /**
+     * Rotation quaternions ( x, y, z, w ), ROTATION_SIZE floats per slot.
+     */
+    public float[] getRotations()
+    {
+        return m_fRotations;
+    }
+
+    /**
+     * Column major model matrices, MATRIX_SIZE floats per slot.
+     */
+    public float[] getMatrices()
+    {
+        return m_fMatrices;
+    }
+
+    /*
+     *
+     */
+    public int getCount()
+    {
+        return m_iCount;
+    }
+
+    /**
+     * Slots below this index may be in use, i.e. to walk the arrays.
+     */
+    public int getEnd()
+    {
+        return m_iEnd;
+    }
+
+    /**
+     * True if the slot of the index is in use.
+     */
+    public boolean isUsed(int index)
+    {
+        return m_bUsed[index];
+    }
+
+    /**
+     * Handle of the slot in use at the index.
+     */
+    public int getHandle(int index)
+    {
+        return (m_iGenerations[index] << INDEX_BITS) | index;
+    }
+
+    /**
+     * Copies another table, handles and versions included, i.e. for a thread working on its
+     * own copy of the poses. Only the slots in use so far are copied.
+     */
+    public void set(PoseTable other)
+    {
+        int end = other.m_iEnd;
+
+        if(m_bUsed.length < end)
+        {
+            resize(other.m_bUsed.length);
+        }
+
+        System.arraycopy(other.m_fTranslations, 0, m_fTranslations, 0, end * TRANSLATION_SIZE);
+        System.arraycopy(other.m_fRotations, 0, m_fRotations, 0, end * ROTATION_SIZE);
+        System.arraycopy(other.m_fMatrices, 0, m_fMatrices, 0, end * MATRIX_SIZE);
+        System.arraycopy(other.m_iVersions, 0, m_iVersions, 0, end);
+        System.arraycopy(other.m_iGenerations, 0, m_iGenerations, 0, end);
+        System.arraycopy(other.m_bUsed, 0, m_bUsed, 0, end);
+        System.arraycopy(other.m_bTracking, 0, m_bTracking, 0, end);
+        System.arraycopy(other.m_iFree, 0, m_iFree, 0, other.m_iFreeCount);
+
+        m_iFreeCount    = other.m_iFreeCount;
+        m_iEnd          = end;
+        m_iCount        = other.m_iCount;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void setIdentity(int index)
+    {
+        int t = index * TRANSLATION_SIZE;
+        int r = index * ROTATION_SIZE;
+
+        m_fTranslations[t] = m_fTranslations[t + 1] = m_fTranslations[t + 2] = 0;
+        m_fRotations[r] = m_fRotations[r + 1] = m_fRotations[r + 2] = 0;
+        m_fRotations[r + 3] = 1;
+
+        computeMatrix(index);
+    }
+
+    /**
+     * Same matrix as Pose.toMatrix(), rotation of the unit quaternion then translation.
+     */
+    private void computeMatrix(int index)
+    {
+        int     t   = index * TRANSLATION_SIZE;
+        int     r   = index * ROTATION_SIZE;
+        int     o   = index * MATRIX_SIZE;
+        float   m[] = m_fMatrices;
+        float   x   = m_fRotations[r],  y = m_fRotations[r + 1],    z = m_fRotations[r + 2],    w = m_fRotations[r + 3];
+
+        m[o]        = 1 - (2 * ((y * y) + (z * z)));
+        m[o + 1]    = 2 * ((x * y) + (z * w));
+        m[o + 2]    = 2 * ((x * z) - (y * w));
+        m[o + 3]    = 0;
+        m[o + 4]    = 2 * ((x * y) - (z * w));
+        m[o + 5]    = 1 - (2 * ((x * x) + (z * z)));
+        m[o + 6]    = 2 * ((y * z) + (x * w));
+        m[o + 7]    = 0;
+        m[o + 8]    = 2 * ((x * z) + (y * w));
+        m[o + 9]    = 2 * ((y * z) - (x * w));
+        m[o + 10]   = 1 - (2 * ((x * x) + (y * y)));
+        m[o + 11]   = 0;
+        m[o + 12]   = m_fTranslations[t];
+        m[o + 13]   = m_fTranslations[t + 1];
+        m[o + 14]   = m_fTranslations[t + 2];
+        m[o + 15]   = 1;
+    }
+
+    /*
+     *
+     */
+    private void resize(int capacity)
+    {
+        m_fTranslations = copyOf(m_fTranslations, capacity * TRANSLATION_SIZE);
+        m_fRotations    = copyOf(m_fRotations, capacity * ROTATION_SIZE);
+        m_fMatrices     = copyOf(m_fMatrices, capacity * MATRIX_SIZE);
+
+        int     versions[]      = new int[capacity];
+        int     generations[]   = new int[capacity];
+        int     free[]          = new int[capacity];
+        boolean used[]          = new boolean[capacity];
+        boolean tracking[]      = new boolean[capacity];
+
+        if(m_iVersions != null)
+        {
+            System.arraycopy(m_iVersions, 0, versions, 0, m_iEnd);
+            System.arraycopy(m_iGenerations, 0, generations, 0, m_iEnd);
+            System.arraycopy(m_iFree, 0, free, 0, m_iFreeCount);
+            System.arraycopy(m_bUsed, 0, used, 0, m_iEnd);
+            System.arraycopy(m_bTracking, 0, tracking, 0, m_iEnd);
+        }
+
+        m_iVersions     = versions;
+        m_iGenerations  = generations;
+        m_iFree         = free;
+        m_bUsed         = used;
+        m_bTracking     = tracking;
+    }
+
+    /*
+     *
+     */
+    private static float[] copyOf(float source[], int length)
+    {
+        float copy[] = new float[length];
+
+        if(source != null)
+        {
+            System.arraycopy(source, 0, copy, 0, Math.min(source.length, length));
+        }
+
+        return copy;
+    }
+}
@@ -0,0 +1,169 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         SceneObject.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Entry of the SceneRegistry, a RenderableProvider placed in the world with
+ **                 its bounding volume
+ ** PREMISES:       After changing the transform, call SceneRegistry.update() so the object
+ **                 moves in the spatial index
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Transform taken from a PoseTable slot
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+
+
+public class SceneObject
+{
+    private final RenderableProvider    m_Provider;
+    private final BoundingBox           m_LocalBounds;
+    private final Matrix4               m_Transform;
+
+    // world bounding sphere, derived from the local bounds and the transform
+    final Vector3                       m_WorldCenter           = new Vector3();
+    float                               m_fWorldRadius;
+
+    // position in the spatial index
+    LooseOctree.Node                    m_Node;
+    boolean                             m_bRegistered;
+
+    // slot the transform is copied from, i.e. an anchor
+    PoseTable                           m_Poses;
+    int                                 m_iPoseHandle           = PoseTable.INVALID_HANDLE;
+    int                                 m_iPoseVersion;
+
+    private Object                      m_UserData;
+
+    /**
+     * @param provider      - what is rendered, i.e. a ModelInstance
+     * @param localBounds   - bounds in the space of the provider, copied
+     * @param transform     - world transform of the provider, referenced ( i.e. ModelInstance.transform )
+     */
+    SceneObject(RenderableProvider provider, BoundingBox localBounds, Matrix4 transform)
+    {
+        m_Provider      = provider;
+        m_LocalBounds   = new BoundingBox(localBounds);
+        m_Transform     = transform;
+
+        updateWorldBounds();
+    }
+
+    /*
+     *
+     */
+    public RenderableProvider getProvider()
+    {
+        return m_Provider;
+    }
+
+    /*
+     *
+     */
+    public Matrix4 getTransform()
+    {
+        return m_Transform;
+    }
+
+    /*
+     *
+     */
+    public BoundingBox getLocalBounds()
+    {
+        return m_LocalBounds;
+    }
+
+    /*
+     *
+     */
+    public Vector3 getWorldCenter()
+    {
+        return m_WorldCenter;
+    }
+
+    /*
+     *
+     */
+    public float getWorldRadius()
+    {
+        return m_fWorldRadius;
+    }
+
+    /**
+     * Handle of the pose the transform follows, PoseTable.INVALID_HANDLE if none.
+     */
+    public int getPoseHandle()
+    {
+        return m_iPoseHandle;
+    }
+
+    /**
+     * False while the pose the object follows is not tracked, the object is then not drawn.
+     */
+    public boolean isTracking()
+    {
+        return (m_Poses == null) || (m_Poses.isValid(m_iPoseHandle) && m_Poses.isTracking(m_iPoseHandle));
+    }
+
+    /*
+     *
+     */
+    public Object getUserData()
+    {
+        return m_UserData;
+    }
+
+    /*
+     *
+     */
+    public void setUserData(Object userData)
+    {
+        m_UserData = userData;
+    }
+
+    /**
+     * Bounding sphere of the transformed local bounds. The radius is scaled by the largest
+     * scale of the transform so it stays conservative under non uniform scaling.
+     */
+    void updateWorldBounds()
+    {
+        Vector3 min     = m_LocalBounds.min;
+        Vector3 max     = m_LocalBounds.max;
+        float   val[]   = m_Transform.val;
+
+        m_WorldCenter.set((min.x + max.x) * 0.5f, (min.y + max.y) * 0.5f, (min.z + max.z) * 0.5f).mul(m_Transform);
+
+        float halfX     = (max.x - min.x) * 0.5f;
+        float halfY     = (max.y - min.y) * 0.5f;
+        float halfZ     = (max.z - min.z) * 0.5f;
+
+        float scaleX    = (val[Matrix4.M00] * val[Matrix4.M00]) + (val[Matrix4.M10] * val[Matrix4.M10]) + (val[Matrix4.M20] * val[Matrix4.M20]);
+        float scaleY    = (val[Matrix4.M01] * val[Matrix4.M01]) + (val[Matrix4.M11] * val[Matrix4.M11]) + (val[Matrix4.M21] * val[Matrix4.M21]);
+        float scaleZ    = (val[Matrix4.M02] * val[Matrix4.M02]) + (val[Matrix4.M12] * val[Matrix4.M12]) + (val[Matrix4.M22] * val[Matrix4.M22]);
+        float maxScale  = (float)Math.sqrt(Math.max(scaleX, Math.max(scaleY, scaleZ)));
+
+        m_fWorldRadius  = (float)Math.sqrt((halfX * halfX) + (halfY * halfY) + (halfZ * halfZ)) * maxScale;
+    }
+}
@@ -0,0 +1,306 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         SceneRegistry.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Registry of the renderables placed in the AR world, culled against the
+ **                 camera frustum before they reach the ModelBatch
+ ** PREMISES:       The camera frustum must be up to date, see CameraMath.setCameraView()
+ ** REMARKS:        Bounds are bounding spheres, the renderables themselves are not split
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Objects following the poses of a PoseTable
+ **                 2026-10-18 : snapshot() of the visible objects for the GL thread
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Keeps the anchored renderables of the scene in a loose octree so that the ones outside
+ * of the view are rejected a node at a time instead of being sent to the ModelBatch, which
+ * would sort and submit every one of their meshes.
+ */
+public class SceneRegistry
+{
+    public final static float           DEFAULT_HALF_SIZE       = 32.0f;    // meters around the session origin
+    public final static int             DEFAULT_MAX_DEPTH       = 5;        // smallest cell is 2m
+
+    private final LooseOctree           m_Octree;
+    private final Array<SceneObject>    m_Visible               = new Array<SceneObject>(false, 64);
+    private final Array<SceneObject>    m_Attached              = new Array<SceneObject>(false, 64);
+    private final BoundingBox           m_TempBounds            = new BoundingBox();
+
+    /*
+     *
+     */
+    public SceneRegistry()
+    {
+        this(new Vector3(), DEFAULT_HALF_SIZE, DEFAULT_MAX_DEPTH);
+    }
+
+    /*
+     *
+     */
+    public SceneRegistry(Vector3 center, float halfSize, int maxDepth)
+    {
+        m_Octree = new LooseOctree(center, halfSize, maxDepth);
+    }
+
+    /**
+     * Adds a renderable.
+     *
+     * @param provider      - what is rendered
+     * @param localBounds   - bounds in the space of the provider
+     * @param transform     - world transform, kept as reference. Call update() after changing it
+     */
+    public SceneObject add(RenderableProvider provider, BoundingBox localBounds, Matrix4 transform)
+    {
+        SceneObject object = new SceneObject(provider, localBounds, transform);
+
+        m_Octree.insert(object);
+        object.m_bRegistered = true;
+
+        return object;
+    }
+
+    /**
+     * Adds a model instance, its bounds are taken from the model at its current pose.
+     */
+    public SceneObject add(ModelInstance instance)
+    {
+        instance.calculateBoundingBox(m_TempBounds);
+
+        return add(instance, m_TempBounds, instance.transform);
+    }
+
+    /**
+     * Makes the transform of the object follow a pose of the table, i.e. of an anchor. The
+     * transform is overwritten by the matrix of the pose by syncPoses().
+     */
+    public void attach(SceneObject object, PoseTable poses, int handle)
+    {
+        if(object.m_Poses == null)
+        {
+            m_Attached.add(object);
+        }
+
+        object.m_Poses          = poses;
+        object.m_iPoseHandle    = handle;
+        object.m_iPoseVersion   = poses.getVersion(handle) - 1;
+
+        syncPose(object);
+    }
+
+    /**
+     * Stops following the pose, the transform stays where it is.
+     */
+    public void detach(SceneObject object)
+    {
+        if(object.m_Poses != null)
+        {
+            m_Attached.removeValue(object, true);
+            object.m_Poses          = null;
+            object.m_iPoseHandle    = PoseTable.INVALID_HANDLE;
+        }
+    }
+
+    /**
+     * Copies the poses that changed since the last call into the transforms of the attached
+     * objects and moves them in the octree. Objects whose pose did not change cost a compare.
+     *
+     * @return objects moved
+     */
+    public int syncPoses()
+    {
+        int moved = 0;
+
+        for(int i = 0; i < m_Attached.size; i++)
+        {
+            if(syncPose(m_Attached.get(i)))
+            {
+                moved++;
+            }
+        }
+
+        return moved;
+    }
+
+    /*
+     *
+     */
+    public void remove(SceneObject object)
+    {
+        detach(object);
+
+        if(object.m_bRegistered)
+        {
+            m_Octree.remove(object);
+            object.m_bRegistered = false;
+        }
+    }
+
+    /**
+     * Must be called after the transform of the object changed, i.e. when its anchor moved.
+     */
+    public void update(SceneObject object)
+    {
+        object.updateWorldBounds();
+
+        if(object.m_bRegistered)
+        {
+            m_Octree.update(object);
+        }
+    }
+
+    /**
+     * Collects the objects inside the camera frustum, those following a pose that is not
+     * tracked are left out.
+     *
+     * @return the visible objects, owned by the registry and valid until the next call
+     */
+    public Array<SceneObject> cull(Camera camera)
+    {
+        m_Visible.clear();
+        m_Octree.query(camera.frustum, m_Visible);
+
+        if(m_Attached.size > 0)
+        {
+            for(int i = m_Visible.size - 1; i >= 0; i--)
+            {
+                if(!m_Visible.get(i).isTracking())
+                {
+                    m_Visible.removeIndex(i);
+                }
+            }
+        }
+
+        return m_Visible;
+    }
+
+    /**
+     * Culls then renders the visible objects. The batch must have been begun.
+     */
+    public void render(ModelBatch modelBatch, Camera camera)
+    {
+        render(modelBatch, camera, null);
+    }
+
+    /*
+     *
+     */
+    public void render(ModelBatch modelBatch, Camera camera, Environment environment)
+    {
+        Array<SceneObject> visible = cull(camera);
+
+        for(int i = 0; i < visible.size; i++)
+        {
+            if(environment != null)
+            {
+                modelBatch.render(visible.get(i).getProvider(), environment);
+            }
+            else
+            {
+                modelBatch.render(visible.get(i).getProvider());
+            }
+        }
+    }
+
+    /**
+     * Culls then writes the visible objects with a copy of their transform into the
+     * snapshot, for another thread to draw them.
+     */
+    public void snapshot(Camera camera, SceneSnapshot snapshot)
+    {
+        Array<SceneObject> visible = cull(camera);
+
+        for(int i = 0; i < visible.size; i++)
+        {
+            SceneObject object = visible.get(i);
+
+            snapshot.add(object.getProvider(), object.getTransform());
+        }
+    }
+
+    /*
+     *
+     */
+    public int getObjectCount()
+    {
+        return m_Octree.getObjectCount();
+    }
+
+    /**
+     * Objects found visible by the last cull.
+     */
+    public int getVisibleCount()
+    {
+        return m_Visible.size;
+    }
+
+    /**
+     * Objects rejected by the last cull.
+     */
+    public int getCulledCount()
+    {
+        return m_Octree.getObjectCount() - m_Visible.size;
+    }
+
+    /*
+     *
+     */
+    public LooseOctree getOctree()
+    {
+        return m_Octree;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private boolean syncPose(SceneObject object)
+    {
+        PoseTable   poses   = object.m_Poses;
+        int         handle  = object.m_iPoseHandle;
+
+        if(!poses.isValid(handle) || (poses.getVersion(handle) == object.m_iPoseVersion))
+        {
+            return false;
+        }
+
+        object.m_iPoseVersion = poses.getVersion(handle);
+        poses.getMatrix(handle, object.getTransform());
+        update(object);
+
+        return true;
+    }
+}
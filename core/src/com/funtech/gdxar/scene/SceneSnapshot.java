@@ -0,0 +1,202 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         SceneSnapshot.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Draw list of the scene taken by the update thread for the GL thread
+ ** PREMISES:       Written by one thread then read by another through a TripleBuffer, it
+ **                 is not changed while the reader holds it
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * The renderables found visible by the update thread with a copy of their world transform.
+ * The GL thread draws from it without reading the transforms the update thread keeps
+ * changing, the transform of a ModelInstance is set from the copy right before it is
+ * submitted to the batch.
+ *
+ * <p>Only the world transforms are copied. The nodes of a ModelInstance ( i.e. its
+ * animations ) must not be changed by the update thread while the instance is drawn.
+ */
+public class SceneSnapshot
+{
+    public final static int             MATRIX_SIZE             = 16;
+
+    private RenderableProvider          m_Providers[];
+    private float                       m_fTransforms[];
+    private int                         m_iCount;
+    private long                        m_lFrameId;
+    private long                        m_lTimestamp;
+
+    /*
+     *
+     */
+    public SceneSnapshot()
+    {
+        this(64);
+    }
+
+    /*
+     *
+     */
+    public SceneSnapshot(int capacity)
+    {
+        capacity        = Math.max(1, capacity);
+        m_Providers     = new RenderableProvider[capacity];
+        m_fTransforms   = new float[capacity * MATRIX_SIZE];
+    }
+
+    /**
+     * Empties the snapshot before it is written again.
+     *
+     * @param frameId   - number of the frame the snapshot is taken for
+     * @param timestamp - timestamp of the camera frame, in ns
+     */
+    public void reset(long frameId, long timestamp)
+    {
+        for(int i = 0; i < m_iCount; i++)
+        {
+            m_Providers[i] = null;
+        }
+
+        m_iCount        = 0;
+        m_lFrameId      = frameId;
+        m_lTimestamp    = timestamp;
+    }
+
+    /**
+     * Adds a renderable at its current transform, the transform is copied.
+     */
+    public void add(RenderableProvider provider, Matrix4 transform)
+    {
+        if(m_iCount == m_Providers.length)
+        {
+            grow();
+        }
+
+        m_Providers[m_iCount] = provider;
+        System.arraycopy(transform.val, 0, m_fTransforms, m_iCount * MATRIX_SIZE, MATRIX_SIZE);
+        m_iCount++;
+    }
+
+    /**
+     * Submits the renderables to the batch, which must have been begun.
+     */
+    public void render(ModelBatch modelBatch)
+    {
+        render(modelBatch, null);
+    }
+
+    /*
+     *
+     */
+    public void render(ModelBatch modelBatch, Environment environment)
+    {
+        for(int i = 0; i < m_iCount; i++)
+        {
+            RenderableProvider provider = m_Providers[i];
+
+            if(provider instanceof ModelInstance)
+            {
+                System.arraycopy(m_fTransforms, i * MATRIX_SIZE, ((ModelInstance)provider).transform.val, 0, MATRIX_SIZE);
+            }
+
+            if(environment != null)
+            {
+                modelBatch.render(provider, environment);
+            }
+            else
+            {
+                modelBatch.render(provider);
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    public int getCount()
+    {
+        return m_iCount;
+    }
+
+    /*
+     *
+     */
+    public RenderableProvider getProvider(int index)
+    {
+        return m_Providers[index];
+    }
+
+    /*
+     *
+     */
+    public Matrix4 getTransform(int index, Matrix4 out)
+    {
+        System.arraycopy(m_fTransforms, index * MATRIX_SIZE, out.val, 0, MATRIX_SIZE);
+
+        return out;
+    }
+
+    /*
+     *
+     */
+    public long getFrameId()
+    {
+        return m_lFrameId;
+    }
+
+    /*
+     *
+     */
+    public long getTimestamp()
+    {
+        return m_lTimestamp;
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void grow()
+    {
+        RenderableProvider  providers[]     = new RenderableProvider[m_Providers.length * 2];
+        float               transforms[]    = new float[providers.length * MATRIX_SIZE];
+
+        System.arraycopy(m_Providers, 0, providers, 0, m_iCount);
+        System.arraycopy(m_fTransforms, 0, transforms, 0, m_iCount * MATRIX_SIZE);
+
+        m_Providers     = providers;
+        m_fTransforms   = transforms;
+    }
+}
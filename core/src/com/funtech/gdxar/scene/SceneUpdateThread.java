@@ -0,0 +1,256 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         SceneUpdateThread.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Runs the scene logic and the culling on a thread of its own, the GL
+ **                 thread draws the latest scene snapshot it published
+ ** PREMISES:       post(), acquire(), start() and stop() are called on the GL thread
+ ** REMARKS:        The frames and the snapshots go through triple buffers, neither thread
+ **                 waits for the other
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Moved from arcore4gdx, used by CameraScene
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.math.CameraMath;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The GL thread posts the camera data and the anchor poses of each frame. The update thread
+ * takes the latest one, copies the poses into the objects of its scene registry, runs the
+ * listener, culls against the camera of the frame and publishes the visible objects as a
+ * SceneSnapshot. The GL thread then draws the latest snapshot with the camera of the current
+ * frame, so the scene lags the camera image by the time the update takes, at most.
+ *
+ * <p>The scene registry and the pose copy belong to the update thread, the listener is the
+ * only place they may be used from. The thread sleeps while no frame is posted.
+ */
+public class SceneUpdateThread implements Runnable
+{
+    private static final String         THREAD_NAME             = "SceneUpdate";
+
+    /**
+     * Scene logic, called on the update thread.
+     */
+    public interface Listener
+    {
+        /**
+         * @param frameSnapshot - camera data of the frame, a copy without the device frame
+         * @param deltaTime     - seconds since the last update
+         */
+        void update(CameraSnapshot frameSnapshot, float deltaTime);
+    }
+
+    /*
+     * Data of one frame, from the GL thread to the update thread.
+     */
+    private static class Input
+    {
+        final CameraSnapshot            m_FrameSnapshot         = new CameraSnapshot();
+        final PoseTable                 m_Poses                 = new PoseTable();
+        long                            m_lFrameId;
+    }
+
+    private final Listener                      m_Listener;
+    private final TripleBuffer<Input>           m_Inputs;
+    private final TripleBuffer<SceneSnapshot>   m_Snapshots;
+    private final SceneRegistry                 m_SceneRegistry     = new SceneRegistry();
+    private final PoseTable                     m_Poses             = new PoseTable();
+    private final PerspectiveCamera             m_Camera            = new PerspectiveCamera();
+
+    private Thread                              m_Thread;
+    private volatile boolean                    m_bRunning;
+    private volatile Throwable                  m_Error;
+    private volatile long                       m_lUpdateTimeNs;
+    private long                                m_lFrameId;             // GL thread
+    private long                                m_lLastUpdateNs;        // update thread
+
+    /*
+     *
+     */
+    public SceneUpdateThread(Listener listener)
+    {
+        m_Listener  = listener;
+        m_Inputs    = new TripleBuffer<Input>(new Input(), new Input(), new Input());
+        m_Snapshots = new TripleBuffer<SceneSnapshot>(new SceneSnapshot(), new SceneSnapshot(), new SceneSnapshot());
+    }
+
+    /*
+     *
+     */
+    public void start()
+    {
+        if(m_Thread == null)
+        {
+            m_bRunning      = true;
+            m_lLastUpdateNs = 0;
+            m_Thread        = new Thread(this, THREAD_NAME);
+            m_Thread.setDaemon(true);
+            m_Thread.start();
+        }
+    }
+
+    /**
+     * Stops the thread and waits for the update in progress, if any.
+     */
+    public void stop()
+    {
+        if(m_Thread != null)
+        {
+            m_bRunning = false;
+            LockSupport.unpark(m_Thread);
+
+            try
+            {
+                m_Thread.join();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            m_Thread = null;
+        }
+    }
+
+    /**
+     * Hands the data of the current frame to the update thread, copied.
+     *
+     * @param frameSnapshot - camera data of the frame
+     * @param poses         - poses of the anchors, copied to getPoses() by the update thread
+     */
+    public void post(CameraSnapshot frameSnapshot, PoseTable poses)
+    {
+        Input input = m_Inputs.getWriteBuffer();
+
+        // a plain CameraSnapshot, the device frame of a subclass is not copied
+        input.m_FrameSnapshot.set(frameSnapshot);
+        input.m_Poses.set(poses);
+        input.m_lFrameId = ++m_lFrameId;
+
+        m_Inputs.publish();
+        LockSupport.unpark(m_Thread);
+    }
+
+    /**
+     * Latest scene published by the update thread, empty until the first one. It is not
+     * changed until the next call.
+     */
+    public SceneSnapshot acquire()
+    {
+        Throwable error = m_Error;
+
+        if(error != null)
+        {
+            throw new GdxRuntimeException("Scene update failed", error);
+        }
+
+        return m_Snapshots.acquire();
+    }
+
+    /**
+     * Objects of the scene, to be used from the listener only.
+     */
+    public SceneRegistry getSceneRegistry()
+    {
+        return m_SceneRegistry;
+    }
+
+    /**
+     * Copy of the anchor poses the objects of the scene registry are attached to, to be used
+     * from the listener only.
+     */
+    public PoseTable getPoses()
+    {
+        return m_Poses;
+    }
+
+    /**
+     * Time the last update took, in ns.
+     */
+    public long getUpdateTime()
+    {
+        return m_lUpdateTimeNs;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while(m_bRunning)
+            {
+                if(!m_Inputs.hasNew())
+                {
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                update(m_Inputs.acquire());
+            }
+        }
+        catch(Throwable t)
+        {
+            m_Error = t;
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private void update(Input input)
+    {
+        long            start           = System.nanoTime();
+        float           deltaTime       = (m_lLastUpdateNs != 0) ? ((start - m_lLastUpdateNs) / 1000000000.0f) : 0;
+        CameraSnapshot  frameSnapshot   = input.m_FrameSnapshot;
+
+        m_lLastUpdateNs = start;
+
+        m_Poses.set(input.m_Poses);
+        m_SceneRegistry.syncPoses();
+
+        m_Camera.projection.set(frameSnapshot.getProjectionMatrix());
+        CameraMath.setCameraView(m_Camera, frameSnapshot.getViewMatrix(), frameSnapshot.getPose());
+
+        m_Listener.update(frameSnapshot, deltaTime);
+
+        SceneSnapshot snapshot = m_Snapshots.getWriteBuffer();
+
+        snapshot.reset(input.m_lFrameId, frameSnapshot.getTimestamp());
+        m_SceneRegistry.snapshot(m_Camera, snapshot);
+        m_Snapshots.publish();
+
+        m_lUpdateTimeNs = System.nanoTime() - start;
+    }
+}
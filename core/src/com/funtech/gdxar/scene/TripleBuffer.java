@@ -0,0 +1,97 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TripleBuffer.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Lock-free exchange of the latest of three preallocated objects between
+ **                 one producer and one consumer thread
+ ** PREMISES:       getWriteBuffer() / publish() are called from the producer thread only,
+ **                 acquire() from the consumer thread only
+ ** REMARKS:        Neither side ever waits for the other, the consumer may skip objects
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The producer fills the back buffer then publishes it, which swaps it with the middle one.
+ * The consumer swaps the middle buffer with its front one when a new one was published, and
+ * otherwise keeps the front one. Each side owns its buffer until it swaps again, so nothing
+ * is copied and there is no lock; the swap is a single atomic exchange.
+ */
+public class TripleBuffer<T>
+{
+    private final static int            INDEX_MASK              = 0x3;
+    private final static int            FRESH                   = 0x4;     // middle was published and not acquired yet
+
+    private final T                     m_Buffers[];
+    private final AtomicInteger         m_iMiddle               = new AtomicInteger(1);
+    private int                         m_iBack                 = 0;        // producer thread
+    private int                         m_iFront                = 2;        // consumer thread
+
+    /*
+     *
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(T first, T second, T third)
+    {
+        m_Buffers = (T[])new Object[] {first, second, third};
+    }
+
+    /**
+     * Buffer the producer fills, the same until publish().
+     */
+    public T getWriteBuffer()
+    {
+        return m_Buffers[m_iBack];
+    }
+
+    /**
+     * Makes the write buffer the latest one. The producer gets the buffer previously
+     * published or consumed, never the one the consumer holds.
+     */
+    public void publish()
+    {
+        m_iBack = m_iMiddle.getAndSet(m_iBack | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Latest published buffer, or the one of the last call if nothing was published since.
+     * It is left untouched by the producer until the next call.
+     */
+    public T acquire()
+    {
+        if((m_iMiddle.get() & FRESH) != 0)
+        {
+            m_iFront = m_iMiddle.getAndSet(m_iFront) & INDEX_MASK;
+        }
+
+        return m_Buffers[m_iFront];
+    }
+
+    /**
+     * True if a buffer was published since the last acquire().
+     */
+    public boolean hasNew()
+    {
+        return (m_iMiddle.get() & FRESH) != 0;
+    }
+}
@@ -0,0 +1,272 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameMetrics.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Records the CPU time and the interval of each frame for percentile and
+ **                 jank reporting
+ ** PREMISES:       beginFrame() / endFrame() are called from the render thread, read() may
+ **                 be called from any thread with its own Stats object
+ ** REMARKS:        Times are recorded in microseconds
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class FrameMetrics
+{
+    private final static long       HIGHEST_TIME_US             = 10000000L;   // 10 s
+    private final static long       JANK_THRESHOLD_DEFAULT_US   = 25000L;      // 1.5 frames at 60 Hz
+
+    private final LogHistogram      m_CpuTime                   = new LogHistogram(HIGHEST_TIME_US);
+    private final LogHistogram      m_Interval                  = new LogHistogram(HIGHEST_TIME_US);
+    private final AtomicLong        m_lJankCount                = new AtomicLong();
+    private final long              m_lJankThresholdUs;
+
+    private long                    m_lFrameBeginNs;
+    private long                    m_lLastFrameBeginNs;
+
+    /*
+     *
+     */
+    public FrameMetrics()
+    {
+        this(JANK_THRESHOLD_DEFAULT_US);
+    }
+
+    /**
+     * @param jankThresholdUs - frame interval above which a frame counts as jank
+     */
+    public FrameMetrics(long jankThresholdUs)
+    {
+        m_lJankThresholdUs = jankThresholdUs;
+    }
+
+    /**
+     * Marks the start of the frame. The interval is measured from begin to begin.
+     */
+    public void beginFrame()
+    {
+        long now = System.nanoTime();
+
+        if(m_lLastFrameBeginNs != 0)
+        {
+            long interval = (now - m_lLastFrameBeginNs) / 1000L;
+
+            m_Interval.record(interval);
+
+            if(interval > m_lJankThresholdUs)
+            {
+                m_lJankCount.incrementAndGet();
+            }
+        }
+
+        m_lLastFrameBeginNs = now;
+        m_lFrameBeginNs     = now;
+    }
+
+    /**
+     * Marks the end of the CPU work of the frame started with beginFrame().
+     */
+    public void endFrame()
+    {
+        if(m_lFrameBeginNs != 0)
+        {
+            m_CpuTime.record((System.nanoTime() - m_lFrameBeginNs) / 1000L);
+            m_lFrameBeginNs = 0;
+        }
+    }
+
+    /**
+     * Forgets the last frame start, i.e. after a pause so the pause is not counted as jank.
+     */
+    public void skipInterval()
+    {
+        m_lLastFrameBeginNs = 0;
+    }
+
+    /*
+     *
+     */
+    public long getJankThreshold()
+    {
+        return m_lJankThresholdUs;
+    }
+
+    /*
+     *
+     */
+    public Stats createStats()
+    {
+        return new Stats(m_CpuTime.getBucketCount());
+    }
+
+    /**
+     * Fills stats with the values of the frames recorded since the previous read() with the
+     * same Stats object. Does not block the render thread and does not allocate.
+     */
+    public void read(Stats stats)
+    {
+        stats.m_CpuTime.update(m_CpuTime);
+        stats.m_Interval.update(m_Interval);
+
+        long jankCount          = m_lJankCount.get();
+        stats.m_lJankCount      = jankCount - stats.m_lLastJankCount;
+        stats.m_lLastJankCount  = jankCount;
+    }
+
+
+
+    /********************************************************************************
+     *                              PUBLIC CLASSES                                  *
+     ********************************************************************************/
+
+    /**
+     * Percentiles of one histogram over the window between two reads.
+     */
+    public static class Percentiles
+    {
+        private final long          m_lLastCounts[];
+        private final long          m_lCounts[];
+        private long                m_lCount;
+        private long                m_lP50;
+        private long                m_lP95;
+        private long                m_lP99;
+        private long                m_lMax;
+
+        /*
+         *
+         */
+        Percentiles(int bucketCount)
+        {
+            m_lLastCounts   = new long[bucketCount];
+            m_lCounts       = new long[bucketCount];
+        }
+
+        /*
+         *
+         */
+        void update(LogHistogram histogram)
+        {
+            histogram.copyCounts(m_lCounts);
+
+            m_lCount = 0;
+
+            for(int i = 0; i < m_lCounts.length; i++)
+            {
+                long count          = m_lCounts[i];
+                m_lCounts[i]        = count - m_lLastCounts[i];
+                m_lLastCounts[i]    = count;
+                m_lCount           += m_lCounts[i];
+            }
+
+            m_lP50  = LogHistogram.getValueAtPercentile(m_lCounts, m_lCount, 50.0);
+            m_lP95  = LogHistogram.getValueAtPercentile(m_lCounts, m_lCount, 95.0);
+            m_lP99  = LogHistogram.getValueAtPercentile(m_lCounts, m_lCount, 99.0);
+            m_lMax  = Math.min(LogHistogram.getHighestValue(m_lCounts), histogram.getMaxValue());
+        }
+
+        /*
+         *
+         */
+        public long getCount()
+        {
+            return m_lCount;
+        }
+
+        /*
+         *
+         */
+        public long getP50()
+        {
+            return m_lP50;
+        }
+
+        /*
+         *
+         */
+        public long getP95()
+        {
+            return m_lP95;
+        }
+
+        /*
+         *
+         */
+        public long getP99()
+        {
+            return m_lP99;
+        }
+
+        /*
+         *
+         */
+        public long getMax()
+        {
+            return m_lMax;
+        }
+    }
+
+    /**
+     * Frame statistics in microseconds. Each reader owns its Stats object.
+     */
+    public static class Stats
+    {
+        private final Percentiles   m_CpuTime;
+        private final Percentiles   m_Interval;
+        private long                m_lJankCount;
+        private long                m_lLastJankCount;
+
+        /*
+         *
+         */
+        Stats(int bucketCount)
+        {
+            m_CpuTime   = new Percentiles(bucketCount);
+            m_Interval  = new Percentiles(bucketCount);
+        }
+
+        /*
+         *
+         */
+        public Percentiles getCpuTime()
+        {
+            return m_CpuTime;
+        }
+
+        /*
+         *
+         */
+        public Percentiles getInterval()
+        {
+            return m_Interval;
+        }
+
+        /*
+         *
+         */
+        public long getJankCount()
+        {
+            return m_lJankCount;
+        }
+    }
+}
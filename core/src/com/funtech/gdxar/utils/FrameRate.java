@@ -22,16 +22,21 @@
  ** PREMISES:
  ** REMARKS:
  ** HISTORY:        2017-07-05 : Creation
+ **                 2026-10-18 : Added display modes for the FrameMetrics percentiles
+ **                 2026-10-18 : Added display mode for the GPU memory
+ **                 2026-10-18 : Draws into the shared HudLayer instead of its own batch and font
+ **                 2026-10-18 : Numbers drawn by NumericText, nothing is allocated per frame
  ** REVIEW:
  ********************************************************************************/
 
 package com.funtech.gdxar.utils;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.utils.Disposable;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.graphics.HudLayer;
+import com.funtech.gdxar.graphics.NumericText;
 
 
 public class FrameRate implements Disposable
@@ -40,11 +45,23 @@ public class FrameRate implements Disposable
     private final static String     DEBUG_CLASS_NAME            = FrameRate.class.toString();
     private final int               X_POSITION_DEFAULT          = 4;
     private final int               Y_OFFSET_DEFAULT            = 4;
-
-    private int                     m_iFrameRate;
-    private BitmapFont              m_font                      = null;
-    private SpriteBatch             m_spriteBatch               = null;
-    private OrthographicCamera      m_orthoCamera               = null;
+    private final long              STATS_REFRESH_NS            = 500000000L;
+
+    public final static int         MODE_FPS                    = 0;        // Gdx.graphics.getFramesPerSecond()
+    public final static int         MODE_CPU_TIME               = 1;        // p50 / p95 / p99 / max of the frame CPU time
+    public final static int         MODE_FRAME_INTERVAL         = 2;        // p50 / p95 / p99 / max of the frame interval
+    public final static int         MODE_JANK                   = 3;        // frames above the jank threshold
+    public final static int         MODE_GPU_MEMORY             = 4;        // resident / budget, evictions and restores
+
+    private int                     m_iDisplayMode              = MODE_FPS;
+    private FrameMetrics            m_FrameMetrics              = null;
+    private FrameMetrics.Stats      m_Stats                     = null;
+    private GpuResourceRegistry     m_ResourceRegistry          = null;
+    private long                    m_lLastRefreshNs;
+    private final Color             m_Color                     = new Color(Color.WHITE);
+    private NumericText             m_Texts[]                   = null;     // of m_iTextMode, drawn by m_TextHud
+    private HudLayer                m_TextHud                   = null;
+    private int                     m_iTextMode                 = -1;
     private int                     m_iPosX, m_iPosY;
     private boolean                 m_bIsPaused                 = false;    // flag to keep track that we are paused. For use in cases
                                                                             // the external wants us to pause and not keep rendering
@@ -71,7 +88,6 @@ public class FrameRate implements Disposable
 
         setPosition(x, y);
         m_bIsPaused = false;
-        loadAssets();
 
         if(ENABLE_DEBUG)
         {
@@ -86,34 +102,102 @@ public class FrameRate implements Disposable
     {
         m_iPosX = x;
         m_iPosY = y;
+
+        layoutTexts();
+    }
+
+    /**
+     * Sets the metrics to display in the MODE_CPU_TIME, MODE_FRAME_INTERVAL and MODE_JANK modes.
+     */
+    public void setFrameMetrics(FrameMetrics frameMetrics)
+    {
+        m_FrameMetrics   = frameMetrics;
+        m_Stats          = (frameMetrics != null) ? frameMetrics.createStats() : null;
+        m_lLastRefreshNs = 0;
+    }
+
+    /**
+     * Registry displayed in the MODE_GPU_MEMORY mode.
+     */
+    public void setResourceRegistry(GpuResourceRegistry registry)
+    {
+        m_ResourceRegistry  = registry;
+        m_lLastRefreshNs    = 0;
     }
 
     /*
      *
      */
-    public void resize(int screenWidth, int screenHeight)
+    public void setColor(Color color)
     {
-        m_orthoCamera   = null;
-        m_orthoCamera   = new OrthographicCamera(screenWidth, screenHeight);
-        m_orthoCamera.translate(screenWidth / 2, screenHeight / 2);
-        m_orthoCamera.update();
-        m_spriteBatch.setProjectionMatrix(m_orthoCamera.combined);
+        m_Color.set(color);
 
-        setPosition(X_POSITION_DEFAULT, screenHeight - Y_OFFSET_DEFAULT);
+        for(int i = 0; (m_Texts != null) && (i < m_Texts.length); i++)
+        {
+            m_Texts[i].setColor(m_Color);
+        }
+    }
+
+    /**
+     * @param mode - one of the MODE_ values. Falls back to MODE_FPS without FrameMetrics, or
+     *               without GpuResourceRegistry for MODE_GPU_MEMORY
+     */
+    public void setDisplayMode(int mode)
+    {
+        m_iDisplayMode   = mode;
+        m_lLastRefreshNs = 0;
+    }
+
+    /*
+     *
+     */
+    public int getDisplayMode()
+    {
+        return m_iDisplayMode;
     }
 
     /*
      *
      */
-    public void render()
+    public void resize(int screenWidth, int screenHeight)
+    {
+        setPosition(X_POSITION_DEFAULT, screenHeight - Y_OFFSET_DEFAULT);
+    }
+
+    /**
+     * Queues the text in the layer, drawn by its next flush(). The texts of a mode are
+     * created the first time it is drawn, then only their digits change.
+     */
+    public void render(HudLayer hud)
     {
         if(m_bIsPaused) return;
 
-        m_iFrameRate    = Gdx.graphics.getFramesPerSecond();
+        int mode = getShownMode();
+
+        if((hud != m_TextHud) || (mode != m_iTextMode))
+        {
+            createTexts(hud, mode);
+        }
+
+        switch(mode)
+        {
+            case MODE_FPS:
+                m_Texts[0].setValue(Gdx.graphics.getFramesPerSecond());
+                break;
+
+            case MODE_GPU_MEMORY:
+                updateGpuMemoryTexts();
+                break;
+
+            default:
+                updateStatsTexts();
+                break;
+        }
 
-        m_spriteBatch.begin();
-        m_font.draw(m_spriteBatch, m_iFrameRate + " fps", m_iPosX, m_iPosY);
-        m_spriteBatch.end();
+        for(int i = 0; i < m_Texts.length; i++)
+        {
+            hud.text(m_Texts[i]);
+        }
     }
 
     /*
@@ -144,7 +228,6 @@ public class FrameRate implements Disposable
             Gdx.app.log(DEBUG_CLASS_NAME, "+resume()");
         }
 
-        loadAssets();
         m_bIsPaused = false;
 
         if(ENABLE_DEBUG)
@@ -163,12 +246,11 @@ public class FrameRate implements Disposable
             Gdx.app.log(DEBUG_CLASS_NAME, "+dispose()");
         }
 
-        m_font.dispose();
-        m_font          = null;
-        m_spriteBatch.dispose();
-        m_spriteBatch   = null;
-        m_orthoCamera   = null;
-        
+        m_FrameMetrics      = null;
+        m_ResourceRegistry  = null;
+        m_Texts             = null;
+        m_TextHud           = null;
+
         if(ENABLE_DEBUG)
         {
             Gdx.app.log(DEBUG_CLASS_NAME, "-dispose()");
@@ -186,53 +268,178 @@ public class FrameRate implements Disposable
      *                              PRIVATE                                         *
      ********************************************************************************/
 
-    /*
-     *
+    /**
+     * The display mode, or MODE_FPS when the data of the display mode is missing.
      */
-    private void loadAssets()
+    private int getShownMode()
     {
-        if(ENABLE_DEBUG)
+        if(m_iDisplayMode == MODE_GPU_MEMORY)
         {
-            Gdx.app.log(DEBUG_CLASS_NAME, "+loadAssets()");
+            return (m_ResourceRegistry != null) ? MODE_GPU_MEMORY : MODE_FPS;
         }
-
-        if(null == m_spriteBatch)
+        else
+        if((m_iDisplayMode == MODE_FPS) || (m_FrameMetrics == null))
         {
-            if(ENABLE_DEBUG)
-            {
-                Gdx.app.log(DEBUG_CLASS_NAME, "loadAssets() - m_spriteBatch is null");
-            }
+            return MODE_FPS;
+        }
 
-            m_spriteBatch       = new SpriteBatch();
+        return m_iDisplayMode;
+    }
+
+    /**
+     * Label, cells, decimals and suffix of each number of the mode, one after the other on
+     * the line.
+     */
+    private void createTexts(HudLayer hud, int mode)
+    {
+        switch(mode)
+        {
+            case MODE_CPU_TIME:
+            case MODE_FRAME_INTERVAL:
+                m_Texts = new NumericText[]
+                            {
+                                new NumericText(hud, (mode == MODE_CPU_TIME) ? "cpu p50 " : "frame p50 ", "ms", 4, 1),
+                                new NumericText(hud, " p95 ", "ms", 4, 1),
+                                new NumericText(hud, " p99 ", "ms", 4, 1),
+                                new NumericText(hud, " max ", "ms", 4, 1)
+                            };
+                break;
+
+            case MODE_JANK:
+                m_Texts = new NumericText[]
+                            {
+                                new NumericText(hud, "jank ", "", 5, 0),
+                                new NumericText(hud, " / ", "", 5, 0),
+                                new NumericText(hud, " > ", "ms", 4, 1)
+                            };
+                break;
+
+            case MODE_GPU_MEMORY:
+                m_Texts = new NumericText[]
+                            {
+                                new NumericText(hud, "gpu ", "MB", 4, 1),
+                                new NumericText(hud, " / ", "MB", 4, 1),
+                                new NumericText(hud, " evicted ", "", 5, 0),
+                                new NumericText(hud, " restored ", "", 5, 0)
+                            };
+                break;
+
+            case MODE_FPS:
+            default:
+                m_Texts = new NumericText[] { new NumericText(hud, "", " fps", 3, 0) };
+                break;
         }
 
-        if(null == m_orthoCamera)
+        m_TextHud        = hud;
+        m_iTextMode      = mode;
+        m_lLastRefreshNs = 0;
+
+        setColor(m_Color);
+        layoutTexts();
+    }
+
+    /*
+     *
+     */
+    private void layoutTexts()
+    {
+        float x = m_iPosX;
+
+        for(int i = 0; (m_Texts != null) && (i < m_Texts.length); i++)
         {
-            if(ENABLE_DEBUG)
-            {
-                Gdx.app.log(DEBUG_CLASS_NAME, "loadAssets() - m_orthoCamera is null");
-            }
+            m_Texts[i].setPosition(x, m_iPosY);
+            x += m_Texts[i].getWidth();
+        }
+    }
 
-            int m_iScreenWidth  = Gdx.graphics.getWidth();
-            int m_iScreenHeight = Gdx.graphics.getHeight();
-            m_orthoCamera       = new OrthographicCamera(m_iScreenWidth, m_iScreenHeight);
+    /**
+     * The statistics are read over a STATS_REFRESH_NS window, so the texts only change twice
+     * per second and show the percentiles of that window.
+     */
+    private void updateStatsTexts()
+    {
+        if(!isRefreshDue())
+        {
+            return;
         }
 
-        if(null == m_font)
+        m_FrameMetrics.read(m_Stats);
+
+        switch(m_iTextMode)
         {
-            if(ENABLE_DEBUG)
-            {
-                Gdx.app.log(DEBUG_CLASS_NAME, "loadAssets() - font is null");
-            }
+            case MODE_CPU_TIME:
+                setPercentiles(m_Stats.getCpuTime());
+                break;
+
+            case MODE_FRAME_INTERVAL:
+                setPercentiles(m_Stats.getInterval());
+                break;
+
+            case MODE_JANK:
+            default:
+                m_Texts[0].setValue(m_Stats.getJankCount());
+                m_Texts[1].setValue(m_Stats.getInterval().getCount());
+                m_Texts[2].setFixed(toTenths(m_FrameMetrics.getJankThreshold()));
+                break;
+        }
+    }
 
-            m_font              = new BitmapFont();
-            m_font.getData().setScale(2, 2);
+    /*
+     *
+     */
+    private void updateGpuMemoryTexts()
+    {
+        if(!isRefreshDue())
+        {
+            return;
         }
-        
-        if(ENABLE_DEBUG)
+
+        m_Texts[0].setFixed(toTenthsOfMegabyte(m_ResourceRegistry.getResidentBytes()));
+        m_Texts[1].setFixed(toTenthsOfMegabyte(m_ResourceRegistry.getBudget()));
+        m_Texts[2].setValue(m_ResourceRegistry.getEvictionCount());
+        m_Texts[3].setValue(m_ResourceRegistry.getRestoreCount());
+    }
+
+    /*
+     *
+     */
+    private boolean isRefreshDue()
+    {
+        long now = System.nanoTime();
+
+        if((m_lLastRefreshNs != 0) && ((now - m_lLastRefreshNs) < STATS_REFRESH_NS))
         {
-            Gdx.app.log(DEBUG_CLASS_NAME, "-loadAssets()");
+            return false;
         }
+
+        m_lLastRefreshNs = now;
+        return true;
+    }
+
+    /*
+     *
+     */
+    private void setPercentiles(FrameMetrics.Percentiles percentiles)
+    {
+        m_Texts[0].setFixed(toTenths(percentiles.getP50()));
+        m_Texts[1].setFixed(toTenths(percentiles.getP95()));
+        m_Texts[2].setFixed(toTenths(percentiles.getP99()));
+        m_Texts[3].setFixed(toTenths(percentiles.getMax()));
+    }
+
+    /**
+     * Microseconds as tenths of milliseconds, rounded.
+     */
+    private static long toTenths(long micros)
+    {
+        return (micros + 50) / 100;
     }
-}
 
+    /**
+     * Same as toTenths() for bytes as megabytes.
+     */
+    private static long toTenthsOfMegabyte(long bytes)
+    {
+        return ((bytes * 10) + (512 * 1024)) >> 20;
+    }
+}
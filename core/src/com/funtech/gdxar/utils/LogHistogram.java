@@ -0,0 +1,218 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LogHistogram.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Fixed memory, log bucketed histogram of positive long values
+ ** PREMISES:       Values are recorded from any thread without locks, readers copy the
+ **                 counts and compute percentiles on their own copy
+ ** REMARKS:        Each power of two range is split into SUB_BUCKET_COUNT linear buckets,
+ **                 so a reported value is at most 1 / SUB_BUCKET_COUNT above the real one
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+public class LogHistogram
+{
+    private final static int        SUB_BUCKET_BITS             = 4;
+    private final static int        SUB_BUCKET_COUNT            = 1 << SUB_BUCKET_BITS;
+    private final static int        SUB_BUCKET_MASK             = SUB_BUCKET_COUNT - 1;
+
+    private final AtomicLongArray   m_Counts;
+    private final AtomicLong        m_lTotalCount               = new AtomicLong();
+    private final AtomicLong        m_lMaxValue                 = new AtomicLong();
+    private final long              m_lHighestValue;
+
+    /**
+     * @param highestValue - values above are counted in the last bucket
+     */
+    public LogHistogram(long highestValue)
+    {
+        m_lHighestValue = Math.max(highestValue, SUB_BUCKET_COUNT);
+        m_Counts        = new AtomicLongArray(getBucketIndex(m_lHighestValue) + 1);
+    }
+
+    /**
+     * Counts a value. Negative values are counted as 0. Does not allocate.
+     */
+    public void record(long value)
+    {
+        if(value < 0)
+        {
+            value = 0;
+        }
+
+        m_Counts.incrementAndGet(getBucketIndex(Math.min(value, m_lHighestValue)));
+        m_lTotalCount.incrementAndGet();
+
+        long max = m_lMaxValue.get();
+
+        while((value > max) && !m_lMaxValue.compareAndSet(max, value))
+        {
+            max = m_lMaxValue.get();
+        }
+    }
+
+    /*
+     *
+     */
+    public int getBucketCount()
+    {
+        return m_Counts.length();
+    }
+
+    /*
+     *
+     */
+    public long getTotalCount()
+    {
+        return m_lTotalCount.get();
+    }
+
+    /**
+     * Largest value recorded, exact and not limited to highestValue.
+     */
+    public long getMaxValue()
+    {
+        return m_lMaxValue.get();
+    }
+
+    /**
+     * Copies the bucket counts. The copy is not an atomic snapshot, values recorded during
+     * the copy may or may not be included.
+     *
+     * @param counts - array of at least getBucketCount() entries
+     * @return the sum of the copied counts
+     */
+    public long copyCounts(long counts[])
+    {
+        long total = 0;
+
+        for(int i = 0; i < m_Counts.length(); i++)
+        {
+            counts[i]   = m_Counts.get(i);
+            total      += counts[i];
+        }
+
+        return total;
+    }
+
+    /**
+     * Value at the given percentile of a copy of the counts, i.e. the difference between two
+     * copies to get the percentile of a time window.
+     *
+     * @param counts        - bucket counts as returned from copyCounts()
+     * @param totalCount    - sum of counts
+     * @param percentile    - 0 to 100
+     * @return upper bound of the bucket holding the percentile, 0 if nothing was counted
+     */
+    public static long getValueAtPercentile(long counts[], long totalCount, double percentile)
+    {
+        if(totalCount <= 0)
+        {
+            return 0;
+        }
+
+        long target = (long)Math.ceil((percentile / 100.0) * totalCount);
+        long sum    = 0;
+
+        if(target < 1)
+        {
+            target = 1;
+        }
+
+        for(int i = 0; i < counts.length; i++)
+        {
+            sum += counts[i];
+
+            if(sum >= target)
+            {
+                return getBucketUpperBound(i);
+            }
+        }
+
+        return getBucketUpperBound(counts.length - 1);
+    }
+
+    /**
+     * Upper bound of the highest non empty bucket of a copy of the counts.
+     */
+    public static long getHighestValue(long counts[])
+    {
+        for(int i = counts.length - 1; i >= 0; i--)
+        {
+            if(counts[i] > 0)
+            {
+                return getBucketUpperBound(i);
+            }
+        }
+
+        return 0;
+    }
+
+    /*
+     *
+     */
+    public static int getBucketIndex(long value)
+    {
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int)value;
+        }
+
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int)((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    /*
+     *
+     */
+    public static long getBucketLowerBound(int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+
+        return ((long)(SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK))) << shift;
+    }
+
+    /*
+     *
+     */
+    public static long getBucketUpperBound(int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+
+        return getBucketLowerBound(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,69 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         VertexUtils.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Vertex buffer helpers that write in place, without temporary arrays
+ ** PREMISES:
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.utils;
+
+import java.nio.FloatBuffer;
+
+
+public class VertexUtils
+{
+    /**
+     * Interleaves positions and texture coordinates into a vertex buffer with absolute puts,
+     * the position and limit of the buffers are not changed.
+     *
+     * @param positions         - positionSize floats per vertex
+     * @param texCoords         - texCoordSize floats per vertex
+     * @param vertices          - ( positionSize + texCoordSize ) floats per vertex
+     * @param isWritePositions  - false to only update the texture coordinates
+     */
+    public static void interleave(float positions[], int positionSize, FloatBuffer texCoords, int texCoordSize,
+                                  int vertexCount, FloatBuffer vertices, boolean isWritePositions)
+    {
+        int vertexSize = positionSize + texCoordSize;
+
+        for(int i = 0; i < vertexCount; i++)
+        {
+            int index = i * vertexSize;
+
+            if(isWritePositions)
+            {
+                for(int j = 0; j < positionSize; j++)
+                {
+                    vertices.put(index + j, positions[(i * positionSize) + j]);
+                }
+            }
+
+            index += positionSize;
+
+            for(int j = 0; j < texCoordSize; j++)
+            {
+                vertices.put(index + j, texCoords.get((i * texCoordSize) + j));
+            }
+        }
+    }
+}
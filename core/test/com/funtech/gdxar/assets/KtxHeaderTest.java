@@ -0,0 +1,305 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         KtxHeaderTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of KtxHeader
+ ** PREMISES:       The files are built in memory, level by level
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.assets;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class KtxHeaderTest
+{
+    private final static int    GL_ETC1_RGB8_OES    = 0x8D64;
+    private final static int    RGBA_LEVELS[]       = { 8 * 4 * 4, 4 * 2 * 4, 2 * 1 * 4, 1 * 1 * 4 };
+
+    /*
+     *
+     */
+    @Test
+    public void parsesUncompressedLittleEndian()
+    {
+        KtxHeader header = KtxHeader.parse(createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0));
+
+        assertEquals(ByteOrder.LITTLE_ENDIAN, header.getByteOrder());
+        assertFalse(header.isCompressed());
+        assertEquals(GL20.GL_UNSIGNED_BYTE, header.getGlType());
+        assertEquals(GL20.GL_RGBA, header.getGlFormat());
+        assertEquals(GL20.GL_RGBA, header.getGlInternalFormat());
+        assertEquals(8, header.getWidth());
+        assertEquals(4, header.getHeight());
+        assertEquals(4, header.getLevelCount());
+        assertFalse(header.isMipMapGenerated());
+        assertLevels(header, 0);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void parsesBigEndianAndSkipsKeyValueData()
+    {
+        KtxHeader header = KtxHeader.parse(createKtx(ByteOrder.BIG_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 24));
+
+        assertEquals(ByteOrder.BIG_ENDIAN, header.getByteOrder());
+        assertEquals(8, header.getWidth());
+        assertEquals(4, header.getLevelCount());
+        assertLevels(header, 24);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void padsCompressedLevelsToFourBytes()
+    {
+        int         sizes[] = { 10, 6, 1 };
+        KtxHeader   header  = KtxHeader.parse(createKtx(ByteOrder.LITTLE_ENDIAN, 0, 0, 4, 4, 3, sizes, 0));
+
+        assertTrue(header.isCompressed());
+        assertEquals(GL_ETC1_RGB8_OES, header.getGlInternalFormat());
+        assertEquals(KtxHeader.HEADER_SIZE + 4, header.getLevelOffset(0));
+        assertEquals(KtxHeader.HEADER_SIZE + 4 + 12 + 4, header.getLevelOffset(1));
+        assertEquals(KtxHeader.HEADER_SIZE + 4 + 12 + 4 + 8 + 4, header.getLevelOffset(2));
+        assertEquals(1, header.getLevelSize(2));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void zeroLevelsMeansGeneratedMipMaps()
+    {
+        int         sizes[] = { RGBA_LEVELS[0] };
+        KtxHeader   header  = KtxHeader.parse(createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 0, sizes, 0));
+
+        assertTrue(header.isMipMapGenerated());
+        assertEquals(1, header.getLevelCount());
+        assertEquals(RGBA_LEVELS[0], header.getLevelSize(0));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void levelDimensionsStopAtOne()
+    {
+        KtxHeader header = KtxHeader.parse(createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0));
+
+        assertEquals(2, header.getLevelWidth(2));
+        assertEquals(1, header.getLevelHeight(2));
+        assertEquals(1, header.getLevelWidth(3));
+        assertEquals(1, header.getLevelHeight(3));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void selectsTheLevelThatFits()
+    {
+        KtxHeader   header  = KtxHeader.parse(createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0));
+        long        total   = 128 + 32 + 8 + 4;
+
+        assertEquals(total, header.getSizeFromLevel(0));
+        assertEquals(12, header.getSizeFromLevel(2));
+        assertEquals(0, header.selectBaseLevel(total));
+        assertEquals(1, header.selectBaseLevel(total - 1));
+        assertEquals(2, header.selectBaseLevel(12));
+        // the smallest level is kept whatever the budget
+        assertEquals(3, header.selectBaseLevel(0));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void recognizesOnlyTheIdentifier()
+    {
+        ByteBuffer data = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+
+        assertTrue(KtxHeader.isKtx(data));
+
+        data.put(5, (byte)'2');
+
+        assertFalse(KtxHeader.isKtx(data));
+        assertFalse(KtxHeader.isKtx(ByteBuffer.allocate(KtxHeader.HEADER_SIZE - 1)));
+        assertRejected(data);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void rejectsInvalidEndianness()
+    {
+        ByteBuffer data = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+        data.putInt(12, 0x01020305);
+
+        assertRejected(data);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void rejectsOtherThan2DTextures()
+    {
+        ByteBuffer cube = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+        cube.putInt(52, 6);
+
+        ByteBuffer volume = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+        volume.putInt(44, 2);
+
+        ByteBuffer array = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+        array.putInt(48, 3);
+
+        assertRejected(cube);
+        assertRejected(volume);
+        assertRejected(array);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void rejectsTruncatedLevels()
+    {
+        ByteBuffer data = createKtx(ByteOrder.LITTLE_ENDIAN, GL20.GL_UNSIGNED_BYTE, GL20.GL_RGBA, 8, 4, 4, RGBA_LEVELS, 0);
+
+        // inside the last image
+        data.limit(data.limit() - 1);
+        assertRejected(data);
+
+        // inside the size of the second level
+        data.limit(KtxHeader.HEADER_SIZE + 4 + RGBA_LEVELS[0] + 2);
+        assertRejected(data);
+
+        // key / value data running past the end
+        data.limit(data.capacity());
+        data.putInt(60, Integer.MAX_VALUE);
+        assertRejected(data);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * KTX 1.1 file of a 2D texture, each level filled with its index.
+     */
+    private static ByteBuffer createKtx(ByteOrder order, int glType, int glFormat, int width, int height, int mipLevels, int levelSizes[], int keyValueBytes)
+    {
+        int size = KtxHeader.HEADER_SIZE + keyValueBytes;
+
+        for(int i = 0; i < levelSizes.length; i++)
+        {
+            size += 4 + ((levelSizes[i] + 3) & ~3);
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(size);
+        data.order(order);
+
+        data.put(new byte[] { (byte)0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte)0xBB, '\r', '\n', 0x1A, '\n' });
+        data.putInt(0x04030201);
+        data.putInt(glType);
+        data.putInt(1);
+        data.putInt(glFormat);
+        data.putInt((glType != 0) ? glFormat : GL_ETC1_RGB8_OES);
+        data.putInt((glType != 0) ? glFormat : GL20.GL_RGB);
+        data.putInt(width);
+        data.putInt(height);
+        data.putInt(0);
+        data.putInt(0);
+        data.putInt(1);
+        data.putInt(mipLevels);
+        data.putInt(keyValueBytes);
+        data.position(data.position() + keyValueBytes);
+
+        for(int i = 0; i < levelSizes.length; i++)
+        {
+            data.putInt(levelSizes[i]);
+
+            for(int j = 0; j < levelSizes[i]; j++)
+            {
+                data.put((byte)i);
+            }
+
+            data.position(data.position() + (((levelSizes[i] + 3) & ~3) - levelSizes[i]));
+        }
+
+        data.clear();
+
+        return data;
+    }
+
+    /**
+     * Checks the offsets and sizes of RGBA_LEVELS, and that each offset points at its image.
+     */
+    private static void assertLevels(KtxHeader header, int keyValueBytes)
+    {
+        int offset = KtxHeader.HEADER_SIZE + keyValueBytes;
+
+        for(int level = 0; level < RGBA_LEVELS.length; level++)
+        {
+            offset += 4;
+
+            assertEquals(offset, header.getLevelOffset(level));
+            assertEquals(RGBA_LEVELS[level], header.getLevelSize(level));
+            assertEquals(header.getLevelWidth(level) * header.getLevelHeight(level) * 4, header.getLevelSize(level));
+
+            offset += RGBA_LEVELS[level];
+        }
+    }
+
+    /*
+     *
+     */
+    private static void assertRejected(ByteBuffer data)
+    {
+        try
+        {
+            KtxHeader.parse(data);
+            fail("Parsed an invalid KTX file");
+        }
+        catch(GdxRuntimeException e)
+        {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CachingFrameSourceTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of CachingFrameSource, the reads of the live ARCore source
+ ** PREMISES:       The allocation check needs the HotSpot ThreadMXBean, it is skipped
+ **                 elsewhere
+ ** REMARKS:        The fetches of the test source do not allocate, so whatever is
+ **                 allocated comes from the cache or the snapshot
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.funtech.gdxar.math.CameraMath;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.FloatBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class CachingFrameSourceTest
+{
+    private final static int        WARMUP_RUNS         = 20;
+    private final static int        WARMUP_FRAMES       = 1000;
+    private final static int        CHECKED_FRAMES      = 100000;
+
+    /*
+     *
+     */
+    @Test
+    public void fetchesOncePerFrame()
+    {
+        StubSource  source  = new StubSource();
+        float       view[]  = new float[CameraMath.MATRIX_SIZE];
+        float       pose[]  = new float[CameraMath.POSE_SIZE];
+        float       light[] = new float[CameraSnapshot.LIGHT_SIZE];
+
+        for(int frame = 1; frame <= 10; frame++)
+        {
+            assertTrue(source.update());
+
+            for(int i = 0; i < 3; i++)
+            {
+                source.getViewMatrix(view, 0);
+                source.getCameraPose(pose, 0);
+                source.getLightEstimate(light, 0);
+            }
+
+            assertEquals(frame, source.m_iViewFetches);
+            assertEquals(frame, source.m_iLightFetches);
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void poseIsTheInverseOfTheView()
+    {
+        StubSource  source      = new StubSource();
+        float       view[]      = new float[CameraMath.MATRIX_SIZE];
+        float       pose[]      = new float[CameraMath.POSE_SIZE + 2];
+        float       expected[]  = new float[CameraMath.POSE_SIZE];
+
+        for(int frame = 0; frame < 5; frame++)
+        {
+            source.update();
+
+            // the pose first, then the view from the cache
+            source.getCameraPose(pose, 2);
+            source.getViewMatrix(view, 0);
+            CameraMath.viewToPose(view, expected);
+
+            for(int i = 0; i < CameraMath.POSE_SIZE; i++)
+            {
+                assertEquals(expected[i], pose[i + 2], 0f);
+            }
+        }
+
+        assertEquals(5, source.m_iViewFetches);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void invalidEstimatesLeaveTheDestination()
+    {
+        StubSource  source  = new StubSource();
+        float       light[] = { -1, -1, -1, -1, -1 };
+
+        source.m_bLightValid = false;
+        source.update();
+
+        assertFalse(source.getLightEstimate(light, 1));
+        assertArrayEquals(new float[] { -1, -1, -1, -1, -1 }, light, 0f);
+
+        source.m_bLightValid = true;
+        source.update();
+
+        assertTrue(source.getLightEstimate(light, 1));
+        assertEquals(-1, light[0], 0f);
+        assertEquals(source.m_iFrame * 0.01f, light[4], 0f);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void framesDoNotAllocate()
+    {
+        com.sun.management.ThreadMXBean threads = getThreadBean();
+
+        StubSource      source      = new StubSource();
+        CameraSnapshot  snapshot    = new CameraSnapshot();
+        float           pose[]      = new float[CameraMath.POSE_SIZE];
+        float           light[]     = new float[CameraSnapshot.LIGHT_SIZE];
+        long            threadId    = Thread.currentThread().getId();
+
+        for(int i = 0; i < WARMUP_RUNS; i++)
+        {
+            runFrames(source, snapshot, pose, light, WARMUP_FRAMES);
+        }
+
+        long before     = threads.getThreadAllocatedBytes(threadId);
+
+        runFrames(source, snapshot, pose, light, CHECKED_FRAMES);
+
+        long allocated  = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // less than a byte per frame: nothing per frame, the JIT may allocate a few bytes once
+        assertTrue(allocated + " bytes allocated over " + CHECKED_FRAMES + " frames", allocated < CHECKED_FRAMES);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * What a frame reads from the live source: the snapshot of the renderer, the light
+     * environment and the recorder.
+     */
+    private static void runFrames(StubSource source, CameraSnapshot snapshot, float pose[], float light[], int count)
+    {
+        for(int i = 0; i < count; i++)
+        {
+            source.update();
+            snapshot.capture(source, 0.01f, 30f);
+            source.getCameraPose(pose, 0);
+            source.getLightEstimate(light, 0);
+        }
+    }
+
+    /*
+     *
+     */
+    private static com.sun.management.ThreadMXBean getThreadBean()
+    {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        if(!threads.isThreadAllocatedMemoryEnabled())
+        {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        return threads;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Camera turning around the origin, built without allocating.
+     */
+    private static class StubSource extends CachingFrameSource
+    {
+        int                         m_iFrame            = -1;
+        int                         m_iViewFetches;
+        int                         m_iLightFetches;
+        boolean                     m_bLightValid       = true;
+
+        @Override
+        protected boolean nextFrame()
+        {
+            m_iFrame++;
+            return true;
+        }
+
+        @Override
+        protected void fetchViewMatrix(float[] dest)
+        {
+            float angle = 0.01f * m_iFrame;
+            float c     = (float)Math.cos(angle);
+            float s     = (float)Math.sin(angle);
+
+            m_iViewFetches++;
+
+            // rotation about y, then a translation, column major
+            dest[0] = c;    dest[4] = 0;    dest[8]  = s;   dest[12] = 0.5f;
+            dest[1] = 0;    dest[5] = 1;    dest[9]  = 0;   dest[13] = -1.5f;
+            dest[2] = -s;   dest[6] = 0;    dest[10] = c;   dest[14] = -2f;
+            dest[3] = 0;    dest[7] = 0;    dest[11] = 0;   dest[15] = 1;
+        }
+
+        @Override
+        protected boolean fetchLightEstimate(float[] dest)
+        {
+            m_iLightFetches++;
+
+            dest[0] = 1f;
+            dest[1] = 0.95f;
+            dest[2] = 0.9f;
+            dest[3] = m_iFrame * 0.01f;
+
+            return m_bLightValid;
+        }
+
+        @Override
+        public long getTimestamp()
+        {
+            return m_iFrame * 33333333L;
+        }
+
+        @Override
+        public int getTrackingStateIndex()
+        {
+            return TRACKING_STATE_TRACKING;
+        }
+
+        @Override
+        public boolean hasDisplayGeometryChanged()
+        {
+            return (m_iFrame == 0);
+        }
+
+        @Override
+        public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+        {
+            for(int i = 0; i < CameraMath.MATRIX_SIZE; i++)
+            {
+                dest[offset + i] = ((i % 5) == 0) ? 1 : 0;
+            }
+        }
+
+        @Override
+        public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+        {
+        }
+
+        @Override
+        public void setDisplayGeometry(int rotation, int width, int height)
+        {
+        }
+
+        @Override
+        public void setCameraTextureName(int textureId)
+        {
+        }
+    }
+}
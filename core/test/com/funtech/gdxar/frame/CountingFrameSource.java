@@ -0,0 +1,220 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CountingFrameSource.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Synthetic CameraFrameSource counting the fetches of each value
+ ** PREMISES:       Every value is a function of the frame index, two instances give the
+ **                 same frames
+ ** REMARKS:        The counts stand for the JNI calls of the ARCore source
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Public, it feeds the recordings of the scene tests
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import java.nio.FloatBuffer;
+
+
+public class CountingFrameSource implements CameraFrameSource
+{
+    public final static int         DISPLAY_ROTATION    = 1;
+    public final static int         DISPLAY_WIDTH       = 1920;
+    public final static int         DISPLAY_HEIGHT      = 1080;
+
+    private final int               m_iFrameCount;
+    private final int               m_iGeometryFrame;               // reports a geometry change, -1 for none
+    private final Matrix4           m_View              = new Matrix4();
+    private final Vector3           m_Position          = new Vector3();
+    private int                     m_iFrame            = -1;
+
+    int                             m_iProjectionCalls;
+    int                             m_iViewCalls;
+    int                             m_iPoseCalls;
+    int                             m_iLightCalls;
+
+    static
+    {
+        // Matrix4.setToLookAt() multiplies natively
+        GdxNativesLoader.load();
+    }
+
+    /*
+     *
+     */
+    public CountingFrameSource(int frameCount, int geometryFrame)
+    {
+        m_iFrameCount       = frameCount;
+        m_iGeometryFrame    = geometryFrame;
+    }
+
+    /**
+     * Timestamp of a frame.
+     */
+    public static long getTimestamp(int frame)
+    {
+        return 1000L + (frame * 33333333L);
+    }
+
+    /**
+     * Light estimate of a frame, every third frame has none.
+     */
+    public static boolean getLightEstimate(int frame, float dest[])
+    {
+        dest[0] = 1f;
+        dest[1] = 0.9f;
+        dest[2] = 0.8f;
+        dest[3] = 0.1f * (frame % 10);
+
+        return (frame % 3) != 2;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean update()
+    {
+        if((m_iFrame + 1) >= m_iFrameCount)
+        {
+            return false;
+        }
+
+        m_iFrame++;
+
+        float angle = 0.1f * m_iFrame;
+
+        m_Position.set((float)Math.cos(angle), 1.5f, (float)Math.sin(angle));
+        m_View.setToLookAt(m_Position, Vector3.Zero, Vector3.Y);
+
+        return true;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public long getTimestamp()
+    {
+        return getTimestamp(m_iFrame);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public int getTrackingStateIndex()
+    {
+        return ((m_iFrame % 4) == 3) ? TRACKING_STATE_PAUSED : TRACKING_STATE_TRACKING;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean hasDisplayGeometryChanged()
+    {
+        return (m_iFrame == m_iGeometryFrame);
+    }
+
+    /**
+     * The field of view narrows after the geometry change.
+     */
+    @Override
+    public void getProjectionMatrix(float[] dest, int offset, float near, float far)
+    {
+        float fov = ((m_iGeometryFrame >= 0) && (m_iFrame >= m_iGeometryFrame)) ? 50f : 60f;
+
+        m_iProjectionCalls++;
+        System.arraycopy(new Matrix4().setToProjection(near, far, fov, (float)DISPLAY_WIDTH / DISPLAY_HEIGHT).val, 0, dest, offset, 16);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getViewMatrix(float[] dest, int offset)
+    {
+        m_iViewCalls++;
+        System.arraycopy(m_View.val, 0, dest, offset, 16);
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void getCameraPose(float[] dest, int offset)
+    {
+        m_iPoseCalls++;
+        dest[offset]        = m_Position.x;
+        dest[offset + 1]    = m_Position.y;
+        dest[offset + 2]    = m_Position.z;
+        dest[offset + 3]    = 0;
+        dest[offset + 4]    = 0;
+        dest[offset + 5]    = 0;
+        dest[offset + 6]    = 1;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public boolean getLightEstimate(float[] dest, int offset)
+    {
+        float light[] = new float[4];
+        boolean isValid = getLightEstimate(m_iFrame, light);
+
+        m_iLightCalls++;
+        System.arraycopy(light, 0, dest, offset, 4);
+
+        return isValid;
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void transformDisplayUvCoords(FloatBuffer uvCoords, FloatBuffer outUvCoords)
+    {
+        for(int i = 0; i < 8; i++)
+        {
+            outUvCoords.put(i, 1f - uvCoords.get(i));
+        }
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setDisplayGeometry(int rotation, int width, int height)
+    {
+    }
+
+    /*
+     *
+     */
+    @Override
+    public void setCameraTextureName(int textureId)
+    {
+    }
+}
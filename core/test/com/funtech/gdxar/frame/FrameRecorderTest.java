@@ -0,0 +1,210 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameRecorderTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of FrameRecorder, recordings read back by FrameReplay
+ ** PREMISES:       The renderer is stood for by a CameraSnapshot captured every frame
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.funtech.gdxar.math.CameraMath;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class FrameRecorderTest
+{
+    private final static int        FRAME_COUNT         = 8;
+    private final static int        GEOMETRY_FRAME      = 5;
+    private final static float      NEAR                = 0.1f;
+    private final static float      FAR                 = 20f;
+
+    /*
+     *
+     */
+    @Test
+    public void fetchesEachValueOnceAFrame() throws IOException
+    {
+        CountingFrameSource     source      = new CountingFrameSource(FRAME_COUNT, GEOMETRY_FRAME);
+        FrameRecorder           recorder    = createRecorder(source, new ByteArrayOutputStream());
+        CameraSnapshot          snapshot    = new CameraSnapshot();
+
+        while(recorder.update())
+        {
+            snapshot.capture(recorder, NEAR, FAR);
+        }
+
+        recorder.close();
+
+        // the snapshot asks for the projection on the first frame and on the geometry change
+        assertEquals(2, source.m_iProjectionCalls);
+        assertEquals(FRAME_COUNT, source.m_iViewCalls);
+        assertEquals(0, source.m_iPoseCalls);
+        assertEquals(FRAME_COUNT, source.m_iLightCalls);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void replaysWhatTheRendererSaw() throws IOException
+    {
+        CountingFrameSource     source      = new CountingFrameSource(FRAME_COUNT, GEOMETRY_FRAME);
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = createRecorder(source, out);
+        CameraSnapshot          recorded[]  = new CameraSnapshot[FRAME_COUNT];
+        CameraSnapshot          snapshot    = new CameraSnapshot();
+
+        for(int i = 0; recorder.update(); i++)
+        {
+            snapshot.capture(recorder, NEAR, FAR);
+            recorded[i] = new CameraSnapshot();
+            recorded[i].set(snapshot);
+        }
+
+        recorder.close();
+
+        FrameReplay     replay      = new FrameReplay(new ByteArrayInputStream(out.toByteArray()));
+        CameraSnapshot  replayed    = new CameraSnapshot();
+
+        assertEquals(FRAME_COUNT, replay.getFrameCount());
+
+        for(int i = 0; i < FRAME_COUNT; i++)
+        {
+            assertTrue(replay.update());
+            replayed.capture(replay, NEAR, FAR);
+
+            assertEquals(recorded[i].getTimestamp(), replayed.getTimestamp());
+            assertEquals(recorded[i].getTrackingStateIndex(), replayed.getTrackingStateIndex());
+            assertEquals("frame " + i, (i == 0) || (i == GEOMETRY_FRAME), replay.hasDisplayGeometryChanged());
+            assertArrayEquals(recorded[i].getViewMatrix(), replayed.getViewMatrix(), 0f);
+            assertArrayEquals(recorded[i].getProjectionMatrix(), replayed.getProjectionMatrix(), 0f);
+            assertArrayEquals(recorded[i].getPose(), replayed.getPose(), 1e-6f);
+            assertEquals(recorded[i].isLightEstimateValid(), replayed.isLightEstimateValid());
+
+            if(replayed.isLightEstimateValid())
+            {
+                assertArrayEquals(recorded[i].getLightEstimate(), replayed.getLightEstimate(), 0f);
+            }
+
+            assertEquals(CountingFrameSource.DISPLAY_WIDTH, replay.getDisplayWidth());
+        }
+
+        assertFalse(replay.update());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void fetchesWhatTheRendererDidNotAsk() throws IOException
+    {
+        CountingFrameSource     source      = new CountingFrameSource(3, -1);
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = createRecorder(source, out);
+        float                   view[][]    = new float[3][CameraMath.MATRIX_SIZE];
+
+        for(int i = 0; recorder.update(); i++)
+        {
+            // the source itself, not through the recorder
+            source.getViewMatrix(view[i], 0);
+        }
+
+        recorder.close();
+
+        // once each by the test and by the recorder, the projection of the first frame only
+        assertEquals(6, source.m_iViewCalls);
+        assertEquals(1, source.m_iProjectionCalls);
+        assertEquals(0, source.m_iPoseCalls);
+
+        FrameReplay replay      = new FrameReplay(new ByteArrayInputStream(out.toByteArray()));
+        float       matrix[]    = new float[CameraMath.MATRIX_SIZE];
+        float       pose[]      = new float[CameraMath.POSE_SIZE];
+        float       expected[]  = new float[CameraMath.POSE_SIZE];
+
+        for(int i = 0; replay.update(); i++)
+        {
+            replay.getViewMatrix(matrix, 0);
+            assertArrayEquals(view[i], matrix, 0f);
+
+            replay.getCameraPose(pose, 0);
+            CameraMath.viewToPose(view[i], expected);
+            assertArrayEquals(expected, pose, 0f);
+
+            // recorded with the default planes, replayed with others
+            replay.getProjectionMatrix(matrix, 0, NEAR, FAR);
+            assertArrayEquals(new Matrix4().setToProjection(NEAR, FAR, 60f, (float)CountingFrameSource.DISPLAY_WIDTH / CountingFrameSource.DISPLAY_HEIGHT).val, matrix, 1e-5f);
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void posesAskedForAreRecorded() throws IOException
+    {
+        CountingFrameSource     source      = new CountingFrameSource(2, -1);
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = createRecorder(source, out);
+        float                   pose[]      = new float[CameraMath.POSE_SIZE];
+        float                   recorded[]  = new float[CameraMath.POSE_SIZE];
+
+        recorder.update();
+        recorder.getCameraPose(recorded, 0);
+        recorder.update();
+        recorder.close();
+
+        assertEquals(1, source.m_iPoseCalls);
+
+        FrameReplay replay = new FrameReplay(new ByteArrayInputStream(out.toByteArray()));
+
+        replay.update();
+        replay.getCameraPose(pose, 0);
+
+        assertArrayEquals(recorded, pose, 0f);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static FrameRecorder createRecorder(CameraFrameSource source, ByteArrayOutputStream out) throws IOException
+    {
+        return new FrameRecorder(source, out, CountingFrameSource.DISPLAY_ROTATION, CountingFrameSource.DISPLAY_WIDTH, CountingFrameSource.DISPLAY_HEIGHT);
+    }
+}
@@ -0,0 +1,222 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         FrameReplayTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of FrameReplay
+ ** PREMISES:       Recordings are written by FrameRecorder from a CountingFrameSource
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.frame;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class FrameReplayTest
+{
+    private final static int        HEADER_SIZE         = 8;
+
+    /*
+     *
+     */
+    @Test
+    public void endsBetweenFrames() throws IOException
+    {
+        byte whole[] = record(3);
+        byte first[] = record(2);
+
+        assertEquals(3, replay(whole).getFrameCount());
+        assertEquals(2, replay(Arrays.copyOf(whole, first.length)).getFrameCount());
+        assertEquals(0, replay(Arrays.copyOf(whole, HEADER_SIZE)).getFrameCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void refusesTruncatedFrames() throws IOException
+    {
+        byte whole[] = record(3);
+        byte first[] = record(2);
+
+        // inside the timestamp, inside the matrices, one byte short
+        assertTruncated(Arrays.copyOf(whole, first.length + 1), 2);
+        assertTruncated(Arrays.copyOf(whole, first.length + 40), 2);
+        assertTruncated(Arrays.copyOf(whole, whole.length - 1), 2);
+        assertTruncated(Arrays.copyOf(whole, HEADER_SIZE + 3), 0);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void refusesOtherFiles() throws IOException
+    {
+        ByteArrayOutputStream   out     = new ByteArrayOutputStream();
+        DataOutputStream        data    = new DataOutputStream(out);
+
+        data.writeInt(FrameReplay.FILE_MAGIC);
+        data.writeInt(FrameReplay.FILE_VERSION + 1);
+
+        assertRefused(out.toByteArray());
+        assertRefused(new byte[] { 'G', 'A', 'R', 'X', 0, 0, 0, 2 });
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void readsTimestampsAndLightEstimates() throws IOException
+    {
+        FrameReplay replay  = replay(record(6));
+        float       light[] = new float[FrameReplay.LIGHT_SIZE];
+        float       want[]  = new float[FrameReplay.LIGHT_SIZE];
+
+        for(int i = 0; i < 6; i++)
+        {
+            assertTrue(replay.update());
+            assertEquals(i, replay.getFrameIndex());
+            assertEquals(CountingFrameSource.getTimestamp(i), replay.getTimestamp());
+
+            boolean isValid = CountingFrameSource.getLightEstimate(i, want);
+
+            assertEquals(isValid, replay.getLightEstimate(light, 0));
+
+            if(isValid)
+            {
+                assertArrayEquals(want, light, 0f);
+            }
+        }
+
+        assertFalse(replay.update());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void loopsWithIncreasingTimestamps() throws IOException
+    {
+        FrameReplay replay  = replay(record(4));
+        long        last    = Long.MIN_VALUE;
+
+        replay.setLooping(true);
+
+        for(int i = 0; i < 10; i++)
+        {
+            assertTrue(replay.update());
+            assertEquals(i % 4, replay.getFrameIndex());
+            assertTrue(replay.getTimestamp() > last);
+            last = replay.getTimestamp();
+        }
+
+        replay.rewind();
+        assertEquals(-1, replay.getFrameIndex());
+        assertTrue(replay.update());
+        assertEquals(CountingFrameSource.getTimestamp(0), replay.getTimestamp());
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Recording of the first frames of a CountingFrameSource, the one of fewer frames is a
+     * prefix of the one of more.
+     */
+    private static byte[] record(int frameCount) throws IOException
+    {
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = new FrameRecorder(new CountingFrameSource(frameCount, -1), out,
+                                                                CountingFrameSource.DISPLAY_ROTATION,
+                                                                CountingFrameSource.DISPLAY_WIDTH,
+                                                                CountingFrameSource.DISPLAY_HEIGHT);
+        CameraSnapshot          snapshot    = new CameraSnapshot();
+
+        while(recorder.update())
+        {
+            snapshot.capture(recorder, 0.1f, 20f);
+        }
+
+        recorder.close();
+
+        return out.toByteArray();
+    }
+
+    /*
+     *
+     */
+    private static FrameReplay replay(byte recording[]) throws IOException
+    {
+        return new FrameReplay(new ByteArrayInputStream(recording));
+    }
+
+    /*
+     *
+     */
+    private static void assertTruncated(byte recording[], int frame)
+    {
+        try
+        {
+            replay(recording);
+            fail("Truncated recording of " + recording.length + " bytes loaded");
+        }
+        catch(EOFException exp)
+        {
+            assertTrue(exp.getMessage(), exp.getMessage().endsWith("frame " + frame));
+        }
+        catch(IOException exp)
+        {
+            fail(exp.toString());
+        }
+    }
+
+    /*
+     *
+     */
+    private static void assertRefused(byte recording[])
+    {
+        try
+        {
+            replay(recording);
+            fail("Loaded something that is not a recording");
+        }
+        catch(IOException exp)
+        {
+            // expected
+        }
+    }
+}
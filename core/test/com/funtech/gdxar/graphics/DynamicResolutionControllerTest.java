@@ -0,0 +1,224 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         DynamicResolutionControllerTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of DynamicResolutionController
+ ** PREMISES:       Default target of 33333 us, thresholds at 95 % and 75 % of it
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class DynamicResolutionControllerTest
+{
+    private final static float      TOLERANCE           = 1e-4f;
+    private final static long       LIGHT_US            = 10000L;
+    private final static long       STEADY_US           = 28000L;   // between both thresholds
+    private final static long       HEAVY_US            = 50000L;
+    private final static int        DOWN_FRAMES         = 10;
+    private final static int        UP_FRAMES           = 90;
+    private final static int        COOLDOWN_FRAMES     = 30;
+
+    /*
+     *
+     */
+    @Test
+    public void keepsTheScaleInsideTheBand()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        for(int i = 0; i < 1000; i++)
+        {
+            assertFalse(controller.update(STEADY_US));
+        }
+
+        assertEquals(1f, controller.getScale(), TOLERANCE);
+        assertEquals(0, controller.getChangeCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void dropsByThePixelCostAfterTheDownFrames()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        for(int i = 1; i < DOWN_FRAMES; i++)
+        {
+            assertFalse(controller.update(HEAVY_US));
+        }
+
+        assertTrue(controller.update(HEAVY_US));
+        // sqrt(33333 * 0.85 / 50000) = 0.753, down to the step
+        assertEquals(0.75f, controller.getScale(), TOLERANCE);
+        assertEquals(1, controller.getChangeCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void waitsForTheCooldownAfterAChange()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        runUntilChange(controller, HEAVY_US, DOWN_FRAMES);
+
+        for(int i = 0; i < COOLDOWN_FRAMES; i++)
+        {
+            assertFalse(controller.update(HEAVY_US * 2));
+        }
+
+        assertEquals(0.75f, controller.getScale(), TOLERANCE);
+        runUntilChange(controller, HEAVY_US * 2, DOWN_FRAMES);
+        assertTrue(controller.getScale() < 0.75f);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void risesOneStepAfterTheUpFrames()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        runUntilChange(controller, HEAVY_US, DOWN_FRAMES);
+        // the smoothed time falls under the lower threshold during the cooldown
+        runUntilChange(controller, LIGHT_US, COOLDOWN_FRAMES + UP_FRAMES);
+
+        assertEquals(0.8f, controller.getScale(), TOLERANCE);
+        assertEquals(2, controller.getChangeCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void ignoresASingleSpike()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        for(int i = 0; i < 100; i++)
+        {
+            controller.update(STEADY_US);
+        }
+
+        // over the upper threshold for less than the down frames once smoothed
+        controller.update(HEAVY_US * 2);
+
+        for(int i = 0; i < 100; i++)
+        {
+            controller.update(STEADY_US);
+        }
+
+        assertEquals(0, controller.getChangeCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void staysWithinTheRange()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        for(int i = 0; i < 2000; i++)
+        {
+            controller.update(HEAVY_US * 10);
+        }
+
+        assertEquals(DynamicResolutionController.DEFAULT_MIN_SCALE, controller.getScale(), TOLERANCE);
+
+        for(int i = 0; i < 10000; i++)
+        {
+            controller.update(LIGHT_US);
+        }
+
+        assertEquals(DynamicResolutionController.DEFAULT_MAX_SCALE, controller.getScale(), TOLERANCE);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void quantizesAndClampsTheRange()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        controller.setScaleRange(0.33f, 0.9f);
+
+        assertEquals(0.3f, controller.getMinScale(), TOLERANCE);
+        assertEquals(0.9f, controller.getMaxScale(), TOLERANCE);
+        assertEquals(0.9f, controller.getScale(), TOLERANCE);
+
+        // inverted and below the step
+        controller.setScaleRange(0.7f, 0.01f);
+
+        assertEquals(controller.getMinScale(), controller.getMaxScale(), TOLERANCE);
+        assertEquals(DynamicResolutionController.SCALE_STEP, controller.getMinScale(), TOLERANCE);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void resetGoesBackToTheMaximum()
+    {
+        DynamicResolutionController controller = new DynamicResolutionController();
+
+        controller.setTargetFrameTime(16667L);
+        runUntilChange(controller, 33333L, DOWN_FRAMES);
+        controller.reset();
+
+        assertEquals(16667L, controller.getTargetFrameTime());
+        assertEquals(1f, controller.getScale(), TOLERANCE);
+        assertEquals(0f, controller.getSmoothedFrameTime(), 0f);
+        // no cooldown left
+        runUntilChange(controller, 33333L, DOWN_FRAMES);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Feeds the frame time, the scale must change on exactly the last frame.
+     */
+    private static void runUntilChange(DynamicResolutionController controller, long frameTimeUs, int frames)
+    {
+        for(int i = 1; i < frames; i++)
+        {
+            assertFalse("changed on frame " + i, controller.update(frameTimeUs));
+        }
+
+        assertTrue("no change after " + frames + " frames", controller.update(frameTimeUs));
+    }
+}
@@ -0,0 +1,159 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         HudLayerTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of the queue order of HudLayer
+ ** PREMISES:       Headless application with the stub GL, the default HudLayer font
+ ** REMARKS:        The drawn vertices are read back from the SpriteBatch, whose vertex
+ **                 array is package private
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.funtech.gdxar.test.GdxStub;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class HudLayerTest
+{
+    private final static int        VERTEX_SIZE         = 5;
+    private final static int        SPRITE_SIZE         = 4 * VERTEX_SIZE;
+    private final static int        COLOR_OFFSET        = 2;
+
+    private HudLayer                m_Hud;
+
+    /*
+     *
+     */
+    @BeforeClass
+    public static void initGdx()
+    {
+        GdxStub.init();
+    }
+
+    /*
+     *
+     */
+    @Before
+    public void createHud()
+    {
+        m_Hud = new HudLayer();
+    }
+
+    /*
+     *
+     */
+    @After
+    public void disposeHud()
+    {
+        m_Hud.dispose();
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void drawsInQueueOrder() throws Exception
+    {
+        m_Hud.rect(0, 0, 10, 10, Color.RED);
+        m_Hud.rect(0, 0, 10, 10, Color.GREEN);
+        m_Hud.flush();
+
+        float vertices[] = getBatchVertices();
+
+        assertEquals(1, m_Hud.getDrawCalls());
+        assertEquals(Color.RED.toFloatBits(), vertices[COLOR_OFFSET], 0);
+        assertEquals(Color.GREEN.toFloatBits(), vertices[SPRITE_SIZE + COLOR_OFFSET], 0);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void underlayIsDrawnBeforeEarlierQueue() throws Exception
+    {
+        m_Hud.rect(0, 0, 10, 10, Color.RED);
+        m_Hud.text("HUD", 0, 20, Color.GREEN);
+        m_Hud.underlay(0, 0, 100, 100, Color.BLUE);
+
+        assertEquals(5, m_Hud.getQueuedCount());
+
+        m_Hud.flush();
+
+        float vertices[] = getBatchVertices();
+
+        // same texture as the shapes and the text, one draw call for all
+        assertEquals(1, m_Hud.getDrawCalls());
+        assertEquals(Color.BLUE.toFloatBits(), vertices[COLOR_OFFSET], 0);
+        assertEquals(Color.RED.toFloatBits(), vertices[SPRITE_SIZE + COLOR_OFFSET], 0);
+        assertEquals(Color.GREEN.toFloatBits(), vertices[(2 * SPRITE_SIZE) + COLOR_OFFSET], 0);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void underlayIsReplacedAndCleared() throws Exception
+    {
+        m_Hud.underlay(0, 0, 100, 100, Color.BLUE);
+        m_Hud.underlay(0, 0, 100, 100, Color.RED);
+
+        assertEquals(1, m_Hud.getQueuedCount());
+
+        m_Hud.flush();
+
+        assertEquals(1, m_Hud.getDrawCalls());
+        assertEquals(Color.RED.toFloatBits(), getBatchVertices()[COLOR_OFFSET], 0);
+        assertEquals(0, m_Hud.getQueuedCount());
+
+        // not drawn again by the next frame
+        m_Hud.flush();
+
+        assertEquals(0, m_Hud.getDrawCalls());
+    }
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Vertices the batch was last given, they stay in its array after end().
+     */
+    private float[] getBatchVertices() throws Exception
+    {
+        Field field = SpriteBatch.class.getDeclaredField("vertices");
+
+        field.setAccessible(true);
+
+        return (float[])field.get(m_Hud.getBatch());
+    }
+}
@@ -0,0 +1,293 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         NumericTextTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of NumericText
+ ** PREMISES:       Headless application with the stub GL, the default HudLayer font
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Font scale changes, overflow of setValue(long)
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.funtech.gdxar.test.GdxStub;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class NumericTextTest
+{
+    private final static int        VERTEX_SIZE         = 5;
+    private final static int        SPRITE_SIZE         = 4 * VERTEX_SIZE;
+
+    private static HudLayer         m_Hud;
+
+    /*
+     *
+     */
+    @BeforeClass
+    public static void createHud()
+    {
+        GdxStub.init();
+        m_Hud = new HudLayer();
+    }
+
+    /*
+     *
+     */
+    @AfterClass
+    public static void disposeHud()
+    {
+        m_Hud.dispose();
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void rightAlignsIntegers()
+    {
+        NumericText text = new NumericText(m_Hud, "FPS ", " Hz", 4, 0);
+
+        text.setValue(42L);
+        assertEquals("FPS   42 Hz", text.toString());
+        text.setValue(0L);
+        assertEquals("FPS    0 Hz", text.toString());
+        text.setValue(-7L);
+        assertEquals("FPS   -7 Hz", text.toString());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void placesTheDecimalPoint()
+    {
+        NumericText text = new NumericText(m_Hud, "", " ms", 2, 1);
+
+        text.setValue(3.14f);
+        assertEquals(" 3.1 ms", text.toString());
+        text.setFixed(-5);
+        assertEquals("-0.5 ms", text.toString());
+        text.setValue(12L);
+        assertEquals("12.0 ms", text.toString());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void clampsToTheCells()
+    {
+        NumericText text = new NumericText(m_Hud, "", "", 4, 0);
+
+        text.setValue(12345L);
+        assertEquals("9999", text.toString());
+        // the minus sign takes a cell
+        text.setValue(-12345L);
+        assertEquals("-999", text.toString());
+        text.setFixed(Long.MIN_VALUE);
+        assertEquals("-999", text.toString());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void scaledIntegersDoNotOverflow()
+    {
+        NumericText text = new NumericText(m_Hud, "", "", 4, 2);
+
+        text.setValue(Long.MAX_VALUE);
+        assertEquals("9999.99", text.toString());
+        text.setValue(Long.MIN_VALUE);
+        assertEquals("-999.99", text.toString());
+        text.setValue(Long.MAX_VALUE / 10);
+        assertEquals("9999.99", text.toString());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void followsTheFontScale()
+    {
+        NumericText text = new NumericText(m_Hud, "FPS ", "", 3, 0);
+
+        text.setPosition(5, 40);
+        text.setValue(60L);
+
+        float width = text.getWidth();
+
+        try
+        {
+            m_Hud.getFont().getData().setScale(2);
+
+            // the same text built at that scale
+            NumericText expected = new NumericText(m_Hud, "FPS ", "", 3, 0);
+            expected.setPosition(5, 40);
+            expected.setValue(60L);
+
+            assertTrue(text.getWidth() > (width * 1.5f));
+            assertEquals(expected.getWidth(), text.getWidth(), 0f);
+            assertEquals(expected.getVertexCount(), text.getVertexCount());
+            assertArrayEquals(copyTail(expected, expected.getVertexCount(), expected.getVertexCount()),
+                              copyTail(text, text.getVertexCount(), text.getVertexCount()), 0f);
+            assertEquals("FPS  60", text.toString());
+
+            text.setValue(61L);
+            expected.setValue(61L);
+
+            assertEquals(1, text.getChangedCount());
+            assertArrayEquals(copyTail(expected, expected.getVertexCount(), expected.getVertexCount()),
+                              copyTail(text, text.getVertexCount(), text.getVertexCount()), 0f);
+        }
+        finally
+        {
+            m_Hud.getFont().getData().setScale(1);
+        }
+
+        assertEquals(width, text.getWidth(), 0f);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void writesOnlyTheChangedCells()
+    {
+        NumericText text = new NumericText(m_Hud, "", "", 4, 0);
+
+        text.setValue(1234L);
+        assertEquals(4, text.getChangedCount());
+        text.setValue(1239L);
+        assertEquals(1, text.getChangedCount());
+        text.setValue(1239L);
+        assertEquals(0, text.getChangedCount());
+        text.setValue(39L);
+        assertEquals(2, text.getChangedCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void keepsTheLayoutWhateverTheValue()
+    {
+        NumericText text        = new NumericText(m_Hud, "T ", " ms", 3, 1);
+
+        text.setValue(1.5f);
+
+        int         count       = text.getVertexCount();
+        float       width       = text.getWidth();
+        float       suffix[]    = copyTail(text, count, 3 * SPRITE_SIZE);
+
+        text.setValue(-88.8f);
+
+        assertEquals(count, text.getVertexCount());
+        assertEquals(width, text.getWidth(), 0f);
+        assertArrayEquals(suffix, copyTail(text, count, 3 * SPRITE_SIZE), 0f);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void blankCellsAreDegenerate()
+    {
+        NumericText text    = new NumericText(m_Hud, "", "", 3, 0);
+
+        text.setPosition(10, 20);
+        text.setValue(5L);
+
+        float vertices[]    = text.getVertices();
+
+        // first cell blank, last one the digit
+        for(int i = 0; i < SPRITE_SIZE; i += VERTEX_SIZE)
+        {
+            assertEquals(10, vertices[i], 0f);
+            assertEquals(20, vertices[i + 1], 0f);
+        }
+
+        float minX = Float.MAX_VALUE, maxX = -Float.MAX_VALUE;
+
+        for(int i = 2 * SPRITE_SIZE; i < 3 * SPRITE_SIZE; i += VERTEX_SIZE)
+        {
+            minX = Math.min(minX, vertices[i]);
+            maxX = Math.max(maxX, vertices[i]);
+        }
+
+        assertTrue(maxX > minX);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void movesAndRecolorsEveryVertex()
+    {
+        NumericText text        = new NumericText(m_Hud, "A ", " B", 3, 0);
+
+        text.setValue(123L);
+
+        float       before[]    = copyTail(text, text.getVertexCount(), text.getVertexCount());
+
+        text.setPosition(7, 3);
+        text.setValue(123L);
+        text.setColor(Color.RED);
+
+        float       after[]     = text.getVertices();
+        float       red         = Color.RED.toFloatBits();
+
+        for(int i = 0; i < text.getVertexCount(); i += VERTEX_SIZE)
+        {
+            assertEquals(before[i] + 7, after[i], 1e-3f);
+            assertEquals(before[i + 1] + 3, after[i + 1], 1e-3f);
+            assertEquals(red, after[i + 2], 0f);
+            assertEquals(before[i + 3], after[i + 3], 0f);
+        }
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static float[] copyTail(NumericText text, int count, int size)
+    {
+        float tail[] = new float[size];
+
+        System.arraycopy(text.getVertices(), count - size, tail, 0, size);
+
+        return tail;
+    }
+}
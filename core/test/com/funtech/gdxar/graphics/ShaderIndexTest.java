@@ -0,0 +1,293 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         ShaderIndexTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of ShaderIndex
+ ** PREMISES:       The meshes are vertex arrays, only the gdx natives are needed, no GL
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.graphics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+public class ShaderIndexTest
+{
+    private Mesh            m_Mesh;
+    private Mesh            m_SkinnedMesh;
+    private Environment     m_Shared;
+
+    /*
+     *
+     */
+    @BeforeClass
+    public static void loadNatives()
+    {
+        GdxNativesLoader.load();
+    }
+
+    /*
+     *
+     */
+    @Before
+    public void setUp()
+    {
+        m_Mesh          = new Mesh(Mesh.VertexDataType.VertexArray, false, 3, 0, VertexAttribute.Position(), VertexAttribute.Normal());
+        m_SkinnedMesh   = new Mesh(Mesh.VertexDataType.VertexArray, false, 3, 0, VertexAttribute.Position(), VertexAttribute.Normal(), VertexAttribute.BoneWeight(0));
+        m_Shared        = createEnvironment();
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void equalAttributesGiveEqualKeys()
+    {
+        Renderable a = createRenderable(m_Mesh, new Material(ColorAttribute.createDiffuse(Color.RED)), createEnvironment());
+        Renderable b = createRenderable(m_Mesh, new Material(ColorAttribute.createDiffuse(Color.BLUE)), createEnvironment());
+
+        assertEquals(ShaderIndex.computeKey(a), ShaderIndex.computeKey(b));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void everyAttributeChangesTheKey()
+    {
+        long key = ShaderIndex.computeKey(1, 2, 4, true, false, 0);
+
+        assertNotEquals(key, ShaderIndex.computeKey(3, 2, 4, true, false, 0));
+        assertNotEquals(key, ShaderIndex.computeKey(1, 3, 4, true, false, 0));
+        assertNotEquals(key, ShaderIndex.computeKey(1, 2, 5, true, false, 0));
+        assertNotEquals(key, ShaderIndex.computeKey(1, 2, 4, false, false, 0));
+        assertNotEquals(key, ShaderIndex.computeKey(1, 2, 4, true, true, 0));
+        assertNotEquals(key, ShaderIndex.computeKey(1, 2, 4, true, false, 1));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void renderableKeyMatchesPrimitiveKey()
+    {
+        Material    material    = new Material(ColorAttribute.createDiffuse(Color.RED));
+        Renderable  renderable  = createRenderable(m_SkinnedMesh, material, m_Shared);
+        renderable.bones        = new Matrix4[] { new Matrix4(), new Matrix4() };
+
+        long expected = ShaderIndex.computeKey(m_SkinnedMesh.getVertexAttributes().getMask(), material.getMask(), m_Shared.getMask(), true, true, 2);
+
+        assertEquals(expected, ShaderIndex.computeKey(renderable, m_Shared));
+        assertNotEquals(expected, ShaderIndex.computeKey(renderable));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void sharedEnvironmentGetsOwnKey()
+    {
+        Material    material    = new Material(ColorAttribute.createDiffuse(Color.RED));
+        Renderable  shared      = createRenderable(m_Mesh, material, m_Shared);
+        Renderable  own         = createRenderable(m_Mesh, material, createEnvironment());
+
+        assertEquals(m_Shared.getMask(), own.environment.getMask());
+        assertNotEquals(ShaderIndex.computeKey(shared, m_Shared), ShaderIndex.computeKey(own, m_Shared));
+        assertEquals(ShaderIndex.computeKey(own), ShaderIndex.computeKey(own, m_Shared));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void findConfirmsWithCanRender()
+    {
+        ShaderIndex index       = new ShaderIndex();
+        Renderable  colored     = createRenderable(m_Mesh, new Material(ColorAttribute.createDiffuse(Color.RED)), null);
+        Renderable  textured    = createRenderable(m_Mesh, new Material(TextureAttribute.createDiffuse((Texture)null)), null);
+        long        key         = ShaderIndex.computeKey(colored);
+        StubShader  shader      = new StubShader(colored.material.getMask());
+
+        assertNull(index.find(key, colored));
+
+        index.put(key, shader);
+
+        assertSame(shader, index.find(key, colored));
+        // same bucket, but the shader refuses it
+        assertNull(index.find(key, textured));
+        assertNull(index.find(key + 1, colored));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void findReturnsTheShaderThatCanRender()
+    {
+        ShaderIndex index       = new ShaderIndex();
+        Renderable  colored     = createRenderable(m_Mesh, new Material(ColorAttribute.createDiffuse(Color.RED)), null);
+        Renderable  textured    = createRenderable(m_Mesh, new Material(TextureAttribute.createDiffuse((Texture)null)), null);
+        StubShader  first       = new StubShader(colored.material.getMask());
+        StubShader  second      = new StubShader(textured.material.getMask());
+
+        // a colliding key, both shaders share one bucket
+        index.put(7, first);
+        index.put(7, second);
+
+        assertSame(first, index.find(7, colored));
+        assertSame(second, index.find(7, textured));
+        assertEquals(2, index.size());
+        assertEquals(1, index.getKeyCount());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void putIgnoresDuplicatesAndClearEmpties()
+    {
+        ShaderIndex index   = new ShaderIndex();
+        StubShader  shader  = new StubShader(0);
+
+        index.put(1, shader);
+        index.put(1, shader);
+        index.put(2, shader);
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.getKeyCount());
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.getKeyCount());
+        assertNull(index.find(1, createRenderable(m_Mesh, new Material(), null)));
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static Environment createEnvironment()
+    {
+        Environment environment = new Environment();
+        environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
+
+        return environment;
+    }
+
+    /*
+     *
+     */
+    private static Renderable createRenderable(Mesh mesh, Material material, Environment environment)
+    {
+        Renderable renderable = new Renderable();
+        renderable.meshPart.set("part", mesh, 0, 3, GL20.GL_TRIANGLES);
+        renderable.material     = material;
+        renderable.environment  = environment;
+
+        return renderable;
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Renders the renderables of one material mask.
+     */
+    private static class StubShader implements Shader
+    {
+        private final long m_lMaterialMask;
+
+        StubShader(long materialMask)
+        {
+            m_lMaterialMask = materialMask;
+        }
+
+        @Override
+        public boolean canRender(Renderable renderable)
+        {
+            return (renderable.material.getMask() == m_lMaterialMask);
+        }
+
+        @Override
+        public void init()
+        {
+        }
+
+        @Override
+        public int compareTo(Shader other)
+        {
+            return 0;
+        }
+
+        @Override
+        public void begin(Camera camera, RenderContext context)
+        {
+        }
+
+        @Override
+        public void render(Renderable renderable)
+        {
+        }
+
+        @Override
+        public void end()
+        {
+        }
+
+        @Override
+        public void dispose()
+        {
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         CameraSceneTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of CameraScene replaying a recorded session
+ ** PREMISES:       Headless application with the stub GL
+ ** REMARKS:        The recording is made by FrameRecorder from a CountingFrameSource, the
+ **                 scene runs it through its frame update and pass graph as on a device
+ ** HISTORY:        2026-10-18 : Creation
+ **                 2026-10-18 : Texture state of the tracker after the opaque pass
+ **                 2026-10-18 : Resources registered once the registry is created
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.funtech.gdxar.frame.CameraFrameSource;
+import com.funtech.gdxar.frame.CameraSnapshot;
+import com.funtech.gdxar.frame.CountingFrameSource;
+import com.funtech.gdxar.frame.FrameRecorder;
+import com.funtech.gdxar.frame.FrameReplay;
+import com.funtech.gdxar.graphics.GLStateTracker;
+import com.funtech.gdxar.graphics.GpuResourceRegistry;
+import com.funtech.gdxar.test.GdxStub;
+import com.badlogic.gdx.utils.LongArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class CameraSceneTest
+{
+    private final static int        FRAME_COUNT         = 8;
+    private final static int        SCREEN_WIDTH        = 1080;
+    private final static int        SCREEN_HEIGHT       = 1920;
+
+    private TestScene               m_Scene;
+
+    /*
+     *
+     */
+    @BeforeClass
+    public static void initGdx()
+    {
+        GdxStub.init();
+    }
+
+    /*
+     *
+     */
+    @Before
+    public void createScene() throws IOException
+    {
+        m_Scene = new TestScene();
+        m_Scene.create();
+        m_Scene.resize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        m_Scene.setFrameSource(new FrameReplay(new ByteArrayInputStream(record(FRAME_COUNT))));
+    }
+
+    /*
+     *
+     */
+    @After
+    public void disposeScene()
+    {
+        m_Scene.dispose();
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void replaysEveryFrameThroughUpdateAndPasses()
+    {
+        m_Scene.enableAR(true);
+
+        for(int i = 0; i < FRAME_COUNT; i++)
+        {
+            m_Scene.render();
+        }
+
+        assertEquals(FRAME_COUNT, m_Scene.m_Updates.size);
+        assertEquals(FRAME_COUNT, m_Scene.m_iTrackingCalls);
+        assertEquals(FRAME_COUNT, m_Scene.m_iBackgroundCalls);
+        assertEquals(FRAME_COUNT, m_Scene.m_iModelCalls);
+        assertEquals(FRAME_COUNT, m_Scene.m_iHudCalls);
+
+        for(int i = 0; i < FRAME_COUNT; i++)
+        {
+            assertEquals(CountingFrameSource.getTimestamp(i), m_Scene.m_Updates.get(i));
+        }
+
+        // clear, background, opaque, overlay ( fading in ), hud
+        assertEquals(5, m_Scene.getRenderPassGraph().getExecutedCount());
+
+        // end of the recording, the HUD is still drawn
+        m_Scene.render();
+
+        assertEquals(FRAME_COUNT, m_Scene.m_Updates.size);
+        assertEquals(FRAME_COUNT + 1, m_Scene.m_iHudCalls);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void cameraFollowsTheReplayedView()
+    {
+        m_Scene.enableAR(true);
+        m_Scene.render();
+
+        CameraSnapshot  snapshot    = m_Scene.getCameraSnapshot();
+        float           pose[]      = snapshot.getPose();
+        Camera          camera      = m_Scene.getCamera();
+
+        assertEquals(pose[0], camera.position.x, 1e-4f);
+        assertEquals(pose[1], camera.position.y, 1e-4f);
+        assertEquals(pose[2], camera.position.z, 1e-4f);
+        assertEquals(snapshot.getProjectionMatrix()[0], camera.projection.val[0], 0f);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void opaqueFadeSkipsTheModelsButNotTheUpdate()
+    {
+        m_Scene.enableAR(true);
+        m_Scene.render();
+        m_Scene.enableAR(false);
+
+        // fades out by 0.1 per frame from 0.95, opaque at the last frame of the fade
+        int frames = 1;
+
+        while(frames < FRAME_COUNT)
+        {
+            m_Scene.render();
+            frames++;
+
+            if(m_Scene.m_iModelCalls < frames)
+            {
+                break;
+            }
+        }
+
+        assertTrue(frames < FRAME_COUNT);
+        assertEquals(frames, m_Scene.m_Updates.size);
+        assertEquals(frames - 1, m_Scene.m_iModelCalls);
+        assertFalse(m_Scene.getRenderPassGraph().getExecutedCount() > 3);
+
+        // fade done and AR off, no more frames are taken from the source
+        m_Scene.render();
+
+        assertEquals(frames, m_Scene.m_Updates.size);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void textureStateIsUnknownAfterOpaquePass()
+    {
+        m_Scene.m_bTransparent = true;
+        m_Scene.enableAR(true);
+
+        for(int i = 0; i < 2; i++)
+        {
+            m_Scene.render();
+
+            // the texture binder of the model batch went around the tracker
+            assertEquals(0, m_Scene.m_iModelActiveTexture);
+            assertEquals(-1, m_Scene.m_iTransparentActiveTexture);
+        }
+
+        assertEquals(2, m_Scene.m_iModelCalls);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void registryCreatedLateCountsTheHud()
+    {
+        m_Scene.enableAR(true);
+        m_Scene.render();
+        m_Scene.render();
+
+        GpuResourceRegistry registry = m_Scene.getGpuResources();
+
+        // the atlas and the batch of the HUD, created with the scene
+        assertEquals(2, registry.getResourceCount());
+        assertSame(registry, m_Scene.getGpuResources());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void noFrameWhileAROff()
+    {
+        m_Scene.render();
+        m_Scene.render();
+
+        assertEquals(0, m_Scene.m_Updates.size);
+        assertEquals(0, m_Scene.m_iBackgroundCalls);
+        assertEquals(2, m_Scene.m_iHudCalls);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /*
+     *
+     */
+    private static byte[] record(int frameCount) throws IOException
+    {
+        ByteArrayOutputStream   out         = new ByteArrayOutputStream();
+        FrameRecorder           recorder    = new FrameRecorder(new CountingFrameSource(frameCount, -1), out,
+                                                                CountingFrameSource.DISPLAY_ROTATION,
+                                                                CountingFrameSource.DISPLAY_WIDTH,
+                                                                CountingFrameSource.DISPLAY_HEIGHT);
+        CameraSnapshot          snapshot    = new CameraSnapshot();
+
+        while(recorder.update())
+        {
+            snapshot.capture(recorder, 0.1f, 20f);
+        }
+
+        recorder.close();
+
+        return out.toByteArray();
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Counts the calls of the hooks, draws nothing.
+     */
+    private static class TestScene extends CameraScene
+    {
+        final LongArray             m_Updates           = new LongArray();
+        int                         m_iTrackingCalls;
+        int                         m_iBackgroundCalls;
+        int                         m_iModelCalls;
+        int                         m_iHudCalls;
+        boolean                     m_bTransparent;
+        int                         m_iModelActiveTexture;
+        int                         m_iTransparentActiveTexture;
+
+        /*
+         *
+         */
+        @Override
+        protected void renderBackground(CameraFrameSource frameSource, Camera camera)
+        {
+            m_iBackgroundCalls++;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void renderModels(ModelBatch modelBatch)
+        {
+            GLStateTracker stateTracker = getStateTracker();
+
+            // a texture bound through the tracker during the batch, as the background does
+            stateTracker.setActiveTexture(0);
+            stateTracker.bindTexture(GL20.GL_TEXTURE_2D, 1);
+
+            m_iModelActiveTexture = stateTracker.getActiveTexture();
+            m_iModelCalls++;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected boolean hasTransparentContent()
+        {
+            return m_bTransparent;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void renderTransparent(Camera camera)
+        {
+            m_iTransparentActiveTexture = getStateTracker().getActiveTexture();
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void updateTracking(CameraFrameSource frameSource)
+        {
+            m_iTrackingCalls++;
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void update(CameraSnapshot frameSnapshot, float deltaTime)
+        {
+            m_Updates.add(frameSnapshot.getTimestamp());
+        }
+
+        /*
+         *
+         */
+        @Override
+        protected void renderHud()
+        {
+            m_iHudCalls++;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         PlaneBVHTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of PlaneBVH
+ ** PREMISES:       raycastBruteForce() is the reference of the tree
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class PlaneBVHTest
+{
+    private final static float      TOLERANCE           = 1e-4f;
+    private final static float      SQUARE[]            = { -1, -1, 1, -1, 1, 1, -1, 1 };
+    private final static float      TRIANGLE[]          = { -1, -1, 1, -1, -1, 1 };
+
+    private final PlaneBVH          m_Planes            = new PlaneBVH();
+    private final PlaneHit          m_Hit               = new PlaneHit();
+    private final PlaneHit          m_Reference         = new PlaneHit();
+
+    /*
+     *
+     */
+    @Test
+    public void hitsAFloorFromAbove()
+    {
+        m_Planes.update("floor", SQUARE, SQUARE.length, new Matrix4().setToTranslation(2, 1, 0).val);
+
+        assertTrue(m_Planes.raycast(new Ray(new Vector3(2.5f, 5, 0.25f), new Vector3(0, -1, 0)), 100, m_Hit));
+        assertEquals("floor", m_Hit.key);
+        assertEquals(4, m_Hit.distance, TOLERANCE);
+        assertEquals(2.5f, m_Hit.point.x, TOLERANCE);
+        assertEquals(1, m_Hit.point.y, TOLERANCE);
+        assertEquals(0.25f, m_Hit.point.z, TOLERANCE);
+        assertEquals(1, m_Hit.normal.y, TOLERANCE);
+        assertEquals(0.5f, m_Hit.localX, TOLERANCE);
+        assertEquals(0.25f, m_Hit.localZ, TOLERANCE);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void missesOutsideThePolygon()
+    {
+        m_Planes.update("triangle", TRIANGLE, TRIANGLE.length, new Matrix4().val);
+
+        // inside the bounds of the triangle, outside of it
+        assertFalse(m_Planes.raycast(new Ray(new Vector3(0.5f, 1, 0.5f), new Vector3(0, -1, 0)), 100, m_Hit));
+        assertNull(m_Hit.key);
+        // parallel to the plane
+        assertFalse(m_Planes.raycast(new Ray(new Vector3(-2, 0, -0.5f), new Vector3(1, 0, 0)), 100, m_Hit));
+        // behind the origin
+        assertFalse(m_Planes.raycast(new Ray(new Vector3(-0.5f, 1, -0.5f), new Vector3(0, 1, 0)), 100, m_Hit));
+        assertTrue(m_Planes.raycast(new Ray(new Vector3(-0.5f, 1, -0.5f), new Vector3(0, -1, 0)), 100, m_Hit));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void nearestPlaneWins()
+    {
+        m_Planes.update("low", SQUARE, SQUARE.length, new Matrix4().setToTranslation(0, 0, 0).val);
+        m_Planes.update("high", SQUARE, SQUARE.length, new Matrix4().setToTranslation(0, 2, 0).val);
+
+        Ray down    = new Ray(new Vector3(0, 5, 0), new Vector3(0, -1, 0));
+        Ray up      = new Ray(new Vector3(0, -5, 0), new Vector3(0, 1, 0));
+
+        assertTrue(m_Planes.raycast(down, 100, m_Hit));
+        assertEquals("high", m_Hit.key);
+        assertTrue(m_Planes.raycast(up, 100, m_Hit));
+        assertEquals("low", m_Hit.key);
+        // the high plane is beyond the maximum distance
+        assertFalse(m_Planes.raycast(down, 3, m_Hit));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void followsUpdatesAndRemovals()
+    {
+        String  key     = "plane";
+        Ray     down    = new Ray(new Vector3(0, 5, 0), new Vector3(0, -1, 0));
+
+        m_Planes.update(key, SQUARE, SQUARE.length, new Matrix4().val);
+        assertTrue(m_Planes.raycast(down, 100, m_Hit));
+        assertEquals(5, m_Hit.distance, TOLERANCE);
+
+        m_Planes.update(key, SQUARE, SQUARE.length, new Matrix4().setToTranslation(0, 3, 0).val);
+        assertEquals(1, m_Planes.getPlaneCount());
+        assertTrue(m_Planes.raycast(down, 100, m_Hit));
+        assertSame(key, m_Hit.key);
+        assertEquals(2, m_Hit.distance, TOLERANCE);
+
+        m_Planes.remove(key);
+        assertEquals(0, m_Planes.getPlaneCount());
+        assertFalse(m_Planes.raycast(down, 100, m_Hit));
+
+        m_Planes.update(key, SQUARE, SQUARE.length, new Matrix4().val);
+        m_Planes.clear();
+        assertFalse(m_Planes.raycast(down, 100, m_Hit));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void matchesBruteForceOnRandomScenes()
+    {
+        Random random = new Random(0x7e57);
+
+        for(int planeCount = 1; planeCount <= 128; planeCount *= 2)
+        {
+            m_Planes.clear();
+            addRandomPlanes(random, planeCount);
+            assertMatchesBruteForce(random, "planes " + planeCount);
+
+            // remove every other plane, the tree is built again
+            for(int i = 0; i < planeCount; i += 2)
+            {
+                m_Planes.remove(Integer.valueOf(i));
+            }
+
+            assertMatchesBruteForce(random, "planes " + planeCount + " after removals");
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void testsFewerPlanesThanBruteForce()
+    {
+        Random  random      = new Random(0xb0b);
+        int     planeCount  = 128;
+        long    tested      = 0;
+        int     rays        = 1000;
+
+        addRandomPlanes(random, planeCount);
+
+        for(int i = 0; i < rays; i++)
+        {
+            m_Planes.raycast(createRandomRay(random), 100, m_Hit);
+            tested += m_Planes.getTestedPlanes();
+        }
+
+        assertTrue("tested " + tested + " planes", tested < ((long)rays * planeCount) / 4);
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * Convex and concave polygons with random rigid poses, keyed by their index.
+     */
+    private void addRandomPlanes(Random random, int count)
+    {
+        Matrix4     model       = new Matrix4();
+        Quaternion  rotation    = new Quaternion();
+        Vector3     position    = new Vector3();
+        float       polygon[]   = new float[24];
+
+        for(int i = 0; i < count; i++)
+        {
+            rotation.setEulerAngles(random.nextFloat() * 360f, random.nextFloat() * 360f, random.nextFloat() * 360f);
+            position.set(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+            model.set(position, rotation);
+
+            int vertices = 3 + random.nextInt(10);
+
+            for(int v = 0; v < vertices; v++)
+            {
+                double  angle   = (2 * Math.PI * v) / vertices;
+                float   radius  = 0.2f + (2f * random.nextFloat());
+
+                polygon[(v * 2)]        = (float)Math.cos(angle) * radius;
+                polygon[(v * 2) + 1]    = (float)Math.sin(angle) * radius;
+            }
+
+            m_Planes.update(Integer.valueOf(i), polygon, vertices * 2, model.val);
+        }
+    }
+
+    /*
+     *
+     */
+    private void assertMatchesBruteForce(Random random, String scene)
+    {
+        for(int i = 0; i < 2000; i++)
+        {
+            Ray     ray         = createRandomRay(random);
+            boolean isHit       = m_Planes.raycast(ray, 100, m_Hit);
+            boolean isReference = m_Planes.raycastBruteForce(ray, 100, m_Reference);
+
+            if( (isHit != isReference)
+                || (isHit && ( (m_Hit.key != m_Reference.key)
+                               || (Math.abs(m_Hit.distance - m_Reference.distance) > TOLERANCE) )) )
+            {
+                fail(scene + ", ray " + i + ": " + m_Hit.key + " at " + m_Hit.distance
+                     + ", brute force " + m_Reference.key + " at " + m_Reference.distance);
+            }
+        }
+    }
+
+    /*
+     *
+     */
+    private static Ray createRandomRay(Random random)
+    {
+        Vector3 origin  = new Vector3(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+        Vector3 target  = new Vector3(randomCoordinate(random), randomCoordinate(random), randomCoordinate(random));
+
+        return new Ray(origin, target.sub(origin).nor());
+    }
+
+    /*
+     *
+     */
+    private static float randomCoordinate(Random random)
+    {
+        return ((random.nextFloat() * 2f) - 1f) * 10f;
+    }
+}
@@ -0,0 +1,196 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         TripleBufferTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of TripleBuffer
+ ** PREMISES:
+ ** REMARKS:        The concurrent test writes each value twice in the producer's buffer, a
+ **                 buffer shared with the consumer shows up as two different values
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.scene;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+public class TripleBufferTest
+{
+    private final static int        PUBLISH_COUNT       = 100000;
+
+    /*
+     *
+     */
+    @Test
+    public void acquireKeepsTheFrontUntilAPublish()
+    {
+        Sample                  first   = new Sample();
+        Sample                  second  = new Sample();
+        Sample                  third   = new Sample();
+        TripleBuffer<Sample>    buffer  = new TripleBuffer<Sample>(first, second, third);
+
+        assertFalse(buffer.hasNew());
+        assertSame(third, buffer.acquire());
+        assertSame(first, buffer.getWriteBuffer());
+
+        buffer.publish();
+
+        assertTrue(buffer.hasNew());
+        assertSame(first, buffer.acquire());
+        assertFalse(buffer.hasNew());
+        assertSame(first, buffer.acquire());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void latestPublishWins()
+    {
+        TripleBuffer<Sample> buffer = new TripleBuffer<Sample>(new Sample(), new Sample(), new Sample());
+
+        buffer.getWriteBuffer().set(1);
+        buffer.publish();
+        buffer.getWriteBuffer().set(2);
+        buffer.publish();
+        buffer.getWriteBuffer().set(3);
+        buffer.publish();
+
+        assertEquals(3, buffer.acquire().m_lFirst);
+        assertFalse(buffer.hasNew());
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void producerNeverGetsTheConsumerBuffer()
+    {
+        Random                  random  = new Random(3);
+        TripleBuffer<Sample>    buffer  = new TripleBuffer<Sample>(new Sample(), new Sample(), new Sample());
+        Sample                  front   = buffer.acquire();
+
+        for(int i = 0; i < 10000; i++)
+        {
+            if(random.nextBoolean())
+            {
+                buffer.publish();
+            }
+            else
+            {
+                front = buffer.acquire();
+            }
+
+            assertNotSame(front, buffer.getWriteBuffer());
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void consumerSeesWholeAndOrderedBuffers() throws InterruptedException
+    {
+        final TripleBuffer<Sample>          buffer  = new TripleBuffer<Sample>(new Sample(), new Sample(), new Sample());
+        final AtomicReference<String>       error   = new AtomicReference<String>();
+
+        Thread producer = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for(long value = 1; value <= PUBLISH_COUNT; value++)
+                {
+                    buffer.getWriteBuffer().set(value);
+                    buffer.publish();
+                }
+            }
+        });
+
+        producer.start();
+
+        long last = 0;
+
+        while(last < PUBLISH_COUNT)
+        {
+            Sample sample = buffer.acquire();
+
+            if(sample.m_lFirst != sample.m_lSecond)
+            {
+                error.set("torn buffer " + sample.m_lFirst + " / " + sample.m_lSecond);
+                break;
+            }
+
+            if(sample.m_lFirst < last)
+            {
+                error.set("went back from " + last + " to " + sample.m_lFirst);
+                break;
+            }
+
+            last = sample.m_lFirst;
+
+            if(!buffer.hasNew())
+            {
+                Thread.yield();
+            }
+
+            if(!producer.isAlive() && !buffer.hasNew() && (last < PUBLISH_COUNT))
+            {
+                error.set("last value never acquired, got " + last);
+                break;
+            }
+        }
+
+        producer.join();
+
+        assertNull(error.get(), error.get());
+    }
+
+
+
+    /********************************************************************************
+     *                              CLASSES                                         *
+     ********************************************************************************/
+
+    /**
+     * Written field by field, a reader sharing the buffer can see them differ.
+     */
+    private static class Sample
+    {
+        long m_lFirst;
+        long m_lSecond;
+
+        void set(long value)
+        {
+            m_lFirst    = value;
+            m_lSecond   = value;
+        }
+    }
+}
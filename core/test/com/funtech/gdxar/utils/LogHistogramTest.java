@@ -0,0 +1,231 @@
+/********************************************************************************
+ ********************************************************************************
+ ** COPYRIGHT:      (c) 2018 Farell Leiking
+ ** LICENSE:        Licensed under the Apache License, Version 2.0 (the "License");
+ **                 you may not use this file except in compliance with the License.
+ **                 You may obtain a copy of the License at
+ **
+ **                     https://www.apache.org/licenses/LICENSE-2.0
+ **
+ **                 Unless required by applicable law or agreed to in writing, software
+ **                 distributed under the License is distributed on an "AS IS" BASIS,
+ **                 WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ **                 See the License for the specific language governing permissions and
+ **                 limitations under the License.
+ **
+ ** MODULE:         LogHistogramTest.java
+ ** ABBREVIATION:
+ ** COMPILER:       Android Studio 2.3.3
+ ** LANGUAGE:       Java
+ ** AUTHOR:
+ ** ABSTRACT:       Unit tests of LogHistogram
+ ** PREMISES:       16 linear buckets per power of two
+ ** REMARKS:
+ ** HISTORY:        2026-10-18 : Creation
+ ** REVIEW:
+ ********************************************************************************/
+
+package com.funtech.gdxar.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class LogHistogramTest
+{
+    private final static long       HIGHEST_VALUE       = 1000000L;
+
+    /*
+     *
+     */
+    @Test
+    public void smallValuesHaveTheirOwnBucket()
+    {
+        for(int value = 0; value < 16; value++)
+        {
+            assertEquals(value, LogHistogram.getBucketIndex(value));
+            assertEquals(value, LogHistogram.getBucketLowerBound(value));
+            assertEquals(value, LogHistogram.getBucketUpperBound(value));
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void bucketsAreContiguousAndTight()
+    {
+        int last = LogHistogram.getBucketIndex(Long.MAX_VALUE);
+
+        for(int index = 0; index < last; index++)
+        {
+            long lower = LogHistogram.getBucketLowerBound(index);
+            long upper = LogHistogram.getBucketUpperBound(index);
+
+            assertEquals(upper + 1, LogHistogram.getBucketLowerBound(index + 1));
+            // at most a sixteenth of the value wide
+            assertTrue("bucket " + index, (upper - lower) <= (lower / 16));
+        }
+
+        assertEquals(Long.MAX_VALUE, LogHistogram.getBucketUpperBound(last));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void valuesFallInTheirBucket()
+    {
+        Random random = new Random(11);
+
+        for(int i = 0; i < 100000; i++)
+        {
+            long    value   = (i < 50000) ? i : (random.nextLong() >>> (1 + random.nextInt(63)));
+            int     index   = LogHistogram.getBucketIndex(value);
+
+            assertTrue(value + " above its bucket", LogHistogram.getBucketLowerBound(index) <= value);
+            assertTrue(value + " below its bucket", LogHistogram.getBucketUpperBound(index) >= value);
+        }
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void recordsTotalsAndClampsValues()
+    {
+        LogHistogram histogram = new LogHistogram(HIGHEST_VALUE);
+
+        histogram.record(-5);
+        histogram.record(100);
+        histogram.record(HIGHEST_VALUE * 10);
+
+        long counts[] = new long[histogram.getBucketCount()];
+
+        assertEquals(LogHistogram.getBucketIndex(HIGHEST_VALUE) + 1, histogram.getBucketCount());
+        assertEquals(3, histogram.copyCounts(counts));
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(HIGHEST_VALUE * 10, histogram.getMaxValue());
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[LogHistogram.getBucketIndex(100)]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(LogHistogram.getBucketUpperBound(counts.length - 1), LogHistogram.getHighestValue(counts));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void percentilesAreUpperBounds()
+    {
+        LogHistogram histogram = new LogHistogram(HIGHEST_VALUE);
+
+        for(int value = 1; value <= 1000; value++)
+        {
+            histogram.record(value);
+        }
+
+        long counts[]   = new long[histogram.getBucketCount()];
+        long total      = histogram.copyCounts(counts);
+
+        assertPercentile(counts, total, 0, 1);
+        assertPercentile(counts, total, 50, 500);
+        assertPercentile(counts, total, 99, 990);
+        assertPercentile(counts, total, 100, 1000);
+        assertEquals(0, LogHistogram.getValueAtPercentile(new long[counts.length], 0, 50));
+        assertEquals(0, LogHistogram.getHighestValue(new long[counts.length]));
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void differenceOfCopiesGivesAWindow()
+    {
+        LogHistogram    histogram   = new LogHistogram(HIGHEST_VALUE);
+        long            before[]    = new long[histogram.getBucketCount()];
+        long            after[]     = new long[histogram.getBucketCount()];
+
+        for(int i = 0; i < 1000; i++)
+        {
+            histogram.record(10);
+        }
+
+        long totalBefore = histogram.copyCounts(before);
+
+        for(int i = 0; i < 10; i++)
+        {
+            histogram.record(5000);
+        }
+
+        long totalAfter = histogram.copyCounts(after);
+
+        for(int i = 0; i < after.length; i++)
+        {
+            after[i] -= before[i];
+        }
+
+        assertPercentile(after, totalAfter - totalBefore, 50, 5000);
+    }
+
+    /*
+     *
+     */
+    @Test
+    public void recordsFromManyThreads() throws InterruptedException
+    {
+        final LogHistogram  histogram   = new LogHistogram(HIGHEST_VALUE);
+        final int           perThread   = 50000;
+        Thread              threads[]   = new Thread[4];
+
+        for(int t = 0; t < threads.length; t++)
+        {
+            final long seed = t;
+
+            threads[t] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Random random = new Random(seed);
+
+                    for(int i = 0; i < perThread; i++)
+                    {
+                        histogram.record(random.nextInt((int)HIGHEST_VALUE));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for(int t = 0; t < threads.length; t++)
+        {
+            threads[t].join();
+        }
+
+        long counts[] = new long[histogram.getBucketCount()];
+
+        assertEquals(threads.length * perThread, histogram.getTotalCount());
+        assertEquals(threads.length * perThread, histogram.copyCounts(counts));
+    }
+
+
+
+    /********************************************************************************
+     *                              PRIVATE                                         *
+     ********************************************************************************/
+
+    /**
+     * The percentile is reported as the upper bound of the bucket of the exact value.
+     */
+    private static void assertPercentile(long counts[], long total, double percentile, long exact)
+    {
+        long value = LogHistogram.getValueAtPercentile(counts, total, percentile);
+
+        assertEquals("p" + percentile, LogHistogram.getBucketUpperBound(LogHistogram.getBucketIndex(exact)), value);
+    }
+}